@@ -9,6 +9,7 @@ plugins {
     alias(libs.plugins.errorprone) apply false
     alias(libs.plugins.nullaway) apply false
     alias(libs.plugins.spotbugs) apply false
+    alias(libs.plugins.jmh) apply false
 }
 
 group = "com.vertyll"
@@ -1,5 +1,8 @@
+import net.ltgt.gradle.errorprone.errorprone
+
 plugins {
     id("java-library")
+    alias(libs.plugins.jmh)
 }
 
 dependencies {
@@ -12,6 +15,7 @@ dependencies {
 
     // Implementation
     implementation(libs.httpclient5)
+    implementation(libs.micrometer.core)
 
     // Compile Only
     compileOnly(libs.lombok)
@@ -29,4 +33,22 @@ dependencies {
 
     // Test Implementation
     testImplementation(libs.bundles.spring.boot.test.common)
+    testImplementation(libs.bundles.testcontainers)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+}
+
+// Benchmarks are not production code: skip PMD and SpotBugs on them and Error Prone on the generated harness
+tasks.named<JavaCompile>("jmhCompileGeneratedClasses") {
+    options.errorprone.enabled.set(false)
+}
+
+tasks.matching { it.name == "pmdJmh" || it.name == "spotbugsJmh" }.configureEach {
+    enabled = false
 }
@@ -0,0 +1,94 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.vertyll.freshly.airquality.domain.Station;
+import com.vertyll.freshly.airquality.domain.StationDistance;
+
+/**
+ * Compares the old linear haversine scan of {@code findNearestStations} with {@link StationSpatialIndex}, for a
+ * 10 km radius query and a k = 5 query around Warsaw. Run with {@code ./gradlew :modules:airquality:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StationSpatialIndexBenchmark {
+
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double LATITUDE = 52.2297;
+    private static final double LONGITUDE = 21.0122;
+    private static final double RADIUS_KM = 10;
+    private static final int K = 5;
+
+    /** Roughly the GIOŚ catalog today, and with a few more sensor networks added */
+    @Param({"300", "5000"})
+    public int stationCount;
+
+    private List<Station> stations;
+    private StationSpatialIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        stations = new ArrayList<>();
+        for (int i = 0; i < stationCount; i++) {
+            double latitude = 49 + random.nextDouble() * 6;
+            double longitude = 14 + random.nextDouble() * 10;
+            stations.add(new Station(i, "Station " + i, "City", "Street", latitude, longitude));
+        }
+        index = StationSpatialIndex.build(stations);
+    }
+
+    @Benchmark
+    public List<StationDistance> radiusLinear() {
+        List<StationDistance> result = new ArrayList<>();
+        for (Station station : stations) {
+            double distance = haversine(station);
+            if (distance <= RADIUS_KM) {
+                result.add(new StationDistance(station, distance));
+            }
+        }
+        result.sort(Comparator.comparingDouble(StationDistance::distanceInKm));
+        return result;
+    }
+
+    @Benchmark
+    public List<StationDistance> radiusIndexed() {
+        return index.withinRadius(LATITUDE, LONGITUDE, RADIUS_KM);
+    }
+
+    @Benchmark
+    public List<StationDistance> nearestLinear() {
+        return stations.stream()
+            .map(station -> new StationDistance(station, haversine(station)))
+            .sorted(Comparator.comparingDouble(StationDistance::distanceInKm))
+            .limit(K)
+            .toList();
+    }
+
+    @Benchmark
+    public List<StationDistance> nearestIndexed() {
+        return index.nearest(LATITUDE, LONGITUDE, K, Double.POSITIVE_INFINITY);
+    }
+
+    private static double haversine(Station station) {
+        double dLat = Math.toRadians(station.latitude() - LATITUDE);
+        double dLon = Math.toRadians(station.longitude() - LONGITUDE);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(LATITUDE))
+                * Math.cos(Math.toRadians(station.latitude())) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
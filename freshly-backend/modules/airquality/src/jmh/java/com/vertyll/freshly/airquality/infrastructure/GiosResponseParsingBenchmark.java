@@ -0,0 +1,154 @@
+package com.vertyll.freshly.airquality.infrastructure;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.vertyll.freshly.airquality.domain.SensorMeasurement;
+import com.vertyll.freshly.airquality.infrastructure.GiosApiDtos.GiosDataValueDto;
+import com.vertyll.freshly.airquality.infrastructure.GiosApiDtos.GiosStationDto;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Compares the old {@code String} + {@code readTree} + {@code findPath} parsing of GIOŚ payloads with the
+ * single-pass {@link GiosResponseReader}, on a {@code findAll} stations list and an archival readings list.
+ * Run with {@code ./gradlew :modules:airquality:jmh}; the {@code gc} profiler reports allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GiosResponseParsingBenchmark {
+
+    private static final Set<String> STATIONS_LIST_KEYS =
+            Set.of("Lista stacji pomiarowych", "lista", "list", "data");
+    private static final Set<String> READINGS_LIST_KEYS =
+            Set.of("Lista danych pomiarowych", "values", "Dane pomiarowe", "lista", "data");
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /** 1 is roughly a live {@code findAll}/{@code getData} response, 10 a large archival download */
+    @Param({"1", "10"})
+    public int payloadScale;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GiosResponseReader responseReader = new GiosResponseReader(objectMapper);
+
+    private byte[] stationsPayload;
+    private byte[] readingsPayload;
+
+    @Setup
+    public void setUp() {
+        int stationCount = 300 * payloadScale;
+        int readingCount = 2000 * payloadScale;
+
+        StringBuilder stations = new StringBuilder("{\"links\":{},\"Lista stacji pomiarowych\":[");
+        for (int i = 0; i < stationCount; i++) {
+            if (i > 0) {
+                stations.append(',');
+            }
+            stations.append("{\"Identyfikator stacji\":")
+                .append(i)
+                .append(",\"Kod stacji\":\"PL")
+                .append(i)
+                .append("\",\"Nazwa stacji\":\"Stacja ")
+                .append(i)
+                .append("\",\"WGS84 φ N\":\"52.")
+                .append(i)
+                .append("\",\"WGS84 λ E\":\"21.")
+                .append(i)
+                .append("\",\"Nazwa miasta\":\"Miasto\",\"Ulica\":\"ul. Testowa ")
+                .append(i)
+                .append("\"}");
+        }
+        stationsPayload = stations.append("],\"totalPages\":1}").toString().getBytes(StandardCharsets.UTF_8);
+
+        StringBuilder readings = new StringBuilder("{\"links\":{},\"Lista archiwalnych wyników pomiarów\":{},");
+        readings.append("\"Lista danych pomiarowych\":[");
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < readingCount; i++) {
+            if (i > 0) {
+                readings.append(',');
+            }
+            readings.append("{\"Kod stanowiska\":\"PL-PM10\",\"Data\":\"")
+                .append(start.plusHours(i).format(DATE_TIME_FORMATTER))
+                .append("\",\"Wartość\":")
+                .append(i % 7 == 0 ? "null" : String.valueOf(10 + i % 50 / 3.0))
+                .append('}');
+        }
+        readingsPayload = readings.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<GiosStationDto> stationsTree() {
+        JsonNode root = objectMapper.readTree(new String(stationsPayload, StandardCharsets.UTF_8));
+        JsonNode listNode = root.findPath("Lista stacji pomiarowych");
+        if (listNode.isMissingNode())
+            listNode = root.findPath("lista");
+        if (listNode.isMissingNode())
+            listNode = root.findPath("list");
+        if (listNode.isMissingNode())
+            listNode = root.findPath("data");
+        return objectMapper.readerForListOf(GiosStationDto.class).readValue(listNode);
+    }
+
+    @Benchmark
+    public List<GiosStationDto> stationsStreaming() {
+        return responseReader.readList(
+            new ByteArrayInputStream(stationsPayload),
+            GiosStationDto.class,
+            STATIONS_LIST_KEYS,
+            true,
+            dto -> dto
+        );
+    }
+
+    @Benchmark
+    public List<SensorMeasurement.Reading> readingsTree() {
+        JsonNode root = objectMapper.readTree(new String(readingsPayload, StandardCharsets.UTF_8));
+        JsonNode valuesNode = root.findPath("Lista danych pomiarowych");
+        if (valuesNode.isMissingNode())
+            valuesNode = root.findPath("values");
+        if (valuesNode.isMissingNode())
+            valuesNode = root.findPath("Dane pomiarowe");
+        if (valuesNode.isMissingNode())
+            valuesNode = root.findPath("lista");
+        if (valuesNode.isMissingNode())
+            valuesNode = root.findPath("data");
+
+        List<GiosDataValueDto> values = objectMapper.readerForListOf(GiosDataValueDto.class).readValue(valuesNode);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        return values.stream()
+            .filter(v -> v.value() != null)
+            .map(v -> new SensorMeasurement.Reading(LocalDateTime.parse(v.date(), formatter), v.value()))
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    @Benchmark
+    public List<SensorMeasurement.Reading> readingsStreaming() {
+        return responseReader.readList(
+            new ByteArrayInputStream(readingsPayload),
+            GiosDataValueDto.class,
+            READINGS_LIST_KEYS,
+            false,
+            dto -> dto.value() != null
+                    ? new SensorMeasurement.Reading(LocalDateTime.parse(dto.date(), DATE_TIME_FORMATTER), dto.value())
+                    : null
+        );
+    }
+}
@@ -1,17 +1,37 @@
 package com.vertyll.freshly.airquality.api;
 
+import java.beans.PropertyEditorSupport;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.jspecify.annotations.Nullable;
 import org.springframework.context.MessageSource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import com.vertyll.freshly.airquality.api.dto.AirQualityIndexResponseDto;
 import com.vertyll.freshly.airquality.api.dto.AirQualityMeasurementResponseDto;
@@ -20,16 +40,27 @@ import com.vertyll.freshly.airquality.api.dto.SensorMeasurementResponseDto;
 import com.vertyll.freshly.airquality.api.dto.StationDistanceResponseDto;
 import com.vertyll.freshly.airquality.api.dto.StationRankingResponseDto;
 import com.vertyll.freshly.airquality.api.dto.StationResponseDto;
+import com.vertyll.freshly.airquality.api.dto.SyncJobResponseDto;
 import com.vertyll.freshly.airquality.api.mapper.AirQualityDtoMapper;
 import com.vertyll.freshly.airquality.application.AirQualityService;
 import com.vertyll.freshly.airquality.application.AirQualitySyncService;
 import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+import com.vertyll.freshly.airquality.domain.AirQualityIndex;
+import com.vertyll.freshly.airquality.domain.DownsamplingMethod;
+import com.vertyll.freshly.airquality.domain.LiveReading;
+import com.vertyll.freshly.airquality.domain.MeasurementCursor;
+import com.vertyll.freshly.airquality.domain.MeasurementPage;
 import com.vertyll.freshly.airquality.domain.SensorMeasurement;
 import com.vertyll.freshly.airquality.domain.Station;
 import com.vertyll.freshly.airquality.domain.StationDistance;
 import com.vertyll.freshly.airquality.domain.StationRanking;
+import com.vertyll.freshly.airquality.domain.SyncJob;
 import com.vertyll.freshly.airquality.domain.exception.AirQualityDataNotFoundException;
+import com.vertyll.freshly.airquality.domain.exception.InvalidDateRangeException;
+import com.vertyll.freshly.airquality.domain.exception.SyncDisabledException;
+import com.vertyll.freshly.airquality.domain.exception.SyncJobNotFoundException;
 import com.vertyll.freshly.common.response.ApiResponse;
+import com.vertyll.freshly.common.response.CursorPageResponse;
 
 import lombok.RequiredArgsConstructor;
 
@@ -41,48 +72,133 @@ public class AirQualityController {
     private static final String SUCCESS_STATIONS_FETCHED_MSG_KEY = "success.airquality.stationsFetched";
     private static final String SUCCESS_INDEX_FETCHED_MSG_KEY = "success.airquality.indexFetched";
     private static final String SUCCESS_MEASUREMENTS_FETCHED_MSG_KEY = "success.airquality.measurementsFetched";
+    private static final String SUCCESS_STALE_INDEX_FETCHED_MSG_KEY = "success.airquality.staleIndexFetched";
+    private static final String SUCCESS_STALE_MEASUREMENTS_FETCHED_MSG_KEY =
+            "success.airquality.staleMeasurementsFetched";
     private static final String SUCCESS_LATEST_FETCHED_MSG_KEY = "success.airquality.latestFetched";
     private static final String SUCCESS_HISTORY_FETCHED_MSG_KEY = "success.airquality.historyFetched";
     private static final String SUCCESS_SYNC_TRIGGERED_MSG_KEY = "success.airquality.syncTriggered";
     private static final String SUCCESS_NEAREST_FETCHED_MSG_KEY = "success.airquality.nearestFetched";
+    private static final String SUCCESS_BOUNDS_FETCHED_MSG_KEY = "success.airquality.boundsFetched";
+    private static final String SUCCESS_RANGE_FETCHED_MSG_KEY = "success.airquality.rangeFetched";
     private static final String SUCCESS_STATISTICS_FETCHED_MSG_KEY = "success.airquality.statisticsFetched";
     private static final String SUCCESS_RANKING_FETCHED_MSG_KEY = "success.airquality.rankingFetched";
+    private static final String SUCCESS_SYNC_JOB_FETCHED_MSG_KEY = "success.airquality.syncJobFetched";
+
+    private static final String STATIONS_ETAG_PREFIX = "stations-";
+    private static final String LATEST_ETAG_PREFIX = "latest-";
+    private static final String STALE_HEADER = "X-Data-Stale";
 
-    private static final String SYNC_TRIGGERED = "Synchronization triggered";
     private static final String DEFAULT_DAYS = "7";
-    private static final String DEFAULT_RADIUS = "10";
+    private static final double DEFAULT_RADIUS_KM = 10;
+    private static final int DEFAULT_BOUNDS_HOURS = 24;
     private static final String DEFAULT_LIMIT = "10";
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final String DEFAULT_DOWNSAMPLING = "AVERAGE";
+    private static final String DEFAULT_EXPORT_FORMAT = "NDJSON";
+    private static final String EXPORT_FILE_NAME = "measurements";
+    private static final String GZIP_ENCODING = "gzip";
+    private static final String X_GZIP_ENCODING = "x-gzip";
+    private static final String ANY_ENCODING = "*";
+    private static final String QUALITY_PARAMETER = "q=";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    /** Long enough for a full-range export, unlike the default async timeout of other requests */
+    private static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(30);
 
     private final AirQualityService airQualityService;
     private final Optional<AirQualitySyncService> syncService;
     private final AirQualityDtoMapper dtoMapper;
     private final MessageSource messageSource;
+    private final MeasurementExportWriter exportWriter;
+
+    /** Lets clients name the export format in any case, e.g. {@code format=csv} */
+    @InitBinder
+    public void initBinder(WebDataBinder binder) {
+        binder.registerCustomEditor(MeasurementExportFormat.class, new PropertyEditorSupport() {
+            @Override
+            public void setAsText(String text) {
+                setValue(MeasurementExportFormat.fromParameter(text));
+            }
+        });
+    }
 
-    /** Get a list of all air quality stations */
+    /**
+     * Get a list of all air quality stations. The ETag carries the station catalog generation, so
+     * clients revalidating with If-None-Match get a 304 until the catalog changes.
+     */
     @GetMapping("/stations")
-    public ResponseEntity<ApiResponse<List<StationResponseDto>>> getStations() {
+    public ResponseEntity<ApiResponse<List<StationResponseDto>>> getStations(WebRequest webRequest) {
+        // Generation first: if the catalog changes in between, the body is newer than the ETag, never older
+        String eTag = STATIONS_ETAG_PREFIX + airQualityService.getStationsGeneration();
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         List<Station> stations = airQualityService.getAllStations();
         List<StationResponseDto> response = dtoMapper.toStationResponseList(stations);
         return ApiResponse.buildResponse(response, SUCCESS_STATIONS_FETCHED_MSG_KEY, messageSource, HttpStatus.OK);
     }
 
-    /** Get the current air quality index (live from GIOŚ API) */
+    /**
+     * Get the current air quality index (live from GIOŚ API). While GIOŚ is unavailable the stored
+     * index is returned with an {@code X-Data-Stale: true} header.
+     */
     @GetMapping("/stations/{stationId}/index")
     public ResponseEntity<ApiResponse<AirQualityIndexResponseDto>> getIndex(@PathVariable int stationId) {
-        return airQualityService.getIndexForStation(stationId).map(index -> {
-            AirQualityIndexResponseDto response = dtoMapper.toAirQualityIndexResponse(index);
-            return ApiResponse.buildResponse(response, SUCCESS_INDEX_FETCHED_MSG_KEY, messageSource, HttpStatus.OK);
-        }).orElseThrow(() -> new AirQualityDataNotFoundException(stationId));
+        LiveReading<AirQualityIndex> index = airQualityService.getIndexForStation(stationId)
+            .orElseThrow(() -> new AirQualityDataNotFoundException(stationId));
+        AirQualityIndexResponseDto response = dtoMapper.toAirQualityIndexResponse(index.value());
+        String messageKey = index.stale() ? SUCCESS_STALE_INDEX_FETCHED_MSG_KEY : SUCCESS_INDEX_FETCHED_MSG_KEY;
+        return markIfStale(ApiResponse.buildResponse(response, messageKey, messageSource, HttpStatus.OK), index);
     }
 
-    /** Get current sensor measurements (live from GIOŚ API) */
+    /**
+     * Get current sensor measurements (live from GIOŚ API). While GIOŚ is unavailable the stored
+     * readings are returned with an {@code X-Data-Stale: true} header.
+     */
     @GetMapping("/stations/{stationId}/sensors")
     public ResponseEntity<ApiResponse<List<SensorMeasurementResponseDto>>> getMeasurements(
         @PathVariable int stationId
     ) {
-        List<SensorMeasurement> measurements = airQualityService.getMeasurementsForStation(stationId);
-        List<SensorMeasurementResponseDto> response = dtoMapper.toSensorMeasurementResponseList(measurements);
-        return ApiResponse.buildResponse(response, SUCCESS_MEASUREMENTS_FETCHED_MSG_KEY, messageSource, HttpStatus.OK);
+        LiveReading<List<SensorMeasurement>> measurements = airQualityService.getMeasurementsForStation(stationId);
+        List<SensorMeasurementResponseDto> response = dtoMapper.toSensorMeasurementResponseList(measurements.value());
+        String messageKey = measurements.stale() ? SUCCESS_STALE_MEASUREMENTS_FETCHED_MSG_KEY
+                : SUCCESS_MEASUREMENTS_FETCHED_MSG_KEY;
+        return markIfStale(ApiResponse.buildResponse(response, messageKey, messageSource, HttpStatus.OK), measurements);
+    }
+
+    private static <T> ResponseEntity<T> markIfStale(ResponseEntity<T> response, LiveReading<?> reading) {
+        if (!reading.stale()) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+            .headers(response.getHeaders())
+            .header(STALE_HEADER, Boolean.TRUE.toString())
+            .body(response.getBody());
+    }
+
+    /**
+     * Get the latest measurement of every station in one response, for the map view. The ETag
+     * carries the version of the latest measurements, so clients revalidating with If-None-Match get
+     * a 304 until a sync run writes new ones.
+     *
+     * @param ids
+     *     Only these stations, e.g. {@code ids=114,117}; all stations when omitted
+     */
+    @GetMapping("/stations/latest")
+    public ResponseEntity<ApiResponse<List<AirQualityMeasurementResponseDto>>> getLatestMeasurements(
+        @RequestParam(required = false) @Nullable List<Integer> ids,
+        WebRequest webRequest
+    ) {
+        // Version first: if a sync batch lands in between, the body is newer than the ETag, never older
+        String eTag = LATEST_ETAG_PREFIX + airQualityService.getLatestMeasurementsVersion();
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<AirQualityMeasurement> measurements = airQualityService.getLatestMeasurements(ids);
+        List<AirQualityMeasurementResponseDto> response = dtoMapper.toAirQualityMeasurementResponseList(measurements);
+        return ApiResponse.buildResponse(response, SUCCESS_LATEST_FETCHED_MSG_KEY, messageSource, HttpStatus.OK);
     }
 
     /**
@@ -106,26 +222,224 @@ public class AirQualityController {
      *     Station ID
      * @param days
      *     Number of days to look back (default 7, max 90)
+     * @param points
+     *     Downsample to at most this many chart points (min 3, max 2000); every measurement without it
+     * @param method
+     *     How to downsample: AVERAGE, MIN or MAX per time bucket (default AVERAGE), or LTTB
      */
     @GetMapping("/stations/{stationId}/history")
     public ResponseEntity<ApiResponse<List<AirQualityMeasurementResponseDto>>> getHistory(
         @PathVariable int stationId,
-        @RequestParam(defaultValue = DEFAULT_DAYS) int days
+        @RequestParam(defaultValue = DEFAULT_DAYS) int days,
+        @RequestParam(required = false) @Nullable Integer points,
+        @RequestParam(defaultValue = DEFAULT_DOWNSAMPLING) DownsamplingMethod method
     ) {
-        List<AirQualityMeasurement> history = airQualityService.getHistoricalMeasurements(stationId, days);
+        List<AirQualityMeasurement> history = points != null
+                ? airQualityService.getHistoricalMeasurements(stationId, days, points, method)
+                : airQualityService.getHistoricalMeasurements(stationId, days);
         List<AirQualityMeasurementResponseDto> response = dtoMapper.toAirQualityMeasurementResponseList(history);
         return ApiResponse.buildResponse(response, SUCCESS_HISTORY_FETCHED_MSG_KEY, messageSource, HttpStatus.OK);
     }
 
+    /**
+     * Get a station's history one page at a time, newest first
+     *
+     * @param days
+     *     Number of days to look back (default 7, max 90)
+     * @param size
+     *     Number of measurements per page (default 100, max 1000)
+     * @param pageToken
+     *     {@code nextPageToken} of the previous page, none for the first page
+     */
+    @GetMapping("/stations/{stationId}/measurements")
+    public ResponseEntity<ApiResponse<CursorPageResponse<AirQualityMeasurementResponseDto>>> getHistoryPage(
+        @PathVariable int stationId,
+        @RequestParam(defaultValue = DEFAULT_DAYS) int days,
+        @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size,
+        @RequestParam(required = false) @Nullable String pageToken
+    ) {
+        MeasurementPage page = airQualityService.getHistoricalMeasurementsPage(
+            stationId,
+            days,
+            pageToken != null ? MeasurementCursor.fromToken(pageToken) : null,
+            size
+        );
+        CursorPageResponse<AirQualityMeasurementResponseDto> response = dtoMapper.toMeasurementPageResponse(page);
+        return ApiResponse.buildResponse(response, SUCCESS_HISTORY_FETCHED_MSG_KEY, messageSource, HttpStatus.OK);
+    }
+
+    /**
+     * Get measurements of all stations within a time range one page at a time, newest first
+     *
+     * @param from
+     *     Start of the time range, inclusive
+     * @param to
+     *     End of the time range, exclusive
+     * @param size
+     *     Number of measurements per page (default 100, max 1000)
+     * @param pageToken
+     *     {@code nextPageToken} of the previous page, none for the first page
+     */
+    @GetMapping("/measurements")
+    public ResponseEntity<ApiResponse<CursorPageResponse<AirQualityMeasurementResponseDto>>> getMeasurementsPage(
+        @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size,
+        @RequestParam(required = false) @Nullable String pageToken
+    ) {
+        MeasurementPage page = airQualityService.getMeasurementsPage(
+            from,
+            to,
+            pageToken != null ? MeasurementCursor.fromToken(pageToken) : null,
+            size
+        );
+        CursorPageResponse<AirQualityMeasurementResponseDto> response = dtoMapper.toMeasurementPageResponse(page);
+        return ApiResponse.buildResponse(response, SUCCESS_RANGE_FETCHED_MSG_KEY, messageSource, HttpStatus.OK);
+    }
+
+    /**
+     * Get measurements of all stations inside a bounding box (for the map view)
+     *
+     * @param from
+     *     Start of the time window (default 24 hours before {@code to})
+     * @param to
+     *     End of the time window (default now)
+     */
+    @GetMapping("/measurements/bbox")
+    public ResponseEntity<ApiResponse<List<AirQualityMeasurementResponseDto>>> getMeasurementsInBounds(
+        @RequestParam double minLat,
+        @RequestParam double maxLat,
+        @RequestParam double minLon,
+        @RequestParam double maxLon,
+        @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) @Nullable LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) @Nullable LocalDateTime to
+    ) {
+        LocalDateTime windowEnd = to != null ? to : LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime windowStart = from != null ? from : windowEnd.minusHours(DEFAULT_BOUNDS_HOURS);
+
+        List<AirQualityMeasurement> measurements =
+                airQualityService.getMeasurementsInBounds(minLat, maxLat, minLon, maxLon, windowStart, windowEnd);
+        List<AirQualityMeasurementResponseDto> response = dtoMapper.toAirQualityMeasurementResponseList(measurements);
+        return ApiResponse.buildResponse(response, SUCCESS_BOUNDS_FETCHED_MSG_KEY, messageSource, HttpStatus.OK);
+    }
+
+    /**
+     * Export measurements of all stations as a file, streamed from a database cursor as it is
+     * written, so memory use does not grow with the range. The cursor is opened on the async thread
+     * writing the response, which may run for up to {@link #EXPORT_TIMEOUT}. Gzip-compressed when
+     * the client accepts it.
+     *
+     * @param from
+     *     Start of the time range, inclusive
+     * @param to
+     *     End of the time range, exclusive
+     * @param format
+     *     NDJSON (default) or CSV
+     * @throws InvalidDateRangeException
+     *     when {@code from} is not before {@code to}
+     */
+    @GetMapping("/measurements/export")
+    public WebAsyncTask<Void> exportMeasurements(
+        @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(defaultValue = DEFAULT_EXPORT_FORMAT) MeasurementExportFormat format,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) @Nullable String acceptEncoding,
+        HttpServletResponse response
+    ) {
+        // Checked up front, once streaming has started the status can no longer change
+        if (!from.isBefore(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(format.getMediaType().toString());
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment()
+                .filename(EXPORT_FILE_NAME + "." + format.getFileExtension())
+                .build()
+                .toString()
+        );
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+        }
+
+        return new WebAsyncTask<>(EXPORT_TIMEOUT.toMillis(), () -> {
+            OutputStream outputStream = response.getOutputStream();
+            try (Stream<AirQualityMeasurement> rows = airQualityService.streamMeasurementsInRange(from, to)) {
+                if (gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+                    exportWriter.write(rows.map(dtoMapper::toAirQualityMeasurementResponse), format, compressed);
+                    compressed.finish();
+                } else {
+                    exportWriter.write(rows.map(dtoMapper::toAirQualityMeasurementResponse), format, outputStream);
+                }
+            }
+            outputStream.flush();
+            return null;
+        });
+    }
+
+    /**
+     * Whether the Accept-Encoding header allows gzip, by name or through {@code *}, with a quality
+     * above zero. A named gzip entry overrides the wildcard, so {@code gzip;q=0, *} refuses it.
+     */
+    private static boolean acceptsGzip(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        double gzipQuality = -1;
+        double anyQuality = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (GZIP_ENCODING.equals(name) || X_GZIP_ENCODING.equals(name)) {
+                gzipQuality = Math.max(gzipQuality, quality(parameters));
+            } else if (ANY_ENCODING.equals(name)) {
+                anyQuality = quality(parameters);
+            }
+        }
+        return gzipQuality >= 0 ? gzipQuality > 0 : anyQuality > 0;
+    }
+
+    /** Quality of a content coding, 1 when it has none and 0 when it is malformed */
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim().toLowerCase(Locale.ROOT);
+            if (parameter.startsWith(QUALITY_PARAMETER)) {
+                try {
+                    return Double.parseDouble(parameter.substring(QUALITY_PARAMETER.length()));
+                } catch (NumberFormatException _) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
     /**
      * Manually trigger data synchronization (for admin/testing) In production, consider
-     * adding @PreAuthorize("hasRole('ADMIN')")
+     * adding @PreAuthorize("hasRole('ADMIN')"). Returns right away with the job running the sync,
+     * which is the already running one if there is any.
      */
     @PostMapping("/sync/trigger")
-    public ResponseEntity<ApiResponse<String>> triggerSync() {
-        syncService.ifPresent(AirQualitySyncService::triggerManualSync);
-        return ApiResponse
-            .buildResponse(SYNC_TRIGGERED, SUCCESS_SYNC_TRIGGERED_MSG_KEY, messageSource, HttpStatus.ACCEPTED);
+    public ResponseEntity<ApiResponse<SyncJobResponseDto>> triggerSync() {
+        SyncJob job = syncService.orElseThrow(SyncDisabledException::new).triggerManualSync();
+        SyncJobResponseDto response = dtoMapper.toSyncJobResponse(job);
+        return ApiResponse.buildResponse(response, SUCCESS_SYNC_TRIGGERED_MSG_KEY, messageSource, HttpStatus.ACCEPTED);
+    }
+
+    /** Get the progress of a sync job started on this node */
+    @GetMapping("/sync/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<SyncJobResponseDto>> getSyncJob(@PathVariable String jobId) {
+        SyncJob job = syncService.orElseThrow(SyncDisabledException::new)
+            .findJob(jobId)
+            .orElseThrow(() -> new SyncJobNotFoundException(jobId));
+        SyncJobResponseDto response = dtoMapper.toSyncJobResponse(job);
+        return ApiResponse.buildResponse(response, SUCCESS_SYNC_JOB_FETCHED_MSG_KEY, messageSource, HttpStatus.OK);
     }
 
     /**
@@ -136,15 +450,24 @@ public class AirQualityController {
      * @param longitude
      *     Longitude coordinate
      * @param radius
-     *     Search radius in kilometers (default 10, max 100)
+     *     Search radius in kilometers (default 10 without k, max 100)
+     * @param k
+     *     Return the k nearest stations (max 50), limited by the radius only when one is given
      */
     @GetMapping("/stations/nearest")
     public ResponseEntity<ApiResponse<List<StationDistanceResponseDto>>> getNearestStations(
         @RequestParam double latitude,
         @RequestParam double longitude,
-        @RequestParam(defaultValue = DEFAULT_RADIUS) double radius
+        @RequestParam(required = false) @Nullable Double radius,
+        @RequestParam(required = false) @Nullable Integer k
     ) {
-        List<StationDistance> stationsWithDistance = airQualityService.findNearestStations(latitude, longitude, radius);
+        List<StationDistance> stationsWithDistance = k != null
+                ? airQualityService.findKNearestStations(latitude, longitude, k, radius)
+                : airQualityService.findNearestStations(
+                    latitude,
+                    longitude,
+                    radius != null ? radius : DEFAULT_RADIUS_KM
+                );
         List<StationDistanceResponseDto> response = dtoMapper.toStationDistanceResponseList(stationsWithDistance);
         return ApiResponse.buildResponse(response, SUCCESS_NEAREST_FETCHED_MSG_KEY, messageSource, HttpStatus.OK);
     }
@@ -11,8 +11,12 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.vertyll.freshly.airquality.domain.exception.AirQualityDataNotFoundException;
 import com.vertyll.freshly.airquality.domain.exception.GiosApiException;
+import com.vertyll.freshly.airquality.domain.exception.InvalidBoundingBoxException;
 import com.vertyll.freshly.airquality.domain.exception.InvalidDateRangeException;
+import com.vertyll.freshly.airquality.domain.exception.InvalidPageTokenException;
 import com.vertyll.freshly.airquality.domain.exception.StationNotFoundException;
+import com.vertyll.freshly.airquality.domain.exception.SyncDisabledException;
+import com.vertyll.freshly.airquality.domain.exception.SyncJobNotFoundException;
 
 @RestControllerAdvice(assignableTypes = AirQualityController.class)
 public class AirQualityControllerAdvice {
@@ -22,7 +26,11 @@ public class AirQualityControllerAdvice {
     private static final String ERROR_STATION_NOT_FOUND_MSG_KEY = "error.airquality.stationNotFound";
     private static final String ERROR_DATA_NOT_FOUND_MSG_KEY = "error.airquality.dataNotFound";
     private static final String ERROR_INVALID_DATE_RANGE_MSG_KEY = "error.airquality.invalidDateRange";
+    private static final String ERROR_INVALID_BOUNDING_BOX_MSG_KEY = "error.airquality.invalidBoundingBox";
+    private static final String ERROR_INVALID_PAGE_TOKEN_MSG_KEY = "error.airquality.invalidPageToken";
     private static final String ERROR_GIOS_API_UNAVAILABLE_MSG_KEY = "error.airquality.giosApiUnavailable";
+    private static final String ERROR_SYNC_JOB_NOT_FOUND_MSG_KEY = "error.airquality.syncJobNotFound";
+    private static final String ERROR_SYNC_DISABLED_MSG_KEY = "error.airquality.syncDisabled";
 
     private final MessageSource messageSource;
 
@@ -53,6 +61,22 @@ public class AirQualityControllerAdvice {
         return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, message);
     }
 
+    @ExceptionHandler(InvalidBoundingBoxException.class)
+    public ProblemDetail handleInvalidBoundingBox(InvalidBoundingBoxException ex) {
+        LOGGER.warn("Invalid bounding box: {}", ex.getMessage());
+        String message =
+                messageSource.getMessage(ERROR_INVALID_BOUNDING_BOX_MSG_KEY, null, LocaleContextHolder.getLocale());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, message);
+    }
+
+    @ExceptionHandler(InvalidPageTokenException.class)
+    public ProblemDetail handleInvalidPageToken(InvalidPageTokenException ex) {
+        LOGGER.warn("Invalid page token: {}", ex.getMessage());
+        String message =
+                messageSource.getMessage(ERROR_INVALID_PAGE_TOKEN_MSG_KEY, null, LocaleContextHolder.getLocale());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, message);
+    }
+
     @ExceptionHandler(GiosApiException.class)
     public ProblemDetail handleGiosApiException(GiosApiException ex) {
         LOGGER.error("GIOS API error: {}", ex.getMessage(), ex);
@@ -60,4 +84,19 @@ public class AirQualityControllerAdvice {
                 messageSource.getMessage(ERROR_GIOS_API_UNAVAILABLE_MSG_KEY, null, LocaleContextHolder.getLocale());
         return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, message);
     }
+
+    @ExceptionHandler(SyncJobNotFoundException.class)
+    public ProblemDetail handleSyncJobNotFound(SyncJobNotFoundException ex) {
+        LOGGER.warn("Sync job not found: {}", ex.getMessage());
+        String message =
+                messageSource.getMessage(ERROR_SYNC_JOB_NOT_FOUND_MSG_KEY, null, LocaleContextHolder.getLocale());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, message);
+    }
+
+    @ExceptionHandler(SyncDisabledException.class)
+    public ProblemDetail handleSyncDisabled(SyncDisabledException ex) {
+        LOGGER.warn("Sync unavailable: {}", ex.getMessage());
+        String message = messageSource.getMessage(ERROR_SYNC_DISABLED_MSG_KEY, null, LocaleContextHolder.getLocale());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
 }
@@ -0,0 +1,31 @@
+package com.vertyll.freshly.airquality.api;
+
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** File formats of the measurement export */
+@Getter
+@RequiredArgsConstructor
+public enum MeasurementExportFormat {
+    /** One JSON object per line */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    /** Comma-separated values with a header row */
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    /**
+     * Parses a request parameter regardless of case
+     *
+     * @throws IllegalArgumentException
+     *     when the parameter names no format
+     */
+    public static MeasurementExportFormat fromParameter(String parameter) {
+        return valueOf(parameter.trim().toUpperCase(Locale.ROOT));
+    }
+}
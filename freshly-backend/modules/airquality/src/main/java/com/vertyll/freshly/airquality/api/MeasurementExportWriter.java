@@ -0,0 +1,114 @@
+package com.vertyll.freshly.airquality.api;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.api.dto.AirQualityMeasurementResponseDto;
+
+import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Writes exported measurements to a response one at a time, through a fixed-size buffer. Nothing
+ * but the row being written is held in memory, and a slow client blocks the write, so the database
+ * cursor feeding the rows is only read as fast as the client takes them.
+ */
+@Component
+@RequiredArgsConstructor
+public class MeasurementExportWriter {
+
+    private static final String CSV_HEADER = "id,stationId,stationName,measurementDate,overallIndexLevel,"
+            + "so2IndexLevel,no2IndexLevel,pm10IndexLevel,pm25IndexLevel,pm10Value,pm25Value,so2Value,no2Value,"
+            + "coValue,o3Value,createdAt";
+    private static final char CSV_SEPARATOR = ',';
+    private static final char CSV_QUOTE = '"';
+    private static final String LINE_SEPARATOR = "\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    /** Writes the rows and flushes, leaving the output stream open */
+    public void write(
+            Stream<AirQualityMeasurementResponseDto> rows,
+            MeasurementExportFormat format,
+            OutputStream outputStream
+    ) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == MeasurementExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write(LINE_SEPARATOR);
+        }
+
+        Iterator<AirQualityMeasurementResponseDto> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            AirQualityMeasurementResponseDto row = iterator.next();
+            switch (format) {
+                case NDJSON -> writeJson(writer, row);
+                case CSV -> writeCsv(writer, row);
+            }
+            writer.write(LINE_SEPARATOR);
+        }
+        writer.flush();
+    }
+
+    private void writeJson(Writer writer, AirQualityMeasurementResponseDto row) throws IOException {
+        writer.write(objectMapper.writeValueAsString(row));
+    }
+
+    private static void writeCsv(Writer writer, AirQualityMeasurementResponseDto row) throws IOException {
+        Object[] values = {
+            row.id(),
+            row.stationId(),
+            row.stationName(),
+            row.measurementDate(),
+            row.overallIndexLevel(),
+            row.so2IndexLevel(),
+            row.no2IndexLevel(),
+            row.pm10IndexLevel(),
+            row.pm25IndexLevel(),
+            row.pm10Value(),
+            row.pm25Value(),
+            row.so2Value(),
+            row.no2Value(),
+            row.coValue(),
+            row.o3Value(),
+            row.createdAt()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(CSV_SEPARATOR);
+            }
+            writeCsvValue(writer, values[i]);
+        }
+    }
+
+    /** Quotes values containing a separator, quote or line break, as RFC 4180 has it */
+    private static void writeCsvValue(Writer writer, @Nullable Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        // Unlike LocalDateTime.toString(), always with seconds
+        String text = value instanceof LocalDateTime dateTime
+                ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime)
+                : value.toString();
+        if (text.indexOf(CSV_SEPARATOR) < 0 && text.indexOf(CSV_QUOTE) < 0
+                && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write(CSV_QUOTE);
+        writer.write(text.replace("\"", "\"\""));
+        writer.write(CSV_QUOTE);
+    }
+}
@@ -0,0 +1,15 @@
+package com.vertyll.freshly.airquality.api.dto;
+
+import java.time.Instant;
+
+public record SyncJobResponseDto(
+    String id,
+    String status,
+    int stationsTotal,
+    int stationsDone,
+    int stationsFailed,
+    Instant startedAt,
+    Instant finishedAt,
+    long elapsedMillis
+) {
+}
@@ -8,6 +8,7 @@ import org.mapstruct.Mapping;
 import com.vertyll.freshly.airquality.api.dto.*;
 import com.vertyll.freshly.airquality.domain.*;
 import com.vertyll.freshly.common.mapper.MapStructConfig;
+import com.vertyll.freshly.common.response.CursorPageResponse;
 
 @Mapper(config = MapStructConfig.class)
 public interface AirQualityDtoMapper {
@@ -43,6 +44,15 @@ public interface AirQualityDtoMapper {
         List<AirQualityMeasurement> measurements
     );
 
+    default CursorPageResponse<AirQualityMeasurementResponseDto> toMeasurementPageResponse(MeasurementPage page) {
+        MeasurementCursor next = page.next();
+        return CursorPageResponse.<AirQualityMeasurementResponseDto>builder()
+            .content(toAirQualityMeasurementResponseList(page.measurements()))
+            .nextPageToken(next != null ? next.toToken() : null)
+            .last(page.isLast())
+            .build();
+    }
+
     // StationDistance mappings
     StationDistanceResponseDto toStationDistanceResponse(StationDistance stationDistance);
 
@@ -90,6 +100,10 @@ public interface AirQualityDtoMapper {
 
     List<StationRankingResponseDto> toRankingResponseList(List<StationRanking> rankings);
 
+    // Sync job mappings
+    @Mapping(target = "elapsedMillis", expression = "java(job.elapsed().toMillis())")
+    SyncJobResponseDto toSyncJobResponse(SyncJob job);
+
     default String toApiValue(AirQualityLevel level) {
         return level != null ? level.toApiValue() : null;
     }
@@ -2,14 +2,22 @@ package com.vertyll.freshly.airquality.application;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
+import org.jspecify.annotations.Nullable;
 import org.springframework.stereotype.Service;
 
 import com.vertyll.freshly.airquality.domain.*;
+import com.vertyll.freshly.airquality.domain.exception.GiosUnavailableException;
+import com.vertyll.freshly.airquality.domain.exception.InvalidBoundingBoxException;
+import com.vertyll.freshly.airquality.domain.exception.InvalidDateRangeException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,30 +32,101 @@ public class AirQualityService {
     private static final int MIN_RADIUS_KM = 1;
     private static final int MAX_RADIUS_KM = 100;
     private static final int MIN_RANKING_LIMIT = 5;
-    private static final int MAX_RANKING_LIMIT = 50;
-    private static final int EARTH_RADIUS_KM = 6371;
+    private static final int MAX_RANKING_LIMIT = RankingCache.RANKED_STATIONS;
+    private static final int MIN_CHART_POINTS = 3;
+    private static final int MAX_CHART_POINTS = 2000;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int MIN_PAGE_SIZE = 1;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MIN_NEIGHBOURS = 1;
+    private static final int MAX_NEIGHBOURS = 50;
+    private static final double MAX_MAP_LATITUDE = 85;
+    private static final double MAX_LONGITUDE = 180;
 
-    private final AirQualityProvider airQualityProvider;
     private final AirQualityHistoryRepository historyRepository;
+    private final StationCatalog stationCatalog;
+    private final RankingCache rankingCache;
+    private final LatestMeasurementCache latestMeasurementCache;
+    private final LiveReadingsCache liveReadingsCache;
 
-    /** Get a list of all air quality stations */
+    /** Get a list of all air quality stations (from the in-memory station catalog) */
     public List<Station> getAllStations() {
-        return airQualityProvider.findAllStations();
+        return stationCatalog.snapshot().stations();
     }
 
-    /** Get the current air quality index from a database (live data) */
-    public Optional<AirQualityIndex> getIndexForStation(int stationId) {
-        return airQualityProvider.findIndexByStationId(stationId);
+    /** Generation of the station catalog, changes whenever the station list does */
+    public long getStationsGeneration() {
+        return stationCatalog.snapshot().generation();
     }
 
-    /** Get current sensor measurements from database (live data) */
-    public List<SensorMeasurement> getMeasurementsForStation(int stationId) {
-        return airQualityProvider.findMeasurementsByStationId(stationId);
+    /**
+     * Get the current air quality index from GIOŚ (live data), shared through the
+     * {@link LiveReadingsCache}. While the GIOŚ circuit is open, the index of the latest stored
+     * measurement is returned instead, marked as stale.
+     */
+    public Optional<LiveReading<AirQualityIndex>> getIndexForStation(int stationId) {
+        try {
+            return liveReadingsCache.getIndex(stationId).map(LiveReading::live);
+        } catch (GiosUnavailableException e) {
+            Optional<AirQualityIndex> stored = getLatestMeasurement(stationId).flatMap(AirQualityMeasurement::toIndex);
+            if (stored.isEmpty()) {
+                throw e;
+            }
+            log.debug("GIOŚ unavailable, serving the stored index of station {}", stationId);
+            return stored.map(LiveReading::stale);
+        }
+    }
+
+    /**
+     * Get current sensor measurements from GIOŚ (live data), shared through the
+     * {@link LiveReadingsCache}. While the GIOŚ circuit is open, the readings of the latest stored
+     * measurement are returned instead, marked as stale.
+     */
+    public LiveReading<List<SensorMeasurement>> getMeasurementsForStation(int stationId) {
+        try {
+            return LiveReading.live(liveReadingsCache.getMeasurements(stationId));
+        } catch (GiosUnavailableException e) {
+            List<SensorMeasurement> stored = getLatestMeasurement(stationId)
+                .map(AirQualityMeasurement::toSensorMeasurements)
+                .orElse(List.of());
+            if (stored.isEmpty()) {
+                throw e;
+            }
+            log.debug("GIOŚ unavailable, serving the stored readings of station {}", stationId);
+            return LiveReading.stale(stored);
+        }
     }
 
-    /** Get latest measurement from database (cached data) */
+    /** Get latest measurement from database (cached data), served from the {@link LatestMeasurementCache} */
     public Optional<AirQualityMeasurement> getLatestMeasurement(int stationId) {
-        return historyRepository.findLatestByStationId(stationId);
+        return Optional.ofNullable(latestMeasurementCache.get().measurements().get(stationId));
+    }
+
+    /**
+     * Get the latest measurement of every station in a single call, served from the
+     * {@link LatestMeasurementCache}
+     *
+     * @param stationIds
+     *     Stations to include, all of them when null; stations without measurements are left out
+     */
+    public List<AirQualityMeasurement> getLatestMeasurements(@Nullable Collection<Integer> stationIds) {
+        Map<Integer, AirQualityMeasurement> latest = latestMeasurementCache.get().measurements();
+        if (stationIds == null) {
+            return List.copyOf(latest.values());
+        }
+        List<AirQualityMeasurement> measurements = new ArrayList<>();
+        for (Integer stationId : new TreeSet<>(stationIds)) {
+            AirQualityMeasurement measurement = latest.get(stationId);
+            if (measurement != null) {
+                measurements.add(measurement);
+            }
+        }
+        return measurements;
+    }
+
+    /** Version of the latest measurements, changes whenever they do */
+    public String getLatestMeasurementsVersion() {
+        return latestMeasurementCache.get().version();
     }
 
     /**
@@ -65,11 +144,158 @@ public class AirQualityService {
         return historyRepository.findByStationIdAndDateRange(stationId, from, to);
     }
 
+    /**
+     * Get historical measurements for a station downsampled to chart points. Measurements are
+     * hourly, so when there are no more hours than points the history is returned as is.
+     *
+     * @param stationId
+     *     Station ID
+     * @param daysBack
+     *     Number of days to look back (default 7, max 90)
+     * @param points
+     *     Max number of measurements to return (min 3, max 2000)
+     * @param method
+     *     {@link DownsamplingMethod#LTTB} picks measurements of the history, the bucket methods
+     *     aggregate them in the database
+     */
+    public List<AirQualityMeasurement> getHistoricalMeasurements(
+            int stationId,
+            int daysBack,
+            int points,
+            DownsamplingMethod method
+    ) {
+        int days = Math.clamp(daysBack, MIN_DAYS, MAX_DAYS);
+        int maxPoints = Math.clamp(points, MIN_CHART_POINTS, MAX_CHART_POINTS);
+        LocalDateTime to = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime from = to.minusDays(days);
+
+        if (method == DownsamplingMethod.LTTB) {
+            return HistoryDownsampler.largestTriangleThreeBuckets(
+                historyRepository.findByStationIdAndDateRange(stationId, from, to),
+                maxPoints
+            );
+        }
+
+        // Buckets are aligned to fixed hours, so the range can start and end in a partial one
+        int bucketHours = Math.ceilDiv(days * HOURS_PER_DAY, maxPoints - 1);
+        if (bucketHours <= 1) {
+            return historyRepository.findByStationIdAndDateRange(stationId, from, to);
+        }
+        return historyRepository.findBucketedByStationIdAndDateRange(stationId, from, to, bucketHours, method);
+    }
+
+    /**
+     * Get one page of a station's history, newest first. Later pages pass the cursor of the page
+     * before; the window start moves with the current time, the cursor keeps the end where the
+     * previous page stopped.
+     *
+     * @param stationId
+     *     Station ID
+     * @param daysBack
+     *     Number of days to look back (default 7, max 90)
+     * @param after
+     *     Cursor of the previous page, null for the first page
+     * @param pageSize
+     *     Number of measurements per page (min 1, max 1000)
+     */
+    public MeasurementPage getHistoricalMeasurementsPage(
+            int stationId,
+            int daysBack,
+            @Nullable MeasurementCursor after,
+            int pageSize
+    ) {
+        int days = Math.clamp(daysBack, MIN_DAYS, MAX_DAYS);
+        int size = Math.clamp(pageSize, MIN_PAGE_SIZE, MAX_PAGE_SIZE);
+        LocalDateTime to = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime from = to.minusDays(days);
+        return historyRepository.findPageByStationIdAndDateRange(stationId, from, to, after, size);
+    }
+
     /** Get measurements for all stations within time range */
     public List<AirQualityMeasurement> getMeasurementsInRange(LocalDateTime from, LocalDateTime to) {
         return historyRepository.findByDateRange(from, to);
     }
 
+    /**
+     * Stream measurements of all stations within a time range, oldest first, without holding them
+     * in memory (for bulk exports). The stream holds a database cursor and must be closed.
+     *
+     * @param from
+     *     Start of the range, inclusive
+     * @param to
+     *     End of the range, exclusive
+     * @throws InvalidDateRangeException
+     *     when {@code from} is after {@code to}
+     */
+    public Stream<AirQualityMeasurement> streamMeasurementsInRange(LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+        return historyRepository.streamByDateRange(from, to);
+    }
+
+    /**
+     * Get one page of the measurements of all stations within a time range, newest first
+     *
+     * @param from
+     *     Start of the range, inclusive
+     * @param to
+     *     End of the range, exclusive
+     * @param after
+     *     Cursor of the previous page, null for the first page
+     * @param pageSize
+     *     Number of measurements per page (min 1, max 1000)
+     * @throws InvalidDateRangeException
+     *     when {@code from} is after {@code to}
+     */
+    public MeasurementPage getMeasurementsPage(
+            LocalDateTime from,
+            LocalDateTime to,
+            @Nullable MeasurementCursor after,
+            int pageSize
+    ) {
+        if (from.isAfter(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+        int size = Math.clamp(pageSize, MIN_PAGE_SIZE, MAX_PAGE_SIZE);
+        return historyRepository.findPageByDateRange(from, to, after, size);
+    }
+
+    /**
+     * Get measurements of all stations inside a bounding box (for the map view). Latitudes are
+     * clamped to the range web maps can show, and the time window to the last 90 days of it.
+     *
+     * @throws InvalidBoundingBoxException
+     *     when the box is empty or spans more than 180 degrees of longitude
+     * @throws InvalidDateRangeException
+     *     when {@code from} is after {@code to}
+     */
+    public List<AirQualityMeasurement> getMeasurementsInBounds(
+            double minLat,
+            double maxLat,
+            double minLon,
+            double maxLon,
+            LocalDateTime from,
+            LocalDateTime to
+    ) {
+        double south = Math.clamp(minLat, -MAX_MAP_LATITUDE, MAX_MAP_LATITUDE);
+        double north = Math.clamp(maxLat, -MAX_MAP_LATITUDE, MAX_MAP_LATITUDE);
+        double west = Math.clamp(minLon, -MAX_LONGITUDE, MAX_LONGITUDE);
+        double east = Math.clamp(maxLon, -MAX_LONGITUDE, MAX_LONGITUDE);
+        // Beyond half the globe a GeoJSON polygon would select the area outside of the box
+        if (south >= north || west >= east || east - west > MAX_LONGITUDE) {
+            throw new InvalidBoundingBoxException(
+                String.format("Invalid bounding box [%s, %s] x [%s, %s]", minLat, maxLat, minLon, maxLon)
+            );
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidDateRangeException(from, to);
+        }
+
+        LocalDateTime windowStart = from.isBefore(to.minusDays(MAX_DAYS)) ? to.minusDays(MAX_DAYS) : from;
+        return historyRepository.findByGeoBounds(south, north, west, east, windowStart, to);
+    }
+
     /**
      * Find the nearest stations to given coordinates
      *
@@ -84,18 +310,8 @@ public class AirQualityService {
     public List<StationDistance> findNearestStations(double latitude, double longitude, double radiusKm) {
         double radius = Math.clamp(radiusKm, MIN_RADIUS_KM, MAX_RADIUS_KM);
 
-        List<Station> allStations = airQualityProvider.findAllStations();
-        List<StationDistance> stationsWithDistance = new ArrayList<>();
-
-        for (Station station : allStations) {
-            double distance = calculateDistance(latitude, longitude, station.latitude(), station.longitude());
-
-            if (distance <= radius) {
-                stationsWithDistance.add(new StationDistance(station, distance));
-            }
-        }
-
-        stationsWithDistance.sort(Comparator.comparingDouble(StationDistance::distanceInKm));
+        List<StationDistance> stationsWithDistance =
+                stationCatalog.spatialIndex().withinRadius(latitude, longitude, radius);
 
         log.debug(
             "Found {} stations within {}km of ({}, {})",
@@ -108,17 +324,44 @@ public class AirQualityService {
         return stationsWithDistance;
     }
 
+    /**
+     * Find the k stations closest to given coordinates
+     *
+     * @param latitude
+     *     Latitude
+     * @param longitude
+     *     Longitude
+     * @param k
+     *     Number of stations to return (max 50)
+     * @param radiusKm
+     *     Optional search radius in kilometers (max 100); without it the k closest stations are
+     *     returned however far away they are
+     * @return List of stations with distances, sorted by distance
+     */
+    public List<StationDistance> findKNearestStations(
+            double latitude,
+            double longitude,
+            int k,
+            @Nullable Double radiusKm
+    ) {
+        int neighbours = Math.clamp(k, MIN_NEIGHBOURS, MAX_NEIGHBOURS);
+        double radius = radiusKm != null
+                ? Math.clamp(radiusKm, MIN_RADIUS_KM, MAX_RADIUS_KM)
+                : Double.POSITIVE_INFINITY;
+
+        return stationCatalog.spatialIndex().nearest(latitude, longitude, neighbours, radius);
+    }
+
     /** Calculate statistics for a station within a time range */
     public Optional<AirQualityStatistics> getStatistics(int stationId, int daysBack) {
         int days = Math.clamp(daysBack, MIN_DAYS, MAX_DAYS);
-        LocalDateTime from = LocalDateTime.now(ZoneOffset.UTC).minusDays(days);
         LocalDateTime to = LocalDateTime.now(ZoneOffset.UTC);
 
-        return historyRepository.calculateStatistics(stationId, from, to);
+        return historyRepository.calculateStatistics(stationId, to.minusDays(days), to);
     }
 
     /**
-     * Get a ranking of stations (best to worst air quality)
+     * Get a ranking of stations (best to worst air quality), served from the {@link RankingCache}
      *
      * @param daysBack
      *     Number of days to analyze (default 7, max 90)
@@ -129,22 +372,15 @@ public class AirQualityService {
         int days = Math.clamp(daysBack, MIN_DAYS, MAX_DAYS);
         int maxResults = Math.clamp(limit, MIN_RANKING_LIMIT, MAX_RANKING_LIMIT);
 
-        LocalDateTime from = LocalDateTime.now(ZoneOffset.UTC).minusDays(days);
-        LocalDateTime to = LocalDateTime.now(ZoneOffset.UTC);
-
-        return historyRepository.getRanking(from, to, maxResults);
+        List<StationRanking> ranking = rankingCache.get(days);
+        return ranking.subList(0, Math.min(maxResults, ranking.size()));
     }
 
-    /** Haversine formula to calculate distance between two coordinates */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(lat1))
-                * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return EARTH_RADIUS_KM * c;
+    /**
+     * Rankings cover the last {@code days} times 24 hours up to the next full hour. Measurements are
+     * hourly, so that is the data of a window ending now, and a cached ranking holds for the hour.
+     */
+    static LocalDateTime rankingWindowEnd() {
+        return LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).plusHours(1);
     }
 }
@@ -1,18 +1,43 @@
 package com.vertyll.freshly.airquality.application;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties;
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties.SyncMode;
 import com.vertyll.freshly.airquality.domain.*;
 
 import lombok.RequiredArgsConstructor;
@@ -20,7 +45,16 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Scheduled service that synchronizes air quality data from GIOŚ API to MongoDB. Runs periodically
- * to build historical data for charts and analysis.
+ * to build historical data for charts and analysis. In concurrent mode stations are synced on
+ * virtual threads with a global concurrency cap and a per-run deadline. The run itself is not
+ * transactional: measurements commit batch by batch and retention cleanup runs on its own. Both
+ * the scheduled and the manual sync only run on the node holding the cluster-wide sync lease, unless
+ * partitioning splits the stations across all live nodes. Every run is tracked as a sync job, and
+ * at most one job runs per node at a time. Each job checkpoints its progress per station in a run of
+ * its own, so a run its node died in is taken over on startup with the stations it had not settled
+ * yet, while later triggers in the same hour always sync all stations again. The station list fetched by
+ * each run also refreshes the station catalog, and every run that got to write publishes a new
+ * measurement generation, so cached rankings are recomputed.
  */
 @Slf4j
 @Service
@@ -35,66 +69,533 @@ public class AirQualitySyncService {
     private final AirQualityProvider airQualityProvider;
     private final AirQualityHistoryRepository historyRepository;
     private final ObjectProvider<AirQualitySyncService> selfProvider;
+    private final AirQualitySyncProperties syncProperties;
+    private final ObjectProvider<PlatformTransactionManager> transactionManagerProvider;
+    private final SyncLeaseManager leaseManager;
+    private final SyncPartitioner syncPartitioner;
+    private final SyncRunRepository runRepository;
+    private final SyncJobRegistry jobRegistry;
+    private final StationCatalog stationCatalog;
+    private final MeasurementGeneration measurementGeneration;
+    private final RankingCache rankingCache;
+    private final LatestMeasurementCache latestMeasurementCache;
+
+    /**
+     * Takes over the runs of the current hour that were left running because their node died,
+     * instead of leaving their remaining stations until the next cron tick. With partitioning only
+     * runs of nodes whose heartbeat expired are taken over; a node that restarts within the member
+     * TTL leaves its run to the next one.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedRun() {
+        try {
+            if (runRepository.findRunning(currentRunWindow()).isEmpty()) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not check for an unfinished sync run: {}", e.getMessage());
+            return;
+        }
+
+        SyncJobRegistry.JobStart start = jobRegistry.startOrAttach();
+        if (!start.started()) {
+            log.info("Not resuming unfinished sync runs - job {} is already running", start.job().id());
+            return;
+        }
+        log.info("Resuming unfinished air quality sync runs in job {}", start.job().id());
+        runJob(start.job(), true);
+    }
 
     /**
      * Synchronize data every hour (5 minutes after the hour to allow GIOŚ to update) Cron: 0 5 * *
      * * * = at 5 minutes past every hour
      */
     @Scheduled(cron = SYNC_CRON)
-    @Transactional
-    @SuppressWarnings("PMD.AvoidCatchingGenericException")
     public void syncAirQualityData() {
-        log.info("Starting scheduled air quality data synchronization");
+        SyncJobRegistry.JobStart start = jobRegistry.startOrAttach();
+        if (!start.started()) {
+            log.info("Skipping air quality data synchronization - job {} is still running", start.job().id());
+            return;
+        }
+        runJob(start.job(), false);
+    }
 
-        try {
-            List<Station> stations = airQualityProvider.findAllStations();
-            log.info("Found {} stations to sync", stations.size());
+    /**
+     * Manual sync trigger for testing or admin operations. The sync runs in the background; a trigger
+     * arriving while a sync is running returns that job instead of starting another one. A job that
+     * could not be handed to the background executor is returned as failed.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException") // Any dispatch failure must release the job
+    public SyncJob triggerManualSync() {
+        log.info("Manual sync triggered");
+        SyncJobRegistry.JobStart start = jobRegistry.startOrAttach();
+        if (start.started()) {
+            try {
+                selfProvider.getObject().runJobAsync(start.job().id());
+            } catch (RuntimeException e) {
+                log.error("Could not start manual sync job {}", start.job().id(), e);
+                jobRegistry.finish(start.job(), SyncJobStatus.FAILED);
+            }
+        } else {
+            log.info("Attaching manual sync to running job {}", start.job().id());
+        }
+        return start.job().snapshot();
+    }
 
-            int successCount = 0;
-            int failedCount = 0;
+    /** Runs a manually triggered job off the request thread */
+    @Async
+    public void runJobAsync(String jobId) {
+        jobRegistry.findActive(jobId).ifPresent(job -> runJob(job, false));
+    }
 
-            for (Station station : stations) {
-                if (syncStationDataSafely(station)) {
-                    successCount++;
-                } else {
-                    failedCount++;
-                }
+    public Optional<SyncJob> findJob(String jobId) {
+        return jobRegistry.find(jobId);
+    }
+
+    /** Runs the job over a new run of its own, or over the abandoned runs it can take over */
+    private void runJob(SyncJobProgress job, boolean resume) {
+        SyncJobStatus status = SyncJobStatus.FAILED;
+        try {
+            status = syncPartitioner.isEnabled() ? syncPartition(job, resume) : syncWithLease(job, resume);
+        } finally {
+            // Even a failed run may have committed batches
+            if (status != SyncJobStatus.SKIPPED) {
+                measurementGeneration.publish();
+                rankingCache.refresh();
             }
+            jobRegistry.finish(job, status);
+        }
+    }
 
-            log.info("Sync completed: {} successful, {} failed", successCount, failedCount);
+    private SyncJobStatus syncWithLease(SyncJobProgress job, boolean resume) {
+        Optional<HeldSyncLease> acquiredLease = leaseManager.tryAcquire();
+        if (acquiredLease.isEmpty()) {
+            log.info("Skipping air quality data synchronization - another node holds the sync lease");
+            return SyncJobStatus.SKIPPED;
+        }
 
+        try (HeldSyncLease lease = acquiredLease.get()) {
+            log.info("Starting air quality data synchronization job {}", job.id());
+            // Holding the lease, no other node can be running a run of its own
+            SyncJobStatus status = runSync(
+                lease,
+                job,
+                resume ? _ -> takeOverRuns(_ -> true) : stations -> openRun(job, stations),
+                _ -> List.of()
+            );
+            if (status != SyncJobStatus.COMPLETED) {
+                return status;
+            }
             // Clean up old data (older than 90 days)
             cleanupOldData();
+            return SyncJobStatus.COMPLETED;
+        }
+    }
+
+    /**
+     * Syncs only the stations hashed to this node. Retention cleanup covers the whole collection, so
+     * it is left to whichever node gets the sync lease.
+     */
+    private SyncJobStatus syncPartition(SyncJobProgress job, boolean resume) {
+        String nodeId = syncPartitioner.nodeId();
+        log.info("Starting partitioned air quality data synchronization job {} on node {}", job.id(), nodeId);
+
+        HeldSyncLease partitionLease = HeldSyncLease.local(SyncLeaseManager.SYNC_LOCK_NAME, nodeId);
+        SyncJobStatus status = resume
+                ? runSync(partitionLease, job, _ -> takeOverRunsOfDeadNodes(), _ -> List.of())
+                : runSync(
+                    partitionLease,
+                    job,
+                    stations -> openRun(job, syncPartitioner.ownedStations(stations)),
+                    syncPartitioner::currentlyOwnedStations
+                );
+        if (status != SyncJobStatus.COMPLETED) {
+            return status;
+        }
+        leaseManager.tryAcquire().ifPresent(lease -> {
+            try (lease) {
+                cleanupOldData();
+            }
+        });
+        return SyncJobStatus.COMPLETED;
+    }
+
+    private SyncCheckpoints openRun(SyncJobProgress job, List<Station> stations) {
+        return SyncCheckpoints.start(runRepository, job.id(), currentRunWindow(), syncPartitioner.nodeId(), stations);
+    }
+
+    private SyncCheckpoints takeOverRuns(Predicate<SyncRunCheckpoint> abandoned) {
+        return SyncCheckpoints.takeOver(runRepository, currentRunWindow(), syncPartitioner.nodeId(), abandoned);
+    }
+
+    /** Partitioned nodes hold no lease, so their runs count as abandoned once their heartbeat expired */
+    private SyncCheckpoints takeOverRunsOfDeadNodes() {
+        List<String> liveNodeIds;
+        try {
+            liveNodeIds = syncPartitioner.liveNodeIds();
+        } catch (DataAccessException e) {
+            log.warn("Could not read sync membership, not taking over any run: {}", e.getMessage());
+            return takeOverRuns(_ -> false);
+        }
+        return takeOverRuns(run -> !liveNodeIds.contains(run.nodeId()));
+    }
+
+    /**
+     * Runs one sync over the stations of the runs the job works on, adopting between retry rounds
+     * the stations {@code ownedStations} newly assigns to this node. A job that found no run to work
+     * on is skipped; one that failed as a whole finishes its runs as incomplete, so they are not
+     * taken for abandoned.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private SyncJobStatus runSync(
+        HeldSyncLease lease,
+        SyncJobProgress job,
+        Function<List<Station>, SyncCheckpoints> openRuns,
+        UnaryOperator<List<Station>> ownedStations
+    ) {
+        SyncCheckpoints checkpoints = null;
+        try {
+            List<Station> allStations = airQualityProvider.findAllStations();
+            stationCatalog.update(allStations);
+
+            checkpoints = openRuns.apply(allStations);
+            if (checkpoints.isEmpty()) {
+                log.info("No unfinished sync run to take over");
+                return SyncJobStatus.SKIPPED;
+            }
+            SyncCheckpoints runs = checkpoints;
+            Supplier<List<Station>> unassignedStations = () -> ownedStations.apply(allStations)
+                .stream()
+                .filter(station -> !runs.tracks(station.id()))
+                .toList();
+            syncRuns(lease, job, allStations, runs, unassignedStations);
+            return SyncJobStatus.COMPLETED;
 
         } catch (Exception e) {
             log.error("Error during air quality data synchronization", e);
+            if (checkpoints != null) {
+                checkpoints.finish(false);
+            }
+            return SyncJobStatus.FAILED;
+        }
+    }
+
+    private void syncRuns(
+        HeldSyncLease lease,
+        SyncJobProgress job,
+        List<Station> allStations,
+        SyncCheckpoints checkpoints,
+        Supplier<List<Station>> unassignedStations
+    ) {
+        Instant deadline = Instant.now().plus(syncProperties.runTimeout());
+        List<Station> stations = allStations.stream().filter(station -> checkpoints.tracks(station.id())).toList();
+        List<Station> unsettled =
+                stations.stream().filter(station -> !checkpoints.isSettled(station.id())).toList();
+        log.info(
+            "Found {} stations to sync, {} already settled in run {}",
+            unsettled.size(),
+            stations.size() - unsettled.size(),
+            checkpoints.runIds()
+        );
+        job.stationsFound(stations.size(), stations.size() - unsettled.size());
+
+        MeasurementBatchWriter writer = new MeasurementBatchWriter(
+            historyRepository,
+            lease,
+            batchTransactions(),
+            syncProperties.writer().batchSize(),
+            syncProperties.writer().flushInterval(),
+            batch -> {
+                checkpoints.markPersisted(batch);
+                latestMeasurementCache.record(batch);
+            }
+        );
+        SyncRun run = startRun(writer, lease, checkpoints, job, unassignedStations);
+
+        SyncResult result;
+        try {
+            result = syncWithRetries(unsettled, run, deadline);
+        } finally {
+            writer.flush();
+        }
+
+        log.info("Sync completed: {} successful, {} failed", result.successCount(), result.failedCount());
+        if (writer.failedCount() > 0) {
+            log.error("{} measurements could not be persisted", writer.failedCount());
+        }
+        checkpoints.finish(result.failedCount() == 0 && writer.failedCount() == 0);
+    }
+
+    /**
+     * Syncs the stations, then retries the failed ones with exponential backoff for as long as the
+     * run deadline allows. Stations of nodes that left since the previous round are adopted into
+     * the next one.
+     */
+    private SyncResult syncWithRetries(List<Station> stations, SyncRun run, Instant deadline) {
+        AirQualitySyncProperties.Retry retry = syncProperties.retry();
+        List<Station> remaining = stations;
+        Duration backoff = retry.initialBackoff();
+        int successCount = 0;
+
+        for (int attempt = 1;; attempt++) {
+            List<Station> failed = syncProperties.mode() == SyncMode.CONCURRENT
+                    ? syncConcurrently(remaining, run, deadline)
+                    : syncSequentially(remaining, run);
+            successCount += remaining.size() - failed.size();
+            run.job().stationsFailed(failed.size());
+
+            if (attempt >= retry.maxAttempts() || !run.lease().isValid()) {
+                return new SyncResult(successCount, failed.size());
+            }
+            List<Station> adopted = adoptUnassignedStations(run);
+            // Adopted stations have not failed yet, they need no backoff
+            if ((failed.isEmpty() && adopted.isEmpty()) || (!failed.isEmpty() && !awaitRetry(backoff, deadline))) {
+                return new SyncResult(successCount, failed.size());
+            }
+
+            log.info(
+                "Retrying {} failed and {} adopted stations, attempt {} of {}",
+                failed.size(),
+                adopted.size(),
+                attempt + 1,
+                retry.maxAttempts()
+            );
+            remaining = new ArrayList<>(failed);
+            remaining.addAll(adopted);
+            backoff = backoff.multipliedBy(2);
+        }
+    }
+
+    /**
+     * Takes on the stations this node became responsible for because their owner left. Measurement
+     * dates are reloaded first, so stations the departed node still persisted are skipped.
+     */
+    private List<Station> adoptUnassignedStations(SyncRun run) {
+        List<Station> adopted = run.unassignedStations().get();
+        if (adopted.isEmpty()) {
+            return adopted;
+        }
+
+        try {
+            historyRepository.findLatestMeasurementDates().forEach(run::recordLatestMeasurement);
+        } catch (DataAccessException e) {
+            log.warn("Could not reload latest measurement dates, not adopting stations: {}", e.getMessage());
+            return List.of();
+        }
+        log.info("Adopting {} stations of sync nodes that left", adopted.size());
+        run.checkpoints().adopt(adopted);
+        run.job().stationsAdopted(adopted.size());
+        return adopted;
+    }
+
+    private boolean awaitRetry(Duration backoff, Instant deadline) {
+        if (Instant.now().plus(backoff).isAfter(deadline)) {
+            log.info("No time left in the run window for another retry");
+            return false;
+        }
+        try {
+            Thread.sleep(backoff);
+            return true;
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private List<Station> syncSequentially(List<Station> stations, SyncRun run) {
+        List<Station> failed = new ArrayList<>();
+
+        for (Station station : stations) {
+            if (!syncStationDataSafely(station, run)) {
+                failed.add(station);
+            }
+        }
+
+        return failed;
+    }
+
+    /**
+     * Fans stations out across virtual threads. At most {@code maxConcurrentStations} stations are
+     * in progress at once; stations still running when the run deadline passes are cancelled and
+     * counted as failed.
+     */
+    @SuppressWarnings("PMD.DoNotUseThreads") // Virtual threads are the point of the concurrent mode
+    private List<Station> syncConcurrently(List<Station> stations, SyncRun run, Instant deadline) {
+        Semaphore permits = new Semaphore(syncProperties.maxConcurrentStations());
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>(stations.size());
+            for (Station station : stations) {
+                futures.add(executor.submit(() -> syncStationWithPermit(station, permits, run)));
+            }
+
+            List<Station> failed = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                if (!awaitStation(futures.get(i), deadline)) {
+                    failed.add(stations.get(i));
+                }
+            }
+            return failed;
+        } finally {
+            // Don't wait for abandoned stations - their HTTP calls may take a while to unwind
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean syncStationWithPermit(
+        Station station,
+        Semaphore permits,
+        SyncRun run
+    ) throws InterruptedException {
+        permits.acquire();
+        try {
+            return syncStationDataSafely(station, run);
+        } finally {
+            permits.release();
         }
     }
 
+    private boolean awaitStation(Future<Boolean> future, Instant deadline) {
+        long remainingNanos = Math.max(0, Duration.between(Instant.now(), deadline).toNanos());
+        try {
+            return future.get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException _) {
+            log.warn("Sync run deadline of {} exceeded, abandoning station", syncProperties.runTimeout());
+            future.cancel(true);
+            return false;
+        } catch (ExecutionException _) {
+            return false;
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return false;
+        }
+    }
+
+    private record SyncResult(int successCount, int failedCount) {
+    }
+
+    /** Runs are grouped per hour, matching the sync schedule; only runs of the current hour are taken over */
+    private static Instant currentRunWindow() {
+        return Instant.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    /**
+     * Each writer batch commits in its own short transaction when a transaction manager is
+     * configured and the measurement storage supports transactions. Otherwise batches are plain
+     * bulk writes, which are safe to repeat because they upsert.
+     */
+    private TransactionOperations batchTransactions() {
+        PlatformTransactionManager transactionManager = transactionManagerProvider.getIfUnique();
+        if (transactionManager == null || !historyRepository.supportsTransactions()) {
+            return TransactionOperations.withoutTransaction();
+        }
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setTimeout(Math.toIntExact(syncProperties.writer().transactionTimeout().toSeconds()));
+        return template;
+    }
+
+    /**
+     * Loads the latest measurement date of every station in one query, so skip decisions during
+     * the run don't hit the database per station.
+     */
+    private SyncRun startRun(
+        MeasurementBatchWriter writer,
+        HeldSyncLease lease,
+        SyncCheckpoints checkpoints,
+        SyncJobProgress job,
+        Supplier<List<Station>> unassignedStations
+    ) {
+        Map<Integer, LocalDateTime> latestDates =
+                new ConcurrentHashMap<>(historyRepository.findLatestMeasurementDates());
+        LocalDateTime recentThreshold =
+                LocalDateTime.now(ZoneOffset.UTC).minusMinutes(RECENT_MEASUREMENT_THRESHOLD_MINUTES);
+        log.debug("Loaded latest measurement dates for {} stations", latestDates.size());
+        return new SyncRun(writer, lease, checkpoints, job, unassignedStations, latestDates, recentThreshold);
+    }
+
+    /** State shared by the station tasks of one sync run */
+    private record SyncRun(
+        MeasurementBatchWriter writer,
+        HeldSyncLease lease,
+        SyncCheckpoints checkpoints,
+        SyncJobProgress job,
+        Supplier<List<Station>> unassignedStations,
+        Map<Integer, LocalDateTime> latestMeasurementDates,
+        LocalDateTime recentThreshold
+    ) {
+        boolean hasRecentMeasurement(int stationId) {
+            LocalDateTime latest = latestMeasurementDates.get(stationId);
+            return latest != null && !latest.isBefore(recentThreshold);
+        }
+
+        void write(AirQualityMeasurement measurement, LocalDateTime measurementDate) {
+            writer.write(measurement);
+            recordLatestMeasurement(measurement.getStationId(), measurementDate);
+        }
+
+        void recordLatestMeasurement(int stationId, LocalDateTime measurementDate) {
+            latestMeasurementDates.merge(
+                stationId,
+                measurementDate,
+                (current, written) -> written.isAfter(current) ? written : current
+            );
+        }
+    }
+
+    /**
+     * Returns whether the station is settled for this run. A station GIOŚ had no index for is not:
+     * it is retried like a failed one, since the index may just not be published yet.
+     */
     @SuppressWarnings("PMD.AvoidCatchingGenericException")
-    private boolean syncStationDataSafely(Station station) {
+    private boolean syncStationDataSafely(Station station, SyncRun run) {
         try {
-            syncStationData(station);
+            switch (syncStationData(station, run)) {
+                case QUEUED -> {
+                    // Checkpointed once its batch is persisted
+                }
+                case RECENT -> run.checkpoints().mark(station.id(), StationSyncStatus.SKIPPED);
+                case NO_INDEX -> {
+                    run.checkpoints().mark(station.id(), StationSyncStatus.NO_DATA);
+                    return false;
+                }
+            }
+            run.job().stationDone();
             return true;
         } catch (Exception e) {
             log.error("Failed to sync data for station {}: {}", station.id(), e.getMessage());
+            run.checkpoints().mark(station.id(), StationSyncStatus.FAILED);
             return false;
         }
     }
 
-    private void syncStationData(Station station) {
+    private enum StationOutcome {
+        QUEUED,
+        RECENT,
+        NO_INDEX
+    }
+
+    private StationOutcome syncStationData(Station station, SyncRun run) {
+        // A node that lost its lease must not keep writing next to the new holder
+        if (!run.lease().isValid()) {
+            throw new IllegalStateException("Sync lease lost, token " + run.lease().fencingToken());
+        }
+
         // Check if we already have recent data (within the last 50 minutes)
-        LocalDateTime threshold = LocalDateTime.now(ZoneOffset.UTC).minusMinutes(RECENT_MEASUREMENT_THRESHOLD_MINUTES);
-        if (historyRepository.hasRecentMeasurement(station.id(), threshold)) {
+        if (run.hasRecentMeasurement(station.id())) {
             log.debug("Skipping station {} - has recent measurement", station.id());
-            return;
+            return StationOutcome.RECENT;
         }
 
         // Fetch air quality index
         Optional<AirQualityIndex> indexOpt = airQualityProvider.findIndexByStationId(station.id());
         if (indexOpt.isEmpty()) {
             log.debug("No index data for station {}", station.id());
-            return;
+            return StationOutcome.NO_INDEX;
         }
 
         AirQualityIndex index = indexOpt.get();
@@ -106,12 +607,13 @@ public class AirQualitySyncService {
         // Use the latest sensor measurement date if available, otherwise fallback to index date
         LocalDateTime measurementDate = sensorData.latestDate().orElse(index.calculationDate());
 
-        // Create and save measurement
+        // Create measurement and hand it to the batch writer
         AirQualityMeasurement measurement =
-                AirQualityMeasurement.create(station.id(), station.name(), index, sensorData.values(), measurementDate);
+                AirQualityMeasurement.create(station, index, sensorData.values(), measurementDate);
 
-        historyRepository.save(measurement);
-        log.debug("Saved measurement for station {} at {}: {}", station.name(), measurementDate, index.stIndexLevel());
+        run.write(measurement, measurementDate);
+        log.debug("Queued measurement for station {} at {}: {}", station.name(), measurementDate, index.stIndexLevel());
+        return StationOutcome.QUEUED;
     }
 
     private record SensorDataResult(Map<String, Double> values, Optional<LocalDateTime> latestDate) {
@@ -144,7 +646,10 @@ public class AirQualitySyncService {
         return new SensorDataResult(values, Optional.ofNullable(latestDate));
     }
 
-    /** Remove measurements older than 90 days to prevent database bloat */
+    /**
+     * Remove measurements older than 90 days to prevent database bloat. Runs as a single delete
+     * outside any transaction.
+     */
     @SuppressWarnings("PMD.AvoidCatchingGenericException")
     private void cleanupOldData() {
         LocalDateTime threshold = LocalDateTime.now(ZoneOffset.UTC).minusDays(OLD_DATA_THRESHOLD_DAYS);
@@ -155,10 +660,4 @@ public class AirQualitySyncService {
             log.error("Error cleaning up old measurements", e);
         }
     }
-
-    /** Manual sync trigger for testing or admin operations */
-    public void triggerManualSync() {
-        log.info("Manual sync triggered");
-        selfProvider.getObject().syncAirQualityData();
-    }
 }
@@ -0,0 +1,54 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring assigning stations to sync nodes. Every node is placed on the ring at
+ * several virtual points to keep partitions even; removing a node only moves the stations it owned.
+ * Placement depends on node ids alone, so all nodes build the same ring from the same membership.
+ */
+final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        if (nodeIds.isEmpty()) {
+            throw new IllegalArgumentException("Hash ring needs at least one node");
+        }
+
+        // Sorted so that the rare point collision resolves the same way on every node
+        nodeIds.stream().sorted().forEach(nodeId -> {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(hash(nodeId + "#" + i), nodeId);
+            }
+        });
+    }
+
+    String ownerOf(int stationId) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(mix(stationId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(String key) {
+        long hash = 0;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash = 31 * hash + b;
+        }
+        return mix(hash);
+    }
+
+    /** MurmurHash3 64-bit finalizer, spreads sequential ids evenly over the ring */
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
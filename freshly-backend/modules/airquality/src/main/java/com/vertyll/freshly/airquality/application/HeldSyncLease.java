@@ -0,0 +1,110 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jspecify.annotations.Nullable;
+
+import com.vertyll.freshly.airquality.domain.SyncLease;
+import com.vertyll.freshly.airquality.domain.SyncLockRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sync lease held by this node for the duration of one run. It is renewed in the background; once a
+ * renewal fails or the lease runs out, it counts as lost and the run stops picking up stations.
+ * Closing it stops the renewal and releases the lock.
+ */
+@Slf4j
+final class HeldSyncLease implements AutoCloseable {
+
+    private final @Nullable SyncLockRepository lockRepository;
+    private final AtomicReference<SyncLease> lease;
+    private final AtomicBoolean lost = new AtomicBoolean();
+    private volatile @Nullable ScheduledFuture<?> renewal;
+
+    private HeldSyncLease(@Nullable SyncLockRepository lockRepository, SyncLease lease) {
+        this.lockRepository = lockRepository;
+        this.lease = new AtomicReference<>(lease);
+    }
+
+    static HeldSyncLease acquired(SyncLockRepository lockRepository, SyncLease lease) {
+        return new HeldSyncLease(lockRepository, lease);
+    }
+
+    /** Lease that never expires, used when cluster leasing is disabled */
+    static HeldSyncLease local(String lockName, String holderId) {
+        return new HeldSyncLease(null, new SyncLease(lockName, holderId, 0, Instant.MAX));
+    }
+
+    long fencingToken() {
+        return lease.get().fencingToken();
+    }
+
+    boolean isValid() {
+        return !lost.get() && Instant.now().isBefore(lease.get().expiresAt());
+    }
+
+    /**
+     * Checks against the lock itself that no other node has taken the lease over, marking it lost
+     * otherwise. Meant to run inside the transaction of a write made under the lease.
+     */
+    boolean confirm() {
+        if (lockRepository == null) {
+            return true;
+        }
+        if (!lost.get() && lockRepository.confirm(lease.get())) {
+            return true;
+        }
+        markLost();
+        return false;
+    }
+
+    void startRenewal(ScheduledFuture<?> renewal) {
+        this.renewal = renewal;
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    void renew(Duration ttl) {
+        if (lockRepository == null || lost.get()) {
+            return;
+        }
+        try {
+            lockRepository.renew(lease.get(), ttl).ifPresentOrElse(lease::set, this::markLost);
+        } catch (Exception e) {
+            // Keep the lease until it actually expires, the next renewal may still succeed
+            log.warn("Failed to renew sync lease {}: {}", lease.get().lockName(), e.getMessage());
+        }
+    }
+
+    private void markLost() {
+        if (lost.compareAndSet(false, true)) {
+            log.warn(
+                "Sync lease {} (token {}) was taken over by another node",
+                lease.get().lockName(),
+                fencingToken()
+            );
+        }
+    }
+
+    @Override
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public void close() {
+        ScheduledFuture<?> scheduledRenewal = renewal;
+        if (scheduledRenewal != null) {
+            scheduledRenewal.cancel(false);
+        }
+        if (lockRepository == null || lost.get()) {
+            return;
+        }
+        try {
+            lockRepository.release(lease.get());
+        } catch (Exception e) {
+            // The lease simply expires, so another node can still take over
+            log.warn("Failed to release sync lease {}: {}", lease.get().lockName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of a measurement history. The measurements are split
+ * into equal buckets between the first and the last one, which are always kept; from each bucket the
+ * measurement forming the largest triangle with the previously kept one and the average of the next
+ * bucket is kept. Peaks and drops survive, unlike with bucket averages. The curve followed is the
+ * PM10/PM2.5 score the ranking uses, so measurements without either reading are left out.
+ */
+final class HistoryDownsampler {
+
+    private static final int KEPT_ENDS = 2;
+
+    private HistoryDownsampler() {
+    }
+
+    /**
+     * @param measurements
+     *     History in chronological order
+     * @param threshold
+     *     Number of measurements to keep, at least 3
+     */
+    static List<AirQualityMeasurement> largestTriangleThreeBuckets(
+            List<AirQualityMeasurement> measurements,
+            int threshold
+    ) {
+        List<AirQualityMeasurement> points = measurements.stream()
+            .filter(measurement -> measurement.getMeasurementDate() != null && score(measurement) != null)
+            .toList();
+        if (points.size() <= threshold) {
+            return points;
+        }
+
+        double[] x = new double[points.size()];
+        double[] y = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            AirQualityMeasurement point = points.get(i);
+            x[i] = point.getMeasurementDate().toEpochSecond(ZoneOffset.UTC);
+            y[i] = score(point);
+        }
+
+        List<AirQualityMeasurement> sampled = new ArrayList<>(threshold);
+        sampled.add(points.getFirst());
+        double bucketSize = (double) (points.size() - KEPT_ENDS) / (threshold - KEPT_ENDS);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - KEPT_ENDS; bucket++) {
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, points.size());
+            double nextX = 0;
+            double nextY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                nextX += x[i];
+                nextY += y[i];
+            }
+            nextX /= nextEnd - nextStart;
+            nextY /= nextEnd - nextStart;
+
+            int selected = (int) (bucket * bucketSize) + 1;
+            double largestArea = -1;
+            for (int i = selected; i < nextStart; i++) {
+                // Twice the triangle area, which orders the candidates just as well
+                double area = Math.abs(
+                    (x[previous] - nextX) * (y[i] - y[previous]) - (x[previous] - x[i]) * (nextY - y[previous])
+                );
+                if (area > largestArea) {
+                    largestArea = area;
+                    selected = i;
+                }
+            }
+            sampled.add(points.get(selected));
+            previous = selected;
+        }
+        sampled.add(points.getLast());
+        return sampled;
+    }
+
+    /** Mean of PM10 and PM2.5, or the one that is there, like the station ranking score */
+    private static @Nullable Double score(AirQualityMeasurement measurement) {
+        Double pm10 = measurement.getPm10Value();
+        Double pm25 = measurement.getPm25Value();
+        if (pm10 != null && pm25 != null) {
+            return (pm10 + pm25) / 2;
+        }
+        return pm10 != null ? pm10 : pm25;
+    }
+}
@@ -0,0 +1,167 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.domain.AirQualityHistoryRepository;
+import com.vertyll.freshly.airquality.domain.AirQualityLevel;
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Latest measurement of every station, kept in memory and tagged with the measurement generation it
+ * was loaded for. Measurements only change when a sync run commits, so the map is loaded with a
+ * single aggregation per generation, on the first request after the node has seen the
+ * {@link MeasurementGeneration} move on, and the requests in between never reach MongoDB. The
+ * stations of every batch this node writes are read back as the batch commits, so its own sync
+ * shows up before the run publishes; writes of other nodes come with the next generation.
+ * Concurrent requests for a stale map wait for one load.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class LatestMeasurementCache {
+
+    private final AirQualityHistoryRepository historyRepository;
+    private final MeasurementGeneration measurementGeneration;
+
+    private final Lock lock = new ReentrantLock();
+    private volatile @Nullable Snapshot snapshot;
+
+    /**
+     * Latest measurements of every station that has one
+     *
+     * @param generation
+     *     Measurement generation they were loaded for
+     * @param measurements
+     *     By station ID, in station ID order
+     * @param version
+     *     Changes whenever the measurements do, including the batches applied between generations,
+     *     for clients to revalidate against. Derived from the stored values only, so every node
+     *     holding the same measurements reports the same version, across restarts too
+     */
+    record Snapshot(long generation, Map<Integer, AirQualityMeasurement> measurements, String version) {
+
+        Snapshot(long generation, Map<Integer, AirQualityMeasurement> measurements) {
+            this(generation, measurements, generation + "-" + checksum(measurements));
+        }
+
+        private static String checksum(Map<Integer, AirQualityMeasurement> measurements) {
+            CRC32C checksum = new CRC32C();
+            for (AirQualityMeasurement measurement : measurements.values()) {
+                AirQualityLevel level = measurement.getOverallIndexLevel();
+                String stored = String.join(
+                    "|",
+                    String.valueOf(measurement.getStationId()),
+                    String.valueOf(measurement.getMeasurementDate()),
+                    level == null ? "" : level.name(),
+                    String.valueOf(measurement.getPm10Value()),
+                    String.valueOf(measurement.getPm25Value()),
+                    String.valueOf(measurement.getSo2Value()),
+                    String.valueOf(measurement.getNo2Value()),
+                    String.valueOf(measurement.getCoValue()),
+                    String.valueOf(measurement.getO3Value())
+                );
+                checksum.update(stored.getBytes(StandardCharsets.UTF_8));
+                checksum.update('\n');
+            }
+            return Long.toHexString(checksum.getValue());
+        }
+    }
+
+    Snapshot get() {
+        long currentGeneration = measurementGeneration.current();
+        Snapshot current = snapshot;
+        if (current != null && current.generation() >= currentGeneration) {
+            return current;
+        }
+
+        lock.lock();
+        try {
+            current = snapshot;
+            if (current != null && current.generation() >= currentGeneration) {
+                return current;
+            }
+
+            Map<Integer, AirQualityMeasurement> measurements = new TreeMap<>();
+            for (AirQualityMeasurement measurement : historyRepository.findLatestMeasurements()) {
+                measurements.put(measurement.getStationId(), measurement);
+            }
+            Snapshot loaded = new Snapshot(currentGeneration, Collections.unmodifiableMap(measurements));
+            snapshot = loaded;
+            log.debug(
+                "Loaded the latest measurements of {} stations for generation {}",
+                measurements.size(),
+                currentGeneration
+            );
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies a batch this node has written, reading back the latest stored measurement of its
+     * stations so the map holds what MongoDB does. Nothing is applied before the first load, which
+     * reads the batch anyway; a failed read leaves the stations to the next generation.
+     */
+    void record(List<AirQualityMeasurement> written) {
+        if (snapshot == null) {
+            return;
+        }
+
+        Set<Integer> stationIds = new HashSet<>();
+        written.forEach(measurement -> stationIds.add(measurement.getStationId()));
+        List<AirQualityMeasurement> latest;
+        try {
+            latest = historyRepository.findLatestMeasurements(stationIds);
+        } catch (DataAccessException e) {
+            log.warn(
+                "Could not read back the latest measurements of {} stations: {}",
+                stationIds.size(),
+                e.getMessage()
+            );
+            return;
+        }
+
+        lock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            Map<Integer, AirQualityMeasurement> measurements = new TreeMap<>(current.measurements());
+            for (AirQualityMeasurement measurement : latest) {
+                measurements.merge(measurement.getStationId(), measurement, LatestMeasurementCache::later);
+            }
+            snapshot = new Snapshot(current.generation(), Collections.unmodifiableMap(measurements));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The one read last, unless the other is of a later date, e.g. loaded with a newer generation */
+    private static AirQualityMeasurement later(AirQualityMeasurement held, AirQualityMeasurement read) {
+        LocalDateTime heldDate = held.getMeasurementDate();
+        LocalDateTime readDate = read.getMeasurementDate();
+        if (heldDate == null || (readDate != null && !readDate.isBefore(heldDate))) {
+            return read;
+        }
+        return held;
+    }
+}
@@ -0,0 +1,180 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.config.AirQualityLiveProperties;
+import com.vertyll.freshly.airquality.domain.AirQualityIndex;
+import com.vertyll.freshly.airquality.domain.AirQualityProvider;
+import com.vertyll.freshly.airquality.domain.SensorMeasurement;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Live GIOŚ readings proxied per station, shared between concurrent requests and reused for a short
+ * while. Requests for a station whose index or sensors are already being fetched wait for that fetch
+ * rather than starting their own, so GIOŚ sees at most one call per station and operation at a time
+ * and the call volume follows the number of stations asked for, not the request rate.
+ *
+ * <p>
+ * A result is served as is for {@code ttl}. For {@code staleWhileRevalidate} after that it is still
+ * served while a single background fetch replaces it; a failed background fetch leaves it in place
+ * until the next request tries again. Older results are fetched again before answering. A failed
+ * fetch is not kept, so the next request tries again.
+ */
+@Slf4j
+@Component
+@SuppressWarnings("PMD.DoNotUseThreads") // Background fetches run on virtual threads
+class LiveReadingsCache implements AutoCloseable {
+
+    private final ExecutorService refresher = Executors.newVirtualThreadPerTaskExecutor();
+    private final long ttlNanos;
+    private final long maxAgeNanos;
+    private final Readings<Optional<AirQualityIndex>> indexes;
+    private final Readings<List<SensorMeasurement>> sensors;
+
+    private LongSupplier nanoClock = System::nanoTime;
+
+    LiveReadingsCache(AirQualityProvider airQualityProvider, AirQualityLiveProperties liveProperties) {
+        this.ttlNanos = liveProperties.ttl().toNanos();
+        this.maxAgeNanos = ttlNanos + liveProperties.staleWhileRevalidate().toNanos();
+        this.indexes = new Readings<>("index", airQualityProvider::findIndexByStationId);
+        this.sensors = new Readings<>("sensors", airQualityProvider::findMeasurementsByStationId);
+    }
+
+    void setNanoClock(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    Optional<AirQualityIndex> getIndex(int stationId) {
+        return indexes.get(stationId);
+    }
+
+    List<SensorMeasurement> getMeasurements(int stationId) {
+        return sensors.get(stationId);
+    }
+
+    /** Waits for the background fetches in flight with the application context */
+    @Override
+    public void close() {
+        refresher.close();
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** Results of one provider operation by station */
+    private final class Readings<T> {
+
+        private final String operation;
+        private final IntFunction<T> fetcher;
+        private final ConcurrentMap<Integer, Entry<T>> entries = new ConcurrentHashMap<>();
+
+        Readings(String operation, IntFunction<T> fetcher) {
+            this.operation = operation;
+            this.fetcher = fetcher;
+        }
+
+        T get(int stationId) {
+            long now = nanoClock.getAsLong();
+            Entry<T> entry = entries.get(stationId);
+            if (entry == null || entry.isOlderThan(maxAgeNanos, now)) {
+                entry = load(stationId, entry, now);
+            } else if (entry.isOlderThan(ttlNanos, now)) {
+                revalidate(stationId, entry, now);
+            }
+            return await(entry.result());
+        }
+
+        /**
+         * Installs a pending entry in place of {@code expected}, unless another request replaced it
+         * already, and fetches it when it is ours. Entries past their stale window are dropped on the
+         * way, which keeps stations asked for once from piling up.
+         */
+        @SuppressWarnings("PMD.AvoidCatchingGenericException") // The failure is handed to every waiting request
+        private Entry<T> load(int stationId, @Nullable Entry<T> expected, long now) {
+            Entry<T> pending = new Entry<>(now, new CompletableFuture<>(), new AtomicBoolean());
+            Entry<T> installed = entries.compute(
+                stationId,
+                (_, existing) -> existing != null && existing != expected ? existing : pending
+            );
+            if (installed != pending) {
+                return installed;
+            }
+
+            entries.values().removeIf(entry -> entry.isOlderThan(maxAgeNanos, now));
+            try {
+                pending.result().complete(fetcher.apply(stationId));
+            } catch (RuntimeException e) {
+                entries.remove(stationId, pending);
+                pending.result().completeExceptionally(e);
+            }
+            return pending;
+        }
+
+        /** Replaces a stale entry in the background, once at a time per entry */
+        private void revalidate(int stationId, Entry<T> stale, long now) {
+            if (!stale.revalidating().compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                refresher.execute(() -> refetch(stationId, stale, now));
+            } catch (RejectedExecutionException _) {
+                stale.revalidating().set(false);
+            }
+        }
+
+        @SuppressWarnings("PMD.AvoidCatchingGenericException") // Any failure keeps the stale result
+        private void refetch(int stationId, Entry<T> stale, long startedAt) {
+            try {
+                T value = fetcher.apply(stationId);
+                entries.replace(
+                    stationId,
+                    stale,
+                    new Entry<>(startedAt, CompletableFuture.completedFuture(value), new AtomicBoolean())
+                );
+            } catch (RuntimeException e) {
+                stale.revalidating().set(false);
+                log.warn(
+                    "Could not refresh the GIOŚ {} of station {}, serving the previous one: {}",
+                    operation,
+                    stationId,
+                    e.getMessage()
+                );
+            }
+        }
+    }
+
+    /**
+     * @param fetchedAt
+     *     When the fetch started, so a slow fetch doesn't extend the life of its result
+     */
+    private record Entry<T>(long fetchedAt, CompletableFuture<T> result, AtomicBoolean revalidating) {
+
+        /** Whether the result is there and older than {@code ageNanos}; fetches in flight are never old */
+        boolean isOlderThan(long ageNanos, long now) {
+            return result.isDone() && now - fetchedAt > ageNanos;
+        }
+    }
+}
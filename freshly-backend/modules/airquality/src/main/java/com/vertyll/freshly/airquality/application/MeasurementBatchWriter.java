@@ -0,0 +1,147 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.vertyll.freshly.airquality.domain.AirQualityHistoryRepository;
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Buffers the measurements produced by one sync run and persists them through bulk upserts. A
+ * batch is written once it reaches {@code batchSize}, when a write arrives after
+ * {@code flushInterval} has passed since the previous flush, and on the final {@link #flush()}.
+ * Each batch commits on its own, so a failure late in the run only loses that batch; successfully
+ * written batches are reported to {@code onBatchPersisted}. Batches are only written while the sync
+ * lease is valid: once it is lost, whatever is still buffered or handed over by stations in flight
+ * is dropped and counted as failed, so a node that was fenced off doesn't write next to the new
+ * holder. The fencing token is checked against the lock within the transaction of every batch, which
+ * also catches a takeover this node has not noticed yet; without transactions the check directly
+ * precedes the write. Safe to use from concurrent station tasks.
+ */
+@Slf4j
+class MeasurementBatchWriter {
+
+    private final AirQualityHistoryRepository historyRepository;
+    private final HeldSyncLease lease;
+    private final TransactionOperations batchTransactions;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Consumer<List<AirQualityMeasurement>> onBatchPersisted;
+    private final Lock lock = new ReentrantLock();
+    private final AtomicInteger failedCount = new AtomicInteger();
+
+    private List<AirQualityMeasurement> buffer;
+    private Instant lastFlush;
+
+    MeasurementBatchWriter(
+        AirQualityHistoryRepository historyRepository,
+        HeldSyncLease lease,
+        TransactionOperations batchTransactions,
+        int batchSize,
+        Duration flushInterval,
+        Consumer<List<AirQualityMeasurement>> onBatchPersisted
+    ) {
+        this.historyRepository = historyRepository;
+        this.lease = lease;
+        this.batchTransactions = batchTransactions;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.onBatchPersisted = onBatchPersisted;
+        this.buffer = new ArrayList<>(batchSize);
+        this.lastFlush = Instant.now();
+    }
+
+    void write(AirQualityMeasurement measurement) {
+        @Nullable List<AirQualityMeasurement> batch = null;
+
+        lock.lock();
+        try {
+            buffer.add(measurement);
+            if (buffer.size() >= batchSize || !Instant.now().isBefore(lastFlush.plus(flushInterval))) {
+                batch = drain();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (batch != null) {
+            writeBatch(batch);
+        }
+    }
+
+    /** Write whatever is buffered, regardless of size */
+    void flush() {
+        List<AirQualityMeasurement> batch;
+
+        lock.lock();
+        try {
+            batch = drain();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    /** Number of measurements lost because their batch could not be written */
+    int failedCount() {
+        return failedCount.get();
+    }
+
+    private List<AirQualityMeasurement> drain() {
+        List<AirQualityMeasurement> batch = buffer;
+        buffer = new ArrayList<>(batchSize);
+        lastFlush = Instant.now();
+        return batch;
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void writeBatch(List<AirQualityMeasurement> batch) {
+        if (!lease.isValid()) {
+            dropFencedOff(batch);
+            return;
+        }
+        @Nullable Boolean written;
+        try {
+            written = batchTransactions.execute(_ -> {
+                if (!lease.confirm()) {
+                    return false;
+                }
+                historyRepository.upsertAll(batch);
+                return true;
+            });
+        } catch (Exception e) {
+            failedCount.addAndGet(batch.size());
+            log.error("Failed to write batch of {} measurements", batch.size(), e);
+            return;
+        }
+        if (!Boolean.TRUE.equals(written)) {
+            dropFencedOff(batch);
+            return;
+        }
+        log.debug("Flushed batch of {} measurements", batch.size());
+        onBatchPersisted.accept(batch);
+    }
+
+    private void dropFencedOff(List<AirQualityMeasurement> batch) {
+        failedCount.addAndGet(batch.size());
+        log.error(
+            "Dropping batch of {} measurements, sync lease with token {} is lost",
+            batch.size(),
+            lease.fencingToken()
+        );
+    }
+}
@@ -0,0 +1,83 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties;
+import com.vertyll.freshly.airquality.domain.AirQualityHistoryRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Latest measurement generation this node has seen. A sync run publishes a new generation when it
+ * is done, and the other nodes pick it up on their next poll. The caches of measurements compare
+ * what they hold against it on every request; it never goes back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class MeasurementGeneration {
+
+    private final AirQualityHistoryRepository historyRepository;
+    private final TaskScheduler taskScheduler;
+    private final AirQualitySyncProperties syncProperties;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile @Nullable ScheduledFuture<?> refreshes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refreshes = taskScheduler.scheduleWithFixedDelay(this::refresh, syncProperties.ranking().refreshInterval());
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        ScheduledFuture<?> scheduledRefreshes = refreshes;
+        if (scheduledRefreshes != null) {
+            scheduledRefreshes.cancel(false);
+        }
+    }
+
+    long current() {
+        return generation.get();
+    }
+
+    /** Picks up a generation published by another node */
+    void refresh() {
+        try {
+            advance(historyRepository.findGeneration());
+        } catch (DataAccessException e) {
+            log.warn(
+                "Could not check the measurement generation, keeping generation {}: {}",
+                generation,
+                e.getMessage()
+            );
+        }
+    }
+
+    /** Publishes that a sync run changed the measurements */
+    void publish() {
+        try {
+            advance(historyRepository.publishChanges());
+        } catch (DataAccessException e) {
+            log.warn("Could not publish a new measurement generation: {}", e.getMessage());
+        }
+    }
+
+    private void advance(long latest) {
+        long previous = generation.getAndAccumulate(latest, Math::max);
+        if (latest > previous) {
+            log.debug("Moved to measurement generation {}", latest);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties;
+import com.vertyll.freshly.airquality.domain.AirQualityHistoryRepository;
+import com.vertyll.freshly.airquality.domain.StationRanking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Station rankings kept in memory per number of days, tagged with the measurement generation and
+ * the hour they were computed for. Measurements only change when a sync run commits, so requests in
+ * between are answered without touching MongoDB. Once {@link MeasurementGeneration} moves on, the
+ * rankings in use are recomputed: right away on the node that ran the sync, on the next check of
+ * this cache elsewhere. Concurrent requests for a ranking that is not computed yet wait for a single
+ * aggregation.
+ *
+ * <p>
+ * Every ranking is computed for {@link #RANKED_STATIONS} stations; shorter rankings are its prefix.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class RankingCache {
+
+    /** Length of the cached rankings, the largest limit served */
+    static final int RANKED_STATIONS = 50;
+
+    private final AirQualityHistoryRepository historyRepository;
+    private final MeasurementGeneration measurementGeneration;
+    private final TaskScheduler taskScheduler;
+    private final AirQualitySyncProperties syncProperties;
+
+    private final ConcurrentMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile @Nullable ScheduledFuture<?> refreshes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refreshes = taskScheduler.scheduleWithFixedDelay(this::refresh, syncProperties.ranking().refreshInterval());
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        ScheduledFuture<?> scheduledRefreshes = refreshes;
+        if (scheduledRefreshes != null) {
+            scheduledRefreshes.cancel(false);
+        }
+    }
+
+    /** Ranking of the last {@code days} days, up to the end of the current hour */
+    List<StationRanking> get(int days) {
+        LocalDateTime windowEnd = AirQualityService.rankingWindowEnd();
+        long currentGeneration = measurementGeneration.current();
+
+        Entry entry = entries.get(days);
+        if (entry == null || !entry.isFresh(currentGeneration, windowEnd)) {
+            entry = load(days, currentGeneration, windowEnd);
+        }
+        return await(entry.ranking());
+    }
+
+    /** Recomputes the rankings in use that fell behind the measurement generation or the hour */
+    void refresh() {
+        long currentGeneration = measurementGeneration.current();
+        LocalDateTime windowEnd = AirQualityService.rankingWindowEnd();
+
+        for (Integer days : List.copyOf(entries.keySet())) {
+            Entry entry = entries.get(days);
+            if (entry == null || entry.isFresh(currentGeneration, windowEnd)) {
+                continue;
+            }
+            if (load(days, currentGeneration, windowEnd).ranking().isCompletedExceptionally()) {
+                log.warn("Could not recompute the {} day station ranking, computing it on the next request", days);
+            }
+        }
+    }
+
+    /**
+     * Installs a pending entry unless a fresh one is already there, and computes it when it is ours.
+     * A failed computation is dropped, so the next request tries again.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException") // The failure is handed to every waiting request
+    private Entry load(int days, long entryGeneration, LocalDateTime windowEnd) {
+        Entry pending = new Entry(entryGeneration, windowEnd, new CompletableFuture<>());
+        Entry installed = entries.compute(
+            days,
+            (_, existing) -> existing != null && existing.isFresh(entryGeneration, windowEnd) ? existing : pending
+        );
+        if (installed != pending) {
+            return installed;
+        }
+
+        try {
+            pending.ranking().complete(
+                List.copyOf(historyRepository.getRanking(windowEnd.minusDays(days), windowEnd, RANKED_STATIONS))
+            );
+        } catch (RuntimeException e) {
+            entries.remove(days, pending);
+            pending.ranking().completeExceptionally(e);
+        }
+        return pending;
+    }
+
+    private static List<StationRanking> await(CompletableFuture<List<StationRanking>> ranking) {
+        try {
+            return ranking.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(long generation, LocalDateTime windowEnd, CompletableFuture<List<StationRanking>> ranking) {
+
+        boolean isFresh(long currentGeneration, LocalDateTime currentWindowEnd) {
+            return generation >= currentGeneration && windowEnd.equals(currentWindowEnd);
+        }
+    }
+}
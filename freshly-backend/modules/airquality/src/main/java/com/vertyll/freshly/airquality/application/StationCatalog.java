@@ -0,0 +1,131 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties;
+import com.vertyll.freshly.airquality.domain.AirQualityProvider;
+import com.vertyll.freshly.airquality.domain.Station;
+import com.vertyll.freshly.airquality.domain.StationCatalogRepository;
+import com.vertyll.freshly.airquality.domain.StationCatalogSnapshot;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Station list served to the public endpoints. The catalog is persisted in MongoDB and refreshed by
+ * the sync; every node keeps an immutable snapshot of it in memory and polls the catalog generation
+ * in the background, swapping in a new snapshot when it changes. Reads are a memory access and never
+ * wait on GIOŚ or MongoDB. The catalog is only seeded from GIOŚ directly while it is still empty,
+ * e.g. on the very first start. A {@link StationSpatialIndex} is built alongside every snapshot.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class StationCatalog {
+
+    private final StationCatalogRepository catalogRepository;
+    private final AirQualityProvider airQualityProvider;
+    private final TaskScheduler taskScheduler;
+    private final AirQualitySyncProperties syncProperties;
+
+    private final AtomicReference<IndexedSnapshot> current = new AtomicReference<>(IndexedSnapshot.EMPTY);
+
+    private volatile @Nullable ScheduledFuture<?> refreshes;
+
+    StationCatalogSnapshot snapshot() {
+        return current.get().snapshot();
+    }
+
+    /** Spatial index over the stations of the current snapshot */
+    StationSpatialIndex spatialIndex() {
+        return current.get().spatialIndex();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refreshes = taskScheduler.scheduleWithFixedDelay(this::refresh, syncProperties.catalog().refreshInterval());
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        ScheduledFuture<?> scheduledRefreshes = refreshes;
+        if (scheduledRefreshes != null) {
+            scheduledRefreshes.cancel(false);
+        }
+    }
+
+    /** Reloads the snapshot when the persisted catalog moved on, seeding it while it is empty */
+    void refresh() {
+        try {
+            if (catalogRepository.findGeneration() != generation()) {
+                swap(catalogRepository.load());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh the station catalog, serving generation {}: {}", generation(), e.getMessage());
+            return;
+        }
+
+        if (snapshot().stations().isEmpty()) {
+            seed();
+        }
+    }
+
+    /**
+     * Stores the station list the sync just fetched from GIOŚ. An unchanged list is not written, so
+     * the generation only moves when the catalog really changed. An empty list is ignored rather than
+     * wiping the catalog.
+     */
+    void update(List<Station> stations) {
+        if (stations.isEmpty() || new HashSet<>(stations).equals(new HashSet<>(snapshot().stations()))) {
+            return;
+        }
+
+        try {
+            long generation = catalogRepository.replaceAll(stations);
+            swap(new StationCatalogSnapshot(generation, stations));
+            log.info("Station catalog updated to generation {} with {} stations", generation, stations.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not persist the station catalog: {}", e.getMessage());
+        }
+    }
+
+    private long generation() {
+        return snapshot().generation();
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException") // GIOŚ failures must not kill the scheduled refresh
+    private void seed() {
+        try {
+            update(airQualityProvider.findAllStations());
+        } catch (RuntimeException e) {
+            log.warn("Could not seed the station catalog from GIOŚ: {}", e.getMessage());
+        }
+    }
+
+    /** Never replaces a snapshot with an older generation, e.g. a slow reload racing a sync update */
+    private void swap(StationCatalogSnapshot next) {
+        if (next.generation() < generation()) {
+            return;
+        }
+        IndexedSnapshot indexed = new IndexedSnapshot(next, StationSpatialIndex.build(next.stations()));
+        current.accumulateAndGet(indexed, (previous, candidate) ->
+            candidate.snapshot().generation() >= previous.snapshot().generation() ? candidate : previous
+        );
+    }
+
+    private record IndexedSnapshot(StationCatalogSnapshot snapshot, StationSpatialIndex spatialIndex) {
+        static final IndexedSnapshot EMPTY =
+                new IndexedSnapshot(StationCatalogSnapshot.EMPTY, StationSpatialIndex.EMPTY);
+    }
+}
@@ -0,0 +1,214 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.vertyll.freshly.airquality.domain.Station;
+import com.vertyll.freshly.airquality.domain.StationDistance;
+
+/**
+ * Immutable k-d tree over the station catalog, built once per catalog snapshot and used by the
+ * nearest-station queries. Stations are indexed as points on the unit sphere (3D unit vectors): the
+ * straight-line chord between two points grows monotonically with their great-circle distance, so
+ * the tree prunes with plain per-axis comparisons, with no special cases at the poles or across the
+ * antimeridian, and trigonometry is only spent on the stations that are actually returned.
+ *
+ * <p>
+ * The tree is implicit - the stations are laid out in arrays so that the middle element of every
+ * range splits it - so a lookup walks primitive arrays instead of node objects.
+ */
+final class StationSpatialIndex {
+
+    static final StationSpatialIndex EMPTY = build(List.of());
+
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final int DIMENSIONS = 3;
+
+    private final Station[] stations;
+    /** x, y, z of every station, interleaved in tree order */
+    private final double[] points;
+
+    private StationSpatialIndex(Station[] stations, double[] points) {
+        this.stations = stations;
+        this.points = points;
+    }
+
+    static StationSpatialIndex build(List<Station> stations) {
+        int size = stations.size();
+        double[][] unsortedPoints = new double[size][];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            unsortedPoints[i] = toPoint(stations.get(i).latitude(), stations.get(i).longitude());
+            order[i] = i;
+        }
+        arrange(order, unsortedPoints, 0, size, 0);
+
+        Station[] indexedStations = new Station[size];
+        double[] points = new double[size * DIMENSIONS];
+        for (int i = 0; i < size; i++) {
+            indexedStations[i] = stations.get(order[i]);
+            System.arraycopy(unsortedPoints[order[i]], 0, points, i * DIMENSIONS, DIMENSIONS);
+        }
+        return new StationSpatialIndex(indexedStations, points);
+    }
+
+    /** Sorts the range along the axis of its depth, then does the same for both halves around the middle */
+    private static void arrange(Integer[] order, double[][] points, int from, int to, int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+        int axis = depth % DIMENSIONS;
+        Arrays.sort(order, from, to, Comparator.comparingDouble(i -> points[i][axis]));
+        int middle = (from + to) >>> 1;
+        arrange(order, points, from, middle, depth + 1);
+        arrange(order, points, middle + 1, to, depth + 1);
+    }
+
+    int size() {
+        return stations.length;
+    }
+
+    /** Stations at most {@code radiusKm} away, nearest first */
+    List<StationDistance> withinRadius(double latitude, double longitude, double radiusKm) {
+        double[] query = toPoint(latitude, longitude);
+        double maxChord = toChord(radiusKm);
+        List<StationDistance> result = new ArrayList<>();
+        collectWithinRadius(query, maxChord, 0, stations.length, 0, result);
+        result.sort(Comparator.comparingDouble(StationDistance::distanceInKm));
+        return result;
+    }
+
+    /**
+     * The {@code k} stations closest to the given point, nearest first
+     *
+     * @param maxKm
+     *     Stations further away are never returned, {@link Double#POSITIVE_INFINITY} for no limit
+     */
+    List<StationDistance> nearest(double latitude, double longitude, int k, double maxKm) {
+        if (k <= 0) {
+            return List.of();
+        }
+        double maxChord = toChord(maxKm);
+        Neighbours neighbours = new Neighbours(Math.min(k, stations.length), maxChord * maxChord);
+        collectNearest(toPoint(latitude, longitude), 0, stations.length, 0, neighbours);
+
+        List<StationDistance> result = new ArrayList<>(neighbours.size);
+        for (int i = 0; i < neighbours.size; i++) {
+            result.add(new StationDistance(stations[neighbours.nodes[i]], toKm(neighbours.chordsSquared[i])));
+        }
+        return result;
+    }
+
+    private void collectWithinRadius(
+            double[] query,
+            double maxChord,
+            int from,
+            int to,
+            int depth,
+            List<StationDistance> result
+    ) {
+        if (from >= to) {
+            return;
+        }
+        int node = (from + to) >>> 1;
+        int offset = node * DIMENSIONS;
+        double dx = query[0] - points[offset];
+        double dy = query[1] - points[offset + 1];
+        double dz = query[2] - points[offset + 2];
+
+        // Bounding-box check first: most candidates fail one of these and never reach the distance math
+        if (Math.abs(dx) <= maxChord && Math.abs(dy) <= maxChord && Math.abs(dz) <= maxChord) {
+            double chordSquared = dx * dx + dy * dy + dz * dz;
+            if (chordSquared <= maxChord * maxChord) {
+                result.add(new StationDistance(stations[node], toKm(chordSquared)));
+            }
+        }
+
+        double delta = query[depth % DIMENSIONS] - points[offset + depth % DIMENSIONS];
+        if (delta <= maxChord) {
+            collectWithinRadius(query, maxChord, from, node, depth + 1, result);
+        }
+        if (delta >= -maxChord) {
+            collectWithinRadius(query, maxChord, node + 1, to, depth + 1, result);
+        }
+    }
+
+    private void collectNearest(double[] query, int from, int to, int depth, Neighbours neighbours) {
+        if (from >= to) {
+            return;
+        }
+        int node = (from + to) >>> 1;
+        int offset = node * DIMENSIONS;
+        double dx = query[0] - points[offset];
+        double dy = query[1] - points[offset + 1];
+        double dz = query[2] - points[offset + 2];
+        neighbours.offer(node, dx * dx + dy * dy + dz * dz);
+
+        // Descend into the half holding the query first, so the bound tightens before the other half is tried
+        double delta = query[depth % DIMENSIONS] - points[offset + depth % DIMENSIONS];
+        boolean queryOnLowerHalf = delta < 0;
+        collectNearest(query, queryOnLowerHalf ? from : node + 1, queryOnLowerHalf ? node : to, depth + 1, neighbours);
+        if (delta * delta <= neighbours.bound()) {
+            collectNearest(
+                query,
+                queryOnLowerHalf ? node + 1 : from,
+                queryOnLowerHalf ? to : node,
+                depth + 1,
+                neighbours
+            );
+        }
+    }
+
+    private static double[] toPoint(double latitude, double longitude) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        double cosPhi = Math.cos(phi);
+        return new double[] {cosPhi * Math.cos(lambda), cosPhi * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    /** Chord length on the unit sphere spanning {@code km} along the surface */
+    private static double toChord(double km) {
+        return km >= Math.PI * EARTH_RADIUS_KM ? Double.POSITIVE_INFINITY : 2 * Math.sin(km / (2 * EARTH_RADIUS_KM));
+    }
+
+    private static double toKm(double chordSquared) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(chordSquared) / 2));
+    }
+
+    /** The best candidates found so far, kept sorted by distance; k is small, so insertion is cheapest */
+    private static final class Neighbours {
+
+        private final int[] nodes;
+        private final double[] chordsSquared;
+        private final double limit;
+        private int size;
+
+        Neighbours(int capacity, double limit) {
+            this.nodes = new int[capacity];
+            this.chordsSquared = new double[capacity];
+            this.limit = limit;
+        }
+
+        /** Squared chord a candidate has to beat */
+        double bound() {
+            return size == nodes.length && size > 0 ? chordsSquared[size - 1] : limit;
+        }
+
+        void offer(int node, double chordSquared) {
+            if (nodes.length == 0 || chordSquared > limit || size == nodes.length && chordSquared >= bound()) {
+                return;
+            }
+            int position = Math.min(size, nodes.length - 1);
+            while (position > 0 && chordsSquared[position - 1] > chordSquared) {
+                nodes[position] = nodes[position - 1];
+                chordsSquared[position] = chordsSquared[position - 1];
+                position--;
+            }
+            nodes[position] = node;
+            chordsSquared[position] = chordSquared;
+            size = Math.min(size + 1, nodes.length);
+        }
+    }
+}
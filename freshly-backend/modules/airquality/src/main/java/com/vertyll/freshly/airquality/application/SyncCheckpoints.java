@@ -0,0 +1,191 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+import com.vertyll.freshly.airquality.domain.Station;
+import com.vertyll.freshly.airquality.domain.StationSyncStatus;
+import com.vertyll.freshly.airquality.domain.SyncRunCheckpoint;
+import com.vertyll.freshly.airquality.domain.SyncRunRepository;
+import com.vertyll.freshly.airquality.domain.SyncRunStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Progress tracking of the sync runs one job works on: the run it started, or the runs it took over
+ * from dead nodes. Checkpoints are best effort: when one cannot be stored the sync goes on, and a
+ * resumed run merely syncs that station again.
+ */
+@Slf4j
+final class SyncCheckpoints {
+
+    private final @Nullable SyncRunRepository runRepository;
+    private final String nodeId;
+    private final List<SyncRunCheckpoint> runs;
+    private final Map<Integer, String> runIdsByStation;
+    private final Set<Integer> settledStations;
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // Local variable, no concurrent access
+    private SyncCheckpoints(
+        @Nullable SyncRunRepository runRepository,
+        String nodeId,
+        List<SyncRunCheckpoint> runs
+    ) {
+        this.runRepository = runRepository;
+        this.nodeId = nodeId;
+        this.runs = runs;
+
+        // A station settled by any of the runs is settled for the job
+        Map<Integer, String> runIds = new HashMap<>();
+        Set<Integer> settled = new HashSet<>();
+        for (SyncRunCheckpoint run : runs) {
+            run.stations().forEach((stationId, status) -> {
+                runIds.putIfAbsent(stationId, run.runId());
+                if (status.isSettled()) {
+                    settled.add(stationId);
+                }
+            });
+        }
+        this.runIdsByStation = new ConcurrentHashMap<>(runIds);
+        this.settledStations = Set.copyOf(settled);
+    }
+
+    /** Starts a new run over the given stations */
+    static SyncCheckpoints start(
+        SyncRunRepository runRepository,
+        String runId,
+        Instant windowStart,
+        String nodeId,
+        List<Station> stations
+    ) {
+        List<Integer> stationIds = stations.stream().map(Station::id).toList();
+        try {
+            return new SyncCheckpoints(
+                runRepository,
+                nodeId,
+                List.of(runRepository.start(runId, windowStart, nodeId, stationIds))
+            );
+        } catch (DataAccessException e) {
+            log.warn("Could not store sync run checkpoint, syncing without it: {}", e.getMessage());
+            Map<Integer, StationSyncStatus> pending = stationIds.stream()
+                .collect(Collectors.toMap(stationId -> stationId, _ -> StationSyncStatus.PENDING, (first, _) -> first));
+            return new SyncCheckpoints(
+                null,
+                nodeId,
+                List.of(new SyncRunCheckpoint(runId, windowStart, nodeId, SyncRunStatus.RUNNING, pending))
+            );
+        }
+    }
+
+    /**
+     * Takes over the runs of the window that are still running although their node is gone. Runs
+     * another node takes over first are left to it.
+     */
+    static SyncCheckpoints takeOver(
+        SyncRunRepository runRepository,
+        Instant windowStart,
+        String nodeId,
+        Predicate<SyncRunCheckpoint> abandoned
+    ) {
+        try {
+            List<SyncRunCheckpoint> runs = runRepository.findRunning(windowStart)
+                .stream()
+                .filter(abandoned)
+                .map(run -> runRepository.takeOver(run.runId(), run.nodeId(), nodeId))
+                .flatMap(Optional::stream)
+                .toList();
+            return new SyncCheckpoints(runRepository, nodeId, runs);
+        } catch (DataAccessException e) {
+            log.warn("Could not take over unfinished sync runs: {}", e.getMessage());
+            return new SyncCheckpoints(null, nodeId, List.of());
+        }
+    }
+
+    boolean isEmpty() {
+        return runs.isEmpty();
+    }
+
+    String runIds() {
+        return runs.stream().map(SyncRunCheckpoint::runId).collect(Collectors.joining(", "));
+    }
+
+    /** Whether the station belongs to one of the runs */
+    boolean tracks(int stationId) {
+        return runIdsByStation.containsKey(stationId);
+    }
+
+    boolean isSettled(int stationId) {
+        return settledStations.contains(stationId);
+    }
+
+    /** Adds stations the job took on during the run to its first run, as pending */
+    void adopt(List<Station> stations) {
+        if (runs.isEmpty()) {
+            return;
+        }
+        String runId = runs.getFirst().runId();
+        Map<Integer, StationSyncStatus> pending = stations.stream()
+            .map(Station::id)
+            .collect(Collectors.toMap(stationId -> stationId, _ -> StationSyncStatus.PENDING, (first, _) -> first));
+        pending.keySet().forEach(stationId -> runIdsByStation.putIfAbsent(stationId, runId));
+        store(runId, pending);
+    }
+
+    void mark(int stationId, StationSyncStatus status) {
+        String runId = runIdsByStation.get(stationId);
+        if (runId != null) {
+            store(runId, Map.of(stationId, status));
+        }
+    }
+
+    /** A station is done once its measurement is actually persisted, not when it was queued */
+    void markPersisted(List<AirQualityMeasurement> batch) {
+        batch.stream()
+            .map(AirQualityMeasurement::getStationId)
+            .filter(runIdsByStation::containsKey)
+            .collect(
+                Collectors.groupingBy(
+                    runIdsByStation::get,
+                    Collectors.toMap(stationId -> stationId, _ -> StationSyncStatus.DONE, (first, _) -> first)
+                )
+            )
+            .forEach(this::store);
+    }
+
+    void finish(boolean complete) {
+        if (runRepository == null) {
+            return;
+        }
+        SyncRunStatus status = complete ? SyncRunStatus.COMPLETED : SyncRunStatus.INCOMPLETE;
+        for (SyncRunCheckpoint run : runs) {
+            try {
+                runRepository.finish(run.runId(), nodeId, status);
+            } catch (DataAccessException e) {
+                log.warn("Could not finish sync run {}: {}", run.runId(), e.getMessage());
+            }
+        }
+    }
+
+    private void store(String runId, Map<Integer, StationSyncStatus> statuses) {
+        if (runRepository == null) {
+            return;
+        }
+        try {
+            runRepository.markStations(runId, nodeId, statuses);
+        } catch (DataAccessException e) {
+            log.warn("Could not checkpoint {} stations of sync run {}: {}", statuses.size(), runId, e.getMessage());
+        }
+    }
+}
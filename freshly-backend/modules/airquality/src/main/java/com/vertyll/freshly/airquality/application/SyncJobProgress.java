@@ -0,0 +1,67 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jspecify.annotations.Nullable;
+
+import com.vertyll.freshly.airquality.domain.SyncJob;
+import com.vertyll.freshly.airquality.domain.SyncJobStatus;
+
+/** Live progress of one sync job, updated by the station tasks of its run */
+final class SyncJobProgress {
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant startedAt = Instant.now();
+    private final AtomicInteger stationsTotal = new AtomicInteger();
+    private final AtomicInteger stationsDone = new AtomicInteger();
+    private final AtomicInteger stationsFailed = new AtomicInteger();
+
+    private volatile SyncJobStatus status = SyncJobStatus.RUNNING;
+    private volatile @Nullable Instant finishedAt;
+
+    String id() {
+        return id;
+    }
+
+    /** Stations settled by an earlier attempt of the same run count as done right away */
+    void stationsFound(int total, int alreadySettled) {
+        stationsTotal.set(total);
+        stationsDone.set(alreadySettled);
+    }
+
+    /** Stations adopted from a node that left during the run */
+    void stationsAdopted(int adopted) {
+        stationsTotal.addAndGet(adopted);
+    }
+
+    void stationDone() {
+        stationsDone.incrementAndGet();
+    }
+
+    /** Stations still failing after the latest attempt */
+    void stationsFailed(int failed) {
+        stationsFailed.set(failed);
+    }
+
+    void finish(SyncJobStatus finalStatus) {
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+
+    SyncJob snapshot() {
+        Instant finished = finishedAt;
+        return new SyncJob(
+            id,
+            status,
+            stationsTotal.get(),
+            stationsDone.get(),
+            stationsFailed.get(),
+            startedAt,
+            finished,
+            Duration.between(startedAt, finished != null ? finished : Instant.now())
+        );
+    }
+}
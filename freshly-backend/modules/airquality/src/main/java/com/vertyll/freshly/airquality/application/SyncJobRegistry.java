@@ -0,0 +1,86 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.domain.SyncJob;
+import com.vertyll.freshly.airquality.domain.SyncJobStatus;
+
+/**
+ * Sync jobs of this node. At most one job runs at a time: a trigger arriving while one is active
+ * attaches to it instead of starting another run. The most recent finished jobs are kept so their
+ * outcome can still be looked up.
+ */
+@Component
+class SyncJobRegistry {
+
+    private static final int MAX_RETAINED_JOBS = 20;
+
+    private final Lock lock = new ReentrantLock();
+    private final Map<String, SyncJobProgress> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SyncJobProgress> eldest) {
+            return size() > MAX_RETAINED_JOBS;
+        }
+    };
+
+    private @Nullable SyncJobProgress activeJob;
+
+    /** Either a newly started job, or the active one the caller attached to */
+    record JobStart(SyncJobProgress job, boolean started) {
+    }
+
+    JobStart startOrAttach() {
+        lock.lock();
+        try {
+            SyncJobProgress active = activeJob;
+            if (active != null) {
+                return new JobStart(active, false);
+            }
+
+            SyncJobProgress job = new SyncJobProgress();
+            activeJob = job;
+            jobs.put(job.id(), job);
+            return new JobStart(job, true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void finish(SyncJobProgress job, SyncJobStatus status) {
+        lock.lock();
+        try {
+            job.finish(status);
+            if (activeJob == job) {
+                activeJob = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Optional<SyncJobProgress> findActive(String jobId) {
+        lock.lock();
+        try {
+            SyncJobProgress active = activeJob;
+            return active != null && active.id().equals(jobId) ? Optional.of(active) : Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Optional<SyncJob> find(String jobId) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(jobs.get(jobId)).map(SyncJobProgress::snapshot);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
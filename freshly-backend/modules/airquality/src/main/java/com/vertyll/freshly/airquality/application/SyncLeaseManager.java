@@ -0,0 +1,72 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties;
+import com.vertyll.freshly.airquality.domain.SyncLease;
+import com.vertyll.freshly.airquality.domain.SyncLockRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out the cluster-wide sync lease, so only one node runs the GIOŚ sync at a time. A lease
+ * left behind by a crashed node expires after its TTL and is then taken over. Held leases are
+ * renewed on a thread of their own rather than on the shared task scheduler, which also runs the
+ * scheduled sync and could not renew the lease while that run is holding it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class SyncLeaseManager {
+
+    static final String SYNC_LOCK_NAME = SyncLease.SYNC_LOCK_NAME;
+
+    private final SyncLockRepository lockRepository;
+    private final SyncNode syncNode;
+    private final AirQualitySyncProperties syncProperties;
+
+    private final ScheduledExecutorService renewals =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("sync-lease-renewal").factory());
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        renewals.shutdownNow();
+    }
+
+    /** Returns the held lease, or empty when another node is running the sync */
+    Optional<HeldSyncLease> tryAcquire() {
+        AirQualitySyncProperties.Lease leaseProperties = syncProperties.lease();
+        if (!leaseProperties.enabled()) {
+            return Optional.of(HeldSyncLease.local(SYNC_LOCK_NAME, syncNode.id()));
+        }
+
+        Duration ttl = leaseProperties.ttl();
+        Optional<SyncLease> lease;
+        try {
+            lease = lockRepository.tryAcquire(SYNC_LOCK_NAME, syncNode.id(), ttl);
+        } catch (DataAccessException e) {
+            log.error("Could not acquire sync lease: {}", e.getMessage());
+            return Optional.empty();
+        }
+
+        return lease.map(acquired -> {
+            log.info("Acquired sync lease as {} with fencing token {}", syncNode.id(), acquired.fencingToken());
+            HeldSyncLease held = HeldSyncLease.acquired(lockRepository, acquired);
+            long renewMillis = leaseProperties.renewInterval().toMillis();
+            held.startRenewal(
+                renewals.scheduleAtFixedRate(() -> held.renew(ttl), renewMillis, renewMillis, TimeUnit.MILLISECONDS)
+            );
+            return held;
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Identity of this application instance in the sync cluster. Combines the JVM name (pid@host) with
+ * a random suffix, so restarted instances never reuse a previous holder id.
+ */
+@Component
+class SyncNode {
+
+    private final String id =
+            ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    String id() {
+        return id;
+    }
+}
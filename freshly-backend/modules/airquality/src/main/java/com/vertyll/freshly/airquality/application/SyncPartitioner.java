@@ -0,0 +1,134 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties;
+import com.vertyll.freshly.airquality.domain.Station;
+import com.vertyll.freshly.airquality.domain.SyncMemberRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Splits the stations across live sync nodes when partitioning is enabled. Nodes announce
+ * themselves with heartbeats; every run rebuilds the hash ring from the current membership, and
+ * rebuilds it again between its retry rounds, so the partition of a node that left is picked up by
+ * the others within the run. Heartbeats are sent from a thread of their own, as the shared task
+ * scheduler is busy with the scheduled sync for as long as a run takes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class SyncPartitioner {
+
+    private final SyncMemberRepository memberRepository;
+    private final SyncNode syncNode;
+    private final AirQualitySyncProperties syncProperties;
+
+    private final ScheduledExecutorService heartbeats =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("sync-heartbeat").factory());
+
+    boolean isEnabled() {
+        return syncProperties.partitioning().enabled();
+    }
+
+    String nodeId() {
+        return syncNode.id();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void join() {
+        if (!isEnabled()) {
+            return;
+        }
+        long heartbeatMillis = syncProperties.partitioning().heartbeatInterval().toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, 0, heartbeatMillis, TimeUnit.MILLISECONDS);
+        log.info("Node {} joined the partitioned air quality sync", syncNode.id());
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void leave() {
+        heartbeats.shutdownNow();
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            memberRepository.remove(syncNode.id());
+        } catch (DataAccessException e) {
+            log.warn("Failed to leave the sync cluster, membership expires instead: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stations this node is responsible for in the current run. Falls back to all stations when the
+     * membership cannot be read - overlapping writes are harmless since they upsert.
+     */
+    List<Station> ownedStations(List<Station> stations) {
+        List<String> members;
+        try {
+            members = liveNodeIds();
+        } catch (DataAccessException e) {
+            log.warn("Could not read sync membership, syncing all stations: {}", e.getMessage());
+            return stations;
+        }
+        return ownedBy(members, stations);
+    }
+
+    /**
+     * Stations this node is responsible for by the membership right now, e.g. to adopt those of a
+     * node that left during a run. Empty when the membership cannot be read.
+     */
+    List<Station> currentlyOwnedStations(List<Station> stations) {
+        try {
+            return ownedBy(liveNodeIds(), stations);
+        } catch (DataAccessException e) {
+            log.warn("Could not read sync membership, not adopting any station: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private List<Station> ownedBy(List<String> members, List<Station> stations) {
+        ConsistentHashRing ring = new ConsistentHashRing(members, syncProperties.partitioning().virtualNodes());
+        List<Station> owned =
+                stations.stream().filter(station -> syncNode.id().equals(ring.ownerOf(station.id()))).toList();
+
+        log.info(
+            "Node {} owns {} of {} stations across {} live nodes",
+            syncNode.id(),
+            owned.size(),
+            stations.size(),
+            members.size()
+        );
+        return owned;
+    }
+
+    /** Ids of the nodes with a live heartbeat, this one included */
+    List<String> liveNodeIds() {
+        heartbeat();
+
+        List<String> members = new ArrayList<>(memberRepository.findLiveMemberIds());
+        if (!members.contains(syncNode.id())) {
+            members.add(syncNode.id());
+        }
+        return members;
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException") // A failure must not stop the scheduled heartbeats
+    private void heartbeat() {
+        try {
+            memberRepository.heartbeat(syncNode.id(), syncProperties.partitioning().memberTtl());
+        } catch (RuntimeException e) {
+            log.warn("Failed to send sync heartbeat: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.vertyll.freshly.airquality.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(
+    {
+        AirQualitySyncProperties.class,
+        AirQualityStorageProperties.class,
+        AirQualityLiveProperties.class
+    }
+)
+public class AirQualityConfig {
+}
@@ -0,0 +1,20 @@
+package com.vertyll.freshly.airquality.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * How long live GIOŚ readings proxied per station are reused. A result is served as is for
+ * {@code ttl}, then for {@code staleWhileRevalidate} more while a single background fetch replaces
+ * it; after that the next request fetches it again before answering.
+ */
+@ConfigurationProperties(prefix = "application.airquality.live")
+@Validated
+public record AirQualityLiveProperties(
+    @DefaultValue("1m") Duration ttl,
+    @DefaultValue("5m") Duration staleWhileRevalidate
+) {
+}
@@ -0,0 +1,20 @@
+package com.vertyll.freshly.airquality.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * How air quality data is stored in MongoDB. With {@code measurements} set to {@code TIME_SERIES}
+ * the measurements are copied into a time-series collection in the background; reads and writes
+ * switch over once the copy has completed.
+ */
+@ConfigurationProperties(prefix = "application.airquality.storage")
+@Validated
+public record AirQualityStorageProperties(@DefaultValue("STANDARD") StorageMode measurements) {
+
+    public enum StorageMode {
+        STANDARD,
+        TIME_SERIES
+    }
+}
@@ -0,0 +1,105 @@
+package com.vertyll.freshly.airquality.config;
+
+import java.time.Duration;
+
+import jakarta.validation.constraints.Min;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the scheduled GIOŚ synchronization. In concurrent mode stations are spread across
+ * virtual threads, bounded by {@code maxConcurrentStations} and cut off at {@code runTimeout}.
+ * Measurements are persisted in bulk batches as configured by {@code writer}. With {@code lease}
+ * enabled only the node holding the cluster-wide sync lease runs the sync, unless
+ * {@code partitioning} spreads the stations across all live nodes. Failed stations are retried
+ * within the run as configured by {@code retry}. Every run also refreshes the persisted station
+ * catalog, which each node polls as configured by {@code catalog}, and publishes a new measurement
+ * generation, which each node polls to refresh its cached rankings as configured by {@code ranking}.
+ */
+@ConfigurationProperties(prefix = "application.airquality.sync")
+@Validated
+public record AirQualitySyncProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("CONCURRENT") SyncMode mode,
+    @DefaultValue("32") @Min(1) int maxConcurrentStations,
+    @DefaultValue("5m") Duration runTimeout,
+    @DefaultValue Writer writer,
+    @DefaultValue Lease lease,
+    @DefaultValue Partitioning partitioning,
+    @DefaultValue Retry retry,
+    @DefaultValue Catalog catalog,
+    @DefaultValue Ranking ranking
+) {
+    /**
+     * @param transactionTimeout
+     *     Upper bound of the transaction each batch commits in, kept well below MongoDB's 60s
+     *     transaction lifetime limit
+     */
+    public record Writer(
+        @DefaultValue("100") @Min(1) int batchSize,
+        @DefaultValue("5s") Duration flushInterval,
+        @DefaultValue("30s") Duration transactionTimeout
+    ) {
+    }
+
+    /**
+     * @param ttl
+     *     How long a lease survives without renewal, i.e. how soon another node takes over after the
+     *     holder crashed
+     * @param renewInterval
+     *     How often the holder extends its lease, must be well below {@code ttl}
+     */
+    public record Lease(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2m") Duration ttl,
+        @DefaultValue("30s") Duration renewInterval
+    ) {
+    }
+
+    /**
+     * @param virtualNodes
+     *     Points per node on the hash ring, more points give more even partitions
+     * @param memberTtl
+     *     How long a node counts as live after its last heartbeat
+     */
+    public record Partitioning(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("128") @Min(1) int virtualNodes,
+        @DefaultValue("10s") Duration heartbeatInterval,
+        @DefaultValue("30s") Duration memberTtl
+    ) {
+    }
+
+    /**
+     * @param maxAttempts
+     *     Attempts per station within one run, including the first one
+     * @param initialBackoff
+     *     Pause before the first retry, doubled for each further one
+     */
+    public record Retry(
+        @DefaultValue("3") @Min(1) int maxAttempts,
+        @DefaultValue("5s") Duration initialBackoff
+    ) {
+    }
+
+    /**
+     * @param refreshInterval
+     *     How often a node checks the persisted catalog for a new generation
+     */
+    public record Catalog(@DefaultValue("30s") Duration refreshInterval) {
+    }
+
+    /**
+     * @param refreshInterval
+     *     How often a node checks for a measurement generation published by another node
+     */
+    public record Ranking(@DefaultValue("30s") Duration refreshInterval) {
+    }
+
+    public enum SyncMode {
+        SEQUENTIAL,
+        CONCURRENT
+    }
+}
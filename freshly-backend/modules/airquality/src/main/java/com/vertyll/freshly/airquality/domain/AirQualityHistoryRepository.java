@@ -1,8 +1,13 @@
 package com.vertyll.freshly.airquality.domain;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.Nullable;
 
 /**
  * Domain repository interface for persisting air quality measurements. This allows us to build
@@ -16,33 +21,119 @@ public interface AirQualityHistoryRepository {
     /** Save multiple measurements in a batch */
     List<AirQualityMeasurement> saveAll(List<AirQualityMeasurement> measurements);
 
+    /**
+     * Insert or update measurements keyed by station and measurement date in a single unordered
+     * bulk write. Writing the same measurement twice leaves one document.
+     */
+    void upsertAll(List<AirQualityMeasurement> measurements);
+
+    /**
+     * Whether writes can run inside a multi-document transaction. Storage that can't take part in one
+     * makes {@link #upsertAll(List)} safe to repeat instead.
+     */
+    boolean supportsTransactions();
+
     /** Find the latest measurement for a station */
     Optional<AirQualityMeasurement> findLatestByStationId(int stationId);
 
+    /** Find the latest measurement of every station that has one, in a single query */
+    List<AirQualityMeasurement> findLatestMeasurements();
+
+    /** Find the latest measurement of each of the given stations that has one, in a single query */
+    List<AirQualityMeasurement> findLatestMeasurements(Collection<Integer> stationIds);
+
     /** Find measurements for a station within time range (for charts) */
     List<AirQualityMeasurement> findByStationIdAndDateRange(int stationId, LocalDateTime from, LocalDateTime to);
 
+    /**
+     * Aggregate the measurements of a station within a time range into buckets of {@code bucketHours}
+     * hours, oldest first. Each bucket becomes one measurement dated at the bucket start, with the
+     * readings aggregated by {@code method} and the index levels of its latest measurement.
+     *
+     * @param method
+     *     A bucket method, {@link DownsamplingMethod#LTTB} works on the measurements themselves
+     */
+    List<AirQualityMeasurement> findBucketedByStationIdAndDateRange(
+        int stationId,
+        LocalDateTime from,
+        LocalDateTime to,
+        int bucketHours,
+        DownsamplingMethod method
+    );
+
     /** Find all measurements within the time range (for general statistics) */
     List<AirQualityMeasurement> findByDateRange(LocalDateTime from, LocalDateTime to);
 
-    /** Check if we have recent data (within the last hour) to avoid unnecessary API calls */
-    boolean hasRecentMeasurement(int stationId, LocalDateTime threshold);
+    /**
+     * Stream all measurements from {@code from} (inclusive) to {@code to} (exclusive), oldest
+     * first, reading them from a database cursor batch by batch. The stream holds the cursor open
+     * and must be closed.
+     */
+    Stream<AirQualityMeasurement> streamByDateRange(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Find one page of the measurements from {@code from} (inclusive) to {@code to} (exclusive),
+     * newest first, ordered by measurement date and then id. The page seeks below {@code after} in
+     * the date index instead of skipping the measurements before it, so every page costs about the
+     * same however deep into the range it is.
+     *
+     * @param after
+     *     Position of the previous page's last measurement, null for the first page
+     * @param size
+     *     Number of measurements per page
+     */
+    MeasurementPage findPageByDateRange(
+        LocalDateTime from,
+        LocalDateTime to,
+        @Nullable MeasurementCursor after,
+        int size
+    );
+
+    /** Like {@link #findPageByDateRange}, for the measurements of a single station */
+    MeasurementPage findPageByStationIdAndDateRange(
+        int stationId,
+        LocalDateTime from,
+        LocalDateTime to,
+        @Nullable MeasurementCursor after,
+        int size
+    );
+
+    /**
+     * Latest measurement date of every station, loaded with a single aggregation. Used by the sync
+     * to skip stations that already have recent data without querying each one.
+     */
+    Map<Integer, LocalDateTime> findLatestMeasurementDates();
 
     /** Delete old measurements (for data retention policy) */
     void deleteOlderThan(LocalDateTime threshold);
 
-    /** Calculate statistics for a station within a time range */
+    /** Generation of the stored measurements, moved on by every {@link #publishChanges()} */
+    long findGeneration();
+
+    /**
+     * Move the generation on after measurements were written or deleted, so copies derived from them
+     * can be told apart from fresh ones
+     *
+     * @return the new generation
+     */
+    long publishChanges();
+
+    /** Calculate statistics for a station over the measurements in {@code [from, to)} */
     Optional<AirQualityStatistics> calculateStatistics(int stationId, LocalDateTime from, LocalDateTime to);
 
     /**
-     * Get ranking of stations (best to worst) within time range
+     * Get ranking of stations (best to worst) over the measurements in {@code [from, to)}. The
+     * dominant quality of a station is the overall index level it had most often.
      *
      * @param limit
      *     Max number of stations to return
      */
     List<StationRanking> getRanking(LocalDateTime from, LocalDateTime to, int limit);
 
-    /** Find measurements for stations within geographic bounds */
+    /**
+     * Find measurements of the stations inside a latitude/longitude box within a time range, newest
+     * first. Measurements without a station location are not found.
+     */
     List<AirQualityMeasurement> findByGeoBounds(
         double minLat,
         double maxLat,
@@ -12,7 +12,7 @@ import lombok.Getter;
  * Enum representing air quality levels as defined by GIOŚ (Polish Air Quality Monitoring System).
  * This enum standardizes air quality level handling across the application. MongoDB stores the enum
  * name (e.g., "VERY_GOOD"), and the API returns the same. The polishName is only used for parsing
- * data from GIOŚ API.
+ * data from GIOŚ API and for shaping stored data like it while GIOŚ is unavailable.
  */
 @SuppressFBWarnings(
     value = "IMPROPER_UNICODE",
@@ -26,6 +26,8 @@ public enum AirQualityLevel {
     BAD("Zły", 4),
     VERY_BAD("Bardzo zły", 5);
 
+    /** -- GETTER -- Name GIOŚ uses for the level. */
+    @Getter
     private final String polishName;
 
     /**
@@ -2,6 +2,9 @@ package com.vertyll.freshly.airquality.domain;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 import org.jspecify.annotations.Nullable;
 
@@ -24,10 +27,15 @@ public class AirQualityMeasurement {
     private static final String PARAM_NO2 = "NO2";
     private static final String PARAM_CO = "CO";
     private static final String PARAM_O3 = "O3";
+    private static final String NO_DATA = "Brak danych";
+    private static final int UNKNOWN_SENSOR_ID = 0;
 
     @Nullable private String id; // MongoDB ID
     private int stationId;
     @Nullable private String stationName;
+    // Station location, used by region queries
+    @Nullable private Double latitude;
+    @Nullable private Double longitude;
     @Nullable private LocalDateTime measurementDate;
 
     // Index data
@@ -49,15 +57,16 @@ public class AirQualityMeasurement {
 
     /** Factory method to create measurement from index and sensor data */
     public static AirQualityMeasurement create(
-        int stationId,
-        String stationName,
+        Station station,
         AirQualityIndex index,
         java.util.Map<String, Double> sensorValues,
         LocalDateTime measurementDate
     ) {
         AirQualityMeasurement measurement = new AirQualityMeasurement();
-        measurement.stationId = stationId;
-        measurement.stationName = stationName;
+        measurement.stationId = station.id();
+        measurement.stationName = station.name();
+        measurement.latitude = station.latitude();
+        measurement.longitude = station.longitude();
         measurement.measurementDate = measurementDate;
         // Convert Polish names from GIOS API to enum
         measurement.overallIndexLevel = AirQualityLevel.fromPolishName(index.stIndexLevel());
@@ -76,6 +85,67 @@ public class AirQualityMeasurement {
         return measurement;
     }
 
+    /**
+     * The stored index shaped like the one GIOŚ reports, to stand in for it while GIOŚ can't be
+     * asked. Empty without a measurement date.
+     */
+    public Optional<AirQualityIndex> toIndex() {
+        if (measurementDate == null) {
+            return Optional.empty();
+        }
+        return Optional.of(
+            new AirQualityIndex(
+                stationId,
+                measurementDate,
+                polishName(overallIndexLevel),
+                polishName(so2IndexLevel),
+                polishName(no2IndexLevel),
+                polishName(pm10IndexLevel)
+            )
+        );
+    }
+
+    /**
+     * The stored readings shaped like GIOŚ sensor data, one sensor with a single reading per
+     * parameter that has a value. Sensor IDs are not stored, so they are 0.
+     */
+    public List<SensorMeasurement> toSensorMeasurements() {
+        if (measurementDate == null) {
+            return List.of();
+        }
+        List<SensorMeasurement> sensors = new ArrayList<>();
+        addSensor(sensors, PARAM_PM10, "Pył zawieszony PM10", pm10Value, measurementDate);
+        addSensor(sensors, PARAM_PM25, "Pył zawieszony PM2.5", pm25Value, measurementDate);
+        addSensor(sensors, PARAM_SO2, "Dwutlenek siarki", so2Value, measurementDate);
+        addSensor(sensors, PARAM_NO2, "Dwutlenek azotu", no2Value, measurementDate);
+        addSensor(sensors, PARAM_CO, "Tlenek węgla", coValue, measurementDate);
+        addSensor(sensors, PARAM_O3, "Ozon", o3Value, measurementDate);
+        return sensors;
+    }
+
+    private static String polishName(@Nullable AirQualityLevel level) {
+        return level != null ? level.getPolishName() : NO_DATA;
+    }
+
+    private static void addSensor(
+        List<SensorMeasurement> sensors,
+        String paramCode,
+        String paramName,
+        @Nullable Double value,
+        LocalDateTime date
+    ) {
+        if (value != null) {
+            sensors.add(
+                new SensorMeasurement(
+                    UNKNOWN_SENSOR_ID,
+                    paramCode,
+                    paramName,
+                    List.of(new SensorMeasurement.Reading(date, value))
+                )
+            );
+        }
+    }
+
     public boolean hasGoodAirQuality() {
         return overallIndexLevel != null && overallIndexLevel.isGood();
     }
@@ -0,0 +1,17 @@
+package com.vertyll.freshly.airquality.domain;
+
+/**
+ * How a measurement history is reduced to a number of chart points. The bucket methods split the
+ * time range into equal buckets and aggregate each of them; {@link #LTTB} keeps the measurements
+ * that best preserve the shape of the curve.
+ */
+public enum DownsamplingMethod {
+    /** Largest-Triangle-Three-Buckets over the PM10/PM2.5 score, keeping real measurements */
+    LTTB,
+    /** Average of every reading per bucket */
+    AVERAGE,
+    /** Lowest value of every reading per bucket */
+    MIN,
+    /** Highest value of every reading per bucket */
+    MAX
+}
@@ -0,0 +1,16 @@
+package com.vertyll.freshly.airquality.domain;
+
+/**
+ * Data fetched live from GIOŚ, or taken from the stored measurements while GIOŚ can't be asked, in
+ * which case it is stale
+ */
+public record LiveReading<T>(T value, boolean stale) {
+
+    public static <T> LiveReading<T> live(T value) {
+        return new LiveReading<>(value, false);
+    }
+
+    public static <T> LiveReading<T> stale(T value) {
+        return new LiveReading<>(value, true);
+    }
+}
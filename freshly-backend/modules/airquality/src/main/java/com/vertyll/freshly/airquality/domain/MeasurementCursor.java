@@ -0,0 +1,56 @@
+package com.vertyll.freshly.airquality.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import com.vertyll.freshly.airquality.domain.exception.InvalidPageTokenException;
+
+/**
+ * Position in a measurement listing ordered by measurement date and id, both descending: the page
+ * after it starts with the measurement right below this pair. Clients get it as an opaque token.
+ */
+public record MeasurementCursor(LocalDateTime measurementDate, String id) {
+
+    private static final char SEPARATOR = ':';
+
+    public MeasurementCursor {
+        if (id.isBlank()) {
+            throw new IllegalArgumentException("Cursor id cannot be blank");
+        }
+    }
+
+    /** Cursor positioned at the given measurement */
+    public static MeasurementCursor of(AirQualityMeasurement measurement) {
+        return new MeasurementCursor(measurement.getMeasurementDate(), measurement.getId());
+    }
+
+    /**
+     * @throws InvalidPageTokenException
+     *     if the token was not created by {@link #toToken()}
+     */
+    public static MeasurementCursor fromToken(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidPageTokenException(token);
+            }
+            Instant measurementDate = Instant.ofEpochMilli(Long.parseLong(decoded.substring(0, separator)));
+            return new MeasurementCursor(
+                LocalDateTime.ofInstant(measurementDate, ZoneOffset.UTC),
+                decoded.substring(separator + 1)
+            );
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed Base64 and numbers
+            throw new InvalidPageTokenException(token);
+        }
+    }
+
+    public String toToken() {
+        String cursor = measurementDate.toInstant(ZoneOffset.UTC).toEpochMilli() + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+}
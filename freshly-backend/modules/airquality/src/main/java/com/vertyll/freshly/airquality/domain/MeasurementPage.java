@@ -0,0 +1,18 @@
+package com.vertyll.freshly.airquality.domain;
+
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * One page of a measurement listing
+ *
+ * @param next
+ *     Cursor to pass for the following page, null on the last page
+ */
+public record MeasurementPage(List<AirQualityMeasurement> measurements, @Nullable MeasurementCursor next) {
+
+    public boolean isLast() {
+        return next == null;
+    }
+}
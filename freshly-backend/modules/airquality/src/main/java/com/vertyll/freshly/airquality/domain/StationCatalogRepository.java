@@ -0,0 +1,18 @@
+package com.vertyll.freshly.airquality.domain;
+
+import java.util.List;
+
+/** Domain repository for the persisted station catalog */
+public interface StationCatalogRepository {
+
+    /** Current catalog generation, {@code 0} when the catalog was never written */
+    long findGeneration();
+
+    StationCatalogSnapshot load();
+
+    /**
+     * Make {@code stations} the whole catalog - stations missing from it are removed - and return
+     * the new generation
+     */
+    long replaceAll(List<Station> stations);
+}
@@ -0,0 +1,16 @@
+package com.vertyll.freshly.airquality.domain;
+
+import java.util.List;
+
+/**
+ * Immutable view of the station catalog. The generation grows with every change of the persisted
+ * catalog, so it can be used to validate cached copies of the station list.
+ */
+public record StationCatalogSnapshot(long generation, List<Station> stations) {
+
+    public static final StationCatalogSnapshot EMPTY = new StationCatalogSnapshot(0, List.of());
+
+    public StationCatalogSnapshot {
+        stations = List.copyOf(stations);
+    }
+}
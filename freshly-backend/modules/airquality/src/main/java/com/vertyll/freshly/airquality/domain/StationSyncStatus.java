@@ -0,0 +1,15 @@
+package com.vertyll.freshly.airquality.domain;
+
+/** Progress of a single station within a sync run */
+public enum StationSyncStatus {
+    PENDING,
+    DONE,
+    FAILED,
+    SKIPPED, // Already had a recent measurement
+    NO_DATA; // GIOŚ returned no usable index, which may still be published later in the window
+
+    /** Settled stations are not synced again when the run resumes */
+    public boolean isSettled() {
+        return this == DONE || this == SKIPPED;
+    }
+}
@@ -0,0 +1,19 @@
+package com.vertyll.freshly.airquality.domain;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.jspecify.annotations.Nullable;
+
+/** Point-in-time view of a sync job and its progress */
+public record SyncJob(
+    String id,
+    SyncJobStatus status,
+    int stationsTotal,
+    int stationsDone,
+    int stationsFailed,
+    Instant startedAt,
+    @Nullable Instant finishedAt,
+    Duration elapsed
+) {
+}
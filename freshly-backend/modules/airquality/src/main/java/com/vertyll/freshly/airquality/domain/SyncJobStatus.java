@@ -0,0 +1,8 @@
+package com.vertyll.freshly.airquality.domain;
+
+public enum SyncJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    SKIPPED // Another node was already running the sync
+}
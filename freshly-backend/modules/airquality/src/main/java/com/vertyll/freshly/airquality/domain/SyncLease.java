@@ -0,0 +1,13 @@
+package com.vertyll.freshly.airquality.domain;
+
+import java.time.Instant;
+
+/**
+ * Lease on a cluster-wide sync lock. The fencing token grows with every acquisition, so a holder
+ * that lost its lease can be told apart from the current one.
+ */
+public record SyncLease(String lockName, String holderId, long fencingToken, Instant expiresAt) {
+
+    /** Lock held while measurements are synced from GIOŚ */
+    public static final String SYNC_LOCK_NAME = "airquality-sync";
+}
@@ -0,0 +1,27 @@
+package com.vertyll.freshly.airquality.domain;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/** Domain repository for cluster-wide sync locks with expiring leases */
+public interface SyncLockRepository {
+
+    /**
+     * Acquire the lock if it is free, expired or already held by this holder. Returns empty when
+     * another holder has a live lease.
+     */
+    Optional<SyncLease> tryAcquire(String lockName, String holderId, Duration ttl);
+
+    /** Extend a lease still held by its holder. Returns empty when the lease was lost */
+    Optional<SyncLease> renew(SyncLease lease, Duration ttl);
+
+    /**
+     * Confirm that the lease is still the live one for its lock before writing under it. The check
+     * touches the lock, so inside a transaction a concurrent takeover conflicts with the caller's
+     * writes instead of slipping in between the check and them.
+     */
+    boolean confirm(SyncLease lease);
+
+    /** Give the lock up so another node can take it right away */
+    void release(SyncLease lease);
+}
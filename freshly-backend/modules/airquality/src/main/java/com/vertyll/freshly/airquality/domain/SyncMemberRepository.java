@@ -0,0 +1,17 @@
+package com.vertyll.freshly.airquality.domain;
+
+import java.time.Duration;
+import java.util.List;
+
+/** Domain repository for the membership of nodes taking part in a partitioned sync */
+public interface SyncMemberRepository {
+
+    /** Record that the node is alive for another {@code ttl} */
+    void heartbeat(String nodeId, Duration ttl);
+
+    /** Ids of all nodes whose heartbeat has not expired yet */
+    List<String> findLiveMemberIds();
+
+    /** Drop the node right away, e.g. on graceful shutdown */
+    void remove(String nodeId);
+}
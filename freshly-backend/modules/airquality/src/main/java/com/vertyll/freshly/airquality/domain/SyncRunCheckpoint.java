@@ -0,0 +1,22 @@
+package com.vertyll.freshly.airquality.domain;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Persisted progress of one sync run. Every job starts a run of its own, kept by the node running
+ * it; only a run that was left running when its node died is picked up again, by another node or by
+ * the restarted one.
+ */
+public record SyncRunCheckpoint(
+    String runId,
+    Instant windowStart,
+    String nodeId,
+    SyncRunStatus status,
+    Map<Integer, StationSyncStatus> stations
+) {
+    public boolean isSettled(int stationId) {
+        StationSyncStatus stationStatus = stations.get(stationId);
+        return stationStatus != null && stationStatus.isSettled();
+    }
+}
@@ -0,0 +1,33 @@
+package com.vertyll.freshly.airquality.domain;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Domain repository for sync run checkpoints. A run is only updated by the node that currently
+ * keeps it, so a node that was taken for dead cannot overwrite the progress of the one that took
+ * its run over.
+ */
+public interface SyncRunRepository {
+
+    /** Start a new run kept by the given node, with all stations pending */
+    SyncRunCheckpoint start(String runId, Instant windowStart, String nodeId, Collection<Integer> stationIds);
+
+    void markStations(String runId, String nodeId, Map<Integer, StationSyncStatus> statuses);
+
+    void finish(String runId, String nodeId, SyncRunStatus status);
+
+    /** Runs of the given window that were started but not finished yet */
+    List<SyncRunCheckpoint> findRunning(Instant windowStart);
+
+    /**
+     * Hand a running run over to another node, unless someone else took it over first
+     *
+     * @return the run as kept by its new node, or empty when it is no longer running or kept by
+     *         {@code previousNodeId}
+     */
+    Optional<SyncRunCheckpoint> takeOver(String runId, String previousNodeId, String nodeId);
+}
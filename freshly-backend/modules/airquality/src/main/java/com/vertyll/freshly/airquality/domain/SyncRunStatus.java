@@ -0,0 +1,7 @@
+package com.vertyll.freshly.airquality.domain;
+
+public enum SyncRunStatus {
+    RUNNING,
+    COMPLETED,
+    INCOMPLETE
+}
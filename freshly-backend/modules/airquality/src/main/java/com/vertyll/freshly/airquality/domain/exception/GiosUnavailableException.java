@@ -0,0 +1,12 @@
+package com.vertyll.freshly.airquality.domain.exception;
+
+import java.io.Serial;
+
+public class GiosUnavailableException extends GiosApiException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public GiosUnavailableException(String message) {
+        super(message);
+    }
+}
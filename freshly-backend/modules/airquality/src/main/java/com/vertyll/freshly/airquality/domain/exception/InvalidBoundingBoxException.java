@@ -0,0 +1,12 @@
+package com.vertyll.freshly.airquality.domain.exception;
+
+import java.io.Serial;
+
+public class InvalidBoundingBoxException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public InvalidBoundingBoxException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.vertyll.freshly.airquality.domain.exception;
+
+import java.io.Serial;
+
+public class InvalidPageTokenException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public InvalidPageTokenException(String token) {
+        super("Invalid page token: " + token);
+    }
+}
@@ -0,0 +1,12 @@
+package com.vertyll.freshly.airquality.domain.exception;
+
+import java.io.Serial;
+
+public class SyncDisabledException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public SyncDisabledException() {
+        super("Air quality synchronization is disabled.");
+    }
+}
@@ -0,0 +1,12 @@
+package com.vertyll.freshly.airquality.domain.exception;
+
+import java.io.Serial;
+
+public class SyncJobNotFoundException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public SyncJobNotFoundException(String jobId) {
+        super(String.format("Sync job with ID %s not found.", jobId));
+    }
+}
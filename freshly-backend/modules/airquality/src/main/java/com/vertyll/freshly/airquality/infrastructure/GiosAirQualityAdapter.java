@@ -1,25 +1,51 @@
 package com.vertyll.freshly.airquality.infrastructure;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
 
 import com.vertyll.freshly.airquality.domain.AirQualityIndex;
 import com.vertyll.freshly.airquality.domain.AirQualityProvider;
 import com.vertyll.freshly.airquality.domain.SensorMeasurement;
 import com.vertyll.freshly.airquality.domain.Station;
+import com.vertyll.freshly.airquality.domain.exception.GiosApiException;
+import com.vertyll.freshly.airquality.domain.exception.GiosUnavailableException;
 import com.vertyll.freshly.airquality.infrastructure.GiosApiDtos.*;
 import com.vertyll.freshly.common.config.ExternalServiceProperties;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
@@ -28,10 +54,11 @@ import tools.jackson.databind.ObjectMapper;
 @SuppressWarnings(
     {
         "PMD.GodClass", // Adapter requires complex mapping logic for external API integration
-        "PMD.AvoidCatchingGenericException" // External API - Jackson can throw various unknow exceptions
+        "PMD.AvoidCatchingGenericException", // External API - Jackson can throw various unknow exceptions
+        "PMD.DoNotUseThreads" // Sensor data is fetched concurrently and hedged on virtual threads
     }
 )
-class GiosAirQualityAdapter implements AirQualityProvider {
+class GiosAirQualityAdapter implements AirQualityProvider, AutoCloseable {
 
     private static final String USER_AGENT_HEADER = "User-Agent";
     private static final String USER_AGENT_VALUE = "Freshly-App/1.0";
@@ -55,7 +82,19 @@ class GiosAirQualityAdapter implements AirQualityProvider {
     private static final String JSON_PATH_VALUES = "values";
     private static final String JSON_PATH_MEASUREMENT_DATA_SHORT = "Dane pomiarowe";
 
-    private static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+    private static final Set<String> STATIONS_LIST_KEYS =
+            Set.of(JSON_PATH_STATIONS_LIST, JSON_PATH_LIST_LOWERCASE, JSON_PATH_LIST, JSON_PATH_DATA);
+    private static final Set<String> SENSORS_LIST_KEYS =
+            Set.of(JSON_PATH_SENSORS_LIST_FULL, JSON_PATH_SENSORS_LIST, JSON_PATH_SENSORS_LIST_SHORT);
+    private static final Set<String> READINGS_LIST_KEYS = Set.of(
+        JSON_PATH_MEASUREMENT_DATA,
+        JSON_PATH_VALUES,
+        JSON_PATH_MEASUREMENT_DATA_SHORT,
+        JSON_PATH_LIST_LOWERCASE,
+        JSON_PATH_DATA
+    );
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final String COMMA = ",";
     private static final String DOT = ".";
     private static final String UNKNOWN_PARAMETER = "Nieznany parametr";
@@ -66,77 +105,120 @@ class GiosAirQualityAdapter implements AirQualityProvider {
     private static final double DEFAULT_COORDINATE = 0.0;
     private static final int DEFAULT_STATION_ID = 0;
 
+    private static final String METRIC_CONCURRENCY_LIMIT = "gios.client.concurrency.limit";
+    private static final String METRIC_IN_FLIGHT = "gios.client.requests.in.flight";
+    private static final String METRIC_RATE_LIMIT = "gios.client.rate.limit";
+    private static final String METRIC_REQUESTS = "gios.client.requests";
+    private static final String METRIC_CIRCUIT_STATE = "gios.client.circuit.state";
+    private static final String METRIC_HEDGES = "gios.client.hedges";
+    private static final String TAG_OUTCOME = "outcome";
+
     private RestClient restClient;
+    private final GiosHttpTransport httpTransport;
     private final ObjectMapper objectMapper;
-
-    GiosAirQualityAdapter(ExternalServiceProperties externalServiceProperties) {
+    private final GiosResponseReader responseReader;
+    private final DefaultResponseErrorHandler errorHandler = new DefaultResponseErrorHandler();
+    private final GiosRequestLimiter requestLimiter;
+    private final GiosCircuitBreaker circuitBreaker;
+    private final GiosRequestHedger requestHedger;
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter succeededRequests;
+    private final Counter throttledRequests;
+    private final Counter droppedRequests;
+    private final Counter rejectedRequests;
+    private final Counter shortCircuitedRequests;
+    private final Counter sentHedges;
+    private final Counter wonHedges;
+    private final Counter skippedHedges;
+
+    GiosAirQualityAdapter(ExternalServiceProperties externalServiceProperties, MeterRegistry meterRegistry) {
+        this.httpTransport = GiosHttpTransport.create(externalServiceProperties.gios().http(), meterRegistry);
         this.restClient = RestClient.builder()
+            .requestFactory(httpTransport.requestFactory())
             .baseUrl(externalServiceProperties.gios().apiUrl())
             .defaultHeader(USER_AGENT_HEADER, USER_AGENT_VALUE)
             .build();
 
         this.objectMapper = new ObjectMapper();
+        this.responseReader = new GiosResponseReader(objectMapper);
+        this.requestLimiter = new GiosRequestLimiter(externalServiceProperties.gios().limiter());
+        this.circuitBreaker = new GiosCircuitBreaker(externalServiceProperties.gios().circuitBreaker());
+        this.requestHedger = new GiosRequestHedger(externalServiceProperties.gios().hedging());
+
+        Gauge.builder(METRIC_CONCURRENCY_LIMIT, requestLimiter, GiosRequestLimiter::limit)
+            .description("Current size of the adaptive GIOŚ in-flight window")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_IN_FLIGHT, requestLimiter, GiosRequestLimiter::inFlight)
+            .description("GIOŚ requests currently in flight")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_RATE_LIMIT, requestLimiter, GiosRequestLimiter::requestsPerSecond)
+            .description("Requests per second allowed by the GIOŚ token bucket")
+            .baseUnit("requests")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_CIRCUIT_STATE, circuitBreaker, breaker -> breaker.state().ordinal())
+            .description("State of the GIOŚ circuit breaker: 0 closed, 1 open, 2 half-open")
+            .register(meterRegistry);
+
+        this.succeededRequests = requestCounter(meterRegistry, "success");
+        this.throttledRequests = requestCounter(meterRegistry, "throttled");
+        this.droppedRequests = requestCounter(meterRegistry, "error");
+        this.rejectedRequests = requestCounter(meterRegistry, "rejected");
+        this.shortCircuitedRequests = requestCounter(meterRegistry, "short_circuited");
+        this.sentHedges = hedgeCounter(meterRegistry, "sent");
+        this.wonHedges = hedgeCounter(meterRegistry, "won");
+        this.skippedHedges = hedgeCounter(meterRegistry, "over_budget");
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(METRIC_REQUESTS)
+            .description("GIOŚ requests by outcome")
+            .tag(TAG_OUTCOME, outcome)
+            .register(meterRegistry);
+    }
+
+    private static Counter hedgeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(METRIC_HEDGES)
+            .description("Hedged GIOŚ sensor data requests by outcome")
+            .tag(TAG_OUTCOME, outcome)
+            .register(meterRegistry);
     }
 
     void setRestClient(RestClient restClient) {
         this.restClient = restClient;
     }
 
+    /** Shuts the connection pool down with the application context, abandoning hedged calls still running */
     @Override
-    public List<Station> findAllStations() {
-        String response = restClient.get().uri(URI_STATION_FIND_ALL).retrieve().body(String.class);
-
-        if (response == null) {
-            return List.of();
-        }
+    public void close() throws IOException {
+        hedgeExecutor.shutdownNow();
+        httpTransport.close();
+    }
 
-        JsonNode root;
+    @Override
+    public List<Station> findAllStations() {
         try {
-            root = objectMapper.readTree(response);
-        } catch (Exception e) {
+            return fetchList(GiosStationDto.class, STATIONS_LIST_KEYS, true, this::mapToStation, URI_STATION_FIND_ALL);
+        } catch (JacksonException e) {
             log.error("Error parsing stations response", e);
             return List.of();
         }
-
-        log.debug("GIOŚ stations response: {}", root);
-
-        // Próba znalezienia listy pod popularnymi kluczami w API GIOŚ
-        JsonNode listNode = root.findPath(JSON_PATH_STATIONS_LIST);
-        if (listNode.isMissingNode())
-            listNode = root.findPath(JSON_PATH_LIST_LOWERCASE);
-        if (listNode.isMissingNode())
-            listNode = root.findPath(JSON_PATH_LIST);
-        if (listNode.isMissingNode())
-            listNode = root.findPath(JSON_PATH_DATA);
-
-        // Jeśli root sam jest tablicą, użyj go bezpośrednio
-        if (listNode.isMissingNode() && root.isArray()) {
-            listNode = root;
-        }
-
-        if (!listNode.isArray()) {
-            log.warn("Not found stations list in response");
-            return List.of();
-        }
-
-        try {
-            List<GiosStationDto> dtos = objectMapper.readerForListOf(GiosStationDto.class).readValue(listNode);
-            return dtos.stream().map(this::mapToStation).toList();
-        } catch (Exception e) {
-            log.error("Error mapping stations", e);
-            return List.of();
-        }
     }
 
     @Override
     public Optional<AirQualityIndex> findIndexByStationId(int stationId) {
-        String response = restClient.get().uri(URI_AQ_INDEX, stationId).retrieve().body(String.class);
+        JsonNode root;
+        try {
+            root = fetch(objectMapper::readTree, URI_AQ_INDEX, stationId);
+        } catch (JacksonException e) {
+            log.error("Error parsing air quality index for station {}", stationId, e);
+            return Optional.empty();
+        }
 
-        if (response == null)
+        if (root == null)
             return Optional.empty();
 
+        // The index payload is a single small object, so it is still read as a tree for the fallbacks below
         try {
-            JsonNode root = objectMapper.readTree(response);
             log.debug("GIOŚ index response for station {}: {}", stationId, root);
 
             JsonNode indexNode = root.findPath(JSON_PATH_AQ_INDEX);
@@ -165,51 +247,66 @@ class GiosAirQualityAdapter implements AirQualityProvider {
         }
     }
 
+    /**
+     * Fetches the readings of every sensor of the station. Sensors are queried concurrently on
+     * virtual threads; the shared request limiter still applies to each call. When the station is
+     * given up, because the calling thread is interrupted or a sensor finds GIOŚ unavailable, the
+     * sensor calls still running are interrupted rather than waited for.
+     */
     @Override
     public List<SensorMeasurement> findMeasurementsByStationId(int stationId) {
-        List<GiosSensorDto> sensors = fetchSensors(stationId);
-        List<SensorMeasurement> measurements = new ArrayList<>();
-
-        for (GiosSensorDto sensor : sensors) {
-            if (sensor.id() == null)
-                continue;
-
-            List<SensorMeasurement.Reading> readings = fetchDataForSensor(sensor.id());
-
-            measurements.add(
-                new SensorMeasurement(
-                    sensor.id(),
-                    sensor.paramCode() != null ? sensor.paramCode() : PARAM_NA,
-                    sensor.paramName() != null ? sensor.paramName() : UNKNOWN_PARAMETER,
-                    readings
-                )
-            );
-        }
+        List<GiosSensorDto> sensors = fetchSensors(stationId).stream().filter(sensor -> sensor.id() != null).toList();
 
-        return measurements;
-    }
+        if (sensors.size() <= 1) {
+            return sensors.stream().map(this::toSensorMeasurement).toList();
+        }
 
-    private List<GiosSensorDto> fetchSensors(int stationId) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
         try {
-            String response = restClient.get().uri(URI_STATION_SENSORS, stationId).retrieve().body(String.class);
+            List<Future<SensorMeasurement>> futures =
+                    sensors.stream().map(sensor -> executor.submit(() -> toSensorMeasurement(sensor))).toList();
 
-            if (response == null)
-                return List.of();
+            List<SensorMeasurement> measurements = new ArrayList<>(futures.size());
+            for (Future<SensorMeasurement> future : futures) {
+                measurements.add(awaitSensorMeasurement(future, stationId));
+            }
+            return measurements;
+        } finally {
+            // Every sensor is done unless the station was given up; then its calls need not finish
+            executor.shutdownNow();
+        }
+    }
 
-            JsonNode root = objectMapper.readTree(response);
-            log.debug("GIOŚ sensors response for station {}: {}", stationId, root);
+    private SensorMeasurement toSensorMeasurement(GiosSensorDto sensor) {
+        List<SensorMeasurement.Reading> readings = fetchDataForSensor(sensor.id());
 
-            JsonNode listNode = root.findPath(JSON_PATH_SENSORS_LIST_FULL);
-            if (listNode.isMissingNode())
-                listNode = root.findPath(JSON_PATH_SENSORS_LIST);
-            if (listNode.isMissingNode())
-                listNode = root.findPath(JSON_PATH_SENSORS_LIST_SHORT);
-            if (listNode.isMissingNode())
-                listNode = root;
+        return new SensorMeasurement(
+            sensor.id(),
+            sensor.paramCode() != null ? sensor.paramCode() : PARAM_NA,
+            sensor.paramName() != null ? sensor.paramName() : UNKNOWN_PARAMETER,
+            readings
+        );
+    }
 
-            if (listNode.isArray()) {
-                return objectMapper.readerForListOf(GiosSensorDto.class).readValue(listNode);
+    private SensorMeasurement awaitSensorMeasurement(Future<SensorMeasurement> future, int stationId) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GiosUnavailableException unavailable) {
+                throw unavailable;
             }
+            throw new GiosApiException("Failed to fetch sensor data for station " + stationId, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GiosApiException("Interrupted while fetching sensor data for station " + stationId, e);
+        }
+    }
+
+    private List<GiosSensorDto> fetchSensors(int stationId) {
+        try {
+            return fetchList(GiosSensorDto.class, SENSORS_LIST_KEYS, true, dto -> dto, URI_STATION_SENSORS, stationId);
+        } catch (GiosUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error fetching sensors for station {}", stationId, e);
         }
@@ -218,15 +315,7 @@ class GiosAirQualityAdapter implements AirQualityProvider {
 
     List<SensorMeasurement.Reading> fetchDataForSensor(int sensorId) {
         try {
-            String response = restClient.get().uri(URI_SENSOR_DATA, sensorId).retrieve().body(String.class);
-
-            if (response == null)
-                return List.of();
-
-            JsonNode root = objectMapper.readTree(response);
-            log.debug("GIOŚ data response for sensor {}: {}", sensorId, root);
-
-            return parseReadings(root);
+            return fetchSensorData(sensorId);
         } catch (HttpClientErrorException.BadRequest e) {
             String body = e.getResponseBodyAsString();
             if (body.contains(ERROR_CODE_MANUAL_STATION)) {
@@ -235,57 +324,241 @@ class GiosAirQualityAdapter implements AirQualityProvider {
             } else {
                 log.warn("Bad request fetching data for sensor {}: {}", sensorId, body);
             }
+        } catch (GiosUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error fetching data for sensor {}", sensorId, e);
         }
         return List.of();
     }
 
-    private List<SensorMeasurement.Reading> fetchArchivalDataForSensor(int sensorId) {
+    /**
+     * Fetches the current readings of a sensor, hedged when enabled: a call still running after the
+     * configured percentile of recent latencies gets one duplicate, within the hedge budget, and the
+     * first successful response wins. Both calls go through {@link #fetch}, so the limiter and the
+     * circuit breaker see the duplicate like any other call; the losing call is left to finish, but
+     * both are cancelled when the sensor thread is interrupted because its station was given up.
+     * Only the primary call feeds the latency histogram: a hedge starts late and is the faster of two
+     * calls when it wins, so its latency would pull the percentile below what calls actually take.
+     */
+    private List<SensorMeasurement.Reading> fetchSensorData(int sensorId) {
+        if (!requestHedger.isEnabled()) {
+            return fetchReadings(URI_SENSOR_DATA, sensorId);
+        }
+        long hedgeDelay = requestHedger.startCall();
+        if (hedgeDelay < 0) {
+            return timedSensorData(sensorId);
+        }
+
+        CompletableFuture<List<SensorMeasurement.Reading>> primary = callAsync(() -> timedSensorData(sensorId));
         try {
-            String response = restClient.get().uri(URI_ARCHIVAL_DATA, sensorId).retrieve().body(String.class);
+            return primary.get(hedgeDelay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException _) {
+            // Slower than most calls, hedge below
+        } catch (ExecutionException _) {
+            return awaitHedged(primary, sensorId, List.of(primary));
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new GiosApiException("Interrupted while fetching data for sensor " + sensorId, e);
+        }
 
-            if (response == null) {
-                return List.of();
+        if (!requestHedger.tryHedge()) {
+            skippedHedges.increment();
+            return awaitHedged(primary, sensorId, List.of(primary));
+        }
+        sentHedges.increment();
+        CompletableFuture<List<SensorMeasurement.Reading>> hedge =
+                callAsync(() -> fetchReadings(URI_SENSOR_DATA, sensorId));
+        return awaitHedged(firstSuccessful(primary, hedge), sensorId, List.of(primary, hedge));
+    }
+
+    /**
+     * Runs a call on the hedge executor. Unlike {@link CompletableFuture#supplyAsync}, cancelling the
+     * returned future interrupts the call, which aborts its HTTP request.
+     */
+    private <T> CompletableFuture<T> callAsync(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = hedgeExecutor.submit(() -> {
+            try {
+                result.complete(call.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
             }
+        });
+        result.whenComplete((_, _) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
 
-            JsonNode root = objectMapper.readTree(response);
-            return parseReadings(root);
+    /**
+     * Fetches the readings of a sensor as the primary call and adds its latency, when it succeeds, to the
+     * hedging histogram, measured from its own start even when a hedge has already answered
+     */
+    private List<SensorMeasurement.Reading> timedSensorData(int sensorId) {
+        long startedAt = System.nanoTime();
+        List<SensorMeasurement.Reading> readings = fetchReadings(URI_SENSOR_DATA, sensorId);
+        requestHedger.record(System.nanoTime() - startedAt);
+        return readings;
+    }
+
+    /** Completes with the first of the two calls to succeed, or with the last failure when both fail */
+    private <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicBoolean decided = new AtomicBoolean();
+        AtomicInteger pending = new AtomicInteger(2);
+        primary.whenComplete((value, failure) -> {
+            if (failure == null) {
+                if (decided.compareAndSet(false, true)) {
+                    winner.complete(value);
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                winner.completeExceptionally(failure);
+            }
+        });
+        hedge.whenComplete((value, failure) -> {
+            if (failure == null) {
+                if (decided.compareAndSet(false, true)) {
+                    wonHedges.increment();
+                    winner.complete(value);
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                winner.completeExceptionally(failure);
+            }
+        });
+        return winner;
+    }
+
+    /** Waits for the result of hedged calls, cancelling all of them when the waiting thread is interrupted */
+    private static <T> T awaitHedged(CompletableFuture<T> result, int sensorId, List<CompletableFuture<T>> calls) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new GiosApiException("Failed to fetch data for sensor " + sensorId, e.getCause());
+        } catch (InterruptedException e) {
+            calls.forEach(call -> call.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new GiosApiException("Interrupted while fetching data for sensor " + sensorId, e);
+        }
+    }
+
+    private List<SensorMeasurement.Reading> fetchArchivalDataForSensor(int sensorId) {
+        try {
+            return fetchReadings(URI_ARCHIVAL_DATA, sensorId);
+        } catch (GiosUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error fetching archival data for sensor {}", sensorId, e);
             return List.of();
         }
     }
 
-    private List<SensorMeasurement.Reading> parseReadings(JsonNode root) {
+    private List<SensorMeasurement.Reading> fetchReadings(String uri, int sensorId) {
+        return fetchList(GiosDataValueDto.class, READINGS_LIST_KEYS, false, this::toReading, uri, sensorId);
+    }
+
+    @Nullable private SensorMeasurement.Reading toReading(GiosDataValueDto dto) {
+        if (dto.value() == null) {
+            return null;
+        }
+        try {
+            return new SensorMeasurement.Reading(LocalDateTime.parse(dto.date(), DATE_TIME_FORMATTER), dto.value());
+        } catch (Exception _) {
+            return null;
+        }
+    }
+
+    /** Streams the list found under one of {@code listKeys} straight into mapped elements */
+    private <T, R> List<R> fetchList(
+            Class<T> elementType,
+            Set<String> listKeys,
+            boolean rootArrayAllowed,
+            Function<T, @Nullable R> mapper,
+            String uri,
+            Object... uriVariables
+    ) {
+        List<R> result = fetch(
+            body -> responseReader.readList(body, elementType, listKeys, rootArrayAllowed, mapper),
+            uri,
+            uriVariables
+        );
+        return result != null ? result : List.of();
+    }
+
+    /**
+     * Performs a GET against GIOŚ through the circuit breaker and the shared request limiter and hands the
+     * response stream to {@code reader}, reporting the outcome back so the breaker and the concurrency window can
+     * adapt. Error statuses are turned into the same {@code RestClientResponseException} subtypes
+     * {@code retrieve()} would throw; while the circuit is open a {@link GiosUnavailableException} is thrown
+     * straight away.
+     */
+    @Nullable private <T> T fetch(ResponseReader<T> reader, String uri, Object... uriVariables) {
+        if (!circuitBreaker.tryAcquire()) {
+            shortCircuitedRequests.increment();
+            throw new GiosUnavailableException("GIOŚ circuit is open, not calling " + uri);
+        }
+        try {
+            requestLimiter.acquire();
+        } catch (InterruptedException e) {
+            circuitBreaker.onIgnored();
+            Thread.currentThread().interrupt();
+            throw new GiosApiException("Interrupted while waiting for a GIOŚ request permit", e);
+        }
+
+        long startedAt = System.nanoTime();
         try {
-            JsonNode valuesNode = root.findPath(JSON_PATH_MEASUREMENT_DATA);
-            if (valuesNode.isMissingNode())
-                valuesNode = root.findPath(JSON_PATH_VALUES);
-            if (valuesNode.isMissingNode())
-                valuesNode = root.findPath(JSON_PATH_MEASUREMENT_DATA_SHORT);
-            if (valuesNode.isMissingNode())
-                valuesNode = root.findPath(JSON_PATH_LIST_LOWERCASE);
-            if (valuesNode.isMissingNode())
-                valuesNode = root.findPath(JSON_PATH_DATA);
-
-            if (valuesNode.isArray()) {
-                List<GiosDataValueDto> values =
-                        objectMapper.readerForListOf(GiosDataValueDto.class).readValue(valuesNode);
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
-
-                return values.stream().filter(v -> v.value() != null).map(v -> {
-                    try {
-                        return new SensorMeasurement.Reading(LocalDateTime.parse(v.date(), formatter), v.value());
-                    } catch (Exception _) {
-                        return null;
-                    }
-                }).filter(Objects::nonNull).toList();
+            T result = restClient.get().uri(uri, uriVariables).exchange((request, response) -> {
+                if (errorHandler.hasError(response)) {
+                    errorHandler.handleError(request.getURI(), request.getMethod(), response);
+                }
+                return reader.read(response.getBody());
+            });
+            long duration = System.nanoTime() - startedAt;
+            requestLimiter.onSuccess(duration);
+            circuitBreaker.onSuccess(duration);
+            succeededRequests.increment();
+            return result;
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            requestLimiter.onThrottled(parseRetryAfter(e.getResponseHeaders()));
+            circuitBreaker.onIgnored();
+            throttledRequests.increment();
+            throw e;
+        } catch (HttpServerErrorException | ResourceAccessException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Aborted because its station was given up, which says nothing about GIOŚ
+                requestLimiter.onIgnored();
+                circuitBreaker.onIgnored();
+                throw e;
             }
-        } catch (Exception e) {
-            log.error("Error parsing readings", e);
+            requestLimiter.onDropped();
+            circuitBreaker.onFailure(System.nanoTime() - startedAt);
+            droppedRequests.increment();
+            throw e;
+        } catch (RuntimeException e) {
+            requestLimiter.onIgnored();
+            circuitBreaker.onSuccess(System.nanoTime() - startedAt);
+            rejectedRequests.increment();
+            throw e;
+        }
+    }
+
+    /** Reads a delay-seconds {@code Retry-After}; the HTTP-date form is not used by GIOŚ and is ignored */
+    @Nullable private static Duration parseRetryAfter(@Nullable HttpHeaders headers) {
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException _) {
+            return null;
         }
-        return List.of();
     }
 
     private Station mapToStation(GiosStationDto dto) {
@@ -300,8 +573,7 @@ class GiosAirQualityAdapter implements AirQualityProvider {
     }
 
     private AirQualityIndex mapToDomain(GiosAQIndexDto dto, int stationId) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
-        LocalDateTime date = dto.stCalcDate() != null ? LocalDateTime.parse(dto.stCalcDate(), formatter)
+        LocalDateTime date = dto.stCalcDate() != null ? LocalDateTime.parse(dto.stCalcDate(), DATE_TIME_FORMATTER)
                 : LocalDateTime.now(ZoneOffset.UTC);
 
         return new AirQualityIndex(
@@ -328,4 +600,9 @@ class GiosAirQualityAdapter implements AirQualityProvider {
             return DEFAULT_COORDINATE;
         }
     }
+
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(InputStream body) throws IOException;
+    }
 }
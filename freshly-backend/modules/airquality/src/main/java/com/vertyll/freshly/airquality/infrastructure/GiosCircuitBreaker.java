@@ -0,0 +1,192 @@
+package com.vertyll.freshly.airquality.infrastructure;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import com.vertyll.freshly.common.config.ExternalServiceProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker for GIOŚ calls. While closed, the outcomes of the last {@code windowSize} calls are
+ * kept; once at least {@code minimumCalls} of them are known and the share of failed or of slow calls
+ * reaches its threshold, the circuit opens and calls are refused without touching GIOŚ, so a brownout
+ * costs request threads nothing. After {@code openDuration} the circuit lets {@code halfOpenProbes}
+ * calls through: it closes again once all of them succeeded in time, and opens again on the first
+ * failed or slow one.
+ *
+ * <p>
+ * Failures are server errors and errors on the wire, including timeouts. GIOŚ answering 429 says
+ * nothing about its health and is left to the {@link GiosRequestLimiter}; other client errors count
+ * as answered calls.
+ */
+@Slf4j
+final class GiosCircuitBreaker {
+
+    private static final int PERCENT = 100;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongSupplier nanoClock;
+
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int recorded;
+    private int next;
+    private int failed;
+    private int slow;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    GiosCircuitBreaker(ExternalServiceProperties.CircuitBreaker properties) {
+        this(properties, System::nanoTime);
+    }
+
+    GiosCircuitBreaker(ExternalServiceProperties.CircuitBreaker properties, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.failureRateThreshold = properties.failureRateThreshold();
+        this.slowCallRateThreshold = properties.slowCallRateThreshold();
+        this.slowCallNanos = properties.slowCallThreshold().toNanos();
+        int windowSize = Math.max(1, properties.windowSize());
+        this.minimumCalls = Math.clamp(properties.minimumCalls(), 1, windowSize);
+        this.openNanos = properties.openDuration().toNanos();
+        this.halfOpenProbes = Math.max(1, properties.halfOpenProbes());
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+    }
+
+    /**
+     * Whether a call may go to GIOŚ. A permitted call must report its outcome through one of the
+     * {@code on*} callbacks, so a half-open probe slot is either used or given back.
+     */
+    boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+                state = State.HALF_OPEN;
+                probesStarted = 0;
+                probesSucceeded = 0;
+                log.info("GIOŚ circuit half-open, letting {} probe calls through", halfOpenProbes);
+            }
+            return switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> {
+                    if (probesStarted >= halfOpenProbes) {
+                        yield false;
+                    }
+                    probesStarted++;
+                    yield true;
+                }
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** GIOŚ answered; counts as slow when it took longer than the slow call threshold */
+    void onSuccess(long durationNanos) {
+        record(false, durationNanos > slowCallNanos);
+    }
+
+    /** The call failed on the server side or on the wire */
+    void onFailure(long durationNanos) {
+        record(true, durationNanos > slowCallNanos);
+    }
+
+    /** The call ended without saying anything about GIOŚ's health (e.g. a 429); gives a probe slot back */
+    void onIgnored() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                probesStarted = Math.max(0, probesStarted - 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean callFailed, boolean callSlow) {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> {
+                    add(callFailed, callSlow);
+                    if (recorded >= minimumCalls
+                            && (failed * PERCENT >= failureRateThreshold * recorded
+                                    || slow * PERCENT >= slowCallRateThreshold * recorded)) {
+                        log.warn(
+                            "GIOŚ circuit open: {} failed and {} slow of the last {} calls",
+                            failed,
+                            slow,
+                            recorded
+                        );
+                        open();
+                    }
+                }
+                case HALF_OPEN -> {
+                    if (callFailed || callSlow) {
+                        log.warn("GIOŚ circuit open again, a probe call {}", callFailed ? "failed" : "was slow");
+                        open();
+                    } else if (++probesSucceeded >= halfOpenProbes) {
+                        log.info("GIOŚ circuit closed, {} probe calls succeeded", probesSucceeded);
+                        state = State.CLOSED;
+                    }
+                }
+                case OPEN -> {
+                    // A call started before the circuit opened; its outcome no longer matters
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Adds an outcome to the window, replacing the oldest one once the window is full */
+    private void add(boolean callFailed, boolean callSlow) {
+        if (recorded == failedCalls.length) {
+            failed -= failedCalls[next] ? 1 : 0;
+            slow -= slowCalls[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failedCalls[next] = callFailed;
+        slowCalls[next] = callSlow;
+        failed += callFailed ? 1 : 0;
+        slow += callSlow ? 1 : 0;
+        next = (next + 1) % failedCalls.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        recorded = 0;
+        next = 0;
+        failed = 0;
+        slow = 0;
+    }
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,130 @@
+package com.vertyll.freshly.airquality.infrastructure;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import com.vertyll.freshly.common.config.ExternalServiceProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * HTTP transport behind the GIOŚ {@code RestClient}. By default it is a pooled, keep-alive HTTP/1.1 client from
+ * httpclient5, so TCP and TLS setup is paid once per pooled connection rather than once per call, and every call
+ * is bounded by connect, lease and response timeouts. Pool usage is published through Micrometer together with
+ * the time spent acquiring a connection. With {@code http2} enabled the JDK client is used instead; it multiplexes
+ * requests over a single connection, so the pool settings and pool metrics do not apply.
+ *
+ * <p>
+ * Automatic retries of the pooled client are disabled: 429s and 5xx must reach {@link GiosRequestLimiter}
+ * rather than being retried behind its back.
+ */
+final class GiosHttpTransport implements Closeable {
+
+    static final String POOL_NAME = "gios";
+    static final String METRIC_CONNECTION_ACQUIRE = "gios.client.connection.acquire";
+
+    private static final String ACQUIRE_STARTED_AT = "gios.acquire.started-at";
+    private static final String ACQUIRE_TIMER_START = "gios-acquire-start";
+    private static final String ACQUIRE_TIMER_STOP = "gios-acquire-stop";
+    private static final TimeValue VALIDATE_AFTER_INACTIVITY = TimeValue.ofSeconds(2);
+
+    private final ClientHttpRequestFactory requestFactory;
+    private final Closeable client;
+
+    private GiosHttpTransport(ClientHttpRequestFactory requestFactory, Closeable client) {
+        this.requestFactory = requestFactory;
+        this.client = client;
+    }
+
+    static GiosHttpTransport create(ExternalServiceProperties.Http http, MeterRegistry meterRegistry) {
+        return http.http2() ? http2(http) : pooled(http, meterRegistry);
+    }
+
+    private static GiosHttpTransport pooled(ExternalServiceProperties.Http http, MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(http.maxConnections())
+            .setMaxConnPerRoute(http.maxConnectionsPerRoute())
+            .setDefaultConnectionConfig(
+                ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.of(http.connectTimeout()))
+                    .setSocketTimeout(Timeout.of(http.responseTimeout()))
+                    .setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY)
+                    .build()
+            )
+            .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+
+        Timer acquireTimer = Timer.builder(METRIC_CONNECTION_ACQUIRE)
+            .description("Time to lease a pooled GIOŚ connection, including opening one when none is idle")
+            .register(meterRegistry);
+        TimeValue keepAlive = TimeValue.of(http.keepAlive());
+
+        CloseableHttpClient client = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(
+                RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.of(http.connectionRequestTimeout()))
+                    .setResponseTimeout(Timeout.of(http.responseTimeout()))
+                    .build()
+            )
+            .setKeepAliveStrategy((response, context) -> {
+                TimeValue offered = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return offered.min(keepAlive);
+            })
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.of(http.idleEviction()))
+            .disableAutomaticRetries()
+            // The connect step leases (and if needed opens) the connection, so timing around it is the acquire time
+            .addExecInterceptorBefore(ChainElement.CONNECT.name(), ACQUIRE_TIMER_START, (request, scope, chain) -> {
+                scope.clientContext.setAttribute(ACQUIRE_STARTED_AT, System.nanoTime());
+                return chain.proceed(request, scope);
+            })
+            .addExecInterceptorAfter(ChainElement.CONNECT.name(), ACQUIRE_TIMER_STOP, (request, scope, chain) -> {
+                if (scope.clientContext.getAttribute(ACQUIRE_STARTED_AT) instanceof Long startedAt) {
+                    acquireTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+                return chain.proceed(request, scope);
+            })
+            .build();
+
+        return new GiosHttpTransport(new HttpComponentsClientHttpRequestFactory(client), client);
+    }
+
+    private static GiosHttpTransport http2(ExternalServiceProperties.Http http) {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(http.connectTimeout())
+            .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(client);
+        requestFactory.setReadTimeout(http.responseTimeout());
+        return new GiosHttpTransport(requestFactory, client::close);
+    }
+
+    ClientHttpRequestFactory requestFactory() {
+        return requestFactory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+}
@@ -0,0 +1,137 @@
+package com.vertyll.freshly.airquality.infrastructure;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.vertyll.freshly.common.config.ExternalServiceProperties;
+
+/**
+ * Decides when a GIOŚ call is hedged, i.e. duplicated because it takes longer than most calls do.
+ * The latencies of the last {@code windowSize} calls are kept in a rolling histogram with buckets
+ * about 10% wide; a call still running after the configured percentile of them, but no sooner than
+ * {@code minDelay}, gets one duplicate. No call is hedged before {@code minimumSamples} latencies are
+ * known.
+ *
+ * <p>
+ * Hedges are paid for from a budget that every call adds {@code budgetPercent / 100} to, capped at
+ * {@link #MAX_BUDGET}, so duplicates stay within that share of the calls even when GIOŚ gets slow
+ * across the board.
+ */
+final class GiosRequestHedger {
+
+    /** Hedges that may be sent back to back after a calm period */
+    static final double MAX_BUDGET = 10;
+
+    private static final long MIN_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double BUCKET_GROWTH = 1.1;
+    private static final double LOG_BUCKET_GROWTH = Math.log(BUCKET_GROWTH);
+    /** Enough buckets to tell latencies apart up to about 10 minutes */
+    private static final int BUCKETS = 145;
+    private static final double PERCENT = 100;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final boolean enabled;
+    private final double percentile;
+    private final int minimumSamples;
+    private final long minDelayNanos;
+    private final double budgetPerCall;
+
+    private final int[] samples;
+    private final int[] bucketCounts = new int[BUCKETS];
+    private int recorded;
+    private int next;
+    private double budget = MAX_BUDGET;
+
+    GiosRequestHedger(ExternalServiceProperties.Hedging properties) {
+        this.enabled = properties.enabled();
+        this.percentile = Math.clamp(properties.percentile(), 0, PERCENT);
+        int windowSize = Math.max(1, properties.windowSize());
+        this.minimumSamples = Math.clamp(properties.minimumSamples(), 1, windowSize);
+        this.minDelayNanos = properties.minDelay().toNanos();
+        this.budgetPerCall = Math.max(0, properties.budgetPercent()) / PERCENT;
+        this.samples = new int[windowSize];
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds a call to the budget and returns how long to wait for it before hedging
+     *
+     * @return delay in nanoseconds, or -1 when too few latencies are known yet
+     */
+    long startCall() {
+        lock.lock();
+        try {
+            budget = Math.min(MAX_BUDGET, budget + budgetPerCall);
+            if (recorded < minimumSamples) {
+                return -1;
+            }
+            return Math.max(minDelayNanos, percentileNanos());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Takes a hedge from the budget, if there is one left */
+    boolean tryHedge() {
+        lock.lock();
+        try {
+            if (budget < 1) {
+                return false;
+            }
+            budget -= 1;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the latency of a completed primary call to the histogram, replacing the oldest one once it is
+     * full. Hedges are left out, since they would skew the percentile towards the fast calls.
+     */
+    void record(long latencyNanos) {
+        int bucket = bucket(latencyNanos);
+        lock.lock();
+        try {
+            if (recorded == samples.length) {
+                bucketCounts[samples[next]]--;
+            } else {
+                recorded++;
+            }
+            samples[next] = bucket;
+            bucketCounts[bucket]++;
+            next = (next + 1) % samples.length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Upper bound of the bucket holding the percentile, so the delay errs on the late side */
+    private long percentileNanos() {
+        int rank = Math.max(1, (int) Math.ceil(percentile / PERCENT * recorded));
+        int seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += bucketCounts[bucket];
+            if (seen >= rank) {
+                return upperBound(bucket);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private static int bucket(long latencyNanos) {
+        if (latencyNanos <= MIN_LATENCY_NANOS) {
+            return 0;
+        }
+        int bucket = (int) Math.ceil(Math.log((double) latencyNanos / MIN_LATENCY_NANOS) / LOG_BUCKET_GROWTH);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        return (long) (MIN_LATENCY_NANOS * Math.pow(BUCKET_GROWTH, bucket));
+    }
+}
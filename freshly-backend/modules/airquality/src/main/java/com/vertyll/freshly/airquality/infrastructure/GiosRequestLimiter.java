@@ -0,0 +1,179 @@
+package com.vertyll.freshly.airquality.infrastructure;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.jspecify.annotations.Nullable;
+
+import com.vertyll.freshly.common.config.ExternalServiceProperties;
+
+/**
+ * Client-side throttle for GIOŚ calls. A token bucket caps the request rate, while an AIMD window caps the
+ * number of requests in flight: every successful call grows the window by {@code 1 / window} (about one slot
+ * per window-full of successes), and a throttled, failed or slow call halves it. Decreases are spaced by
+ * {@link #DECREASE_COOLDOWN} so that a burst of failures from one window only counts once.
+ */
+final class GiosRequestLimiter {
+
+    static final Duration DECREASE_COOLDOWN = Duration.ofSeconds(1);
+
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition windowOpen = lock.newCondition();
+    private final LongSupplier nanoClock;
+
+    private final double requestsPerSecond;
+    private final double burst;
+    private final double minLimit;
+    private final double maxLimit;
+    private final long latencyThresholdNanos;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    GiosRequestLimiter(ExternalServiceProperties.Limiter properties) {
+        this(properties, System::nanoTime);
+    }
+
+    GiosRequestLimiter(ExternalServiceProperties.Limiter properties, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.requestsPerSecond = properties.requestsPerSecond();
+        this.burst = Math.max(1, properties.burst());
+        this.minLimit = Math.max(1, properties.minConcurrency());
+        this.maxLimit = Math.max(minLimit, properties.maxConcurrency());
+        this.latencyThresholdNanos = properties.latencyThreshold().toNanos();
+        this.tokens = burst;
+        this.limit = Math.clamp(properties.initialConcurrency(), minLimit, maxLimit);
+        this.lastRefillNanos = nanoClock.getAsLong();
+        this.lastDecreaseNanos = lastRefillNanos - DECREASE_COOLDOWN.toNanos();
+    }
+
+    /**
+     * Blocks until a slot in the window is free and the bucket has a token for this request. The slot is held
+     * until one of the {@code on*} callbacks reports the outcome.
+     */
+    void acquire() throws InterruptedException {
+        long waitNanos;
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                windowOpen.await();
+            }
+            inFlight++;
+            waitNanos = reserveToken();
+        } finally {
+            lock.unlock();
+        }
+
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                onIgnored();
+                throw e;
+            }
+        }
+    }
+
+    /** The call succeeded; grows the window unless the response was slower than the latency threshold */
+    void onSuccess(long latencyNanos) {
+        release(latencyNanos > latencyThresholdNanos ? Outcome.CONGESTED : Outcome.SUCCEEDED, null);
+    }
+
+    /**
+     * GIOŚ answered 429; shrinks the window and, when the response said how long to back off, drains the bucket
+     * so no request starts before that
+     */
+    void onThrottled(@Nullable Duration retryAfter) {
+        release(Outcome.CONGESTED, retryAfter);
+    }
+
+    /** The call failed on the server side or on the wire; shrinks the window */
+    void onDropped() {
+        release(Outcome.CONGESTED, null);
+    }
+
+    /** The call failed for reasons unrelated to load (e.g. a 400 for a manual station); frees the slot only */
+    void onIgnored() {
+        release(Outcome.IGNORED, null);
+    }
+
+    double limit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double requestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    private void release(Outcome outcome, @Nullable Duration retryAfter) {
+        lock.lock();
+        try {
+            inFlight--;
+            switch (outcome) {
+                case SUCCEEDED -> limit = Math.min(maxLimit, limit + 1 / limit);
+                case CONGESTED -> decrease();
+                case IGNORED -> {
+                    // Slot is freed without touching the window
+                }
+            }
+            if (retryAfter != null && !retryAfter.isNegative()) {
+                refill();
+                tokens = Math.min(tokens, -retryAfter.toNanos() / NANOS_PER_SECOND * requestsPerSecond);
+            }
+            windowOpen.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease() {
+        long now = nanoClock.getAsLong();
+        if (now - lastDecreaseNanos < DECREASE_COOLDOWN.toNanos()) {
+            return;
+        }
+        limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+        lastDecreaseNanos = now;
+    }
+
+    /** Takes a token, going into debt if the bucket is empty, and returns how long the caller must wait */
+    private long reserveToken() {
+        refill();
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens / requestsPerSecond * NANOS_PER_SECOND);
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) / NANOS_PER_SECOND * requestsPerSecond);
+        lastRefillNanos = now;
+    }
+
+    private enum Outcome {
+        SUCCEEDED,
+        CONGESTED,
+        IGNORED
+    }
+}
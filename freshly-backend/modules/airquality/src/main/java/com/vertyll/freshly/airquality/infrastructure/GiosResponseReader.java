@@ -0,0 +1,74 @@
+package com.vertyll.freshly.airquality.infrastructure;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.jspecify.annotations.Nullable;
+
+import lombok.RequiredArgsConstructor;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Single-pass reader for GIOŚ list payloads. Rather than buffering the body as a {@code String}, building a tree
+ * and probing it with {@code findPath}, it walks the token stream once, stops at the first property (at any depth)
+ * named like one of the known list keys and binds the array elements one at a time, mapping each straight to its
+ * target type so no intermediate tree or DTO list is kept.
+ *
+ * <p>
+ * GIOŚ only ever uses one of the keys per payload, so taking the first one in document order matches the old
+ * lookup, which tried the keys in a fixed order.
+ */
+@RequiredArgsConstructor
+final class GiosResponseReader {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param rootArrayAllowed
+     *     whether a bare top-level array counts as the list when none of the keys is present
+     * @param mapper
+     *     applied to every element as it is read; {@code null} results are dropped
+     */
+    <T, R> List<R> readList(
+            InputStream body,
+            Class<T> elementType,
+            Set<String> listKeys,
+            boolean rootArrayAllowed,
+            Function<T, @Nullable R> mapper
+    ) {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY && rootArrayAllowed) {
+                return readElements(parser, elementType, mapper);
+            }
+
+            while (token != null) {
+                if (token == JsonToken.PROPERTY_NAME && listKeys.contains(parser.currentName())
+                        && parser.nextToken() == JsonToken.START_ARRAY) {
+                    return readElements(parser, elementType, mapper);
+                }
+                token = parser.nextToken();
+            }
+            return List.of();
+        }
+    }
+
+    private <T, R> List<R> readElements(JsonParser parser, Class<T> elementType, Function<T, @Nullable R> mapper) {
+        List<R> result = new ArrayList<>();
+        JsonToken token = parser.nextToken();
+        while (token != null && token != JsonToken.END_ARRAY) {
+            T element = objectMapper.readValue(parser, elementType);
+            R mapped = element != null ? mapper.apply(element) : null;
+            if (mapped != null) {
+                result.add(mapped);
+            }
+            token = parser.nextToken();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MongoDB document summarizing the measurements of one station on one day, keyed by
+ * {@code stationId:yyyy-MM-dd}. Level histograms are keyed by level name.
+ */
+@Document(collection = "air_quality_rollups_daily")
+@CompoundIndex(name = "station_day_idx", def = "{'stationId': 1, 'day': 1}")
+@CompoundIndex(name = "day_idx", def = "{'day': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AirQualityDailyRollupDocument {
+
+    @Id
+    private String id;
+
+    private Integer stationId;
+    // Name on the earliest measurement of the day
+    private String stationName;
+    // Start of the day, in the same local time as the measurement dates
+    private LocalDateTime day;
+
+    private int measurementCount;
+    // Overall index level histogram
+    private Map<String, Integer> levels = new HashMap<>();
+
+    private PollutantRollup pm10;
+    private PollutantRollup pm25;
+    private PollutantRollup so2;
+    private PollutantRollup no2;
+    private PollutantRollup co;
+    private PollutantRollup o3;
+
+    /** Running aggregates of one pollutant, over the measurements that carry a value for it */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PollutantRollup {
+
+        private int count;
+        private double sum;
+        private Double min;
+        private Double max;
+        // Pollutant index level histogram, empty for pollutants without an index
+        private Map<String, Integer> levels = new HashMap<>();
+    }
+}
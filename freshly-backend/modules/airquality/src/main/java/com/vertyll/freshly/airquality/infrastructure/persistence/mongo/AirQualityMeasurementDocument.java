@@ -1,8 +1,10 @@
 package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -16,6 +18,8 @@ import lombok.NoArgsConstructor;
 @Document(collection = "air_quality_measurements")
 @CompoundIndex(name = "station_date_idx", def = "{'stationId': 1, 'measurementDate': -1}")
 @CompoundIndex(name = "date_idx", def = "{'measurementDate': -1}")
+@CompoundIndex(name = "station_date_unique_idx", def = "{'stationId': 1, 'measurementDate': 1}", unique = true)
+@CompoundIndex(name = "location_date_idx", def = "{'location': '2dsphere', 'measurementDate': -1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +30,8 @@ public class AirQualityMeasurementDocument {
 
     private Integer stationId;
     private String stationName;
+    // GeoJSON point of the station, absent on documents written before it existed until they are backfilled
+    private GeoJsonPoint location;
     private LocalDateTime measurementDate;
 
     // Index data - MongoDB stores enum as string (enum name)
@@ -44,4 +50,6 @@ public class AirQualityMeasurementDocument {
     private Double o3Value;
 
     private LocalDateTime createdAt;
+    // Last write, absent on documents not written since it exists
+    private Instant updatedAt;
 }
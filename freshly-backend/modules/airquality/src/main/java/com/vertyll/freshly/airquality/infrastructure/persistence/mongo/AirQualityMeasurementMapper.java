@@ -1,5 +1,7 @@
 package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
 
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.stereotype.Component;
 
 import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
@@ -12,6 +14,7 @@ class AirQualityMeasurementMapper {
             domain.getId(),
             domain.getStationId(),
             domain.getStationName(),
+            toLocation(domain.getLatitude(), domain.getLongitude()),
             domain.getMeasurementDate(),
             domain.getOverallIndexLevel(),
             domain.getSo2IndexLevel(),
@@ -24,7 +27,8 @@ class AirQualityMeasurementMapper {
             domain.getNo2Value(),
             domain.getCoValue(),
             domain.getO3Value(),
-            domain.getCreatedAt()
+            domain.getCreatedAt(),
+            null
         );
     }
 
@@ -33,6 +37,8 @@ class AirQualityMeasurementMapper {
             document.getId(),
             document.getStationId(),
             document.getStationName(),
+            document.getLocation() != null ? document.getLocation().getY() : null,
+            document.getLocation() != null ? document.getLocation().getX() : null,
             document.getMeasurementDate(),
             document.getOverallIndexLevel(),
             document.getSo2IndexLevel(),
@@ -48,4 +54,9 @@ class AirQualityMeasurementMapper {
             document.getCreatedAt()
         );
     }
+
+    /** GeoJSON orders coordinates as longitude, latitude */
+    static @Nullable GeoJsonPoint toLocation(@Nullable Double latitude, @Nullable Double longitude) {
+        return latitude != null && longitude != null ? new GeoJsonPoint(longitude, latitude) : null;
+    }
 }
@@ -0,0 +1,94 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the indexes declared on air quality documents. Automatic index creation is disabled by
+ * default in Spring Boot, while the sync relies on the unique (stationId, measurementDate) index
+ * for idempotent upserts, region queries on the (location, measurementDate) 2dsphere index, rollup
+ * reads on their (stationId, day) and day indexes and sync members and runs on their TTL indexes.
+ * Indexes dropped from the documents are dropped from the database too.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class AirQualityMongoIndexInitializer {
+
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+        AirQualityMeasurementDocument.class,
+        AirQualityDailyRollupDocument.class,
+        SyncMemberDocument.class,
+        SyncRunDocument.class
+    );
+
+    /** A TTL index deleted released locks after a day, which reset their fencing token */
+    private static final Map<Class<?>, List<String>> DROPPED_INDEXES =
+            Map.of(SyncLockDocument.class, List.of("expires_at_ttl_idx"));
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        IndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        for (Class<?> documentType : INDEXED_DOCUMENTS) {
+            createIndexes(resolver, documentType);
+        }
+        DROPPED_INDEXES.forEach(this::dropIndexes);
+    }
+
+    private void dropIndexes(Class<?> documentType, List<String> indexNames) {
+        IndexOperations indexOperations = mongoTemplate.indexOps(documentType);
+
+        for (IndexInfo index : indexOperations.getIndexInfo()) {
+            if (!indexNames.contains(index.getName())) {
+                continue;
+            }
+            try {
+                indexOperations.dropIndex(index.getName());
+                log.info("Dropped index {} of {}", index.getName(), documentType.getSimpleName());
+            } catch (DataAccessException e) {
+                log.warn(
+                    "Could not drop index {} of {}: {}",
+                    index.getName(),
+                    documentType.getSimpleName(),
+                    e.getMessage()
+                );
+            }
+        }
+    }
+
+    private void createIndexes(IndexResolver resolver, Class<?> documentType) {
+        IndexOperations indexOperations = mongoTemplate.indexOps(documentType);
+
+        for (IndexDefinition index : resolver.resolveIndexFor(documentType)) {
+            try {
+                indexOperations.createIndex(index);
+            } catch (DataAccessException e) {
+                // e.g. duplicates left over from before the unique index existed
+                log.warn(
+                    "Could not create index {} for {}: {}",
+                    index.getIndexKeys(),
+                    documentType.getSimpleName(),
+                    e.getMessage()
+                );
+            }
+        }
+    }
+}
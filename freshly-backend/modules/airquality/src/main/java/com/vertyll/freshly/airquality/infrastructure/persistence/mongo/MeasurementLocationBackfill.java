@@ -0,0 +1,113 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One-off migration giving measurements written before they carried a location the GeoJSON point of
+ * their station, so region queries find older data too. Locations come from the persisted station
+ * catalog, so the backfill is retried in the background until the catalog has been filled. It then
+ * updates the measurements of a batch of stations per bulk write and records its completion, so
+ * later starts skip it. Only documents still lacking a location are touched, which makes concurrent
+ * runs on several nodes harmless. Measurements of stations no longer in the catalog keep no location.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class MeasurementLocationBackfill {
+
+    static final String MIGRATION_ID = "measurement-location-backfill";
+    static final String COLLECTION_MIGRATIONS = "migrations";
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_STATION_ID = "stationId";
+    private static final String FIELD_LOCATION = "location";
+    private static final String FIELD_COMPLETED_AT = "completedAt";
+    private static final int STATIONS_PER_BATCH = 50;
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final TaskScheduler taskScheduler;
+
+    private volatile @Nullable ScheduledFuture<?> attempts;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        attempts = taskScheduler.scheduleWithFixedDelay(this::attempt, RETRY_DELAY);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        ScheduledFuture<?> scheduledAttempts = attempts;
+        if (scheduledAttempts != null) {
+            scheduledAttempts.cancel(false);
+        }
+    }
+
+    private void attempt() {
+        try {
+            if (backfill()) {
+                stop();
+            }
+        } catch (DataAccessException e) {
+            log.warn("Measurement location backfill failed, retrying in {}: {}", RETRY_DELAY, e.getMessage());
+        }
+    }
+
+    /** @return whether the migration is complete */
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops") // One update per station
+    boolean backfill() {
+        Query migration = Query.query(Criteria.where(FIELD_ID).is(MIGRATION_ID));
+        if (mongoTemplate.exists(migration, COLLECTION_MIGRATIONS)) {
+            return true;
+        }
+
+        List<StationDocument> stations = mongoTemplate.findAll(StationDocument.class);
+        if (stations.isEmpty()) {
+            log.debug("Station catalog is still empty, postponing the measurement location backfill");
+            return false;
+        }
+
+        long updated = 0;
+        for (int batchStart = 0; batchStart < stations.size(); batchStart += STATIONS_PER_BATCH) {
+            BulkOperations bulkOperations =
+                    mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AirQualityMeasurementDocument.class);
+            for (StationDocument station : stations
+                .subList(batchStart, Math.min(batchStart + STATIONS_PER_BATCH, stations.size()))) {
+                bulkOperations.updateMulti(
+                    Query.query(Criteria.where(FIELD_STATION_ID).is(station.getId()).and(FIELD_LOCATION).exists(false)),
+                    Update.update(
+                        FIELD_LOCATION,
+                        AirQualityMeasurementMapper.toLocation(station.getLatitude(), station.getLongitude())
+                    )
+                );
+            }
+            updated += bulkOperations.execute().getModifiedCount();
+        }
+
+        mongoTemplate.save(
+            new org.bson.Document(FIELD_ID, MIGRATION_ID).append(FIELD_COMPLETED_AT, Instant.now()),
+            COLLECTION_MIGRATIONS
+        );
+        log.info("Backfilled the location of {} measurements of {} stations", updated, stations.size());
+        return true;
+    }
+}
@@ -0,0 +1,91 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.ScheduledFuture;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One-off migration building the daily rollups of the measurements stored before the ingest path
+ * maintained them, retried in the background until it succeeds. Until it has completed, statistics
+ * and rankings keep reading raw measurements. Rebuilding replaces rollups with what the raw data
+ * says, so concurrent runs on several nodes agree. A sync writing to a day while it is being rebuilt
+ * may get its own rebuild of that day overwritten with the older one, so once everything is rebuilt
+ * the days written to in the meantime are rebuilt again before the migration is recorded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class MeasurementRollupBackfill {
+
+    static final String MIGRATION_ID = "measurement-rollup-backfill";
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_COMPLETED_AT = "completedAt";
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    /** Measurements are created when fetched and may be written this much later */
+    private static final Duration WRITE_DELAY = Duration.ofHours(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final MeasurementRollups rollups;
+    private final TaskScheduler taskScheduler;
+
+    private volatile @Nullable ScheduledFuture<?> attempts;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        attempts = taskScheduler.scheduleWithFixedDelay(this::attempt, RETRY_DELAY);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        ScheduledFuture<?> scheduledAttempts = attempts;
+        if (scheduledAttempts != null) {
+            scheduledAttempts.cancel(false);
+        }
+    }
+
+    private void attempt() {
+        try {
+            if (backfill()) {
+                stop();
+            }
+        } catch (DataAccessException e) {
+            log.warn("Measurement rollup backfill failed, retrying in {}: {}", RETRY_DELAY, e.getMessage());
+        }
+    }
+
+    /** @return whether the migration is complete */
+    boolean backfill() {
+        Query migration = Query.query(Criteria.where(FIELD_ID).is(MIGRATION_ID));
+        if (mongoTemplate.exists(migration, MeasurementLocationBackfill.COLLECTION_MIGRATIONS)) {
+            return true;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now(ZoneOffset.UTC);
+        long written = rollups.rebuild(new Query());
+        rollups.rebuildDaysCreatedSince(startedAt.minus(WRITE_DELAY));
+
+        mongoTemplate.save(
+            new org.bson.Document(FIELD_ID, MIGRATION_ID).append(FIELD_COMPLETED_AT, Instant.now()),
+            MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+        );
+        log.info("Built {} daily measurement rollups from the stored measurements", written);
+        return true;
+    }
+}
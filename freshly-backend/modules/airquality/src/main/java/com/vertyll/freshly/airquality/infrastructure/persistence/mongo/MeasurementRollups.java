@@ -0,0 +1,498 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.domain.AirQualityLevel;
+import com.vertyll.freshly.airquality.domain.AirQualityStatistics;
+import com.vertyll.freshly.airquality.infrastructure.persistence.mongo.AirQualityDailyRollupDocument.PollutantRollup;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Daily per-station rollups of the measurements, so statistics and rankings over whole days read one
+ * small document per station and day instead of every raw measurement. After the ingest path wrote
+ * a batch, the rollups of the station-days it touched are rebuilt from the raw data, see
+ * {@link #rebuildDays(List)}. Rebuilding replaces what is stored, so a batch retried after a failed
+ * rebuild or GIOŚ revising the values of a measurement leave the rollups right, without the
+ * measurements and rollups having to commit in one transaction. Incrementing the rollups by the
+ * written values could not tell these cases apart: GIOŚ hands out the last days of every station
+ * on each sync, so most upserts match stored measurements, and the bulk result doesn't say which of
+ * them changed. A rebuild reads at most one day of hourly measurements per touched station-day
+ * through the (stationId, measurementDate) index, the same days the batch has just written.
+ *
+ * <p>
+ * Rollups are only read once {@link MeasurementRollupBackfill} has built them for the measurements
+ * stored before they existed, and only for windows spanning at least one whole day. A window is read
+ * as {@code [from, to)}: the whole days in it from the rollups, the partial days at its ends from
+ * the raw measurements, folded the same way.
+ */
+@Component
+@RequiredArgsConstructor
+class MeasurementRollups {
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_STATION_ID = "stationId";
+    private static final String FIELD_STATION_NAME = "stationName";
+    private static final String FIELD_DAY = "day";
+    private static final String FIELD_MEASUREMENT_DATE = "measurementDate";
+    private static final String FIELD_CREATED_AT = "createdAt";
+    private static final String FIELD_MEASUREMENT_COUNT = "measurementCount";
+    private static final String FIELD_LEVELS = "levels";
+    private static final String FIELD_COUNT = "count";
+    private static final String FIELD_SUM = "sum";
+    private static final String FIELD_MIN = "min";
+    private static final String FIELD_MAX = "max";
+    private static final String FIELD_DOMINANT_QUALITY = "dominantQuality";
+
+    private static final String PM10 = "pm10";
+    private static final String PM25 = "pm25";
+    private static final String SO2 = "so2";
+    private static final String NO2 = "no2";
+    private static final String CO = "co";
+    private static final String O3 = "o3";
+    private static final List<String> POLLUTANTS = List.of(PM10, PM25, SO2, NO2, CO, O3);
+
+    private static final String SUFFIX_COUNT = "Count";
+    private static final String SUFFIX_SUM = "Sum";
+    private static final String SUFFIX_MIN = "Min";
+    private static final String SUFFIX_MAX = "Max";
+    private static final String SUFFIX_AVG = "Avg";
+
+    private static final String COLLECTION_ROLLUPS = "air_quality_rollups_daily";
+    private static final int REPLACE_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final MeasurementStorage storage;
+
+    private volatile boolean backfilled;
+
+    /** Whether the window spans a whole day the rollups can answer, with raw reads for the rest */
+    boolean covers(LocalDateTime from, LocalDateTime to) {
+        return firstDay(from).isBefore(lastDay(to)) && isBackfilled();
+    }
+
+    private boolean isBackfilled() {
+        if (!backfilled) {
+            backfilled = mongoTemplate.exists(
+                Query.query(Criteria.where(FIELD_ID).is(MeasurementRollupBackfill.MIGRATION_ID)),
+                MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+            );
+        }
+        return backfilled;
+    }
+
+    /**
+     * Recomputes the rollups of the measurements matched by {@code measurements} from the raw data,
+     * replacing what is stored. The query has to select whole days. Measurements are read from a
+     * cursor in (station, date) order, so only one rollup is being folded at a time.
+     *
+     * @return number of rollups written
+     */
+    long rebuild(Query measurements) {
+        measurements.with(Sort.by(Sort.Direction.ASC, FIELD_STATION_ID, FIELD_MEASUREMENT_DATE));
+
+        long written = 0;
+        List<AirQualityDailyRollupDocument> pending = new ArrayList<>(REPLACE_BATCH_SIZE);
+        AirQualityDailyRollupDocument current = null;
+        try (Stream<AirQualityMeasurementDocument> stream =
+                mongoTemplate.stream(measurements, AirQualityMeasurementDocument.class, storage.collection())) {
+            Iterator<AirQualityMeasurementDocument> cursor = stream.iterator();
+            while (cursor.hasNext()) {
+                AirQualityMeasurementDocument measurement = cursor.next();
+                String id = rollupId(measurement);
+                if (current == null || !current.getId().equals(id)) {
+                    if (current != null) {
+                        pending.add(current);
+                    }
+                    if (pending.size() >= REPLACE_BATCH_SIZE) {
+                        written += replace(pending);
+                        pending.clear();
+                    }
+                    current = newRollup(id, measurement);
+                }
+                add(current, measurement);
+            }
+        }
+        if (current != null) {
+            pending.add(current);
+        }
+        return written + replace(pending);
+    }
+
+    /** Recomputes the rollups of the station-days the measurements fall into from the raw data */
+    void rebuildDays(List<AirQualityMeasurementDocument> measurements) {
+        Set<String> days = new HashSet<>();
+        List<Criteria> dayCriteria = new ArrayList<>();
+        for (AirQualityMeasurementDocument measurement : measurements) {
+            if (days.add(rollupId(measurement))) {
+                LocalDateTime day = measurement.getMeasurementDate().toLocalDate().atStartOfDay();
+                dayCriteria.add(
+                    Criteria.where(FIELD_STATION_ID)
+                        .is(measurement.getStationId())
+                        .and(FIELD_MEASUREMENT_DATE)
+                        .gte(day)
+                        .lt(day.plusDays(1))
+                );
+            }
+        }
+        if (!dayCriteria.isEmpty()) {
+            rebuild(Query.query(new Criteria().orOperator(dayCriteria)));
+        }
+    }
+
+    /** Recomputes the rollups of the station-days of the measurements created since {@code since} */
+    void rebuildDaysCreatedSince(LocalDateTime since) {
+        Query created = Query.query(Criteria.where(FIELD_CREATED_AT).gte(since));
+        created.fields().include(FIELD_STATION_ID, FIELD_MEASUREMENT_DATE);
+        rebuildDays(mongoTemplate.find(created, AirQualityMeasurementDocument.class, storage.collection()));
+    }
+
+    private int replace(List<AirQualityDailyRollupDocument> rollups) {
+        if (rollups.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulkOperations =
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AirQualityDailyRollupDocument.class);
+        for (AirQualityDailyRollupDocument rollup : rollups) {
+            bulkOperations.replaceOne(byId(rollup), rollup, FindAndReplaceOptions.options().upsert());
+        }
+        bulkOperations.execute();
+        return rollups.size();
+    }
+
+    /**
+     * Drops the rollups of the days before {@code threshold}. When the threshold falls inside a day,
+     * that day lost part of its measurements, so its rollups are rebuilt from what is left of it.
+     */
+    void deleteBefore(LocalDateTime threshold) {
+        LocalDateTime day = threshold.toLocalDate().atStartOfDay();
+        mongoTemplate.remove(Query.query(Criteria.where(FIELD_DAY).lt(day)), AirQualityDailyRollupDocument.class);
+        if (!day.equals(threshold)) {
+            mongoTemplate.remove(Query.query(Criteria.where(FIELD_DAY).is(day)), AirQualityDailyRollupDocument.class);
+            rebuild(Query.query(Criteria.where(FIELD_MEASUREMENT_DATE).gte(day).lt(day.plusDays(1))));
+        }
+    }
+
+    Optional<AirQualityStatistics> statistics(int stationId, LocalDateTime from, LocalDateTime to) {
+        GroupOperation totals = Aggregation.group()
+            .first(FIELD_STATION_NAME)
+            .as(FIELD_STATION_NAME)
+            .sum(FIELD_MEASUREMENT_COUNT)
+            .as(FIELD_MEASUREMENT_COUNT);
+        for (String pollutant : POLLUTANTS) {
+            totals = totals.sum(path(pollutant, FIELD_COUNT))
+                .as(pollutant + SUFFIX_COUNT)
+                .sum(path(pollutant, FIELD_SUM))
+                .as(pollutant + SUFFIX_SUM)
+                .min(path(pollutant, FIELD_MIN))
+                .as(pollutant + SUFFIX_MIN)
+                .max(path(pollutant, FIELD_MAX))
+                .as(pollutant + SUFFIX_MAX);
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(
+                Criteria.where(FIELD_STATION_ID).is(stationId).and(FIELD_DAY).gte(firstDay(from)).lt(lastDay(to))
+            ),
+            Aggregation.sort(Sort.Direction.ASC, FIELD_DAY),
+            withLevelCounts(totals)
+        );
+
+        Map<Integer, org.bson.Document> perStation = new LinkedHashMap<>();
+        mergeAll(perStation, foldRaw(stationId, from, firstDay(from)));
+        mergeAll(
+            perStation,
+            mongoTemplate.aggregate(aggregation, COLLECTION_ROLLUPS, org.bson.Document.class).getMappedResults()
+                .stream()
+                .map(result -> result.append(FIELD_ID, stationId))
+                .toList()
+        );
+        mergeAll(perStation, foldRaw(stationId, lastDay(to), to));
+
+        org.bson.Document result = perStation.get(stationId);
+        if (result == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(
+            new AirQualityStatistics(
+                stationId,
+                result.getString(FIELD_STATION_NAME),
+                from,
+                to,
+                count(result, FIELD_MEASUREMENT_COUNT),
+                average(result, PM10),
+                extreme(result, PM10 + SUFFIX_MIN),
+                extreme(result, PM10 + SUFFIX_MAX),
+                average(result, PM25),
+                extreme(result, PM25 + SUFFIX_MIN),
+                extreme(result, PM25 + SUFFIX_MAX),
+                MongoAirQualityHistoryRepository.positiveOrNull(average(result, SO2)),
+                MongoAirQualityHistoryRepository.positiveOrNull(average(result, NO2)),
+                MongoAirQualityHistoryRepository.positiveOrNull(average(result, CO)),
+                MongoAirQualityHistoryRepository.positiveOrNull(average(result, O3)),
+                count(result, AirQualityLevel.VERY_GOOD.name()),
+                count(result, AirQualityLevel.GOOD.name()),
+                count(result, AirQualityLevel.MODERATE.name()),
+                count(result, AirQualityLevel.SUFFICIENT.name()),
+                count(result, AirQualityLevel.BAD.name()),
+                count(result, AirQualityLevel.VERY_BAD.name())
+            )
+        );
+    }
+
+    /**
+     * Stations ordered like the raw ranking aggregation, in the same result shape. The dominant
+     * quality is the overall index level seen most often, the better level on a tie.
+     */
+    List<org.bson.Document> ranking(LocalDateTime from, LocalDateTime to, int limit) {
+        GroupOperation totals = Aggregation.group(FIELD_STATION_ID)
+            .first(FIELD_STATION_NAME)
+            .as(FIELD_STATION_NAME)
+            .sum(FIELD_MEASUREMENT_COUNT)
+            .as(FIELD_MEASUREMENT_COUNT);
+        for (String pollutant : List.of(PM10, PM25)) {
+            totals = totals.sum(path(pollutant, FIELD_COUNT))
+                .as(pollutant + SUFFIX_COUNT)
+                .sum(path(pollutant, FIELD_SUM))
+                .as(pollutant + SUFFIX_SUM);
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where(FIELD_DAY).gte(firstDay(from)).lt(lastDay(to))),
+            Aggregation.sort(Sort.Direction.ASC, FIELD_DAY),
+            withLevelCounts(totals)
+        );
+
+        Map<Integer, org.bson.Document> perStation = new LinkedHashMap<>();
+        mergeAll(perStation, foldRaw(null, from, firstDay(from)));
+        mergeAll(
+            perStation,
+            mongoTemplate.aggregate(aggregation, COLLECTION_ROLLUPS, org.bson.Document.class).getMappedResults()
+        );
+        mergeAll(perStation, foldRaw(null, lastDay(to), to));
+
+        // Nulls first, as MongoDB sorts them
+        Comparator<org.bson.Document> byAverages = Comparator
+            .comparing((org.bson.Document result) -> average(result, PM10), Comparator.nullsFirst(Double::compare))
+            .thenComparing(result -> average(result, PM25), Comparator.nullsFirst(Double::compare));
+        return perStation.values()
+            .stream()
+            .sorted(byAverages)
+            .limit(limit)
+            .map(
+                result -> new org.bson.Document(FIELD_ID, result.get(FIELD_ID))
+                    .append(FIELD_STATION_NAME, result.get(FIELD_STATION_NAME))
+                    .append(PM10 + SUFFIX_AVG, average(result, PM10))
+                    .append(PM25 + SUFFIX_AVG, average(result, PM25))
+                    .append(FIELD_DOMINANT_QUALITY, dominantLevel(result))
+                    .append(FIELD_MEASUREMENT_COUNT, count(result, FIELD_MEASUREMENT_COUNT))
+            )
+            .toList();
+    }
+
+    /** Start of the first whole day of the window */
+    private static LocalDateTime firstDay(LocalDateTime from) {
+        LocalDateTime day = from.toLocalDate().atStartOfDay();
+        return day.equals(from) ? day : day.plusDays(1);
+    }
+
+    /** End of the last whole day of the window */
+    private static LocalDateTime lastDay(LocalDateTime to) {
+        return to.toLocalDate().atStartOfDay();
+    }
+
+    /**
+     * Totals of the raw measurements in {@code [from, to)} per station, of one station or all of them,
+     * in the shape of the rollup aggregations. The partial days at the ends of a window are read
+     * this way.
+     */
+    private List<org.bson.Document> foldRaw(@Nullable Integer stationId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+
+        Criteria criteria = Criteria.where(FIELD_MEASUREMENT_DATE).gte(from).lt(to);
+        if (stationId != null) {
+            criteria = criteria.and(FIELD_STATION_ID).is(stationId);
+        }
+        Query measurements = Query.query(criteria).with(Sort.by(Sort.Direction.ASC, FIELD_MEASUREMENT_DATE));
+        Map<Integer, AirQualityDailyRollupDocument> perStation = new LinkedHashMap<>();
+        try (Stream<AirQualityMeasurementDocument> stream =
+                mongoTemplate.stream(measurements, AirQualityMeasurementDocument.class, storage.collection())) {
+            stream.forEach(
+                measurement -> add(
+                    perStation.computeIfAbsent(
+                        measurement.getStationId(),
+                        id -> newRollup(String.valueOf(id), measurement)
+                    ),
+                    measurement
+                )
+            );
+        }
+        return perStation.values().stream().map(MeasurementRollups::toTotals).toList();
+    }
+
+    private static org.bson.Document toTotals(AirQualityDailyRollupDocument rollup) {
+        org.bson.Document totals = new org.bson.Document(FIELD_ID, rollup.getStationId())
+            .append(FIELD_STATION_NAME, rollup.getStationName())
+            .append(FIELD_MEASUREMENT_COUNT, rollup.getMeasurementCount());
+        rollup.getLevels().forEach(totals::append);
+
+        Map<String, @Nullable PollutantRollup> pollutants = new LinkedHashMap<>();
+        pollutants.put(PM10, rollup.getPm10());
+        pollutants.put(PM25, rollup.getPm25());
+        pollutants.put(SO2, rollup.getSo2());
+        pollutants.put(NO2, rollup.getNo2());
+        pollutants.put(CO, rollup.getCo());
+        pollutants.put(O3, rollup.getO3());
+        pollutants.forEach((name, pollutant) -> {
+            if (pollutant != null) {
+                totals.append(name + SUFFIX_COUNT, pollutant.getCount())
+                    .append(name + SUFFIX_SUM, pollutant.getSum())
+                    .append(name + SUFFIX_MIN, pollutant.getMin())
+                    .append(name + SUFFIX_MAX, pollutant.getMax());
+            }
+        });
+        return totals;
+    }
+
+    /**
+     * Adds per-station totals to those collected so far: counts and sums add up, minimums and maximums
+     * combine, and the station name of the earliest totals is kept.
+     */
+    private static void mergeAll(Map<Integer, org.bson.Document> perStation, List<org.bson.Document> totals) {
+        for (org.bson.Document addition : totals) {
+            Integer stationId = addition.getInteger(FIELD_ID);
+            org.bson.Document merged = perStation.get(stationId);
+            if (merged == null) {
+                perStation.put(stationId, new org.bson.Document(addition));
+                continue;
+            }
+            addition.forEach((field, value) -> {
+                if (value == null || FIELD_ID.equals(field)) {
+                    return;
+                }
+                Object current = merged.get(field);
+                if (current == null) {
+                    merged.put(field, value);
+                } else if (field.endsWith(SUFFIX_MIN)) {
+                    merged.put(field, Math.min(((Number) current).doubleValue(), ((Number) value).doubleValue()));
+                } else if (field.endsWith(SUFFIX_MAX)) {
+                    merged.put(field, Math.max(((Number) current).doubleValue(), ((Number) value).doubleValue()));
+                } else if (field.endsWith(SUFFIX_SUM)) {
+                    merged.put(field, ((Number) current).doubleValue() + ((Number) value).doubleValue());
+                } else if (current instanceof Number currentCount) {
+                    merged.put(field, currentCount.longValue() + ((Number) value).longValue());
+                }
+            });
+        }
+    }
+
+    private static GroupOperation withLevelCounts(GroupOperation group) {
+        GroupOperation withLevels = group;
+        for (AirQualityLevel level : AirQualityLevel.values()) {
+            withLevels = withLevels.sum(path(FIELD_LEVELS, level.name())).as(level.name());
+        }
+        return withLevels;
+    }
+
+    /** The level counted most often in the result, the better level on a tie */
+    static @Nullable String dominantLevel(org.bson.Document result) {
+        AirQualityLevel dominant = null;
+        int dominantCount = 0;
+        for (AirQualityLevel level : AirQualityLevel.values()) {
+            int levelCount = count(result, level.name());
+            if (levelCount > dominantCount) {
+                dominant = level;
+                dominantCount = levelCount;
+            }
+        }
+        return dominant != null ? dominant.name() : null;
+    }
+
+    private static @Nullable Double average(org.bson.Document result, String pollutant) {
+        int count = count(result, pollutant + SUFFIX_COUNT);
+        return count > 0 ? result.get(pollutant + SUFFIX_SUM, Number.class).doubleValue() / count : null;
+    }
+
+    private static @Nullable Double extreme(org.bson.Document result, String field) {
+        Number extreme = result.get(field, Number.class);
+        return extreme != null ? extreme.doubleValue() : null;
+    }
+
+    private static int count(org.bson.Document result, String field) {
+        Number count = result.get(field, Number.class);
+        return count != null ? count.intValue() : 0;
+    }
+
+    private static String rollupId(AirQualityMeasurementDocument measurement) {
+        return measurement.getStationId() + ":" + measurement.getMeasurementDate().toLocalDate();
+    }
+
+    private static AirQualityDailyRollupDocument newRollup(String id, AirQualityMeasurementDocument measurement) {
+        AirQualityDailyRollupDocument rollup = new AirQualityDailyRollupDocument();
+        rollup.setId(id);
+        rollup.setStationId(measurement.getStationId());
+        rollup.setStationName(measurement.getStationName());
+        rollup.setDay(measurement.getMeasurementDate().toLocalDate().atStartOfDay());
+        return rollup;
+    }
+
+    private static void add(AirQualityDailyRollupDocument rollup, AirQualityMeasurementDocument measurement) {
+        rollup.setMeasurementCount(rollup.getMeasurementCount() + 1);
+        countLevel(rollup.getLevels(), measurement.getOverallIndexLevel());
+        rollup.setPm10(add(rollup.getPm10(), measurement.getPm10Value(), measurement.getPm10IndexLevel()));
+        rollup.setPm25(add(rollup.getPm25(), measurement.getPm25Value(), measurement.getPm25IndexLevel()));
+        rollup.setSo2(add(rollup.getSo2(), measurement.getSo2Value(), measurement.getSo2IndexLevel()));
+        rollup.setNo2(add(rollup.getNo2(), measurement.getNo2Value(), measurement.getNo2IndexLevel()));
+        rollup.setCo(add(rollup.getCo(), measurement.getCoValue(), null));
+        rollup.setO3(add(rollup.getO3(), measurement.getO3Value(), null));
+    }
+
+    private static @Nullable PollutantRollup add(
+            @Nullable PollutantRollup rollup,
+            @Nullable Double value,
+            @Nullable AirQualityLevel level
+    ) {
+        if (value == null && level == null) {
+            return rollup;
+        }
+        PollutantRollup pollutant = rollup != null ? rollup : new PollutantRollup();
+        if (value != null) {
+            pollutant.setCount(pollutant.getCount() + 1);
+            pollutant.setSum(pollutant.getSum() + value);
+            pollutant.setMin(pollutant.getMin() != null ? Math.min(pollutant.getMin(), value) : value);
+            pollutant.setMax(pollutant.getMax() != null ? Math.max(pollutant.getMax(), value) : value);
+        }
+        countLevel(pollutant.getLevels(), level);
+        return pollutant;
+    }
+
+    private static void countLevel(Map<String, Integer> levels, @Nullable AirQualityLevel level) {
+        if (level != null) {
+            levels.merge(level.name(), 1, Integer::sum);
+        }
+    }
+
+    private static Query byId(AirQualityDailyRollupDocument rollup) {
+        return Query.query(Criteria.where(FIELD_ID).is(rollup.getId()));
+    }
+
+    private static String path(String field, String subField) {
+        return field + "." + subField;
+    }
+}
@@ -0,0 +1,279 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties;
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties.StorageMode;
+import com.vertyll.freshly.airquality.domain.SyncLease;
+import com.vertyll.freshly.airquality.domain.SyncLockRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decides which collection holds the measurements. The standard collection is a plain collection
+ * with a unique (stationId, measurementDate) index. The time-series collection buckets measurements
+ * per station ({@code metaField}) and hour ({@code granularity}), which compresses them column-wise
+ * and keeps its indexes per bucket rather than per measurement. It takes over once
+ * {@link TimeSeriesMeasurementMigration} has copied the standard collection into it.
+ *
+ * <p>
+ * The meta field is the bare station ID rather than a subdocument with the station name and
+ * location. Both collections thereby hold documents of the same shape, so queries, indexes and the
+ * document mapping serve either of them while the migration moves from one to the other. The name
+ * and location stay measurement fields; they repeat within a bucket, which the column compression
+ * stores in next to no space, and a renamed station keeps its buckets.
+ *
+ * <p>
+ * Time-series collections have no unique indexes and no multi-document transactions, so writes to
+ * it look up the measurements it holds before storing a batch, and don't run in the batch
+ * transaction. Lookup and write are two steps, so writes are serialized across the cluster by the
+ * {@link #WRITE_LOCK_NAME} lock; two writers storing the same measurement at once would otherwise
+ * both insert it. Syncs replace what is stored, like the upserts into the standard collection, see
+ * {@link #upsert(List)}; the migration only adds what is missing, see {@link #insertMissing(List)}.
+ */
+@Component
+@RequiredArgsConstructor
+class MeasurementStorage {
+
+    static final String COLLECTION_STANDARD = "air_quality_measurements";
+    static final String COLLECTION_TIME_SERIES = "air_quality_measurements_ts";
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_STATION_ID = "stationId";
+    private static final String FIELD_MEASUREMENT_DATE = "measurementDate";
+    private static final String FIELD_LOCATION = "location";
+    private static final String FIELD_COMPLETED_AT = "completedAt";
+
+    static final String WRITE_LOCK_NAME = "airquality-measurements-time-series";
+    private static final Duration WRITE_LOCK_TTL = Duration.ofMinutes(1);
+    private static final Duration WRITE_LOCK_TIMEOUT = Duration.ofMinutes(1);
+    private static final Duration WRITE_LOCK_RETRY_DELAY = Duration.ofMillis(50);
+
+    private final MongoTemplate mongoTemplate;
+    private final AirQualityStorageProperties storageProperties;
+    private final SyncLockRepository lockRepository;
+
+    // Writers of this node queue here instead of polling the cluster-wide lock
+    private final Lock writeLock = new ReentrantLock();
+
+    private volatile boolean migrated;
+
+    /** Whether the time-series storage is configured, regardless of whether it took over yet */
+    boolean isTimeSeriesEnabled() {
+        return storageProperties.measurements() == StorageMode.TIME_SERIES;
+    }
+
+    /** Whether measurements are read from and written to the time-series collection */
+    boolean isTimeSeries() {
+        return isTimeSeriesEnabled() && isMigrated();
+    }
+
+    private boolean isMigrated() {
+        if (!migrated) {
+            migrated = mongoTemplate.exists(
+                Query.query(
+                    Criteria.where(FIELD_ID)
+                        .is(TimeSeriesMeasurementMigration.MIGRATION_ID)
+                        .and(FIELD_COMPLETED_AT)
+                        .exists(true)
+                ),
+                MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+            );
+        }
+        return migrated;
+    }
+
+    /** Name of the collection currently holding the measurements */
+    String collection() {
+        return isTimeSeries() ? COLLECTION_TIME_SERIES : COLLECTION_STANDARD;
+    }
+
+    /** Creates the time-series collection and its secondary indexes unless they exist */
+    void createTimeSeriesCollection() {
+        if (!mongoTemplate.collectionExists(COLLECTION_TIME_SERIES)) {
+            mongoTemplate.createCollection(
+                COLLECTION_TIME_SERIES,
+                CollectionOptions.empty().timeSeries(
+                    CollectionOptions.TimeSeriesOptions.timeSeries(FIELD_MEASUREMENT_DATE)
+                        .metaField(FIELD_STATION_ID)
+                        .granularity(Granularity.HOURS)
+                )
+            );
+        }
+
+        // MongoDB already indexes (metaField, timeField), which covers the per-station queries
+        IndexOperations indexOperations = mongoTemplate.indexOps(COLLECTION_TIME_SERIES);
+        indexOperations.createIndex(new Index().on(FIELD_MEASUREMENT_DATE, Sort.Direction.DESC).named("date_idx"));
+        indexOperations.createIndex(
+            new CompoundIndexDefinition(
+                new org.bson.Document(FIELD_LOCATION, "2dsphere").append(FIELD_MEASUREMENT_DATE, -1)
+            ).named("location_date_idx")
+        );
+    }
+
+    /**
+     * Inserts the measurements the time-series collection doesn't hold yet, matched by station and
+     * measurement date, as the unique index does for the standard collection. A measurement that is
+     * stored already keeps its values, so copies of older data never overwrite what syncs wrote.
+     *
+     * @return the measurements inserted
+     */
+    List<AirQualityMeasurementDocument> insertMissing(List<AirQualityMeasurementDocument> documents) {
+        Map<StationDate, AirQualityMeasurementDocument> missing = new LinkedHashMap<>();
+        documents.forEach(document -> missing.putIfAbsent(StationDate.of(document), document));
+        if (missing.isEmpty()) {
+            return List.of();
+        }
+
+        return whileLocked(() -> {
+            Query stored = matching(missing.keySet());
+            stored.fields().include(FIELD_STATION_ID, FIELD_MEASUREMENT_DATE);
+            mongoTemplate.find(stored, AirQualityMeasurementDocument.class, COLLECTION_TIME_SERIES)
+                .forEach(document -> missing.remove(StationDate.of(document)));
+            List<AirQualityMeasurementDocument> inserted = List.copyOf(missing.values());
+            if (!inserted.isEmpty()) {
+                mongoTemplate.insert(inserted, COLLECTION_TIME_SERIES);
+            }
+            return inserted;
+        });
+    }
+
+    /**
+     * Stores the measurements in the time-series collection, replacing those of the same station and
+     * measurement date whose values differ, as the upserts into the standard collection do. Stored
+     * measurements keep their ID and creation timestamp; those GIOŚ reports unchanged are left alone,
+     * and so are those written later than the incoming ones, e.g. when catching up with older writes.
+     * Measurements without a write timestamp are stamped with the current time.
+     *
+     * @return the measurements inserted or replaced
+     */
+    List<AirQualityMeasurementDocument> upsert(List<AirQualityMeasurementDocument> documents) {
+        Map<StationDate, AirQualityMeasurementDocument> latest = new LinkedHashMap<>();
+        documents.forEach(document -> latest.put(StationDate.of(document), document));
+        if (latest.isEmpty()) {
+            return List.of();
+        }
+
+        return whileLocked(() -> {
+            Map<StationDate, List<AirQualityMeasurementDocument>> stored = new HashMap<>();
+            mongoTemplate.find(matching(latest.keySet()), AirQualityMeasurementDocument.class, COLLECTION_TIME_SERIES)
+                .forEach(
+                    document -> stored.computeIfAbsent(StationDate.of(document), _ -> new ArrayList<>()).add(document)
+                );
+
+            Instant now = Instant.now();
+            List<AirQualityMeasurementDocument> written = new ArrayList<>();
+            List<StationDate> replaced = new ArrayList<>();
+            latest.forEach((stationDate, document) -> {
+                Instant writtenAt = document.getUpdatedAt() != null ? document.getUpdatedAt() : now;
+                List<AirQualityMeasurementDocument> previous = stored.getOrDefault(stationDate, List.of());
+                if (!previous.isEmpty()) {
+                    AirQualityMeasurementDocument current = previous.getFirst();
+                    if (current.getUpdatedAt() != null && current.getUpdatedAt().isAfter(writtenAt)) {
+                        return;
+                    }
+                    document.setId(current.getId());
+                    document.setCreatedAt(current.getCreatedAt());
+                    document.setUpdatedAt(current.getUpdatedAt());
+                    if (previous.size() == 1 && current.equals(document)) {
+                        return;
+                    }
+                    replaced.add(stationDate);
+                }
+                document.setUpdatedAt(writtenAt);
+                written.add(document);
+            });
+
+            if (!replaced.isEmpty()) {
+                mongoTemplate.remove(matching(replaced), COLLECTION_TIME_SERIES);
+            }
+            if (!written.isEmpty()) {
+                mongoTemplate.insert(written, COLLECTION_TIME_SERIES);
+            }
+            return written;
+        });
+    }
+
+    private static Query matching(Collection<StationDate> stationDates) {
+        Map<Integer, List<LocalDateTime>> datesByStation = new HashMap<>();
+        stationDates.forEach(
+            stationDate -> datesByStation.computeIfAbsent(stationDate.stationId(), _ -> new ArrayList<>())
+                .add(stationDate.measurementDate())
+        );
+        return Query.query(
+            new Criteria().orOperator(
+                datesByStation.entrySet()
+                    .stream()
+                    .map(
+                        dates -> Criteria.where(FIELD_STATION_ID)
+                            .is(dates.getKey())
+                            .and(FIELD_MEASUREMENT_DATE)
+                            .in(dates.getValue())
+                    )
+                    .toList()
+            )
+        );
+    }
+
+    /** Runs a write to the time-series collection holding the write lock, on this node and cluster-wide */
+    private <T> T whileLocked(Supplier<T> write) {
+        writeLock.lock();
+        try {
+            SyncLease lease = acquireWriteLock();
+            try {
+                return write.get();
+            } finally {
+                lockRepository.release(lease);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private SyncLease acquireWriteLock() {
+        String holderId = "writer-" + UUID.randomUUID();
+        Instant deadline = Instant.now().plus(WRITE_LOCK_TIMEOUT);
+        while (true) {
+            Optional<SyncLease> lease = lockRepository.tryAcquire(WRITE_LOCK_NAME, holderId, WRITE_LOCK_TTL);
+            if (lease.isPresent()) {
+                return lease.get();
+            }
+            if (Instant.now().isAfter(deadline)) {
+                throw new PessimisticLockingFailureException(
+                    "Timed out waiting for the time-series write lock " + WRITE_LOCK_NAME
+                );
+            }
+            try {
+                Thread.sleep(WRITE_LOCK_RETRY_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PessimisticLockingFailureException("Interrupted waiting for the time-series write lock", e);
+            }
+        }
+    }
+
+    private record StationDate(Integer stationId, LocalDateTime measurementDate) {
+
+        static StationDate of(AirQualityMeasurementDocument document) {
+            return new StationDate(document.getStationId(), document.getMeasurementDate());
+        }
+    }
+}
@@ -1,23 +1,37 @@
 package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
-import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 import com.vertyll.freshly.airquality.domain.*;
 
+import com.mongodb.bulk.BulkWriteResult;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * MongoDB implementation of AirQualityHistoryRepository. Adapts Spring Data repository to domain
- * repository interface.
+ * MongoDB implementation of AirQualityHistoryRepository. Measurements are read from and written to
+ * the collection {@link MeasurementStorage} currently stores them in.
  */
 @Slf4j
 @Component
@@ -27,33 +41,86 @@ class MongoAirQualityHistoryRepository implements AirQualityHistoryRepository {
     private static final String FIELD_STATION_ID = "stationId";
     private static final String FIELD_STATION_NAME = "stationName";
     private static final String FIELD_MEASUREMENT_DATE = "measurementDate";
+    private static final String FIELD_LOCATION = "location";
     private static final String FIELD_PM10_VALUE = "pm10Value";
     private static final String FIELD_PM25_VALUE = "pm25Value";
+    private static final String FIELD_SO2_VALUE = "so2Value";
+    private static final String FIELD_NO2_VALUE = "no2Value";
+    private static final String FIELD_CO_VALUE = "coValue";
+    private static final String FIELD_O3_VALUE = "o3Value";
     private static final String FIELD_PM10_AVG = "pm10Avg";
+    private static final String FIELD_PM10_MIN = "pm10Min";
+    private static final String FIELD_PM10_MAX = "pm10Max";
     private static final String FIELD_PM25_AVG = "pm25Avg";
+    private static final String FIELD_PM25_MIN = "pm25Min";
+    private static final String FIELD_PM25_MAX = "pm25Max";
+    private static final String FIELD_SO2_AVG = "so2Avg";
+    private static final String FIELD_NO2_AVG = "no2Avg";
+    private static final String FIELD_CO_AVG = "coAvg";
+    private static final String FIELD_O3_AVG = "o3Avg";
     private static final String FIELD_OVERALL_INDEX_LEVEL = "overallIndexLevel";
+    private static final String FIELD_SO2_INDEX_LEVEL = "so2IndexLevel";
+    private static final String FIELD_NO2_INDEX_LEVEL = "no2IndexLevel";
+    private static final String FIELD_PM10_INDEX_LEVEL = "pm10IndexLevel";
+    private static final String FIELD_PM25_INDEX_LEVEL = "pm25IndexLevel";
     private static final String FIELD_DOMINANT_QUALITY = "dominantQuality";
     private static final String FIELD_MEASUREMENT_COUNT = "measurementCount";
     private static final String FIELD_ID = "_id";
-
-    private static final String COLLECTION_AIR_QUALITY_MEASUREMENTS = "air_quality_measurements";
+    private static final String FIELD_CREATED_AT = "createdAt";
+    private static final String FIELD_LATEST_MEASUREMENT_DATE = "latestMeasurementDate";
+    private static final String FIELD_LATEST = "latest";
+
+    private static final String FIELD_GENERATION = "generation";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
+
+    private static final String COLLECTION_MEASUREMENT_GENERATION = "measurement_generation";
+    private static final String GENERATION_ID = "measurements";
+    private static final String FACET_TOTALS = "totals";
+    private static final String FACET_LEVELS = "levels";
+
+    // Fields of a history bucket: taken from its first or last measurement, or aggregated
+    private static final List<String> BUCKET_FIRST_FIELDS =
+            List.of(FIELD_STATION_ID, FIELD_STATION_NAME, FIELD_LOCATION);
+    private static final List<String> BUCKET_LAST_FIELDS = List.of(
+        FIELD_OVERALL_INDEX_LEVEL,
+        FIELD_SO2_INDEX_LEVEL,
+        FIELD_NO2_INDEX_LEVEL,
+        FIELD_PM10_INDEX_LEVEL,
+        FIELD_PM25_INDEX_LEVEL
+    );
+    private static final List<String> BUCKET_VALUE_FIELDS = List.of(
+        FIELD_PM10_VALUE,
+        FIELD_PM25_VALUE,
+        FIELD_SO2_VALUE,
+        FIELD_NO2_VALUE,
+        FIELD_CO_VALUE,
+        FIELD_O3_VALUE
+    );
 
     private static final int INITIAL_RANK = 1;
+    private static final int STREAM_BATCH_SIZE = 1000;
     private static final int DEFAULT_MEASUREMENT_COUNT = 0;
 
-    private static final double DEFAULT_AVG_VALUE = 0.0;
+    // Descending (measurementDate, _id); hex ObjectIds compare as strings the way MongoDB orders them
+    private static final Comparator<AirQualityMeasurementDocument> PAGE_ORDER = Comparator
+        .comparing(AirQualityMeasurementDocument::getMeasurementDate)
+        .thenComparing(AirQualityMeasurementDocument::getId)
+        .reversed();
+
     private static final double AVG_SCORE_DIVISOR = 2.0;
     private static final double DEFAULT_STATION_COORDINATE = 0.0;
+    private static final double MAX_EDGE_DEGREES = 1.0;
 
-    private final SpringDataAirQualityMeasurementRepository springDataRepository;
     private final AirQualityMeasurementMapper mapper;
     private final MongoTemplate mongoTemplate;
+    private final MeasurementRollups rollups;
+    private final MeasurementStorage storage;
 
     @Override
     public AirQualityMeasurement save(AirQualityMeasurement measurement) {
         log.debug("Saving air quality measurement for station {}", measurement.getStationId());
         AirQualityMeasurementDocument document = mapper.toDocument(measurement);
-        AirQualityMeasurementDocument saved = springDataRepository.save(document);
+        AirQualityMeasurementDocument saved = mongoTemplate.save(document, storage.collection());
         return mapper.toDomain(saved);
     }
 
@@ -61,12 +128,123 @@ class MongoAirQualityHistoryRepository implements AirQualityHistoryRepository {
     public List<AirQualityMeasurement> saveAll(List<AirQualityMeasurement> measurements) {
         log.debug("Batch saving {} air quality measurements", measurements.size());
         List<AirQualityMeasurementDocument> documents = measurements.stream().map(mapper::toDocument).toList();
-        return springDataRepository.saveAll(documents).stream().map(mapper::toDomain).toList();
+        return mongoTemplate.insert(documents, storage.collection()).stream().map(mapper::toDomain).toList();
+    }
+
+    @Override
+    public void upsertAll(List<AirQualityMeasurement> measurements) {
+        if (measurements.isEmpty()) {
+            return;
+        }
+
+        List<AirQualityMeasurementDocument> documents = measurements.stream().map(mapper::toDocument).toList();
+        if (storage.isTimeSeries()) {
+            List<AirQualityMeasurementDocument> written = storage.upsert(documents);
+            // All days of the batch, a retry may find its measurements written by the failed attempt
+            rollups.rebuildDays(documents);
+            log.debug(
+                "Wrote {} of {} measurements into the time-series collection",
+                written.size(),
+                documents.size()
+            );
+            return;
+        }
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(
+            BulkOperations.BulkMode.UNORDERED,
+            AirQualityMeasurementDocument.class,
+            MeasurementStorage.COLLECTION_STANDARD
+        );
+        for (AirQualityMeasurementDocument document : documents) {
+            bulkOperations.upsert(byStationAndDate(document), toUpsertUpdate(document));
+        }
+
+        BulkWriteResult result = bulkOperations.execute();
+        rollups.rebuildDays(documents);
+        log.debug(
+            "Bulk upserted {} measurements: {} inserted, {} updated",
+            measurements.size(),
+            result.getUpserts().size(),
+            result.getModifiedCount()
+        );
+    }
+
+    private Query byStationAndDate(AirQualityMeasurementDocument document) {
+        return Query.query(
+            Criteria.where(FIELD_STATION_ID)
+                .is(document.getStationId())
+                .and(FIELD_MEASUREMENT_DATE)
+                .is(document.getMeasurementDate())
+        );
+    }
+
+    /**
+     * Sets every mapped field, keeping the original creation timestamp when the document exists and
+     * stamping the write with the time of the server
+     */
+    private Update toUpsertUpdate(AirQualityMeasurementDocument document) {
+        org.bson.Document fields = new org.bson.Document();
+        mongoTemplate.getConverter().write(document, fields);
+        fields.remove(FIELD_ID);
+        Object createdAt = fields.remove(FIELD_CREATED_AT);
+
+        Update update = new Update();
+        fields.forEach(update::set);
+        update.setOnInsert(FIELD_CREATED_AT, createdAt);
+        update.currentDate(FIELD_UPDATED_AT);
+        return update;
+    }
+
+    @Override
+    public boolean supportsTransactions() {
+        return !storage.isTimeSeries();
     }
 
     @Override
     public Optional<AirQualityMeasurement> findLatestByStationId(int stationId) {
-        return springDataRepository.findFirstByStationIdOrderByMeasurementDateDesc(stationId).map(mapper::toDomain);
+        Query query = Query.query(Criteria.where(FIELD_STATION_ID).is(stationId))
+            .with(org.springframework.data.domain.Sort.by(
+                org.springframework.data.domain.Sort.Direction.DESC,
+                FIELD_MEASUREMENT_DATE
+            ));
+        return Optional.ofNullable(
+            mongoTemplate.findOne(query, AirQualityMeasurementDocument.class, storage.collection())
+        ).map(mapper::toDomain);
+    }
+
+    @Override
+    public List<AirQualityMeasurement> findLatestMeasurements() {
+        return findLatest(null);
+    }
+
+    @Override
+    public List<AirQualityMeasurement> findLatestMeasurements(Collection<Integer> stationIds) {
+        if (stationIds.isEmpty()) {
+            return List.of();
+        }
+        return findLatest(Criteria.where(FIELD_STATION_ID).in(stationIds));
+    }
+
+    /** Latest measurement of every station, or of only these stations when given */
+    private List<AirQualityMeasurement> findLatest(@Nullable Criteria stations) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (stations != null) {
+            stages.add(Aggregation.match(stations));
+        }
+        // Sorting on the (stationId, measurementDate) index lets MongoDB jump from station to station
+        // in it instead of reading every measurement
+        stages.add(
+            Aggregation.sort(org.springframework.data.domain.Sort.Direction.ASC, FIELD_STATION_ID)
+                .and(org.springframework.data.domain.Sort.Direction.DESC, FIELD_MEASUREMENT_DATE)
+        );
+        stages.add(Aggregation.group(FIELD_STATION_ID).first(Aggregation.ROOT).as(FIELD_LATEST));
+        stages.add(Aggregation.replaceRoot(FIELD_LATEST));
+        Aggregation aggregation = Aggregation.newAggregation(stages);
+        return mongoTemplate.aggregate(aggregation, storage.collection(), AirQualityMeasurementDocument.class)
+            .getMappedResults()
+            .stream()
+            .map(mapper::toDomain)
+            .toList();
     }
 
     @Override
@@ -75,8 +253,58 @@ class MongoAirQualityHistoryRepository implements AirQualityHistoryRepository {
         LocalDateTime from,
         LocalDateTime to
     ) {
-        return springDataRepository
-            .findByStationIdAndMeasurementDateBetweenOrderByMeasurementDateAsc(stationId, from, to)
+        // Bounds are exclusive, like the derived "Between" queries these replaced
+        Query query = Query.query(
+            Criteria.where(FIELD_STATION_ID).is(stationId).and(FIELD_MEASUREMENT_DATE).gt(from).lt(to)
+        ).with(org.springframework.data.domain.Sort.by(
+            org.springframework.data.domain.Sort.Direction.ASC,
+            FIELD_MEASUREMENT_DATE
+        ));
+        return findMeasurements(query);
+    }
+
+    @Override
+    public List<AirQualityMeasurement> findBucketedByStationIdAndDateRange(
+        int stationId,
+        LocalDateTime from,
+        LocalDateTime to,
+        int bucketHours,
+        DownsamplingMethod method
+    ) {
+        String accumulator = switch (method) {
+            case AVERAGE -> "$avg";
+            case MIN -> "$min";
+            case MAX -> "$max";
+            case LTTB -> throw new IllegalArgumentException("LTTB does not aggregate buckets");
+        };
+
+        // $dateTrunc counts bins from 2000-01-01, so buckets start at the same hours on every request
+        org.bson.Document bucket = new org.bson.Document(
+            FIELD_ID,
+            new org.bson.Document(
+                "$dateTrunc",
+                new org.bson.Document("date", "$" + FIELD_MEASUREMENT_DATE).append("unit", "hour")
+                    .append("binSize", bucketHours)
+            )
+        );
+        BUCKET_FIRST_FIELDS.forEach(field -> bucket.append(field, new org.bson.Document("$first", "$" + field)));
+        BUCKET_LAST_FIELDS.forEach(field -> bucket.append(field, new org.bson.Document("$last", "$" + field)));
+        BUCKET_VALUE_FIELDS.forEach(field -> bucket.append(field, new org.bson.Document(accumulator, "$" + field)));
+
+        // Bounds are exclusive, like findByStationIdAndDateRange
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(
+                Criteria.where(FIELD_STATION_ID).is(stationId).and(FIELD_MEASUREMENT_DATE).gt(from).lt(to)
+            ),
+            Aggregation.sort(org.springframework.data.domain.Sort.Direction.ASC, FIELD_MEASUREMENT_DATE),
+            _ -> new org.bson.Document("$group", bucket),
+            Aggregation.sort(org.springframework.data.domain.Sort.Direction.ASC, FIELD_ID),
+            _ -> new org.bson.Document("$set", new org.bson.Document(FIELD_MEASUREMENT_DATE, "$" + FIELD_ID)),
+            _ -> new org.bson.Document("$unset", FIELD_ID)
+        );
+
+        return mongoTemplate.aggregate(aggregation, storage.collection(), AirQualityMeasurementDocument.class)
+            .getMappedResults()
             .stream()
             .map(mapper::toDomain)
             .toList();
@@ -84,128 +312,334 @@ class MongoAirQualityHistoryRepository implements AirQualityHistoryRepository {
 
     @Override
     public List<AirQualityMeasurement> findByDateRange(LocalDateTime from, LocalDateTime to) {
-        return springDataRepository.findByMeasurementDateBetweenOrderByMeasurementDateDesc(from, to)
+        Query query = Query.query(Criteria.where(FIELD_MEASUREMENT_DATE).gt(from).lt(to))
+            .with(org.springframework.data.domain.Sort.by(
+                org.springframework.data.domain.Sort.Direction.DESC,
+                FIELD_MEASUREMENT_DATE
+            ));
+        return findMeasurements(query);
+    }
+
+    @Override
+    public Stream<AirQualityMeasurement> streamByDateRange(LocalDateTime from, LocalDateTime to) {
+        Query query = Query.query(Criteria.where(FIELD_MEASUREMENT_DATE).gte(from).lt(to))
+            .with(org.springframework.data.domain.Sort.by(
+                org.springframework.data.domain.Sort.Direction.ASC,
+                FIELD_MEASUREMENT_DATE
+            ))
+            .cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, AirQualityMeasurementDocument.class, storage.collection())
+            .map(mapper::toDomain);
+    }
+
+    @Override
+    public MeasurementPage findPageByDateRange(
+        LocalDateTime from,
+        LocalDateTime to,
+        @Nullable MeasurementCursor after,
+        int size
+    ) {
+        return findPage(null, from, to, after, size);
+    }
+
+    @Override
+    public MeasurementPage findPageByStationIdAndDateRange(
+        int stationId,
+        LocalDateTime from,
+        LocalDateTime to,
+        @Nullable MeasurementCursor after,
+        int size
+    ) {
+        return findPage(stationId, from, to, after, size);
+    }
+
+    /**
+     * Seeks the page below {@code after} in (measurementDate, _id) order, newest first. The date
+     * indexes order measurements by date only, so the page is read from at most three index-backed
+     * queries, none of which reads more than the page plus one measurement date worth of
+     * measurements: what is left of the cursor's date, the older measurements in date order and,
+     * when the page ends inside a date, the top of that date by {@code _id}. Only measurements
+     * sharing a date, at most one per station, are sorted in memory.
+     */
+    private MeasurementPage findPage(
+        @Nullable Integer stationId,
+        LocalDateTime from,
+        LocalDateTime to,
+        @Nullable MeasurementCursor after,
+        int size
+    ) {
+        // One more than the page, to tell whether another page follows
+        int limit = size + 1;
+        List<AirQualityMeasurementDocument> documents = new ArrayList<>(limit);
+        Criteria older;
+        if (after != null) {
+            documents.addAll(findDate(stationId, after.measurementDate(), after.id(), limit));
+            older = measurementDate(stationId).gte(from).lt(after.measurementDate());
+        } else {
+            older = measurementDate(stationId).gte(from).lt(to);
+        }
+
+        if (documents.size() < limit) {
+            int wanted = limit - documents.size();
+            Query query = Query.query(older)
+                .with(org.springframework.data.domain.Sort.by(
+                    org.springframework.data.domain.Sort.Direction.DESC,
+                    FIELD_MEASUREMENT_DATE
+                ))
+                .limit(wanted);
+            List<AirQualityMeasurementDocument> olderDocuments = new ArrayList<>(
+                mongoTemplate.find(query, AirQualityMeasurementDocument.class, storage.collection())
+            );
+
+            // The limit may have cut the oldest date short, so read its top measurements on their own
+            LocalDateTime cutDate =
+                    olderDocuments.size() == wanted ? olderDocuments.getLast().getMeasurementDate() : null;
+            if (cutDate != null) {
+                olderDocuments.removeIf(document -> document.getMeasurementDate().equals(cutDate));
+            }
+            olderDocuments.sort(PAGE_ORDER);
+            documents.addAll(olderDocuments);
+            if (cutDate != null) {
+                documents.addAll(findDate(stationId, cutDate, null, limit - documents.size()));
+            }
+        }
+
+        List<AirQualityMeasurement> measurements = documents.stream().limit(size).map(mapper::toDomain).toList();
+        MeasurementCursor next = documents.size() > size ? MeasurementCursor.of(measurements.getLast()) : null;
+        return new MeasurementPage(measurements, next);
+    }
+
+    /** Measurements dated {@code measurementDate}, below {@code beforeId} if given, by descending _id */
+    private List<AirQualityMeasurementDocument> findDate(
+        @Nullable Integer stationId,
+        LocalDateTime measurementDate,
+        @Nullable String beforeId,
+        int limit
+    ) {
+        Criteria sameDate = measurementDate(stationId).is(measurementDate);
+        if (beforeId != null) {
+            sameDate = sameDate.and(FIELD_ID).lt(beforeId);
+        }
+        Query query = Query.query(sameDate)
+            .with(org.springframework.data.domain.Sort.by(
+                org.springframework.data.domain.Sort.Direction.DESC,
+                FIELD_ID
+            ))
+            .limit(limit);
+        return mongoTemplate.find(query, AirQualityMeasurementDocument.class, storage.collection());
+    }
+
+    /** Criteria on the measurement date, of the given station's measurements only if there is one */
+    private static Criteria measurementDate(@Nullable Integer stationId) {
+        return stationId != null
+                ? Criteria.where(FIELD_STATION_ID).is(stationId).and(FIELD_MEASUREMENT_DATE)
+                : Criteria.where(FIELD_MEASUREMENT_DATE);
+    }
+
+    private List<AirQualityMeasurement> findMeasurements(Query query) {
+        return mongoTemplate.find(query, AirQualityMeasurementDocument.class, storage.collection())
             .stream()
             .map(mapper::toDomain)
             .toList();
     }
 
     @Override
-    public boolean hasRecentMeasurement(int stationId, LocalDateTime threshold) {
-        return springDataRepository.countByStationIdAndMeasurementDateAfter(stationId, threshold) > 0;
+    public Map<Integer, LocalDateTime> findLatestMeasurementDates() {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.group(FIELD_STATION_ID).max(FIELD_MEASUREMENT_DATE).as(FIELD_LATEST_MEASUREMENT_DATE)
+        );
+
+        List<LatestMeasurementDate> results = mongoTemplate
+            .aggregate(aggregation, storage.collection(), LatestMeasurementDate.class)
+            .getMappedResults();
+
+        Map<Integer, LocalDateTime> latestDates = HashMap.newHashMap(results.size());
+        for (LatestMeasurementDate result : results) {
+            if (result.id() != null && result.latestMeasurementDate() != null) {
+                latestDates.put(result.id(), result.latestMeasurementDate());
+            }
+        }
+        return latestDates;
+    }
+
+    /** Projection of the per-station latest date aggregation */
+    private record LatestMeasurementDate(@Id Integer id, LocalDateTime latestMeasurementDate) {
     }
 
     @Override
     public void deleteOlderThan(LocalDateTime threshold) {
         log.info("Deleting air quality measurements older than {}", threshold);
-        springDataRepository.deleteByMeasurementDateBefore(threshold);
+        mongoTemplate.remove(
+            Query.query(Criteria.where(FIELD_MEASUREMENT_DATE).lt(threshold)),
+            AirQualityMeasurementDocument.class,
+            storage.collection()
+        );
+        rollups.deleteBefore(threshold);
+    }
+
+    @Override
+    public long findGeneration() {
+        org.bson.Document generation =
+                mongoTemplate.findById(GENERATION_ID, org.bson.Document.class, COLLECTION_MEASUREMENT_GENERATION);
+        return generation != null ? generation.get(FIELD_GENERATION, Number.class).longValue() : 0;
+    }
+
+    @Override
+    public long publishChanges() {
+        org.bson.Document generation = Objects.requireNonNull(
+            mongoTemplate.findAndModify(
+                Query.query(Criteria.where(FIELD_ID).is(GENERATION_ID)),
+                new Update().inc(FIELD_GENERATION, 1L).set(FIELD_UPDATED_AT, Instant.now()),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                org.bson.Document.class,
+                COLLECTION_MEASUREMENT_GENERATION
+            )
+        );
+        return generation.get(FIELD_GENERATION, Number.class).longValue();
     }
 
     @Override
-    @SuppressWarnings("PMD.NPathComplexity") // Complex statistics aggregation logic
     public Optional<AirQualityStatistics> calculateStatistics(int stationId, LocalDateTime from, LocalDateTime to) {
-        List<AirQualityMeasurementDocument> measurements = springDataRepository
-            .findByStationIdAndMeasurementDateBetweenOrderByMeasurementDateAsc(stationId, from, to);
+        if (rollups.covers(from, to)) {
+            return rollups.statistics(stationId, from, to);
+        }
 
-        if (measurements.isEmpty()) {
+        // Read as [from, to), like the rollups, so both paths count the same measurements
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(
+                Criteria.where(FIELD_STATION_ID).is(stationId).and(FIELD_MEASUREMENT_DATE).gte(from).lt(to)
+            ),
+            Aggregation.sort(org.springframework.data.domain.Sort.Direction.ASC, FIELD_MEASUREMENT_DATE),
+            Aggregation.facet(
+                Aggregation.group()
+                    .first(FIELD_STATION_NAME)
+                    .as(FIELD_STATION_NAME)
+                    .count()
+                    .as(FIELD_MEASUREMENT_COUNT)
+                    .avg(FIELD_PM10_VALUE)
+                    .as(FIELD_PM10_AVG)
+                    .min(FIELD_PM10_VALUE)
+                    .as(FIELD_PM10_MIN)
+                    .max(FIELD_PM10_VALUE)
+                    .as(FIELD_PM10_MAX)
+                    .avg(FIELD_PM25_VALUE)
+                    .as(FIELD_PM25_AVG)
+                    .min(FIELD_PM25_VALUE)
+                    .as(FIELD_PM25_MIN)
+                    .max(FIELD_PM25_VALUE)
+                    .as(FIELD_PM25_MAX)
+                    .avg(FIELD_SO2_VALUE)
+                    .as(FIELD_SO2_AVG)
+                    .avg(FIELD_NO2_VALUE)
+                    .as(FIELD_NO2_AVG)
+                    .avg(FIELD_CO_VALUE)
+                    .as(FIELD_CO_AVG)
+                    .avg(FIELD_O3_VALUE)
+                    .as(FIELD_O3_AVG)
+            )
+                .as(FACET_TOTALS)
+                .and(
+                    Aggregation.match(Criteria.where(FIELD_OVERALL_INDEX_LEVEL).ne(null)),
+                    Aggregation.group(FIELD_OVERALL_INDEX_LEVEL).count().as(FIELD_MEASUREMENT_COUNT)
+                )
+                .as(FACET_LEVELS)
+        );
+
+        StatisticsFacets facets = mongoTemplate
+            .aggregate(aggregation, storage.collection(), StatisticsFacets.class)
+            .getUniqueMappedResult();
+        if (facets == null || facets.totals().isEmpty()) {
             return Optional.empty();
         }
 
-        // Calculate PM10 statistics
-        DoubleSummaryStatistics pm10Stats = measurements.stream()
-            .map(AirQualityMeasurementDocument::getPm10Value)
-            .filter(Objects::nonNull)
-            .mapToDouble(Double::doubleValue)
-            .summaryStatistics();
-
-        // Calculate PM2.5 statistics
-        DoubleSummaryStatistics pm25Stats = measurements.stream()
-            .map(AirQualityMeasurementDocument::getPm25Value)
-            .filter(Objects::nonNull)
-            .mapToDouble(Double::doubleValue)
-            .summaryStatistics();
-
-        // Calculate averages for other pollutants
-        double so2Avg = measurements.stream()
-            .map(AirQualityMeasurementDocument::getSo2Value)
-            .filter(Objects::nonNull)
-            .mapToDouble(Double::doubleValue)
-            .average()
-            .orElse(DEFAULT_AVG_VALUE);
-
-        double no2Avg = measurements.stream()
-            .map(AirQualityMeasurementDocument::getNo2Value)
-            .filter(Objects::nonNull)
-            .mapToDouble(Double::doubleValue)
-            .average()
-            .orElse(DEFAULT_AVG_VALUE);
-
-        double coAvg = measurements.stream()
-            .map(AirQualityMeasurementDocument::getCoValue)
-            .filter(Objects::nonNull)
-            .mapToDouble(Double::doubleValue)
-            .average()
-            .orElse(DEFAULT_AVG_VALUE);
-
-        double o3Avg = measurements.stream()
-            .map(AirQualityMeasurementDocument::getO3Value)
-            .filter(Objects::nonNull)
-            .mapToDouble(Double::doubleValue)
-            .average()
-            .orElse(DEFAULT_AVG_VALUE);
-
-        // Count quality levels (stored as enum in MongoDB)
-        Map<AirQualityLevel, Long> qualityCounts = measurements.stream()
-            .map(AirQualityMeasurementDocument::getOverallIndexLevel)
-            .filter(Objects::nonNull)
-            .collect(Collectors.groupingBy(level -> level, Collectors.counting()));
-
-        String stationName = measurements.getFirst().getStationName();
-        int count = measurements.size();
+        StatisticsTotals totals = facets.totals().getFirst();
+        Map<AirQualityLevel, Integer> levelCounts = new EnumMap<>(AirQualityLevel.class);
+        facets.levels().forEach(level -> levelCounts.put(level.level(), level.measurementCount()));
 
         return Optional.of(
             new AirQualityStatistics(
                 stationId,
-                stationName,
+                totals.stationName(),
                 from,
                 to,
-                count,
-                pm10Stats.getCount() > 0 ? pm10Stats.getAverage() : null,
-                pm10Stats.getCount() > 0 ? pm10Stats.getMin() : null,
-                pm10Stats.getCount() > 0 ? pm10Stats.getMax() : null,
-                pm25Stats.getCount() > 0 ? pm25Stats.getAverage() : null,
-                pm25Stats.getCount() > 0 ? pm25Stats.getMin() : null,
-                pm25Stats.getCount() > 0 ? pm25Stats.getMax() : null,
-                so2Avg > 0 ? so2Avg : null,
-                no2Avg > 0 ? no2Avg : null,
-                coAvg > 0 ? coAvg : null,
-                o3Avg > 0 ? o3Avg : null,
-                qualityCounts.getOrDefault(AirQualityLevel.VERY_GOOD, 0L).intValue(),
-                qualityCounts.getOrDefault(AirQualityLevel.GOOD, 0L).intValue(),
-                qualityCounts.getOrDefault(AirQualityLevel.MODERATE, 0L).intValue(),
-                qualityCounts.getOrDefault(AirQualityLevel.SUFFICIENT, 0L).intValue(),
-                qualityCounts.getOrDefault(AirQualityLevel.BAD, 0L).intValue(),
-                qualityCounts.getOrDefault(AirQualityLevel.VERY_BAD, 0L).intValue()
+                totals.measurementCount(),
+                totals.pm10Avg(),
+                totals.pm10Min(),
+                totals.pm10Max(),
+                totals.pm25Avg(),
+                totals.pm25Min(),
+                totals.pm25Max(),
+                positiveOrNull(totals.so2Avg()),
+                positiveOrNull(totals.no2Avg()),
+                positiveOrNull(totals.coAvg()),
+                positiveOrNull(totals.o3Avg()),
+                levelCounts.getOrDefault(AirQualityLevel.VERY_GOOD, 0),
+                levelCounts.getOrDefault(AirQualityLevel.GOOD, 0),
+                levelCounts.getOrDefault(AirQualityLevel.MODERATE, 0),
+                levelCounts.getOrDefault(AirQualityLevel.SUFFICIENT, 0),
+                levelCounts.getOrDefault(AirQualityLevel.BAD, 0),
+                levelCounts.getOrDefault(AirQualityLevel.VERY_BAD, 0)
             )
         );
     }
 
+    static @Nullable Double positiveOrNull(@Nullable Double value) {
+        return value != null && value > 0 ? value : null;
+    }
+
+    /** Projection of the statistics aggregation: a single totals document and a count per index level */
+    private record StatisticsFacets(List<StatisticsTotals> totals, List<LevelCount> levels) {
+    }
+
+    private record StatisticsTotals(
+        String stationName,
+        int measurementCount,
+        @Nullable Double pm10Avg,
+        @Nullable Double pm10Min,
+        @Nullable Double pm10Max,
+        @Nullable Double pm25Avg,
+        @Nullable Double pm25Min,
+        @Nullable Double pm25Max,
+        @Nullable Double so2Avg,
+        @Nullable Double no2Avg,
+        @Nullable Double coAvg,
+        @Nullable Double o3Avg
+    ) {
+    }
+
+    private record LevelCount(@Id AirQualityLevel level, int measurementCount) {
+    }
+
     @Override
     public List<StationRanking> getRanking(LocalDateTime from, LocalDateTime to, int limit) {
-        // MongoDB aggregation to calculate average scores per station
+        if (rollups.covers(from, to)) {
+            return getStationRankings(rollups.ranking(from, to, limit));
+        }
+
+        // MongoDB aggregation to calculate average scores per station, counting every overall index
+        // level so the dominant quality is the one seen most often, like the rollups pick it
+        GroupOperation perStation = Aggregation.group(FIELD_STATION_ID)
+            .first(FIELD_STATION_NAME)
+            .as(FIELD_STATION_NAME)
+            .avg(FIELD_PM10_VALUE)
+            .as(FIELD_PM10_AVG)
+            .avg(FIELD_PM25_VALUE)
+            .as(FIELD_PM25_AVG)
+            .count()
+            .as(FIELD_MEASUREMENT_COUNT);
+        for (AirQualityLevel level : AirQualityLevel.values()) {
+            perStation = perStation.sum(
+                ConditionalOperators.when(
+                    ComparisonOperators.valueOf(FIELD_OVERALL_INDEX_LEVEL).equalToValue(level.name())
+                ).then(1).otherwise(0)
+            ).as(level.name());
+        }
+
+        // Read as [from, to), like the rollups
         Aggregation aggregation = Aggregation.newAggregation(
-            Aggregation.match(Criteria.where(FIELD_MEASUREMENT_DATE).gte(from).lte(to)),
-            Aggregation.group(FIELD_STATION_ID)
-                .first(FIELD_STATION_NAME)
-                .as(FIELD_STATION_NAME)
-                .avg(FIELD_PM10_VALUE)
-                .as(FIELD_PM10_AVG)
-                .avg(FIELD_PM25_VALUE)
-                .as(FIELD_PM25_AVG)
-                .first(FIELD_OVERALL_INDEX_LEVEL)
-                .as(FIELD_DOMINANT_QUALITY)
-                .count()
-                .as(FIELD_MEASUREMENT_COUNT),
+            Aggregation.match(Criteria.where(FIELD_MEASUREMENT_DATE).gte(from).lt(to)),
+            Aggregation.sort(org.springframework.data.domain.Sort.Direction.ASC, FIELD_MEASUREMENT_DATE),
+            perStation,
             Aggregation.sort(
                 org.springframework.data.domain.Sort.by(
                     org.springframework.data.domain.Sort.Order.asc(FIELD_PM10_AVG),
@@ -215,19 +649,21 @@ class MongoAirQualityHistoryRepository implements AirQualityHistoryRepository {
             Aggregation.limit(limit)
         );
 
-        AggregationResults<?> rawResults =
-                mongoTemplate.aggregate(aggregation, COLLECTION_AIR_QUALITY_MEASUREMENTS, Map.class);
-
-        return getStationRankings(rawResults);
+        return getStationRankings(
+            mongoTemplate.aggregate(aggregation, storage.collection(), org.bson.Document.class)
+                .getMappedResults()
+                .stream()
+                .map(result -> result.append(FIELD_DOMINANT_QUALITY, MeasurementRollups.dominantLevel(result)))
+                .toList()
+        );
     }
 
     @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops") // Domain objects must be created per iteration
-    private List<StationRanking> getStationRankings(AggregationResults<?> rawResults) {
+    private List<StationRanking> getStationRankings(List<? extends Map<String, Object>> results) {
         List<StationRanking> rankings = new ArrayList<>();
         int rank = INITIAL_RANK;
 
-        for (Object resultObj : rawResults.getMappedResults()) {
-            @SuppressWarnings("unchecked") Map<String, Object> result = (Map<String, Object>) resultObj;
+        for (Map<String, Object> result : results) {
             Double pm10Avg = (Double) result.get(FIELD_PM10_AVG);
             Double pm25Avg = (Double) result.get(FIELD_PM25_AVG);
 
@@ -282,9 +718,38 @@ class MongoAirQualityHistoryRepository implements AirQualityHistoryRepository {
         LocalDateTime from,
         LocalDateTime to
     ) {
-        // This would require stations to be embedded in measurements or a join
-        // For now, return empty list - can be enhanced later
-        log.warn("findByGeoBounds not yet implemented");
-        return List.of();
+        Query query = Query.query(
+            Criteria.where(FIELD_LOCATION)
+                .within(boundingBox(minLat, maxLat, minLon, maxLon))
+                .and(FIELD_MEASUREMENT_DATE)
+                .gte(from)
+                .lte(to)
+        ).with(org.springframework.data.domain.Sort.by(
+            org.springframework.data.domain.Sort.Direction.DESC,
+            FIELD_MEASUREMENT_DATE
+        ));
+
+        return findMeasurements(query);
+    }
+
+    /**
+     * The box as a GeoJSON polygon. Polygon edges on a 2dsphere are great-circle arcs, so the
+     * east-west edges are split into steps of at most a degree to stay close to the parallels a map
+     * draws the box with.
+     */
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops") // One point per polygon vertex
+    private static GeoJsonPolygon boundingBox(double minLat, double maxLat, double minLon, double maxLon) {
+        int steps = Math.max(1, (int) Math.ceil((maxLon - minLon) / MAX_EDGE_DEGREES));
+        double step = (maxLon - minLon) / steps;
+
+        List<Point> ring = new ArrayList<>(2 * steps + 3);
+        for (int i = 0; i <= steps; i++) {
+            ring.add(new Point(minLon + step * i, minLat));
+        }
+        for (int i = steps; i >= 0; i--) {
+            ring.add(new Point(minLon + step * i, maxLat));
+        }
+        ring.add(ring.getFirst());
+        return new GeoJsonPolygon(ring);
     }
 }
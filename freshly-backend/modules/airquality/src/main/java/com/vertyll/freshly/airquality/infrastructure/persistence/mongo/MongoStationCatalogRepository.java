@@ -0,0 +1,100 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.domain.Station;
+import com.vertyll.freshly.airquality.domain.StationCatalogRepository;
+import com.vertyll.freshly.airquality.domain.StationCatalogSnapshot;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * MongoDB implementation of StationCatalogRepository. Stations are written before the generation is
+ * bumped, so a reader that sees the new generation also finds the new stations.
+ */
+@Component
+@RequiredArgsConstructor
+class MongoStationCatalogRepository implements StationCatalogRepository {
+
+    private static final String CATALOG_ID = "stations";
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_GENERATION = "generation";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public long findGeneration() {
+        StationCatalogDocument catalog = mongoTemplate.findById(CATALOG_ID, StationCatalogDocument.class);
+        return catalog != null ? catalog.getGeneration() : 0;
+    }
+
+    @Override
+    public StationCatalogSnapshot load() {
+        long generation = findGeneration();
+        List<Station> stations = mongoTemplate.findAll(StationDocument.class).stream().map(this::toDomain).toList();
+        return new StationCatalogSnapshot(generation, stations);
+    }
+
+    @Override
+    public long replaceAll(List<Station> stations) {
+        if (!stations.isEmpty()) {
+            BulkOperations bulkOperations =
+                    mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StationDocument.class);
+            stations.forEach(
+                station -> bulkOperations.replaceOne(
+                    Query.query(Criteria.where(FIELD_ID).is(station.id())),
+                    toDocument(station),
+                    FindAndReplaceOptions.options().upsert()
+                )
+            );
+            bulkOperations.execute();
+        }
+
+        List<Integer> stationIds = stations.stream().map(Station::id).toList();
+        mongoTemplate.remove(Query.query(Criteria.where(FIELD_ID).nin(stationIds)), StationDocument.class);
+
+        StationCatalogDocument catalog = Objects.requireNonNull(
+            mongoTemplate.findAndModify(
+                Query.query(Criteria.where(FIELD_ID).is(CATALOG_ID)),
+                new Update().inc(FIELD_GENERATION, 1).set(FIELD_UPDATED_AT, Instant.now()),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                StationCatalogDocument.class
+            )
+        );
+        return catalog.getGeneration();
+    }
+
+    private StationDocument toDocument(Station station) {
+        return new StationDocument(
+            station.id(),
+            station.name(),
+            station.city(),
+            station.address(),
+            station.latitude(),
+            station.longitude()
+        );
+    }
+
+    private Station toDomain(StationDocument document) {
+        return new Station(
+            document.getId(),
+            document.getName(),
+            document.getCity(),
+            document.getAddress(),
+            document.getLatitude(),
+            document.getLongitude()
+        );
+    }
+}
@@ -0,0 +1,119 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.domain.SyncLease;
+import com.vertyll.freshly.airquality.domain.SyncLockRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * MongoDB implementation of SyncLockRepository. Acquisition is a single findAndModify upsert: it
+ * matches the lock only when it is expired or already ours, so a live lock held by another node
+ * makes the upsert collide on {@code _id} and the attempt fails.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class MongoSyncLockRepository implements SyncLockRepository {
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_HOLDER_ID = "holderId";
+    private static final String FIELD_FENCING_TOKEN = "fencingToken";
+    private static final String FIELD_ACQUIRED_AT = "acquiredAt";
+    private static final String FIELD_EXPIRES_AT = "expiresAt";
+    private static final String FIELD_CONFIRMED_AT = "confirmedAt";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<SyncLease> tryAcquire(String lockName, String holderId, Duration ttl) {
+        Instant now = Instant.now();
+
+        Query query = Query.query(
+            Criteria.where(FIELD_ID)
+                .is(lockName)
+                .orOperator(Criteria.where(FIELD_EXPIRES_AT).lte(now), Criteria.where(FIELD_HOLDER_ID).is(holderId))
+        );
+        Update update = new Update().set(FIELD_HOLDER_ID, holderId)
+            .set(FIELD_ACQUIRED_AT, now)
+            .set(FIELD_EXPIRES_AT, now.plus(ttl))
+            .inc(FIELD_FENCING_TOKEN, 1);
+
+        try {
+            SyncLockDocument document = mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                SyncLockDocument.class
+            );
+            return Optional.ofNullable(document).map(this::toLease);
+        } catch (DuplicateKeyException _) {
+            log.debug("Lock {} is held by another node", lockName);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<SyncLease> renew(SyncLease lease, Duration ttl) {
+        Instant expiresAt = Instant.now().plus(ttl);
+
+        SyncLockDocument document = mongoTemplate.findAndModify(
+            heldBy(lease),
+            new Update().set(FIELD_EXPIRES_AT, expiresAt),
+            FindAndModifyOptions.options().returnNew(true),
+            SyncLockDocument.class
+        );
+        return Optional.ofNullable(document).map(this::toLease);
+    }
+
+    @Override
+    public boolean confirm(SyncLease lease) {
+        Instant now = Instant.now();
+
+        Query query = heldBy(lease).addCriteria(Criteria.where(FIELD_EXPIRES_AT).gt(now));
+        return mongoTemplate.updateFirst(query, new Update().set(FIELD_CONFIRMED_AT, now), SyncLockDocument.class)
+            .getMatchedCount() > 0;
+    }
+
+    @Override
+    public void release(SyncLease lease) {
+        // Expire instead of deleting, so the fencing token survives for the next holder
+        mongoTemplate.updateFirst(
+            heldBy(lease),
+            new Update().set(FIELD_EXPIRES_AT, Instant.now()),
+            SyncLockDocument.class
+        );
+    }
+
+    private Query heldBy(SyncLease lease) {
+        return Query.query(
+            Criteria.where(FIELD_ID)
+                .is(lease.lockName())
+                .and(FIELD_HOLDER_ID)
+                .is(lease.holderId())
+                .and(FIELD_FENCING_TOKEN)
+                .is(lease.fencingToken())
+        );
+    }
+
+    private SyncLease toLease(SyncLockDocument document) {
+        return new SyncLease(
+            document.getId(),
+            document.getHolderId(),
+            document.getFencingToken(),
+            document.getExpiresAt()
+        );
+    }
+}
@@ -0,0 +1,53 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.domain.SyncMemberRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * MongoDB implementation of SyncMemberRepository. Liveness is decided by {@code expiresAt} in the
+ * query, since the TTL monitor only removes expired members about once a minute.
+ */
+@Component
+@RequiredArgsConstructor
+class MongoSyncMemberRepository implements SyncMemberRepository {
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_LAST_HEARTBEAT = "lastHeartbeat";
+    private static final String FIELD_EXPIRES_AT = "expiresAt";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void heartbeat(String nodeId, Duration ttl) {
+        Instant now = Instant.now();
+        mongoTemplate.upsert(
+            Query.query(Criteria.where(FIELD_ID).is(nodeId)),
+            new Update().set(FIELD_LAST_HEARTBEAT, now).set(FIELD_EXPIRES_AT, now.plus(ttl)),
+            SyncMemberDocument.class
+        );
+    }
+
+    @Override
+    public List<String> findLiveMemberIds() {
+        Query query = Query.query(Criteria.where(FIELD_EXPIRES_AT).gt(Instant.now()));
+        query.fields().include(FIELD_ID);
+
+        return mongoTemplate.find(query, SyncMemberDocument.class).stream().map(SyncMemberDocument::getId).toList();
+    }
+
+    @Override
+    public void remove(String nodeId) {
+        mongoTemplate.remove(Query.query(Criteria.where(FIELD_ID).is(nodeId)), SyncMemberDocument.class);
+    }
+}
@@ -0,0 +1,116 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.domain.StationSyncStatus;
+import com.vertyll.freshly.airquality.domain.SyncRunCheckpoint;
+import com.vertyll.freshly.airquality.domain.SyncRunRepository;
+import com.vertyll.freshly.airquality.domain.SyncRunStatus;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * MongoDB implementation of SyncRunRepository. Station statuses are kept in one map per run and
+ * updated with targeted {@code $set}s, so concurrent station tasks never overwrite each other.
+ * Every update matches the node keeping the run as well as its id.
+ */
+@Component
+@RequiredArgsConstructor
+class MongoSyncRunRepository implements SyncRunRepository {
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_WINDOW_START = "windowStart";
+    private static final String FIELD_NODE_ID = "nodeId";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_STATIONS = "stations";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public SyncRunCheckpoint start(
+        String runId,
+        Instant windowStart,
+        String nodeId,
+        Collection<Integer> stationIds
+    ) {
+        Instant now = Instant.now();
+        Map<String, StationSyncStatus> stations = stationIds.stream()
+            .collect(Collectors.toMap(String::valueOf, _ -> StationSyncStatus.PENDING, (first, _) -> first));
+
+        SyncRunDocument document =
+                new SyncRunDocument(runId, windowStart, nodeId, now, now, SyncRunStatus.RUNNING, stations);
+        return toCheckpoint(mongoTemplate.insert(document));
+    }
+
+    @Override
+    public void markStations(String runId, String nodeId, Map<Integer, StationSyncStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+
+        Update update = new Update().set(FIELD_UPDATED_AT, Instant.now());
+        statuses.forEach((stationId, status) -> update.set(FIELD_STATIONS + "." + stationId, status));
+        mongoTemplate.updateFirst(keptBy(runId, nodeId), update, SyncRunDocument.class);
+    }
+
+    @Override
+    public void finish(String runId, String nodeId, SyncRunStatus status) {
+        mongoTemplate.updateFirst(
+            keptBy(runId, nodeId),
+            new Update().set(FIELD_STATUS, status).set(FIELD_UPDATED_AT, Instant.now()),
+            SyncRunDocument.class
+        );
+    }
+
+    @Override
+    public List<SyncRunCheckpoint> findRunning(Instant windowStart) {
+        Query query = Query.query(
+            Criteria.where(FIELD_WINDOW_START).is(windowStart).and(FIELD_STATUS).is(SyncRunStatus.RUNNING)
+        );
+        return mongoTemplate.find(query, SyncRunDocument.class).stream().map(this::toCheckpoint).toList();
+    }
+
+    @Override
+    public Optional<SyncRunCheckpoint> takeOver(String runId, String previousNodeId, String nodeId) {
+        return Optional.ofNullable(
+            mongoTemplate.findAndModify(
+                keptBy(runId, previousNodeId).addCriteria(Criteria.where(FIELD_STATUS).is(SyncRunStatus.RUNNING)),
+                new Update().set(FIELD_NODE_ID, nodeId).set(FIELD_UPDATED_AT, Instant.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                SyncRunDocument.class
+            )
+        ).map(this::toCheckpoint);
+    }
+
+    private Query keptBy(String runId, String nodeId) {
+        return Query.query(Criteria.where(FIELD_ID).is(runId).and(FIELD_NODE_ID).is(nodeId));
+    }
+
+    private SyncRunCheckpoint toCheckpoint(SyncRunDocument document) {
+        Map<String, StationSyncStatus> stations =
+                document.getStations() != null ? document.getStations() : Map.of();
+        return new SyncRunCheckpoint(
+            document.getId(),
+            document.getWindowStart(),
+            Objects.requireNonNullElse(document.getNodeId(), ""),
+            document.getStatus(),
+            stations.entrySet()
+                .stream()
+                .collect(Collectors.toMap(entry -> Integer.valueOf(entry.getKey()), Map.Entry::getValue))
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** MongoDB document holding the generation of the station catalog, a single document per catalog */
+@Document(collection = "station_catalog")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StationCatalogDocument {
+
+    @Id
+    private String id;
+
+    private long generation;
+    private Instant updatedAt;
+}
@@ -0,0 +1,25 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** MongoDB document for a station of the catalog, refreshed from GIOŚ by the sync */
+@Document(collection = "stations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StationDocument {
+
+    @Id
+    private Integer id; // GIOŚ station id
+
+    private String name;
+    private String city;
+    private String address;
+    private double latitude;
+    private double longitude;
+}
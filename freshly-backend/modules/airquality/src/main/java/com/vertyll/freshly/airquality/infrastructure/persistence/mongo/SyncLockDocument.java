@@ -0,0 +1,30 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MongoDB document for a sync lock. There is one per lock name and it is never deleted, so the
+ * fencing token keeps growing across acquisitions.
+ */
+@Document(collection = "sync_locks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncLockDocument {
+
+    @Id
+    private String id; // Lock name
+
+    private String holderId;
+    private long fencingToken;
+    private Instant acquiredAt;
+    private Instant expiresAt;
+    private Instant confirmedAt; // Last write fenced by the current holder
+}
@@ -0,0 +1,27 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** MongoDB document for a sync cluster member. Members that stop sending heartbeats expire. */
+@Document(collection = "sync_members")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncMemberDocument {
+
+    @Id
+    private String id; // Node id
+
+    private Instant lastHeartbeat;
+
+    @Indexed(name = "expires_at_ttl_idx", expireAfter = "0s")
+    private Instant expiresAt;
+}
@@ -0,0 +1,40 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.vertyll.freshly.airquality.domain.StationSyncStatus;
+import com.vertyll.freshly.airquality.domain.SyncRunStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MongoDB document for a sync run, one per sync job. Runs are kept for a week for troubleshooting.
+ */
+@Document(collection = "sync_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncRunDocument {
+
+    @Id
+    private String id; // Sync job id
+
+    @Indexed(name = "window_start_ttl_idx", expireAfter = "7d")
+    private Instant windowStart;
+
+    private String nodeId; // Node keeping the run
+
+    private Instant startedAt;
+    private Instant updatedAt;
+    private SyncRunStatus status;
+
+    // Keyed by station id - MongoDB field names must be strings
+    private Map<String, StationSyncStatus> stations;
+}
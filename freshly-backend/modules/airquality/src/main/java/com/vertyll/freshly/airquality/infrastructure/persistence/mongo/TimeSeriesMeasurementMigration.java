@@ -0,0 +1,295 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.vertyll.freshly.airquality.domain.SyncLease;
+import com.vertyll.freshly.airquality.domain.SyncLockRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migration copying the standard measurement collection into the time-series collection when the
+ * time-series storage is enabled, retried in the background until it succeeds. It waits for the
+ * location backfill, so copied measurements carry their location, then copies measurements in
+ * {@code _id} order, one batch at a time, saving the last copied {@code _id} after each batch so an
+ * interrupted copy resumes where it stopped. Copies go through
+ * {@link MeasurementStorage#insertMissing(List)}, so they never overwrite what syncs wrote to the
+ * time-series collection. The copy runs under the {@link #MIGRATION_LOCK_NAME} lock, renewed after
+ * every batch, so only one node copies at a time; the others skip their attempt.
+ *
+ * <p>
+ * Recording the completion switches reads and writes to the time-series collection. Nodes notice
+ * the switch on their next write or read, so a sync batch in flight may still land in the standard
+ * collection; a final pass after {@link #CATCH_UP_DELAY} copies what was written there since the
+ * copy started. It selects by the time of the write rather than by {@code _id}, so measurements
+ * updated in place after they were copied and those inserted with an older {@code _id} are caught
+ * too, and upserts them, keeping whatever a sync wrote to the time-series collection later.
+ * Syncs now write the time-series collection too, so that pass holds the sync lease instead and
+ * waits for a moment no leased sync runs. Partitioned syncs write without the lease and are only
+ * kept apart from it by the delay. The standard collection is left in place, to be dropped by hand
+ * once the switch is trusted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class TimeSeriesMeasurementMigration {
+
+    static final String MIGRATION_ID = "measurement-time-series-migration";
+    static final String MIGRATION_LOCK_NAME = "airquality-measurement-migration";
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_LAST_COPIED_ID = "lastCopiedId";
+    private static final String FIELD_STARTED_AT = "startedAt";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
+    private static final String FIELD_COMPLETED_AT = "completedAt";
+    private static final String FIELD_CAUGHT_UP_AT = "caughtUpAt";
+    private static final int BATCH_SIZE = 1000;
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    private static final Duration CATCH_UP_DELAY = Duration.ofMinutes(2);
+    private static final Duration LOCK_TTL = Duration.ofMinutes(5);
+
+    private final MongoTemplate mongoTemplate;
+    private final MeasurementStorage storage;
+    private final SyncLockRepository lockRepository;
+    private final TaskScheduler taskScheduler;
+
+    private final String holderId = "migration-" + UUID.randomUUID();
+
+    private volatile @Nullable ScheduledFuture<?> attempts;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (storage.isTimeSeriesEnabled()) {
+            attempts = taskScheduler.scheduleWithFixedDelay(this::attempt, RETRY_DELAY);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        ScheduledFuture<?> scheduledAttempts = attempts;
+        if (scheduledAttempts != null) {
+            scheduledAttempts.cancel(false);
+        }
+    }
+
+    private void attempt() {
+        try {
+            if (migrate()) {
+                stop();
+            }
+        } catch (DataAccessException e) {
+            log.warn("Time-series measurement migration failed, retrying in {}: {}", RETRY_DELAY, e.getMessage());
+        }
+    }
+
+    /** @return whether the migration, including its final pass, is complete */
+    boolean migrate() {
+        org.bson.Document progress = progress();
+        if (progress == null || !progress.containsKey(FIELD_COMPLETED_AT)) {
+            if (!mongoTemplate.exists(
+                Query.query(Criteria.where(FIELD_ID).is(MeasurementLocationBackfill.MIGRATION_ID)),
+                MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+            )) {
+                log.debug("Measurement locations are not backfilled yet, postponing the time-series migration");
+                return false;
+            }
+            return holding(MIGRATION_LOCK_NAME, this::copy);
+        }
+
+        if (progress.containsKey(FIELD_CAUGHT_UP_AT)) {
+            return true;
+        }
+        Instant completedAt = progress.get(FIELD_COMPLETED_AT, Date.class).toInstant();
+        if (Instant.now().isBefore(completedAt.plus(CATCH_UP_DELAY))) {
+            return false;
+        }
+        return holding(SyncLease.SYNC_LOCK_NAME, this::catchUp);
+    }
+
+    /** Copies the standard collection and switches over, unless another node finished the copy first */
+    private boolean copy(BooleanSupplier renewLock) {
+        org.bson.Document progress = progress();
+        if (progress != null && progress.containsKey(FIELD_COMPLETED_AT)) {
+            return false;
+        }
+
+        if (progress == null || !progress.containsKey(FIELD_STARTED_AT)) {
+            // Taken from the server clock, like the write timestamps the final pass compares it with
+            mongoTemplate.upsert(
+                migration(),
+                new Update().currentDate(FIELD_STARTED_AT),
+                MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+            );
+        }
+        storage.createTimeSeriesCollection();
+        OptionalLong copied = copyAfter(progress != null ? progress.getString(FIELD_LAST_COPIED_ID) : null, renewLock);
+        if (copied.isEmpty()) {
+            return false;
+        }
+        mongoTemplate.upsert(
+            migration(),
+            Update.update(FIELD_COMPLETED_AT, Instant.now()),
+            MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+        );
+        log.info("Copied {} measurements into the time-series collection, switching over", copied.getAsLong());
+        return false;
+    }
+
+    /** Copies what was written to the standard collection since the copy started */
+    private boolean catchUp(BooleanSupplier renewLock) {
+        org.bson.Document progress = progress();
+        if (progress == null) {
+            return false;
+        }
+        if (progress.containsKey(FIELD_CAUGHT_UP_AT)) {
+            return true;
+        }
+
+        Date startedAt = progress.get(FIELD_STARTED_AT, Date.class);
+        // A copy started before the start was recorded catches up with every write
+        OptionalLong copied = copyWrittenSince(startedAt != null ? startedAt : new Date(0), renewLock);
+        if (copied.isEmpty()) {
+            return false;
+        }
+        mongoTemplate.upsert(
+            migration(),
+            Update.update(FIELD_CAUGHT_UP_AT, Instant.now()),
+            MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+        );
+        log.info("Caught up with {} measurements written during the migration", copied.getAsLong());
+        return true;
+    }
+
+    /**
+     * Runs {@code work} holding the lock, handing it a way to renew the lock between batches
+     *
+     * @return what the work returned, or false when another node holds the lock
+     */
+    private boolean holding(String lockName, Predicate<BooleanSupplier> work) {
+        Optional<SyncLease> acquired = lockRepository.tryAcquire(lockName, holderId, LOCK_TTL);
+        if (acquired.isEmpty()) {
+            log.debug("Lock {} is held by another node, postponing the time-series migration", lockName);
+            return false;
+        }
+
+        AtomicReference<SyncLease> lease = new AtomicReference<>(acquired.get());
+        BooleanSupplier renewLock = () -> lockRepository.renew(lease.get(), LOCK_TTL).map(renewed -> {
+            lease.set(renewed);
+            return true;
+        }).orElse(false);
+        try {
+            return work.test(renewLock);
+        } finally {
+            lockRepository.release(lease.get());
+        }
+    }
+
+    private static Query migration() {
+        return Query.query(Criteria.where(FIELD_ID).is(MIGRATION_ID));
+    }
+
+    private org.bson.@Nullable Document progress() {
+        return mongoTemplate.findOne(
+            migration(),
+            org.bson.Document.class,
+            MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+        );
+    }
+
+    /**
+     * Copies the standard measurements with an {@code _id} above {@code lastCopiedId}, all of them
+     * when it is null, saving the progress and renewing the lock after each batch
+     *
+     * @return number of measurements inserted, or empty when the lock was lost
+     */
+    private OptionalLong copyAfter(@Nullable String lastCopiedId, BooleanSupplier renewLock) {
+        long copied = 0;
+        String after = lastCopiedId;
+        while (true) {
+            Query batch = new Query().with(Sort.by(Sort.Direction.ASC, FIELD_ID)).limit(BATCH_SIZE);
+            if (after != null) {
+                batch.addCriteria(Criteria.where(FIELD_ID).gt(after));
+            }
+
+            List<AirQualityMeasurementDocument> documents = mongoTemplate.find(
+                batch,
+                AirQualityMeasurementDocument.class,
+                MeasurementStorage.COLLECTION_STANDARD
+            );
+            if (documents.isEmpty()) {
+                return OptionalLong.of(copied);
+            }
+
+            copied += storage.insertMissing(documents).size();
+            after = documents.getLast().getId();
+            mongoTemplate.upsert(
+                migration(),
+                Update.update(FIELD_LAST_COPIED_ID, after),
+                MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+            );
+            if (!renewLock.getAsBoolean()) {
+                log.warn("Lost the time-series migration lock, resuming after {} on the next attempt", after);
+                return OptionalLong.empty();
+            }
+        }
+    }
+
+    /**
+     * Upserts the standard measurements written at or after {@code startedAt}, in {@code _id} order
+     * within that set, renewing the lock after each batch
+     *
+     * @return number of measurements inserted or replaced, or empty when the lock was lost
+     */
+    private OptionalLong copyWrittenSince(Date startedAt, BooleanSupplier renewLock) {
+        long copied = 0;
+        String after = null;
+        while (true) {
+            Query batch = Query.query(Criteria.where(FIELD_UPDATED_AT).gte(startedAt))
+                .with(Sort.by(Sort.Direction.ASC, FIELD_ID))
+                .limit(BATCH_SIZE);
+            if (after != null) {
+                batch.addCriteria(Criteria.where(FIELD_ID).gt(after));
+            }
+
+            List<AirQualityMeasurementDocument> documents = mongoTemplate.find(
+                batch,
+                AirQualityMeasurementDocument.class,
+                MeasurementStorage.COLLECTION_STANDARD
+            );
+            if (documents.isEmpty()) {
+                return OptionalLong.of(copied);
+            }
+
+            after = documents.getLast().getId();
+            copied += storage.upsert(documents).size();
+            if (!renewLock.getAsBoolean()) {
+                log.warn("Lost the sync lease while catching up, starting over on the next attempt");
+                return OptionalLong.empty();
+            }
+        }
+    }
+}
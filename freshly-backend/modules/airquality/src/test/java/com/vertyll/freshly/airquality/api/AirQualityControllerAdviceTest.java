@@ -14,8 +14,11 @@ import org.springframework.http.ProblemDetail;
 
 import com.vertyll.freshly.airquality.domain.exception.AirQualityDataNotFoundException;
 import com.vertyll.freshly.airquality.domain.exception.GiosApiException;
+import com.vertyll.freshly.airquality.domain.exception.InvalidBoundingBoxException;
 import com.vertyll.freshly.airquality.domain.exception.InvalidDateRangeException;
 import com.vertyll.freshly.airquality.domain.exception.StationNotFoundException;
+import com.vertyll.freshly.airquality.domain.exception.SyncDisabledException;
+import com.vertyll.freshly.airquality.domain.exception.SyncJobNotFoundException;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -27,7 +30,10 @@ class AirQualityControllerAdviceTest {
     private static final String ERROR_STATION_NOT_FOUND_MSG_KEY = "error.airquality.stationNotFound";
     private static final String ERROR_DATA_NOT_FOUND_MSG_KEY = "error.airquality.dataNotFound";
     private static final String ERROR_INVALID_DATE_RANGE_MSG_KEY = "error.airquality.invalidDateRange";
+    private static final String ERROR_INVALID_BOUNDING_BOX_MSG_KEY = "error.airquality.invalidBoundingBox";
     private static final String ERROR_GIOS_API_UNAVAILABLE_MSG_KEY = "error.airquality.giosApiUnavailable";
+    private static final String ERROR_SYNC_JOB_NOT_FOUND_MSG_KEY = "error.airquality.syncJobNotFound";
+    private static final String ERROR_SYNC_DISABLED_MSG_KEY = "error.airquality.syncDisabled";
 
     private static final int TEST_STATION_ID = 123;
 
@@ -35,9 +41,12 @@ class AirQualityControllerAdviceTest {
     private static final String AIR_QUALITY_DATA_NOT_FOUND = "Air quality data not found";
     private static final String INVALID_DATE_RANGE = "Invalid date range";
     private static final String INVALID_DATE_RANGE_PROVIDED = "Invalid date range provided";
+    private static final String INVALID_BOUNDING_BOX = "Invalid bounding box";
     private static final String GIOS_API_ERROR = "GIOS API error";
     private static final String EXTERNAL_SERVICE_ERROR = "External service error";
     private static final String NO_DATA_AVAILABLE = "No data available for this station";
+    private static final String SYNC_JOB_NOT_FOUND = "Sync job not found";
+    private static final String SYNC_DISABLED = "Sync disabled";
 
     @Mock
     @SuppressWarnings("NullAway.Init")
@@ -105,6 +114,24 @@ class AirQualityControllerAdviceTest {
         verify(messageSource).getMessage(eq(ERROR_INVALID_DATE_RANGE_MSG_KEY), isNull(), any(Locale.class));
     }
 
+    @Test
+    @DisplayName("Should handle InvalidBoundingBoxException")
+    void shouldHandleInvalidBoundingBoxException() {
+        // Given
+        InvalidBoundingBoxException exception = new InvalidBoundingBoxException(INVALID_BOUNDING_BOX);
+
+        when(messageSource.getMessage(eq(ERROR_INVALID_BOUNDING_BOX_MSG_KEY), isNull(), any(Locale.class)))
+            .thenReturn(INVALID_BOUNDING_BOX);
+
+        // When
+        ProblemDetail result = controllerAdvice.handleInvalidBoundingBox(exception);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(result.getDetail()).isEqualTo(INVALID_BOUNDING_BOX);
+        verify(messageSource).getMessage(eq(ERROR_INVALID_BOUNDING_BOX_MSG_KEY), isNull(), any(Locale.class));
+    }
+
     @Test
     @DisplayName("Should handle GiosApiException")
     void shouldHandleGiosApiException() {
@@ -139,4 +166,38 @@ class AirQualityControllerAdviceTest {
         assertThat(result.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
         assertThat(result.getDetail()).isEqualTo(AIR_QUALITY_DATA_NOT_FOUND);
     }
+
+    @Test
+    @DisplayName("Should handle SyncJobNotFoundException")
+    void shouldHandleSyncJobNotFoundException() {
+        // Given
+        SyncJobNotFoundException exception = new SyncJobNotFoundException("job-1");
+
+        when(messageSource.getMessage(eq(ERROR_SYNC_JOB_NOT_FOUND_MSG_KEY), isNull(), any(Locale.class)))
+            .thenReturn(SYNC_JOB_NOT_FOUND);
+
+        // When
+        ProblemDetail result = controllerAdvice.handleSyncJobNotFound(exception);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(result.getDetail()).isEqualTo(SYNC_JOB_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Should handle SyncDisabledException")
+    void shouldHandleSyncDisabledException() {
+        // Given
+        SyncDisabledException exception = new SyncDisabledException();
+
+        when(messageSource.getMessage(eq(ERROR_SYNC_DISABLED_MSG_KEY), isNull(), any(Locale.class)))
+            .thenReturn(SYNC_DISABLED);
+
+        // When
+        ProblemDetail result = controllerAdvice.handleSyncDisabled(exception);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(result.getDetail()).isEqualTo(SYNC_DISABLED);
+    }
 }
@@ -1,9 +1,17 @@
 package com.vertyll.freshly.airquality.api;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,8 +20,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.vertyll.freshly.airquality.api.dto.*;
@@ -22,7 +33,11 @@ import com.vertyll.freshly.airquality.application.AirQualityService;
 import com.vertyll.freshly.airquality.application.AirQualitySyncService;
 import com.vertyll.freshly.airquality.domain.*;
 import com.vertyll.freshly.common.exception.GlobalExceptionHandler;
+import com.vertyll.freshly.common.response.CursorPageResponse;
 
+import tools.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,17 +53,43 @@ class AirQualityControllerTest {
     private static final String ENDPOINT_STATION_INDEX = "/air-quality/stations/{stationId}/index";
     private static final String ENDPOINT_STATION_SENSORS = "/air-quality/stations/{stationId}/sensors";
     private static final String ENDPOINT_STATION_LATEST = "/air-quality/stations/{stationId}/latest";
+    private static final String ENDPOINT_STATIONS_LATEST = "/air-quality/stations/latest";
     private static final String ENDPOINT_STATION_HISTORY = "/air-quality/stations/{stationId}/history";
     private static final String ENDPOINT_SYNC_TRIGGER = "/air-quality/sync/trigger";
+    private static final String ENDPOINT_SYNC_JOB = "/air-quality/sync/jobs/{jobId}";
     private static final String ENDPOINT_STATIONS_NEAREST = "/air-quality/stations/nearest";
+    private static final String ENDPOINT_MEASUREMENTS_BBOX = "/air-quality/measurements/bbox";
     private static final String ENDPOINT_STATION_STATISTICS = "/air-quality/stations/{stationId}/statistics";
     private static final String ENDPOINT_STATIONS_RANKING = "/air-quality/stations/ranking";
+    private static final String ENDPOINT_MEASUREMENTS_EXPORT = "/air-quality/measurements/export";
+    private static final String ENDPOINT_MEASUREMENTS = "/air-quality/measurements";
+    private static final String ENDPOINT_STATION_MEASUREMENTS = "/air-quality/stations/{stationId}/measurements";
+
+    private static final long STATIONS_GENERATION = 7;
+    private static final String STATIONS_ETAG = "\"stations-7\"";
+    private static final String LATEST_VERSION = "12-5f3a";
+    private static final String LATEST_ETAG = "\"latest-12-5f3a\"";
+    private static final String STALE_HEADER = "X-Data-Stale";
 
     private static final String PARAM_DAYS = "days";
     private static final String PARAM_LATITUDE = "latitude";
     private static final String PARAM_LONGITUDE = "longitude";
     private static final String PARAM_RADIUS = "radius";
+    private static final String PARAM_K = "k";
     private static final String PARAM_LIMIT = "limit";
+    private static final String PARAM_POINTS = "points";
+    private static final String PARAM_METHOD = "method";
+    private static final String PARAM_FROM = "from";
+    private static final String PARAM_TO = "to";
+    private static final String PARAM_FORMAT = "format";
+    private static final String PARAM_SIZE = "size";
+    private static final String PARAM_IDS = "ids";
+    private static final String PARAM_PAGE_TOKEN = "pageToken";
+
+    private static final LocalDateTime RANGE_FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime RANGE_TO = LocalDateTime.of(2026, 2, 1, 0, 0);
+    private static final String EXPORT_STATION_NAME = "Warszawa, Marszałkowska";
+    private static final String NEXT_PAGE_TOKEN = "next-page";
 
     private static final String JSON_PATH_DATA = "$.data";
     private static final String JSON_PATH_DATA_0_ID = "$.data[0].id";
@@ -61,6 +102,9 @@ class AirQualityControllerTest {
     private static final String JSON_PATH_DATA_0_DISTANCE = "$.data[0].distanceInKm";
     private static final String JSON_PATH_DATA_PM10_AVERAGE = "$.data.pm10.average";
     private static final String JSON_PATH_DATA_0_STATION_ID = "$.data[0].station.id";
+    private static final String JSON_PATH_DATA_CONTENT = "$.data.content";
+    private static final String JSON_PATH_DATA_NEXT_PAGE_TOKEN = "$.data.nextPageToken";
+    private static final String JSON_PATH_DATA_LAST = "$.data.last";
 
     private static final String STATION_1_NAME = "Station 1";
     private static final String STATION_2_NAME = "Station 2";
@@ -73,7 +117,9 @@ class AirQualityControllerTest {
     private static final String QUALITY_GOOD_EN = "GOOD";
     private static final String PARAM_PM10 = "PM10";
     private static final String PARAM_PM10_NAME = "Pył zawieszony PM10";
-    private static final String SYNC_TRIGGERED_MESSAGE = "Synchronization triggered";
+    private static final String SYNC_JOB_ID = "job-1";
+    private static final String JSON_PATH_DATA_ID = "$.data.id";
+    private static final String JSON_PATH_DATA_STATUS = "$.data.status";
     private static final String MESSAGE_SUCCESS = "Success";
     private static final String MEASUREMENT_ID = "id-123";
 
@@ -83,8 +129,12 @@ class AirQualityControllerTest {
     private static final int SENSOR_ID_1 = 1;
     private static final int DEFAULT_DAYS = 7;
     private static final int CUSTOM_DAYS_30 = 30;
+    private static final int CHART_POINTS_600 = 600;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int CUSTOM_PAGE_SIZE_20 = 20;
     private static final int DEFAULT_RADIUS = 10;
     private static final int CUSTOM_RADIUS_50 = 50;
+    private static final int NEAREST_K_5 = 5;
     private static final int DEFAULT_LIMIT = 10;
     private static final int CUSTOM_LIMIT_20 = 20;
     private static final int MEASUREMENT_COUNT_100 = 100;
@@ -137,7 +187,13 @@ class AirQualityControllerTest {
     @SuppressWarnings("NullAway.Init")
     void setUp() {
         AirQualityController airQualityController =
-                new AirQualityController(airQualityService, Optional.of(syncService), dtoMapper, messageSource);
+                new AirQualityController(
+                    airQualityService,
+                    Optional.of(syncService),
+                    dtoMapper,
+                    messageSource,
+                    new MeasurementExportWriter(new ObjectMapper())
+                );
 
         when(messageSource.getMessage(anyString(), any(), any())).thenReturn(MESSAGE_SUCCESS);
 
@@ -209,6 +265,34 @@ class AirQualityControllerTest {
 
             verify(airQualityService).getAllStations();
         }
+
+        @Test
+        @DisplayName("Should tag stations with the catalog generation ETag")
+        void shouldTagStationsWithGenerationEtag() throws Exception {
+            // Given
+            when(airQualityService.getStationsGeneration()).thenReturn(STATIONS_GENERATION);
+            when(airQualityService.getAllStations()).thenReturn(Collections.emptyList());
+            when(dtoMapper.toStationResponseList(Collections.emptyList())).thenReturn(Collections.emptyList());
+
+            // When & Then
+            mockMvc.perform(get(ENDPOINT_STATIONS).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, STATIONS_ETAG));
+        }
+
+        @Test
+        @DisplayName("Should return 304 when the catalog generation did not change")
+        void shouldReturnNotModifiedForCurrentEtag() throws Exception {
+            // Given
+            when(airQualityService.getStationsGeneration()).thenReturn(STATIONS_GENERATION);
+
+            // When & Then
+            mockMvc.perform(get(ENDPOINT_STATIONS).header(HttpHeaders.IF_NONE_MATCH, STATIONS_ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+            verify(airQualityService, never()).getAllStations();
+        }
     }
 
     @Nested
@@ -236,13 +320,14 @@ class AirQualityControllerTest {
                 QUALITY_GOOD_PL
             );
 
-            when(airQualityService.getIndexForStation(STATION_ID_123)).thenReturn(Optional.of(index));
+            when(airQualityService.getIndexForStation(STATION_ID_123)).thenReturn(Optional.of(LiveReading.live(index)));
             when(dtoMapper.toAirQualityIndexResponse(index)).thenReturn(responseDto);
 
             // When & Then
             mockMvc.perform(get(ENDPOINT_STATION_INDEX, STATION_ID_123).contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(STALE_HEADER))
                 .andExpect(jsonPath(JSON_PATH_DATA_STATION_ID).value(STATION_ID_123))
                 .andExpect(jsonPath(JSON_PATH_DATA_OVERALL_INDEX).value(QUALITY_GOOD_PL));
 
@@ -250,6 +335,39 @@ class AirQualityControllerTest {
             verify(dtoMapper).toAirQualityIndexResponse(index);
         }
 
+        @Test
+        @DisplayName("Should mark the stored index as stale while GIOŚ is unavailable")
+        void shouldMarkStoredIndexAsStale() throws Exception {
+            // Given
+            AirQualityIndex index = new AirQualityIndex(
+                STATION_ID_123,
+                LocalDateTime.now(ZoneOffset.UTC),
+                QUALITY_GOOD_PL,
+                QUALITY_GOOD_PL,
+                QUALITY_MODERATE_PL,
+                QUALITY_GOOD_PL
+            );
+            AirQualityIndexResponseDto responseDto = new AirQualityIndexResponseDto(
+                STATION_ID_123,
+                index.calculationDate(),
+                QUALITY_GOOD_PL,
+                QUALITY_GOOD_PL,
+                QUALITY_MODERATE_PL,
+                QUALITY_GOOD_PL
+            );
+
+            when(airQualityService.getIndexForStation(STATION_ID_123))
+                .thenReturn(Optional.of(LiveReading.stale(index)));
+            when(dtoMapper.toAirQualityIndexResponse(index)).thenReturn(responseDto);
+
+            // When & Then
+            mockMvc.perform(get(ENDPOINT_STATION_INDEX, STATION_ID_123).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(STALE_HEADER, "true"))
+                .andExpect(jsonPath(JSON_PATH_DATA_STATION_ID).value(STATION_ID_123));
+        }
+
         @Test
         @DisplayName("Should throw exception when index not found")
         void shouldThrowExceptionWhenIndexNotFound() throws Exception {
@@ -286,13 +404,15 @@ class AirQualityControllerTest {
                     new SensorMeasurementResponseDto(SENSOR_ID_1, PARAM_PM10, PARAM_PM10_NAME, List.of());
             List<SensorMeasurementResponseDto> responseDtos = List.of(responseDto);
 
-            when(airQualityService.getMeasurementsForStation(STATION_ID_123)).thenReturn(measurements);
+            when(airQualityService.getMeasurementsForStation(STATION_ID_123))
+                .thenReturn(LiveReading.live(measurements));
             when(dtoMapper.toSensorMeasurementResponseList(measurements)).thenReturn(responseDtos);
 
             // When & Then
             mockMvc.perform(get(ENDPOINT_STATION_SENSORS, STATION_ID_123).contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(STALE_HEADER))
                 .andExpect(jsonPath(JSON_PATH_DATA, hasSize(1)))
                 .andExpect(jsonPath(JSON_PATH_DATA_0_PARAM_CODE).value(PARAM_PM10));
 
@@ -304,7 +424,8 @@ class AirQualityControllerTest {
         @DisplayName("Should return empty list when no measurements")
         void shouldReturnEmptyListWhenNoMeasurements() throws Exception {
             // Given
-            when(airQualityService.getMeasurementsForStation(STATION_ID_123)).thenReturn(Collections.emptyList());
+            when(airQualityService.getMeasurementsForStation(STATION_ID_123))
+                .thenReturn(LiveReading.live(Collections.emptyList()));
             when(dtoMapper.toSensorMeasurementResponseList(Collections.emptyList()))
                 .thenReturn(Collections.emptyList());
 
@@ -316,6 +437,32 @@ class AirQualityControllerTest {
 
             verify(airQualityService).getMeasurementsForStation(STATION_ID_123);
         }
+
+        @Test
+        @DisplayName("Should mark the stored readings as stale while GIOŚ is unavailable")
+        void shouldMarkStoredReadingsAsStale() throws Exception {
+            // Given
+            SensorMeasurement measurement = new SensorMeasurement(
+                0,
+                PARAM_PM10,
+                PARAM_PM10_NAME,
+                List.of(new SensorMeasurement.Reading(LocalDateTime.now(ZoneOffset.UTC), PM10_VALUE_25_5))
+            );
+            List<SensorMeasurement> measurements = List.of(measurement);
+            List<SensorMeasurementResponseDto> responseDtos =
+                    List.of(new SensorMeasurementResponseDto(0, PARAM_PM10, PARAM_PM10_NAME, List.of()));
+
+            when(airQualityService.getMeasurementsForStation(STATION_ID_123))
+                .thenReturn(LiveReading.stale(measurements));
+            when(dtoMapper.toSensorMeasurementResponseList(measurements)).thenReturn(responseDtos);
+
+            // When & Then
+            mockMvc.perform(get(ENDPOINT_STATION_SENSORS, STATION_ID_123).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(STALE_HEADER, "true"))
+                .andExpect(jsonPath(JSON_PATH_DATA_0_PARAM_CODE).value(PARAM_PM10));
+        }
     }
 
     @Nested
@@ -379,6 +526,41 @@ class AirQualityControllerTest {
             verify(airQualityService).getLatestMeasurement(STATION_ID_999);
             verify(dtoMapper, never()).toAirQualityMeasurementResponse(any());
         }
+
+        @Test
+        @DisplayName("Should get the latest measurements of the requested stations tagged with the version ETag")
+        void shouldGetLatestMeasurementsOfStations() throws Exception {
+            // Given
+            List<AirQualityMeasurement> measurements = List.of(new AirQualityMeasurement());
+            when(airQualityService.getLatestMeasurementsVersion()).thenReturn(LATEST_VERSION);
+            when(airQualityService.getLatestMeasurements(List.of(STATION_ID_123, STATION_ID_124)))
+                .thenReturn(measurements);
+            when(dtoMapper.toAirQualityMeasurementResponseList(measurements)).thenReturn(List.of());
+
+            // When & Then
+            mockMvc
+                .perform(
+                    get(ENDPOINT_STATIONS_LATEST).param(PARAM_IDS, STATION_ID_123 + "," + STATION_ID_124)
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, LATEST_ETAG))
+                .andExpect(jsonPath(JSON_PATH_DATA, hasSize(0)));
+        }
+
+        @Test
+        @DisplayName("Should return 304 for the latest measurements when no sync run wrote new ones")
+        void shouldReturnNotModifiedForCurrentLatestEtag() throws Exception {
+            // Given
+            when(airQualityService.getLatestMeasurementsVersion()).thenReturn(LATEST_VERSION);
+
+            // When & Then
+            mockMvc.perform(get(ENDPOINT_STATIONS_LATEST).header(HttpHeaders.IF_NONE_MATCH, LATEST_ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+            verify(airQualityService, never()).getLatestMeasurements(any());
+        }
     }
 
     @Nested
@@ -464,26 +646,237 @@ class AirQualityControllerTest {
 
             verify(airQualityService).getHistoricalMeasurements(STATION_ID_123, CUSTOM_DAYS_30);
         }
+
+        @Test
+        @DisplayName("Should get downsampled historical measurements when points are requested")
+        void shouldGetDownsampledHistoricalMeasurements() throws Exception {
+            // Given
+            List<AirQualityMeasurement> measurements = List.of(new AirQualityMeasurement());
+            when(
+                airQualityService.getHistoricalMeasurements(
+                    STATION_ID_123,
+                    CUSTOM_DAYS_30,
+                    CHART_POINTS_600,
+                    DownsamplingMethod.LTTB
+                )
+            ).thenReturn(measurements);
+            when(dtoMapper.toAirQualityMeasurementResponseList(measurements)).thenReturn(List.of());
+
+            // When & Then
+            mockMvc
+                .perform(
+                    get(ENDPOINT_STATION_HISTORY, STATION_ID_123).param(PARAM_DAYS, String.valueOf(CUSTOM_DAYS_30))
+                        .param(PARAM_POINTS, String.valueOf(CHART_POINTS_600))
+                        .param(PARAM_METHOD, DownsamplingMethod.LTTB.name())
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk());
+
+            verify(airQualityService, never()).getHistoricalMeasurements(anyInt(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Measurements Page Tests")
+    class GetMeasurementsPageTests {
+
+        @Test
+        @DisplayName("Should get the first page of a time range")
+        void shouldGetFirstPageOfRange() throws Exception {
+            // Given
+            MeasurementPage page = new MeasurementPage(
+                List.of(new AirQualityMeasurement()),
+                new MeasurementCursor(RANGE_TO.minusHours(1), MEASUREMENT_ID)
+            );
+            CursorPageResponse<AirQualityMeasurementResponseDto> response = CursorPageResponse
+                .<AirQualityMeasurementResponseDto>builder()
+                .content(List.of())
+                .nextPageToken(NEXT_PAGE_TOKEN)
+                .last(false)
+                .build();
+            when(airQualityService.getMeasurementsPage(RANGE_FROM, RANGE_TO, null, DEFAULT_PAGE_SIZE)).thenReturn(page);
+            when(dtoMapper.toMeasurementPageResponse(page)).thenReturn(response);
+
+            // When & Then
+            mockMvc
+                .perform(
+                    get(ENDPOINT_MEASUREMENTS).param(PARAM_FROM, RANGE_FROM.toString())
+                        .param(PARAM_TO, RANGE_TO.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_DATA_CONTENT, hasSize(0)))
+                .andExpect(jsonPath(JSON_PATH_DATA_NEXT_PAGE_TOKEN).value(NEXT_PAGE_TOKEN))
+                .andExpect(jsonPath(JSON_PATH_DATA_LAST).value(false));
+        }
+
+        @Test
+        @DisplayName("Should continue a station's history after the page token")
+        void shouldContinueStationHistory() throws Exception {
+            // Given
+            MeasurementCursor cursor = new MeasurementCursor(RANGE_TO.minusHours(1), MEASUREMENT_ID);
+            MeasurementPage page = new MeasurementPage(List.of(), null);
+            when(
+                airQualityService.getHistoricalMeasurementsPage(
+                    STATION_ID_123,
+                    DEFAULT_DAYS,
+                    cursor,
+                    CUSTOM_PAGE_SIZE_20
+                )
+            ).thenReturn(page);
+            when(dtoMapper.toMeasurementPageResponse(page)).thenReturn(
+                CursorPageResponse.<AirQualityMeasurementResponseDto>builder().content(List.of()).last(true).build()
+            );
+
+            // When & Then
+            mockMvc
+                .perform(
+                    get(ENDPOINT_STATION_MEASUREMENTS, STATION_ID_123).param(PARAM_PAGE_TOKEN, cursor.toToken())
+                        .param(PARAM_SIZE, String.valueOf(CUSTOM_PAGE_SIZE_20))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_DATA_LAST).value(true));
+        }
+
+        @Test
+        @DisplayName("Should return bad request for a page token it did not issue")
+        void shouldRejectForeignPageToken() throws Exception {
+            // When & Then
+            mockMvc
+                .perform(
+                    get(ENDPOINT_MEASUREMENTS).param(PARAM_FROM, RANGE_FROM.toString())
+                        .param(PARAM_TO, RANGE_TO.toString())
+                        .param(PARAM_PAGE_TOKEN, "not a token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+            verify(airQualityService, never()).getMeasurementsPage(any(), any(), any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Measurements In Bounds Tests")
+    class GetMeasurementsInBoundsTests {
+
+        @Test
+        @DisplayName("Should get measurements inside the box for the given window")
+        void shouldGetMeasurementsInBounds() throws Exception {
+            // Given
+            LocalDateTime from = LocalDateTime.of(2026, 3, 1, 0, 0);
+            LocalDateTime to = LocalDateTime.of(2026, 3, 2, 0, 0);
+            List<AirQualityMeasurement> measurements = List.of(new AirQualityMeasurement());
+
+            when(airQualityService.getMeasurementsInBounds(49.0, 55.0, 14.0, 24.0, from, to)).thenReturn(measurements);
+            when(dtoMapper.toAirQualityMeasurementResponseList(measurements)).thenReturn(List.of());
+
+            // When & Then
+            mockMvc
+                .perform(
+                    get(ENDPOINT_MEASUREMENTS_BBOX).param("minLat", "49")
+                        .param("maxLat", "55")
+                        .param("minLon", "14")
+                        .param("maxLon", "24")
+                        .param("from", "2026-03-01T00:00:00")
+                        .param("to", "2026-03-02T00:00:00")
+                )
+                .andExpect(status().isOk());
+
+            verify(airQualityService).getMeasurementsInBounds(49.0, 55.0, 14.0, 24.0, from, to);
+        }
+
+        @Test
+        @DisplayName("Should default to the last 24 hours")
+        void shouldDefaultToLastDay() throws Exception {
+            // When & Then
+            mockMvc
+                .perform(
+                    get(ENDPOINT_MEASUREMENTS_BBOX).param("minLat", "49")
+                        .param("maxLat", "55")
+                        .param("minLon", "14")
+                        .param("maxLon", "24")
+                )
+                .andExpect(status().isOk());
+
+            verify(airQualityService).getMeasurementsInBounds(
+                eq(49.0),
+                eq(55.0),
+                eq(14.0),
+                eq(24.0),
+                argThat(from -> from.isAfter(LocalDateTime.now(ZoneOffset.UTC).minusHours(25))),
+                any(LocalDateTime.class)
+            );
+        }
     }
 
     @Nested
     @DisplayName("Trigger Sync Tests")
     class TriggerSyncTests {
 
+        private SyncJob runningJob() {
+            return new SyncJob(
+                SYNC_JOB_ID,
+                SyncJobStatus.RUNNING,
+                10,
+                4,
+                1,
+                Instant.now(),
+                null,
+                Duration.ofSeconds(3)
+            );
+        }
+
+        private SyncJobResponseDto runningJobResponse() {
+            return new SyncJobResponseDto(SYNC_JOB_ID, "RUNNING", 10, 4, 1, Instant.now(), null, 3000);
+        }
+
         @Test
-        @DisplayName("Should trigger sync successfully")
+        @DisplayName("Should trigger sync and return the job")
         void shouldTriggerSyncSuccessfully() throws Exception {
             // Given
-            doNothing().when(syncService).triggerManualSync();
+            SyncJob job = runningJob();
+            when(syncService.triggerManualSync()).thenReturn(job);
+            when(dtoMapper.toSyncJobResponse(job)).thenReturn(runningJobResponse());
 
             // When & Then
             mockMvc.perform(post(ENDPOINT_SYNC_TRIGGER).contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isAccepted())
-                .andExpect(jsonPath(JSON_PATH_DATA).value(SYNC_TRIGGERED_MESSAGE));
+                .andExpect(jsonPath(JSON_PATH_DATA_ID).value(SYNC_JOB_ID))
+                .andExpect(jsonPath(JSON_PATH_DATA_STATUS).value("RUNNING"));
 
             verify(syncService).triggerManualSync();
         }
+
+        @Test
+        @DisplayName("Should get sync job progress")
+        void shouldGetSyncJobProgress() throws Exception {
+            // Given
+            SyncJob job = runningJob();
+            when(syncService.findJob(SYNC_JOB_ID)).thenReturn(Optional.of(job));
+            when(dtoMapper.toSyncJobResponse(job)).thenReturn(runningJobResponse());
+
+            // When & Then
+            mockMvc.perform(get(ENDPOINT_SYNC_JOB, SYNC_JOB_ID).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_DATA_ID).value(SYNC_JOB_ID))
+                .andExpect(jsonPath("$.data.stationsDone").value(4));
+        }
+
+        @Test
+        @DisplayName("Should return 404 for an unknown sync job")
+        void shouldReturn404ForUnknownSyncJob() throws Exception {
+            // Given
+            when(syncService.findJob(SYNC_JOB_ID)).thenReturn(Optional.empty());
+
+            // When & Then
+            mockMvc.perform(get(ENDPOINT_SYNC_JOB, SYNC_JOB_ID).contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+        }
     }
 
     @Nested
@@ -548,6 +941,31 @@ class AirQualityControllerTest {
 
             verify(airQualityService).findNearestStations(LAT_WARSAW, LON_WARSAW, CUSTOM_RADIUS_50);
         }
+
+        @Test
+        @DisplayName("Should get k nearest stations without a radius limit")
+        void shouldGetKNearestStations() throws Exception {
+            // Given
+            List<StationDistance> stationsWithDistance = List.of();
+
+            when(airQualityService.findKNearestStations(LAT_WARSAW, LON_WARSAW, NEAREST_K_5, null))
+                .thenReturn(stationsWithDistance);
+            when(dtoMapper.toStationDistanceResponseList(stationsWithDistance)).thenReturn(List.of());
+
+            // When & Then
+            mockMvc
+                .perform(
+                    get(ENDPOINT_STATIONS_NEAREST).param(PARAM_LATITUDE, String.valueOf(LAT_WARSAW))
+                        .param(PARAM_LONGITUDE, String.valueOf(LON_WARSAW))
+                        .param(PARAM_K, String.valueOf(NEAREST_K_5))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_DATA, hasSize(0)));
+
+            verify(airQualityService).findKNearestStations(LAT_WARSAW, LON_WARSAW, NEAREST_K_5, null);
+            verify(airQualityService, never()).findNearestStations(anyDouble(), anyDouble(), anyDouble());
+        }
     }
 
     @Nested
@@ -695,4 +1113,159 @@ class AirQualityControllerTest {
             verify(airQualityService).getRanking(CUSTOM_DAYS_30, CUSTOM_LIMIT_20);
         }
     }
+
+    @Nested
+    @DisplayName("Export Measurements Tests")
+    class ExportMeasurementsTests {
+
+        private AirQualityMeasurementResponseDto exportedMeasurement(int stationId) {
+            return new AirQualityMeasurementResponseDto(
+                MEASUREMENT_ID,
+                stationId,
+                EXPORT_STATION_NAME,
+                RANGE_FROM,
+                QUALITY_GOOD_EN,
+                null,
+                null,
+                null,
+                null,
+                PM10_VALUE_25_5,
+                null,
+                null,
+                null,
+                null,
+                null,
+                RANGE_FROM
+            );
+        }
+
+        private MvcResult export(String format, @Nullable String acceptEncoding) throws Exception {
+            AirQualityMeasurement first = new AirQualityMeasurement();
+            AirQualityMeasurement second = new AirQualityMeasurement();
+            when(airQualityService.streamMeasurementsInRange(RANGE_FROM, RANGE_TO))
+                .thenReturn(Stream.of(first, second));
+            when(dtoMapper.toAirQualityMeasurementResponse(first)).thenReturn(exportedMeasurement(STATION_ID_123));
+            when(dtoMapper.toAirQualityMeasurementResponse(second)).thenReturn(exportedMeasurement(STATION_ID_124));
+
+            MockHttpServletRequestBuilder exportRequest = get(ENDPOINT_MEASUREMENTS_EXPORT)
+                .param(PARAM_FROM, RANGE_FROM.toString())
+                .param(PARAM_TO, RANGE_TO.toString())
+                .param(PARAM_FORMAT, format);
+            if (acceptEncoding != null) {
+                exportRequest.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+            }
+
+            MvcResult started = mockMvc.perform(exportRequest).andExpect(request().asyncStarted()).andReturn();
+            return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+        }
+
+        @Test
+        @DisplayName("Should stream measurements as NDJSON, one object per line")
+        void shouldExportNdjson() throws Exception {
+            // When
+            MvcResult result = export("ndjson", null);
+
+            // Then
+            assertThat(result.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+            assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION))
+                .contains("measurements.ndjson");
+            assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+            String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(lines[0]).contains("\"stationId\":" + STATION_ID_123).contains(EXPORT_STATION_NAME);
+            assertThat(lines[1]).contains("\"stationId\":" + STATION_ID_124);
+        }
+
+        @Test
+        @DisplayName("Should stream gzip-compressed CSV when the client accepts gzip")
+        void shouldExportGzipCsv() throws Exception {
+            // When
+            MvcResult result = export("CSV", "gzip, deflate");
+
+            // Then
+            assertThat(result.getResponse().getContentType()).startsWith("text/csv");
+            assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+            String csv;
+            try (InputStream content = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray())
+            )) {
+                csv = new String(content.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            String[] lines = csv.split("\n");
+            assertThat(lines).hasSize(3);
+            assertThat(lines[0]).startsWith("id,stationId,stationName,measurementDate");
+            assertThat(lines[1]).startsWith(
+                MEASUREMENT_ID + "," + STATION_ID_123 + ",\"" + EXPORT_STATION_NAME + "\",2026-01-01T00:00:00,"
+            );
+        }
+
+        @Test
+        @DisplayName("Should return bad request for an unknown format")
+        void shouldRejectUnknownFormat() throws Exception {
+            // When & Then
+            mockMvc
+                .perform(
+                    get(ENDPOINT_MEASUREMENTS_EXPORT).param(PARAM_FROM, RANGE_FROM.toString())
+                        .param(PARAM_TO, RANGE_TO.toString())
+                        .param(PARAM_FORMAT, "xml")
+                )
+                .andExpect(status().isBadRequest());
+
+            verify(airQualityService, never()).streamMeasurementsInRange(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should not compress when gzip is listed with a zero quality")
+        void shouldRespectZeroQuality() throws Exception {
+            // When
+            MvcResult result = export("ndjson", "gzip;q=0, deflate");
+
+            // Then
+            assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+            assertThat(result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n")).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should compress when gzip is only accepted through the wildcard")
+        void shouldAcceptWildcardEncoding() throws Exception {
+            // When
+            MvcResult result = export("ndjson", "deflate;q=0.5, *;q=0.1");
+
+            // Then
+            assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        }
+
+        @Test
+        @DisplayName("Should return bad request before streaming when the range is inverted")
+        void shouldRejectInvertedRange() throws Exception {
+            // When & Then
+            mockMvc
+                .perform(
+                    get(ENDPOINT_MEASUREMENTS_EXPORT).param(PARAM_FROM, RANGE_TO.toString())
+                        .param(PARAM_TO, RANGE_FROM.toString())
+                )
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+
+            verify(airQualityService, never()).streamMeasurementsInRange(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should return bad request for an empty range")
+        void shouldRejectEmptyRange() throws Exception {
+            // When & Then
+            mockMvc
+                .perform(
+                    get(ENDPOINT_MEASUREMENTS_EXPORT).param(PARAM_FROM, RANGE_FROM.toString())
+                        .param(PARAM_TO, RANGE_FROM.toString())
+                )
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+
+            verify(airQualityService, never()).streamMeasurementsInRange(any(), any());
+        }
+    }
 }
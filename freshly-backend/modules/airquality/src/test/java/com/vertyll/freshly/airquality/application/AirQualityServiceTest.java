@@ -1,8 +1,10 @@
 package com.vertyll.freshly.airquality.application;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,6 +15,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.vertyll.freshly.airquality.domain.*;
+import com.vertyll.freshly.airquality.domain.exception.GiosUnavailableException;
+import com.vertyll.freshly.airquality.domain.exception.InvalidBoundingBoxException;
+import com.vertyll.freshly.airquality.domain.exception.InvalidDateRangeException;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -23,16 +28,37 @@ class AirQualityServiceTest {
 
     @Mock
     @SuppressWarnings("NullAway.Init")
-    private AirQualityProvider airQualityProvider;
+    private AirQualityHistoryRepository historyRepository;
 
     @Mock
     @SuppressWarnings("NullAway.Init")
-    private AirQualityHistoryRepository historyRepository;
+    private StationCatalog stationCatalog;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private RankingCache rankingCache;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private LatestMeasurementCache latestMeasurementCache;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private LiveReadingsCache liveReadingsCache;
 
     @InjectMocks
     @SuppressWarnings("NullAway.Init")
     private AirQualityService airQualityService;
 
+    private static AirQualityMeasurement storedMeasurement(int stationId) {
+        AirQualityMeasurement measurement = new AirQualityMeasurement();
+        measurement.setStationId(stationId);
+        measurement.setMeasurementDate(LocalDateTime.of(2026, 1, 1, 12, 0));
+        measurement.setOverallIndexLevel(AirQualityLevel.GOOD);
+        measurement.setPm10Value(25.5);
+        return measurement;
+    }
+
     @Nested
     @DisplayName("Get All Stations Tests")
     class GetAllStationsTests {
@@ -45,28 +71,26 @@ class AirQualityServiceTest {
             Station station2 = new Station(124, "Station 2", "Krakow", "Street 2", 50.0647, 19.9450);
             List<Station> stations = List.of(station1, station2);
 
-            when(airQualityProvider.findAllStations()).thenReturn(stations);
+            when(stationCatalog.snapshot()).thenReturn(new StationCatalogSnapshot(1, stations));
 
             // When
             List<Station> result = airQualityService.getAllStations();
 
             // Then
             assertThat(result).hasSize(2).containsExactly(station1, station2);
-            verify(airQualityProvider).findAllStations();
         }
 
         @Test
         @DisplayName("Should return empty list when no stations available")
         void shouldReturnEmptyListWhenNoStations() {
             // Given
-            when(airQualityProvider.findAllStations()).thenReturn(Collections.emptyList());
+            when(stationCatalog.snapshot()).thenReturn(StationCatalogSnapshot.EMPTY);
 
             // When
             List<Station> result = airQualityService.getAllStations();
 
             // Then
             assertThat(result).isEmpty();
-            verify(airQualityProvider).findAllStations();
         }
     }
 
@@ -88,16 +112,17 @@ class AirQualityServiceTest {
                 "Dobry"
             );
 
-            when(airQualityProvider.findIndexByStationId(stationId)).thenReturn(Optional.of(index));
+            when(liveReadingsCache.getIndex(stationId)).thenReturn(Optional.of(index));
 
             // When
-            Optional<AirQualityIndex> result = airQualityService.getIndexForStation(stationId);
+            Optional<LiveReading<AirQualityIndex>> result = airQualityService.getIndexForStation(stationId);
 
             // Then
             assertThat(result).isPresent();
-            assertThat(result.get().stationId()).isEqualTo(stationId);
-            assertThat(result.get().stIndexLevel()).isEqualTo("Dobry");
-            verify(airQualityProvider).findIndexByStationId(stationId);
+            assertThat(result.get().stale()).isFalse();
+            assertThat(result.get().value().stationId()).isEqualTo(stationId);
+            assertThat(result.get().value().stIndexLevel()).isEqualTo("Dobry");
+            verify(liveReadingsCache).getIndex(stationId);
         }
 
         @Test
@@ -105,14 +130,46 @@ class AirQualityServiceTest {
         void shouldReturnEmptyWhenIndexNotFound() {
             // Given
             int stationId = 999;
-            when(airQualityProvider.findIndexByStationId(stationId)).thenReturn(Optional.empty());
+            when(liveReadingsCache.getIndex(stationId)).thenReturn(Optional.empty());
 
             // When
-            Optional<AirQualityIndex> result = airQualityService.getIndexForStation(stationId);
+            Optional<LiveReading<AirQualityIndex>> result = airQualityService.getIndexForStation(stationId);
 
             // Then
             assertThat(result).isEmpty();
-            verify(airQualityProvider).findIndexByStationId(stationId);
+            verify(liveReadingsCache).getIndex(stationId);
+        }
+
+        @Test
+        @DisplayName("Should serve the stored index as stale while GIOŚ is unavailable")
+        void shouldServeStoredIndexWhileGiosUnavailable() {
+            // Given
+            int stationId = 123;
+            when(liveReadingsCache.getIndex(stationId)).thenThrow(new GiosUnavailableException("Circuit open"));
+            when(latestMeasurementCache.get())
+                .thenReturn(new LatestMeasurementCache.Snapshot(1, Map.of(stationId, storedMeasurement(stationId))));
+
+            // When
+            Optional<LiveReading<AirQualityIndex>> result = airQualityService.getIndexForStation(stationId);
+
+            // Then
+            assertThat(result).isPresent();
+            assertThat(result.get().stale()).isTrue();
+            assertThat(result.get().value().stIndexLevel()).isEqualTo("Dobry");
+            assertThat(result.get().value().so2IndexLevel()).isEqualTo("Brak danych");
+        }
+
+        @Test
+        @DisplayName("Should report GIOŚ as unavailable when there is no stored index either")
+        void shouldRethrowWithoutStoredIndex() {
+            // Given
+            int stationId = 999;
+            when(liveReadingsCache.getIndex(stationId)).thenThrow(new GiosUnavailableException("Circuit open"));
+            when(latestMeasurementCache.get()).thenReturn(new LatestMeasurementCache.Snapshot(1, Map.of()));
+
+            // When & Then
+            assertThatThrownBy(() -> airQualityService.getIndexForStation(stationId))
+                .isInstanceOf(GiosUnavailableException.class);
         }
     }
 
@@ -132,17 +189,18 @@ class AirQualityServiceTest {
                     new SensorMeasurement(1, "PM10", "Pył zawieszony PM10", List.of(reading1, reading2));
             List<SensorMeasurement> measurements = List.of(measurement);
 
-            when(airQualityProvider.findMeasurementsByStationId(stationId)).thenReturn(measurements);
+            when(liveReadingsCache.getMeasurements(stationId)).thenReturn(measurements);
 
             // When
-            List<SensorMeasurement> result = airQualityService.getMeasurementsForStation(stationId);
+            LiveReading<List<SensorMeasurement>> result = airQualityService.getMeasurementsForStation(stationId);
 
             // Then
-            assertThat(result).hasSize(1).first().satisfies(m -> {
+            assertThat(result.stale()).isFalse();
+            assertThat(result.value()).hasSize(1).first().satisfies(m -> {
                 assertThat(m.paramCode()).isEqualTo("PM10");
                 assertThat(m.readings()).hasSize(2);
             });
-            verify(airQualityProvider).findMeasurementsByStationId(stationId);
+            verify(liveReadingsCache).getMeasurements(stationId);
         }
 
         @Test
@@ -150,14 +208,34 @@ class AirQualityServiceTest {
         void shouldReturnEmptyListWhenNoMeasurements() {
             // Given
             int stationId = 123;
-            when(airQualityProvider.findMeasurementsByStationId(stationId)).thenReturn(Collections.emptyList());
+            when(liveReadingsCache.getMeasurements(stationId)).thenReturn(Collections.emptyList());
 
             // When
-            List<SensorMeasurement> result = airQualityService.getMeasurementsForStation(stationId);
+            LiveReading<List<SensorMeasurement>> result = airQualityService.getMeasurementsForStation(stationId);
 
             // Then
-            assertThat(result).isEmpty();
-            verify(airQualityProvider).findMeasurementsByStationId(stationId);
+            assertThat(result.value()).isEmpty();
+            verify(liveReadingsCache).getMeasurements(stationId);
+        }
+
+        @Test
+        @DisplayName("Should serve the stored readings as stale while GIOŚ is unavailable")
+        void shouldServeStoredReadingsWhileGiosUnavailable() {
+            // Given
+            int stationId = 123;
+            when(liveReadingsCache.getMeasurements(stationId)).thenThrow(new GiosUnavailableException("Circuit open"));
+            when(latestMeasurementCache.get())
+                .thenReturn(new LatestMeasurementCache.Snapshot(1, Map.of(stationId, storedMeasurement(stationId))));
+
+            // When
+            LiveReading<List<SensorMeasurement>> result = airQualityService.getMeasurementsForStation(stationId);
+
+            // Then
+            assertThat(result.stale()).isTrue();
+            assertThat(result.value()).singleElement().satisfies(m -> {
+                assertThat(m.paramCode()).isEqualTo("PM10");
+                assertThat(m.readings()).extracting(SensorMeasurement.Reading::value).containsExactly(25.5);
+            });
         }
     }
 
@@ -176,7 +254,8 @@ class AirQualityServiceTest {
             measurement.setOverallIndexLevel(AirQualityLevel.GOOD);
             measurement.setPm10Value(25.5);
 
-            when(historyRepository.findLatestByStationId(stationId)).thenReturn(Optional.of(measurement));
+            when(latestMeasurementCache.get())
+                .thenReturn(new LatestMeasurementCache.Snapshot(1, Map.of(stationId, measurement)));
 
             // When
             Optional<AirQualityMeasurement> result = airQualityService.getLatestMeasurement(stationId);
@@ -185,7 +264,7 @@ class AirQualityServiceTest {
             assertThat(result).isPresent();
             assertThat(result.get().getStationId()).isEqualTo(stationId);
             assertThat(result.get().getPm10Value()).isEqualTo(25.5);
-            verify(historyRepository).findLatestByStationId(stationId);
+            verifyNoInteractions(historyRepository);
         }
 
         @Test
@@ -193,14 +272,34 @@ class AirQualityServiceTest {
         void shouldReturnEmptyWhenLatestMeasurementNotFound() {
             // Given
             int stationId = 999;
-            when(historyRepository.findLatestByStationId(stationId)).thenReturn(Optional.empty());
+            when(latestMeasurementCache.get()).thenReturn(new LatestMeasurementCache.Snapshot(1, Map.of()));
 
             // When
             Optional<AirQualityMeasurement> result = airQualityService.getLatestMeasurement(stationId);
 
             // Then
             assertThat(result).isEmpty();
-            verify(historyRepository).findLatestByStationId(stationId);
+        }
+
+        @Test
+        @DisplayName("Should get the latest measurements of the requested stations that have one")
+        void shouldGetLatestMeasurementsOfRequestedStations() {
+            // Given
+            Map<Integer, AirQualityMeasurement> latest = new TreeMap<>();
+            for (int stationId = 1; stationId <= 3; stationId++) {
+                AirQualityMeasurement measurement = new AirQualityMeasurement();
+                measurement.setStationId(stationId);
+                latest.put(stationId, measurement);
+            }
+            when(latestMeasurementCache.get()).thenReturn(new LatestMeasurementCache.Snapshot(1, latest));
+
+            // When
+            List<AirQualityMeasurement> all = airQualityService.getLatestMeasurements(null);
+            List<AirQualityMeasurement> requested = airQualityService.getLatestMeasurements(List.of(3, 999, 1, 3));
+
+            // Then
+            assertThat(all).extracting(AirQualityMeasurement::getStationId).containsExactly(1, 2, 3);
+            assertThat(requested).extracting(AirQualityMeasurement::getStationId).containsExactly(1, 3);
         }
     }
 
@@ -269,6 +368,84 @@ class AirQualityServiceTest {
             verify(historyRepository)
                 .findByStationIdAndDateRange(eq(stationId), any(LocalDateTime.class), any(LocalDateTime.class));
         }
+
+        @Test
+        @DisplayName("Should aggregate buckets in the database sized to the requested points")
+        void shouldAggregateBuckets() {
+            // Given
+            int stationId = 123;
+            List<AirQualityMeasurement> buckets = List.of(new AirQualityMeasurement());
+            when(
+                historyRepository.findBucketedByStationIdAndDateRange(
+                    eq(stationId),
+                    any(LocalDateTime.class),
+                    any(LocalDateTime.class),
+                    eq(4),
+                    eq(DownsamplingMethod.MAX)
+                )
+            ).thenReturn(buckets);
+
+            // When
+            List<AirQualityMeasurement> result =
+                    airQualityService.getHistoricalMeasurements(stationId, 90, 600, DownsamplingMethod.MAX);
+
+            // Then
+            assertThat(result).isSameAs(buckets);
+            verify(historyRepository, never())
+                .findByStationIdAndDateRange(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("Should return hourly measurements when there are no more hours than points")
+        void shouldNotDownsampleShortRange() {
+            // Given
+            int stationId = 123;
+            List<AirQualityMeasurement> measurements = List.of(new AirQualityMeasurement());
+            when(
+                historyRepository
+                    .findByStationIdAndDateRange(eq(stationId), any(LocalDateTime.class), any(LocalDateTime.class))
+            ).thenReturn(measurements);
+
+            // When
+            List<AirQualityMeasurement> result =
+                    airQualityService.getHistoricalMeasurements(stationId, 7, 600, DownsamplingMethod.AVERAGE);
+
+            // Then
+            assertThat(result).isSameAs(measurements);
+            verify(historyRepository, never()).findBucketedByStationIdAndDateRange(
+                anyInt(),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                anyInt(),
+                any(DownsamplingMethod.class)
+            );
+        }
+
+        @Test
+        @DisplayName("Should pick measurements with LTTB")
+        void shouldPickMeasurementsWithLttb() {
+            // Given
+            int stationId = 123;
+            LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+            List<AirQualityMeasurement> measurements = new ArrayList<>();
+            for (int hour = 0; hour < 100; hour++) {
+                AirQualityMeasurement measurement = new AirQualityMeasurement();
+                measurement.setMeasurementDate(from.plusHours(hour));
+                measurement.setPm10Value((double) hour % 7);
+                measurements.add(measurement);
+            }
+            when(
+                historyRepository
+                    .findByStationIdAndDateRange(eq(stationId), any(LocalDateTime.class), any(LocalDateTime.class))
+            ).thenReturn(measurements);
+
+            // When
+            List<AirQualityMeasurement> result =
+                    airQualityService.getHistoricalMeasurements(stationId, 7, 10, DownsamplingMethod.LTTB);
+
+            // Then
+            assertThat(result).hasSize(10);
+        }
     }
 
     @Nested
@@ -294,6 +471,142 @@ class AirQualityServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Stream Measurements In Range Tests")
+    class StreamMeasurementsInRangeTests {
+
+        private final LocalDateTime to = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+        @Test
+        @DisplayName("Should stream measurements from the repository")
+        void shouldStreamMeasurementsFromRepository() {
+            // Given
+            LocalDateTime from = to.minusDays(30);
+            AirQualityMeasurement measurement = new AirQualityMeasurement();
+            when(historyRepository.streamByDateRange(from, to)).thenReturn(Stream.of(measurement));
+
+            // When
+            try (Stream<AirQualityMeasurement> result = airQualityService.streamMeasurementsInRange(from, to)) {
+                // Then
+                assertThat(result).containsExactly(measurement);
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject a range ending before it starts without opening a cursor")
+        void shouldRejectInvertedRange() {
+            // When & Then
+            assertThatThrownBy(() -> airQualityService.streamMeasurementsInRange(to, to.minusHours(1)))
+                .isInstanceOf(InvalidDateRangeException.class);
+            verifyNoInteractions(historyRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Measurements Page Tests")
+    class GetMeasurementsPageTests {
+
+        private final LocalDateTime to = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+        @Test
+        @DisplayName("Should pass the cursor on and clamp the page size")
+        void shouldPassCursorAndClampPageSize() {
+            // Given
+            LocalDateTime from = to.minusDays(30);
+            MeasurementCursor cursor = new MeasurementCursor(to.minusHours(5), "65e1c2a0f1d2c3b4a5968778");
+            MeasurementPage page = new MeasurementPage(List.of(new AirQualityMeasurement()), null);
+            when(historyRepository.findPageByDateRange(from, to, cursor, 1000)).thenReturn(page);
+
+            // When
+            MeasurementPage result = airQualityService.getMeasurementsPage(from, to, cursor, 50_000);
+
+            // Then
+            assertThat(result).isSameAs(page);
+        }
+
+        @Test
+        @DisplayName("Should reject a range ending before it starts")
+        void shouldRejectInvertedRange() {
+            // When & Then
+            assertThatThrownBy(() -> airQualityService.getMeasurementsPage(to, to.minusHours(1), null, 100))
+                .isInstanceOf(InvalidDateRangeException.class);
+            verifyNoInteractions(historyRepository);
+        }
+
+        @Test
+        @DisplayName("Should page a station's history over the clamped number of days")
+        void shouldPageStationHistory() {
+            // When
+            airQualityService.getHistoricalMeasurementsPage(1, 365, null, 0);
+
+            // Then
+            verify(historyRepository).findPageByStationIdAndDateRange(
+                eq(1),
+                argThat(from -> from.isBefore(LocalDateTime.now(ZoneOffset.UTC).minusDays(89))),
+                any(LocalDateTime.class),
+                isNull(),
+                eq(1)
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Measurements In Bounds Tests")
+    class GetMeasurementsInBoundsTests {
+
+        private final LocalDateTime to = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+        @Test
+        @DisplayName("Should query the repository with the box and time window")
+        void shouldQueryRepositoryWithBoxAndWindow() {
+            // Given
+            LocalDateTime from = to.minusHours(24);
+            List<AirQualityMeasurement> measurements = List.of(new AirQualityMeasurement());
+            when(historyRepository.findByGeoBounds(49.0, 55.0, 14.0, 24.0, from, to)).thenReturn(measurements);
+
+            // When
+            List<AirQualityMeasurement> result = airQualityService.getMeasurementsInBounds(49, 55, 14, 24, from, to);
+
+            // Then
+            assertThat(result).isEqualTo(measurements);
+        }
+
+        @Test
+        @DisplayName("Should clamp latitudes and the time window")
+        void shouldClampLatitudesAndWindow() {
+            // Given
+            LocalDateTime from = to.minusYears(1);
+
+            // When
+            airQualityService.getMeasurementsInBounds(-90, 90, 14, 24, from, to);
+
+            // Then
+            verify(historyRepository).findByGeoBounds(-85.0, 85.0, 14.0, 24.0, to.minusDays(90), to);
+        }
+
+        @Test
+        @DisplayName("Should reject empty boxes and boxes wider than half the globe")
+        void shouldRejectInvalidBoxes() {
+            // Given
+            LocalDateTime from = to.minusHours(1);
+
+            // When & Then
+            assertThatThrownBy(() -> airQualityService.getMeasurementsInBounds(55, 49, 14, 24, from, to))
+                .isInstanceOf(InvalidBoundingBoxException.class);
+            assertThatThrownBy(() -> airQualityService.getMeasurementsInBounds(49, 55, -100, 100, from, to))
+                .isInstanceOf(InvalidBoundingBoxException.class);
+            verifyNoInteractions(historyRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a time window ending before it starts")
+        void shouldRejectInvertedWindow() {
+            // When & Then
+            assertThatThrownBy(() -> airQualityService.getMeasurementsInBounds(49, 55, 14, 24, to, to.minusHours(1)))
+                .isInstanceOf(InvalidDateRangeException.class);
+        }
+    }
+
     @Nested
     @DisplayName("Find Nearest Stations Tests")
     class FindNearestStationsTests {
@@ -311,7 +624,7 @@ class AirQualityServiceTest {
             double longitude = 21.0122;
             double radius = 10;
 
-            when(airQualityProvider.findAllStations()).thenReturn(allStations);
+            when(stationCatalog.spatialIndex()).thenReturn(StationSpatialIndex.build(allStations));
 
             // When
             List<StationDistance> result = airQualityService.findNearestStations(latitude, longitude, radius);
@@ -320,7 +633,6 @@ class AirQualityServiceTest {
             assertThat(result).isNotEmpty()
                 .allMatch(sd -> sd.distanceInKm() <= radius)
                 .isSortedAccordingTo(Comparator.comparingDouble(StationDistance::distanceInKm));
-            verify(airQualityProvider).findAllStations();
         }
 
         @Test
@@ -334,14 +646,13 @@ class AirQualityServiceTest {
             Station station = new Station(125, "Station Far", "Krakow", "Street 3", 50.0647, 19.9450);
             List<Station> allStations = List.of(station);
 
-            when(airQualityProvider.findAllStations()).thenReturn(allStations);
+            when(stationCatalog.spatialIndex()).thenReturn(StationSpatialIndex.build(allStations));
 
             // When
             List<StationDistance> result = airQualityService.findNearestStations(latitude, longitude, radius);
 
             // Then
             assertThat(result).isEmpty();
-            verify(airQualityProvider).findAllStations();
         }
 
         @Test
@@ -352,14 +663,13 @@ class AirQualityServiceTest {
             double longitude = 21.0122;
             double invalidRadius = 0.5;
 
-            when(airQualityProvider.findAllStations()).thenReturn(Collections.emptyList());
+            when(stationCatalog.spatialIndex()).thenReturn(StationSpatialIndex.EMPTY);
 
             // When
             List<StationDistance> result = airQualityService.findNearestStations(latitude, longitude, invalidRadius);
 
             // Then
             assertThat(result).isEmpty();
-            verify(airQualityProvider).findAllStations();
         }
 
         @Test
@@ -370,14 +680,13 @@ class AirQualityServiceTest {
             double longitude = 21.0122;
             double invalidRadius = 150;
 
-            when(airQualityProvider.findAllStations()).thenReturn(Collections.emptyList());
+            when(stationCatalog.spatialIndex()).thenReturn(StationSpatialIndex.EMPTY);
 
             // When
             List<StationDistance> result = airQualityService.findNearestStations(latitude, longitude, invalidRadius);
 
             // Then
             assertThat(result).isEmpty();
-            verify(airQualityProvider).findAllStations();
         }
 
         @Test
@@ -393,7 +702,7 @@ class AirQualityServiceTest {
             double longitude = 21.0122;
             double radius = 50;
 
-            when(airQualityProvider.findAllStations()).thenReturn(allStations);
+            when(stationCatalog.spatialIndex()).thenReturn(StationSpatialIndex.build(allStations));
 
             // When
             List<StationDistance> result = airQualityService.findNearestStations(latitude, longitude, radius);
@@ -406,7 +715,41 @@ class AirQualityServiceTest {
                 assertThat(result.get(0).distanceInKm()).isLessThanOrEqualTo(result.get(1).distanceInKm());
             }
 
-            verify(airQualityProvider).findAllStations();
+        }
+
+        @Test
+        @DisplayName("Should find the k nearest stations regardless of distance")
+        void shouldFindKNearestStations() {
+            // Given
+            Station warsaw = new Station(123, "Warsaw", "Warsaw", "Street 1", 52.2297, 21.0122);
+            Station lodz = new Station(124, "Lodz", "Lodz", "Street 2", 51.7592, 19.4560);
+            Station krakow = new Station(125, "Krakow", "Krakow", "Street 3", 50.0647, 19.9450);
+            List<Station> allStations = List.of(krakow, warsaw, lodz);
+
+            when(stationCatalog.spatialIndex()).thenReturn(StationSpatialIndex.build(allStations));
+
+            // When
+            List<StationDistance> result = airQualityService.findKNearestStations(52.2297, 21.0122, 2, null);
+
+            // Then
+            assertThat(result).extracting(StationDistance::station).containsExactly(warsaw, lodz);
+            assertThat(result.get(1).distanceInKm()).isGreaterThan(100);
+        }
+
+        @Test
+        @DisplayName("Should limit k nearest stations to the radius when given")
+        void shouldLimitKNearestStationsToRadius() {
+            // Given
+            Station warsaw = new Station(123, "Warsaw", "Warsaw", "Street 1", 52.2297, 21.0122);
+            Station lodz = new Station(124, "Lodz", "Lodz", "Street 2", 51.7592, 19.4560);
+
+            when(stationCatalog.spatialIndex()).thenReturn(StationSpatialIndex.build(List.of(warsaw, lodz)));
+
+            // When
+            List<StationDistance> result = airQualityService.findKNearestStations(52.2297, 21.0122, 5, 50.0);
+
+            // Then
+            assertThat(result).extracting(StationDistance::station).containsExactly(warsaw);
         }
     }
 
@@ -516,15 +859,15 @@ class AirQualityServiceTest {
             List<StationRanking> rankings = List.of(ranking1, ranking2);
             int days = 7;
 
-            when(historyRepository.getRanking(any(LocalDateTime.class), any(LocalDateTime.class), eq(limit)))
-                .thenReturn(rankings);
+            when(rankingCache.get(days)).thenReturn(rankings);
 
             // When
             List<StationRanking> result = airQualityService.getRanking(days, limit);
 
             // Then
             assertThat(result).hasSize(2).first().extracting(r -> r.station().id()).isEqualTo(123);
-            verify(historyRepository).getRanking(any(LocalDateTime.class), any(LocalDateTime.class), eq(limit));
+            verify(rankingCache).get(days);
+            verifyNoInteractions(historyRepository);
         }
 
         @Test
@@ -534,33 +877,34 @@ class AirQualityServiceTest {
             int invalidDays = 100;
             int limit = 10;
 
-            when(historyRepository.getRanking(any(LocalDateTime.class), any(LocalDateTime.class), eq(limit)))
-                .thenReturn(Collections.emptyList());
+            when(rankingCache.get(90)).thenReturn(Collections.emptyList());
 
             // When
             List<StationRanking> result = airQualityService.getRanking(invalidDays, limit);
 
             // Then
             assertThat(result).isEmpty();
-            verify(historyRepository).getRanking(any(LocalDateTime.class), any(LocalDateTime.class), eq(limit));
+            verify(rankingCache).get(90);
         }
 
         @Test
-        @DisplayName("Should clamp limit to valid range")
-        void shouldClampLimitToValidRange() {
+        @DisplayName("Should return the top of the cached ranking")
+        void shouldLimitCachedRanking() {
             // Given
             int days = 7;
-            int invalidLimit = 100;
-
-            when(historyRepository.getRanking(any(LocalDateTime.class), any(LocalDateTime.class), eq(50)))
-                .thenReturn(Collections.emptyList());
+            List<StationRanking> rankings = new ArrayList<>();
+            for (int rank = 1; rank <= RankingCache.RANKED_STATIONS; rank++) {
+                Station station = new Station(rank, "Station " + rank, "Warsaw", "Street", 52.2297, 21.0122);
+                rankings.add(new StationRanking(rank, station, 10.0 + rank, AirQualityLevel.GOOD, 24));
+            }
 
-            // When
-            List<StationRanking> result = airQualityService.getRanking(days, invalidLimit);
+            when(rankingCache.get(days)).thenReturn(rankings);
 
-            // Then
-            assertThat(result).isEmpty();
-            verify(historyRepository).getRanking(any(LocalDateTime.class), any(LocalDateTime.class), eq(50));
+            // When & Then
+            assertThat(airQualityService.getRanking(days, 10)).extracting(StationRanking::rank)
+                .containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+            assertThat(airQualityService.getRanking(days, 1)).hasSize(5);
+            assertThat(airQualityService.getRanking(days, 100)).hasSize(RankingCache.RANKED_STATIONS);
         }
 
         @Test
@@ -570,15 +914,14 @@ class AirQualityServiceTest {
             int days = 7;
             int limit = 10;
 
-            when(historyRepository.getRanking(any(LocalDateTime.class), any(LocalDateTime.class), eq(limit)))
-                .thenReturn(Collections.emptyList());
+            when(rankingCache.get(days)).thenReturn(Collections.emptyList());
 
             // When
             List<StationRanking> result = airQualityService.getRanking(days, limit);
 
             // Then
             assertThat(result).isEmpty();
-            verify(historyRepository).getRanking(any(LocalDateTime.class), any(LocalDateTime.class), eq(limit));
+            verify(rankingCache).get(days);
         }
     }
 }
@@ -1,5 +1,7 @@
 package com.vertyll.freshly.airquality.application;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
@@ -13,7 +15,11 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties;
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties.SyncMode;
 import com.vertyll.freshly.airquality.domain.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -35,31 +41,205 @@ class AirQualitySyncServiceTest {
     @SuppressWarnings("NullAway.Init")
     private ObjectProvider<AirQualitySyncService> selfProvider;
 
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private ObjectProvider<PlatformTransactionManager> transactionManagerProvider;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private SyncLeaseManager leaseManager;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private SyncLockRepository lockRepository;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private SyncPartitioner syncPartitioner;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private SyncRunRepository runRepository;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private StationCatalog stationCatalog;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private MeasurementGeneration measurementGeneration;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private RankingCache rankingCache;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private LatestMeasurementCache latestMeasurementCache;
+
     @Captor
     @SuppressWarnings("NullAway.Init")
-    private ArgumentCaptor<AirQualityMeasurement> measurementCaptor;
+    private ArgumentCaptor<List<AirQualityMeasurement>> batchCaptor;
+
+    private static final String NODE_ID = "test-node";
 
     private AirQualitySyncService syncService;
 
     @BeforeEach
     @SuppressWarnings("NullAway.Init")
     void setUp() {
-        syncService = new AirQualitySyncService(airQualityProvider, historyRepository, selfProvider);
+        syncService = newSyncService(syncProperties(SyncMode.CONCURRENT, Duration.ofMinutes(5)));
+        lenient().when(leaseManager.tryAcquire())
+            .thenReturn(Optional.of(HeldSyncLease.local(SyncLeaseManager.SYNC_LOCK_NAME, "test-node")));
+        lenient().when(syncPartitioner.nodeId()).thenReturn(NODE_ID);
+        lenient().when(runRepository.start(anyString(), any(Instant.class), anyString(), anyCollection()))
+            .thenAnswer(invocation -> {
+                Collection<Integer> stationIds = invocation.getArgument(3);
+                Map<Integer, StationSyncStatus> stations = new HashMap<>();
+                stationIds.forEach(stationId -> stations.put(stationId, StationSyncStatus.PENDING));
+                return checkpoint(invocation.getArgument(0), invocation.getArgument(2), stations);
+            });
+    }
+
+    private static SyncRunCheckpoint checkpoint(
+        String runId,
+        String nodeId,
+        Map<Integer, StationSyncStatus> stations
+    ) {
+        return new SyncRunCheckpoint(runId, Instant.now(), nodeId, SyncRunStatus.RUNNING, stations);
+    }
+
+    private AirQualitySyncService newSyncService(AirQualitySyncProperties syncProperties) {
+        return new AirQualitySyncService(
+            airQualityProvider,
+            historyRepository,
+            selfProvider,
+            syncProperties,
+            transactionManagerProvider,
+            leaseManager,
+            syncPartitioner,
+            runRepository,
+            new SyncJobRegistry(),
+            stationCatalog,
+            measurementGeneration,
+            rankingCache,
+            latestMeasurementCache
+        );
+    }
+
+    private static AirQualitySyncProperties syncProperties(SyncMode mode, Duration runTimeout) {
+        return syncProperties(mode, runTimeout, new AirQualitySyncProperties.Retry(1, Duration.ofMillis(10)));
+    }
+
+    private static AirQualitySyncProperties syncProperties(
+        SyncMode mode,
+        Duration runTimeout,
+        AirQualitySyncProperties.Retry retry
+    ) {
+        return new AirQualitySyncProperties(
+            true,
+            mode,
+            4,
+            runTimeout,
+            new AirQualitySyncProperties.Writer(100, Duration.ofSeconds(5), Duration.ofSeconds(30)),
+            new AirQualitySyncProperties.Lease(true, Duration.ofMinutes(2), Duration.ofSeconds(30)),
+            new AirQualitySyncProperties.Partitioning(false, 128, Duration.ofSeconds(10), Duration.ofSeconds(30)),
+            retry,
+            new AirQualitySyncProperties.Catalog(Duration.ofSeconds(30)),
+            new AirQualitySyncProperties.Ranking(Duration.ofSeconds(30))
+        );
+    }
+
+    private List<AirQualityMeasurement> writtenMeasurements() {
+        verify(historyRepository, atLeastOnce()).upsertAll(batchCaptor.capture());
+        return batchCaptor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private AirQualityMeasurement singleWrittenMeasurement() {
+        List<AirQualityMeasurement> written = writtenMeasurements();
+        assertThat(written).hasSize(1);
+        return written.getFirst();
     }
 
     @Test
-    @DisplayName("Should trigger manual sync successfully")
+    @DisplayName("Should trigger manual sync as a background job")
     void shouldTriggerManualSyncSuccessfully() {
         // Given
         AirQualitySyncService spyService = spy(syncService);
         when(selfProvider.getObject()).thenReturn(spyService);
-        doNothing().when(spyService).syncAirQualityData();
+        doNothing().when(spyService).runJobAsync(anyString());
+
+        // When
+        SyncJob job = syncService.triggerManualSync();
+
+        // Then
+        assertThat(job.status()).isEqualTo(SyncJobStatus.RUNNING);
+        verify(spyService).runJobAsync(job.id());
+        assertThat(syncService.findJob(job.id())).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should fail the job and release it when the background executor rejects it")
+    void shouldFailJobWhenDispatchIsRejected() {
+        // Given
+        AirQualitySyncService spyService = spy(syncService);
+        when(selfProvider.getObject()).thenReturn(spyService);
+        doThrow(new TaskRejectedException("Executor is full")).doNothing().when(spyService).runJobAsync(anyString());
+
+        // When
+        SyncJob rejected = syncService.triggerManualSync();
+        SyncJob next = syncService.triggerManualSync();
+
+        // Then
+        assertThat(rejected.status()).isEqualTo(SyncJobStatus.FAILED);
+        assertThat(next.id()).isNotEqualTo(rejected.id());
+        assertThat(next.status()).isEqualTo(SyncJobStatus.RUNNING);
+    }
+
+    @Test
+    @DisplayName("Should attach a second trigger to the running job")
+    void shouldAttachSecondTriggerToRunningJob() {
+        // Given
+        AirQualitySyncService spyService = spy(syncService);
+        when(selfProvider.getObject()).thenReturn(spyService);
+        doNothing().when(spyService).runJobAsync(anyString());
+
+        // When
+        SyncJob first = syncService.triggerManualSync();
+        SyncJob second = syncService.triggerManualSync();
+
+        // Then
+        assertThat(second.id()).isEqualTo(first.id());
+        verify(spyService, times(1)).runJobAsync(anyString());
+    }
+
+    @Test
+    @DisplayName("Should report progress of a finished job")
+    void shouldReportProgressOfFinishedJob() {
+        // Given
+        Station station = new Station(123, "Station 1", "Warsaw", "Street 1", 52.2297, 21.0122);
+        AirQualitySyncService spyService = spy(syncService);
+        when(selfProvider.getObject()).thenReturn(spyService);
+        doNothing().when(spyService).runJobAsync(anyString());
+        AirQualityIndex index =
+                new AirQualityIndex(123, LocalDateTime.now(ZoneOffset.UTC), "Dobry", "Dobry", "Dobry", "Dobry");
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(station));
+        when(airQualityProvider.findIndexByStationId(123)).thenReturn(Optional.of(index));
+        when(airQualityProvider.findMeasurementsByStationId(123)).thenReturn(List.of());
+
+        SyncJob triggered = syncService.triggerManualSync();
 
         // When
-        syncService.triggerManualSync();
+        syncService.runJobAsync(triggered.id());
 
         // Then
-        verify(selfProvider).getObject();
+        assertThat(syncService.findJob(triggered.id())).hasValueSatisfying(job -> {
+            assertThat(job.status()).isEqualTo(SyncJobStatus.COMPLETED);
+            assertThat(job.stationsTotal()).isEqualTo(1);
+            assertThat(job.stationsDone()).isEqualTo(1);
+            assertThat(job.stationsFailed()).isZero();
+            assertThat(job.finishedAt()).isNotNull();
+        });
     }
 
     @Test
@@ -85,11 +265,9 @@ class AirQualitySyncServiceTest {
         SensorMeasurement measurement = new SensorMeasurement(1, "PM10", "Pył zawieszony PM10", List.of(reading));
 
         when(airQualityProvider.findAllStations()).thenReturn(stations);
-        when(historyRepository.hasRecentMeasurement(anyInt(), any(LocalDateTime.class))).thenReturn(false);
         when(airQualityProvider.findIndexByStationId(123)).thenReturn(Optional.of(index1));
         when(airQualityProvider.findIndexByStationId(124)).thenReturn(Optional.of(index2));
         when(airQualityProvider.findMeasurementsByStationId(anyInt())).thenReturn(List.of(measurement));
-        when(historyRepository.save(any(AirQualityMeasurement.class))).thenReturn(new AirQualityMeasurement());
         doNothing().when(historyRepository).deleteOlderThan(any(LocalDateTime.class));
 
         // When
@@ -97,8 +275,12 @@ class AirQualitySyncServiceTest {
 
         // Then
         verify(airQualityProvider).findAllStations();
-        verify(historyRepository, times(2)).save(any(AirQualityMeasurement.class));
+        verify(stationCatalog).update(stations);
+        assertThat(writtenMeasurements()).hasSize(2);
         verify(historyRepository).deleteOlderThan(any(LocalDateTime.class));
+        verify(latestMeasurementCache, atLeastOnce()).record(anyList());
+        verify(measurementGeneration).publish();
+        verify(rankingCache).refresh();
     }
 
     @Test
@@ -109,7 +291,8 @@ class AirQualitySyncServiceTest {
         List<Station> stations = List.of(station);
 
         when(airQualityProvider.findAllStations()).thenReturn(stations);
-        when(historyRepository.hasRecentMeasurement(eq(123), any(LocalDateTime.class))).thenReturn(true);
+        when(historyRepository.findLatestMeasurementDates())
+            .thenReturn(Map.of(123, LocalDateTime.now(ZoneOffset.UTC).minusMinutes(10)));
         doNothing().when(historyRepository).deleteOlderThan(any(LocalDateTime.class));
 
         // When
@@ -117,9 +300,9 @@ class AirQualitySyncServiceTest {
 
         // Then
         verify(airQualityProvider).findAllStations();
-        verify(historyRepository).hasRecentMeasurement(eq(123), any(LocalDateTime.class));
+        verify(historyRepository).findLatestMeasurementDates();
         verify(airQualityProvider, never()).findIndexByStationId(anyInt());
-        verify(historyRepository, never()).save(any(AirQualityMeasurement.class));
+        verify(historyRepository, never()).upsertAll(anyList());
     }
 
     @Test
@@ -130,7 +313,6 @@ class AirQualitySyncServiceTest {
         List<Station> stations = List.of(station);
 
         when(airQualityProvider.findAllStations()).thenReturn(stations);
-        when(historyRepository.hasRecentMeasurement(anyInt(), any(LocalDateTime.class))).thenReturn(false);
         when(airQualityProvider.findIndexByStationId(123)).thenReturn(Optional.empty());
         doNothing().when(historyRepository).deleteOlderThan(any(LocalDateTime.class));
 
@@ -140,7 +322,9 @@ class AirQualitySyncServiceTest {
         // Then
         verify(airQualityProvider).findAllStations();
         verify(airQualityProvider).findIndexByStationId(123);
-        verify(historyRepository, never()).save(any(AirQualityMeasurement.class));
+        verify(historyRepository, never()).upsertAll(anyList());
+        verify(runRepository).markStations(anyString(), eq(NODE_ID), eq(Map.of(123, StationSyncStatus.NO_DATA)));
+        verify(runRepository).finish(anyString(), eq(NODE_ID), eq(SyncRunStatus.INCOMPLETE));
     }
 
     @Test
@@ -158,11 +342,9 @@ class AirQualitySyncServiceTest {
         SensorMeasurement measurement = new SensorMeasurement(1, "PM10", "Pył zawieszony PM10", List.of(reading));
 
         when(airQualityProvider.findAllStations()).thenReturn(stations);
-        when(historyRepository.hasRecentMeasurement(anyInt(), any(LocalDateTime.class))).thenReturn(false);
         when(airQualityProvider.findIndexByStationId(123)).thenThrow(new RuntimeException("API Error"));
         when(airQualityProvider.findIndexByStationId(124)).thenReturn(Optional.of(index2));
         when(airQualityProvider.findMeasurementsByStationId(124)).thenReturn(List.of(measurement));
-        when(historyRepository.save(any(AirQualityMeasurement.class))).thenReturn(new AirQualityMeasurement());
         doNothing().when(historyRepository).deleteOlderThan(any(LocalDateTime.class));
 
         // When
@@ -172,7 +354,7 @@ class AirQualitySyncServiceTest {
         verify(airQualityProvider).findAllStations();
         verify(airQualityProvider).findIndexByStationId(123);
         verify(airQualityProvider).findIndexByStationId(124);
-        verify(historyRepository, times(1)).save(any(AirQualityMeasurement.class)); // Only station2 saved
+        assertThat(writtenMeasurements()).hasSize(1); // Only station2 saved
     }
 
     @Test
@@ -191,18 +373,15 @@ class AirQualitySyncServiceTest {
         SensorMeasurement pm25Measurement = new SensorMeasurement(2, "PM2.5", "PM2.5", List.of(pm25Reading));
 
         when(airQualityProvider.findAllStations()).thenReturn(stations);
-        when(historyRepository.hasRecentMeasurement(anyInt(), any(LocalDateTime.class))).thenReturn(false);
         when(airQualityProvider.findIndexByStationId(123)).thenReturn(Optional.of(index));
         when(airQualityProvider.findMeasurementsByStationId(123)).thenReturn(List.of(pm10Measurement, pm25Measurement));
-        when(historyRepository.save(any(AirQualityMeasurement.class))).thenReturn(new AirQualityMeasurement());
         doNothing().when(historyRepository).deleteOlderThan(any(LocalDateTime.class));
 
         // When
         syncService.syncAirQualityData();
 
         // Then
-        verify(historyRepository).save(measurementCaptor.capture());
-        AirQualityMeasurement savedMeasurement = measurementCaptor.getValue();
+        AirQualityMeasurement savedMeasurement = singleWrittenMeasurement();
 
         assertThat(savedMeasurement.getStationId()).isEqualTo(123);
         assertThat(savedMeasurement.getStationName()).isEqualTo("Station 1");
@@ -255,18 +434,15 @@ class AirQualitySyncServiceTest {
         SensorMeasurement measurement = new SensorMeasurement(1, "PM10", "PM10", List.of(reading1, reading2));
 
         when(airQualityProvider.findAllStations()).thenReturn(stations);
-        when(historyRepository.hasRecentMeasurement(anyInt(), any(LocalDateTime.class))).thenReturn(false);
         when(airQualityProvider.findIndexByStationId(123)).thenReturn(Optional.of(index));
         when(airQualityProvider.findMeasurementsByStationId(123)).thenReturn(List.of(measurement));
-        when(historyRepository.save(any(AirQualityMeasurement.class))).thenReturn(new AirQualityMeasurement());
         doNothing().when(historyRepository).deleteOlderThan(any(LocalDateTime.class));
 
         // When
         syncService.syncAirQualityData();
 
         // Then
-        verify(historyRepository).save(measurementCaptor.capture());
-        AirQualityMeasurement savedMeasurement = measurementCaptor.getValue();
+        AirQualityMeasurement savedMeasurement = singleWrittenMeasurement();
 
         assertThat(savedMeasurement.getPm10Value()).isEqualTo(25.5); // Should be the first reading
         assertThat(savedMeasurement.getMeasurementDate()).isEqualTo(reading1.date());
@@ -293,18 +469,15 @@ class AirQualitySyncServiceTest {
         SensorMeasurement measurement = new SensorMeasurement(1, "PM10", "PM10", List.of(oldReading));
 
         when(airQualityProvider.findAllStations()).thenReturn(stations);
-        when(historyRepository.hasRecentMeasurement(anyInt(), any(LocalDateTime.class))).thenReturn(false);
         when(airQualityProvider.findIndexByStationId(123)).thenReturn(Optional.of(index));
         when(airQualityProvider.findMeasurementsByStationId(123)).thenReturn(List.of(measurement));
-        when(historyRepository.save(any(AirQualityMeasurement.class))).thenReturn(new AirQualityMeasurement());
         doNothing().when(historyRepository).deleteOlderThan(any(LocalDateTime.class));
 
         // When
         syncService.syncAirQualityData();
 
         // Then
-        verify(historyRepository).save(measurementCaptor.capture());
-        AirQualityMeasurement savedMeasurement = measurementCaptor.getValue();
+        AirQualityMeasurement savedMeasurement = singleWrittenMeasurement();
 
         assertThat(savedMeasurement.getPm10Value()).isEqualTo(40.0);
         assertThat(savedMeasurement.getMeasurementDate()).isEqualTo(archivalDate); // Crucial: use sensor date, not index date
@@ -323,18 +496,15 @@ class AirQualitySyncServiceTest {
         SensorMeasurement emptyMeasurement = new SensorMeasurement(1, "PM10", "PM10", Collections.emptyList());
 
         when(airQualityProvider.findAllStations()).thenReturn(stations);
-        when(historyRepository.hasRecentMeasurement(anyInt(), any(LocalDateTime.class))).thenReturn(false);
         when(airQualityProvider.findIndexByStationId(123)).thenReturn(Optional.of(index));
         when(airQualityProvider.findMeasurementsByStationId(123)).thenReturn(List.of(emptyMeasurement));
-        when(historyRepository.save(any(AirQualityMeasurement.class))).thenReturn(new AirQualityMeasurement());
         doNothing().when(historyRepository).deleteOlderThan(any(LocalDateTime.class));
 
         // When
         syncService.syncAirQualityData();
 
         // Then
-        verify(historyRepository).save(measurementCaptor.capture());
-        AirQualityMeasurement savedMeasurement = measurementCaptor.getValue();
+        AirQualityMeasurement savedMeasurement = singleWrittenMeasurement();
 
         assertThat(savedMeasurement.getPm10Value()).isNull(); // No reading available
     }
@@ -355,18 +525,15 @@ class AirQualitySyncServiceTest {
         SensorMeasurement measurement = new SensorMeasurement(1, "PM10", "PM10", List.of(nullReading, validReading));
 
         when(airQualityProvider.findAllStations()).thenReturn(stations);
-        when(historyRepository.hasRecentMeasurement(anyInt(), any(LocalDateTime.class))).thenReturn(false);
         when(airQualityProvider.findIndexByStationId(123)).thenReturn(Optional.of(index));
         when(airQualityProvider.findMeasurementsByStationId(123)).thenReturn(List.of(measurement));
-        when(historyRepository.save(any(AirQualityMeasurement.class))).thenReturn(new AirQualityMeasurement());
         doNothing().when(historyRepository).deleteOlderThan(any(LocalDateTime.class));
 
         // When
         syncService.syncAirQualityData();
 
         // Then
-        verify(historyRepository).save(measurementCaptor.capture());
-        AirQualityMeasurement savedMeasurement = measurementCaptor.getValue();
+        AirQualityMeasurement savedMeasurement = singleWrittenMeasurement();
 
         assertThat(savedMeasurement.getPm10Value()).isEqualTo(25.5); // Should skip null and use valid
     }
@@ -387,12 +554,10 @@ class AirQualitySyncServiceTest {
         SensorMeasurement measurement = new SensorMeasurement(1, "PM10", "PM10", List.of(reading));
 
         when(airQualityProvider.findAllStations()).thenReturn(stations);
-        when(historyRepository.hasRecentMeasurement(anyInt(), any(LocalDateTime.class))).thenReturn(false);
         when(airQualityProvider.findIndexByStationId(123)).thenThrow(new RuntimeException("API Error 1"));
         when(airQualityProvider.findIndexByStationId(124)).thenReturn(Optional.empty());
         when(airQualityProvider.findIndexByStationId(125)).thenReturn(Optional.of(index3));
         when(airQualityProvider.findMeasurementsByStationId(125)).thenReturn(List.of(measurement));
-        when(historyRepository.save(any(AirQualityMeasurement.class))).thenReturn(new AirQualityMeasurement());
         doNothing().when(historyRepository).deleteOlderThan(any(LocalDateTime.class));
 
         // When
@@ -400,7 +565,392 @@ class AirQualitySyncServiceTest {
 
         // Then
         verify(airQualityProvider).findAllStations();
-        verify(historyRepository, times(1)).save(any(AirQualityMeasurement.class)); // Only station3 saved
+        assertThat(writtenMeasurements()).hasSize(1); // Only station3 saved
+        verify(historyRepository).deleteOlderThan(any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should sync stations one by one in sequential mode")
+    void shouldSyncStationsInSequentialMode() {
+        // Given
+        syncService = newSyncService(syncProperties(SyncMode.SEQUENTIAL, Duration.ofMinutes(5)));
+
+        Station station1 = new Station(123, "Station 1", "Warsaw", "Street 1", 52.2297, 21.0122);
+        Station station2 = new Station(124, "Station 2", "Krakow", "Street 2", 50.0647, 19.9450);
+
+        AirQualityIndex index =
+                new AirQualityIndex(123, LocalDateTime.now(ZoneOffset.UTC), "Dobry", "Dobry", "Dobry", "Dobry");
+
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(station1, station2));
+        when(airQualityProvider.findIndexByStationId(anyInt())).thenReturn(Optional.of(index));
+        when(airQualityProvider.findMeasurementsByStationId(anyInt())).thenReturn(List.of());
+
+        // When
+        syncService.syncAirQualityData();
+
+        // Then
+        assertThat(writtenMeasurements()).hasSize(2);
         verify(historyRepository).deleteOlderThan(any(LocalDateTime.class));
     }
+
+    @Test
+    @DisplayName("Should abandon stations still running when the run deadline passes")
+    void shouldAbandonStationsAfterRunDeadline() {
+        // Given
+        syncService = newSyncService(syncProperties(SyncMode.CONCURRENT, Duration.ofMillis(200)));
+
+        Station slowStation = new Station(123, "Slow", "Warsaw", "Street 1", 52.2297, 21.0122);
+
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(slowStation));
+        when(airQualityProvider.findIndexByStationId(123)).thenAnswer(_ -> {
+            Thread.sleep(Duration.ofSeconds(10));
+            return Optional.empty();
+        });
+
+        // When
+        long start = System.nanoTime();
+        syncService.syncAirQualityData();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(5));
+        verify(historyRepository, never()).upsertAll(anyList());
+        verify(historyRepository).deleteOlderThan(any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should load latest measurement dates once per run and sync stations with stale data")
+    void shouldLoadLatestMeasurementDatesOncePerRun() {
+        // Given
+        Station staleStation = new Station(123, "Stale", "Warsaw", "Street 1", 52.2297, 21.0122);
+        Station freshStation = new Station(124, "Fresh", "Krakow", "Street 2", 50.0647, 19.9450);
+        Station newStation = new Station(125, "New", "Gdansk", "Street 3", 54.3520, 18.6466);
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        AirQualityIndex index = new AirQualityIndex(123, now, "Dobry", "Dobry", "Dobry", "Dobry");
+
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(staleStation, freshStation, newStation));
+        when(historyRepository.findLatestMeasurementDates())
+            .thenReturn(Map.of(123, now.minusHours(2), 124, now.minusMinutes(5)));
+        when(airQualityProvider.findIndexByStationId(anyInt())).thenReturn(Optional.of(index));
+        when(airQualityProvider.findMeasurementsByStationId(anyInt())).thenReturn(List.of());
+
+        // When
+        syncService.syncAirQualityData();
+
+        // Then
+        verify(historyRepository, times(1)).findLatestMeasurementDates();
+        verify(airQualityProvider, never()).findIndexByStationId(124);
+        assertThat(writtenMeasurements()).extracting(AirQualityMeasurement::getStationId)
+            .containsExactlyInAnyOrder(123, 125);
+    }
+
+    @Test
+    @DisplayName("Should skip sync when another node holds the sync lease")
+    void shouldSkipSyncWhenLeaseHeldByAnotherNode() {
+        // Given
+        when(leaseManager.tryAcquire()).thenReturn(Optional.empty());
+
+        // When
+        syncService.syncAirQualityData();
+
+        // Then
+        verifyNoInteractions(airQualityProvider, historyRepository, measurementGeneration, rankingCache);
+    }
+
+    @Test
+    @DisplayName("Should stop syncing stations once the sync lease is lost")
+    void shouldStopSyncingStationsWhenLeaseLost() {
+        // Given
+        SyncLease lease =
+                new SyncLease(SyncLeaseManager.SYNC_LOCK_NAME, "test-node", 7, Instant.now().plusSeconds(60));
+        HeldSyncLease heldLease = HeldSyncLease.acquired(lockRepository, lease);
+        when(lockRepository.renew(lease, Duration.ofMinutes(2))).thenReturn(Optional.empty());
+        heldLease.renew(Duration.ofMinutes(2));
+
+        Station station = new Station(123, "Station 1", "Warsaw", "Street 1", 52.2297, 21.0122);
+        when(leaseManager.tryAcquire()).thenReturn(Optional.of(heldLease));
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(station));
+
+        // When
+        syncService.syncAirQualityData();
+
+        // Then
+        verify(airQualityProvider, never()).findIndexByStationId(anyInt());
+        verify(historyRepository, never()).upsertAll(anyList());
+        verify(lockRepository, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("Should not write measurements queued before the sync lease was lost")
+    void shouldNotFlushQueuedMeasurementsWhenLeaseLost() {
+        // Given
+        SyncLease lease =
+                new SyncLease(SyncLeaseManager.SYNC_LOCK_NAME, "test-node", 7, Instant.now().plusSeconds(60));
+        HeldSyncLease heldLease = HeldSyncLease.acquired(lockRepository, lease);
+        when(lockRepository.renew(lease, Duration.ofMinutes(2))).thenReturn(Optional.empty());
+
+        Station station = new Station(123, "Station 1", "Warsaw", "Street 1", 52.2297, 21.0122);
+        AirQualityIndex index =
+                new AirQualityIndex(123, LocalDateTime.now(ZoneOffset.UTC), "Dobry", "Dobry", "Dobry", "Dobry");
+        when(leaseManager.tryAcquire()).thenReturn(Optional.of(heldLease));
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(station));
+        when(airQualityProvider.findIndexByStationId(123)).thenReturn(Optional.of(index));
+        when(airQualityProvider.findMeasurementsByStationId(123)).thenAnswer(_ -> {
+            // Another node takes the lease over while the station is being fetched
+            heldLease.renew(Duration.ofMinutes(2));
+            return List.of();
+        });
+
+        // When
+        syncService.syncAirQualityData();
+
+        // Then
+        verify(historyRepository, never()).upsertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should sync only the own partition and leave cleanup to the lease holder")
+    void shouldSyncOwnPartitionWhenPartitioningEnabled() {
+        // Given
+        Station ownStation = new Station(123, "Own", "Warsaw", "Street 1", 52.2297, 21.0122);
+        Station otherStation = new Station(124, "Other", "Krakow", "Street 2", 50.0647, 19.9450);
+        AirQualityIndex index =
+                new AirQualityIndex(123, LocalDateTime.now(ZoneOffset.UTC), "Dobry", "Dobry", "Dobry", "Dobry");
+
+        when(syncPartitioner.isEnabled()).thenReturn(true);
+        when(syncPartitioner.nodeId()).thenReturn("node-a");
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(ownStation, otherStation));
+        when(syncPartitioner.ownedStations(List.of(ownStation, otherStation))).thenReturn(List.of(ownStation));
+        when(airQualityProvider.findIndexByStationId(123)).thenReturn(Optional.of(index));
+        when(airQualityProvider.findMeasurementsByStationId(123)).thenReturn(List.of());
+        when(leaseManager.tryAcquire()).thenReturn(Optional.empty());
+
+        // When
+        syncService.syncAirQualityData();
+
+        // Then
+        assertThat(singleWrittenMeasurement().getStationId()).isEqualTo(123);
+        verify(airQualityProvider, never()).findIndexByStationId(124);
+        verify(historyRepository, never()).deleteOlderThan(any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should adopt the stations of a node that left between retry rounds")
+    void shouldAdoptStationsOfDepartedNodeBetweenRetries() {
+        // Given
+        syncService = newSyncService(
+            syncProperties(
+                SyncMode.CONCURRENT,
+                Duration.ofMinutes(5),
+                new AirQualitySyncProperties.Retry(3, Duration.ofMillis(10))
+            )
+        );
+
+        Station ownStation = new Station(123, "Own", "Warsaw", "Street 1", 52.2297, 21.0122);
+        Station orphanedStation = new Station(124, "Orphaned", "Krakow", "Street 2", 50.0647, 19.9450);
+        Station persistedStation = new Station(125, "Persisted", "Gdansk", "Street 3", 54.3520, 18.6466);
+        List<Station> stations = List.of(ownStation, orphanedStation, persistedStation);
+        AirQualityIndex index =
+                new AirQualityIndex(123, LocalDateTime.now(ZoneOffset.UTC), "Dobry", "Dobry", "Dobry", "Dobry");
+
+        when(syncPartitioner.isEnabled()).thenReturn(true);
+        when(airQualityProvider.findAllStations()).thenReturn(stations);
+        when(syncPartitioner.ownedStations(stations)).thenReturn(List.of(ownStation));
+        when(syncPartitioner.currentlyOwnedStations(stations)).thenReturn(stations);
+        when(historyRepository.findLatestMeasurementDates())
+            .thenReturn(Map.of(), Map.of(125, LocalDateTime.now(ZoneOffset.UTC)));
+        when(airQualityProvider.findIndexByStationId(123)).thenThrow(new RuntimeException("API Error"))
+            .thenReturn(Optional.of(index));
+        when(airQualityProvider.findIndexByStationId(124)).thenReturn(Optional.of(index));
+        when(airQualityProvider.findMeasurementsByStationId(anyInt())).thenReturn(List.of());
+        when(leaseManager.tryAcquire()).thenReturn(Optional.empty());
+
+        // When
+        syncService.syncAirQualityData();
+
+        // Then
+        assertThat(writtenMeasurements()).extracting(AirQualityMeasurement::getStationId)
+            .containsExactlyInAnyOrder(123, 124);
+        verify(airQualityProvider, never()).findIndexByStationId(125);
+        verify(runRepository).markStations(
+            anyString(),
+            eq(NODE_ID),
+            eq(Map.of(124, StationSyncStatus.PENDING, 125, StationSyncStatus.PENDING))
+        );
+    }
+
+    @Test
+    @DisplayName("Should start a run of its own for every trigger")
+    void shouldStartOwnRunForEveryTrigger() {
+        // Given
+        ArgumentCaptor<String> runIdCaptor = ArgumentCaptor.forClass(String.class);
+        when(airQualityProvider.findAllStations()).thenReturn(List.of());
+
+        // When
+        syncService.syncAirQualityData();
+        syncService.syncAirQualityData();
+
+        // Then
+        verify(runRepository, times(2)).start(runIdCaptor.capture(), any(Instant.class), eq(NODE_ID), anyCollection());
+        assertThat(runIdCaptor.getAllValues()).doesNotHaveDuplicates();
+        verify(runRepository, never()).findRunning(any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should finish a run that failed as a whole as incomplete")
+    void shouldFinishFailedRunAsIncomplete() {
+        // Given
+        Station station = new Station(123, "Station 1", "Warsaw", "Street 1", 52.2297, 21.0122);
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(station));
+        when(historyRepository.findLatestMeasurementDates()).thenThrow(new RuntimeException("Database down"));
+
+        // When
+        syncService.syncAirQualityData();
+
+        // Then
+        verify(runRepository).finish(anyString(), eq(NODE_ID), eq(SyncRunStatus.INCOMPLETE));
+    }
+
+    @Test
+    @DisplayName("Should take over an abandoned run without syncing stations it already settled")
+    void shouldTakeOverAbandonedRunWithoutSyncingSettledStations() {
+        // Given
+        Station doneStation = new Station(123, "Done", "Warsaw", "Street 1", 52.2297, 21.0122);
+        Station pendingStation = new Station(124, "Pending", "Krakow", "Street 2", 50.0647, 19.9450);
+        Station newStation = new Station(125, "New", "Gdansk", "Street 3", 54.3520, 18.6466);
+        AirQualityIndex index =
+                new AirQualityIndex(124, LocalDateTime.now(ZoneOffset.UTC), "Dobry", "Dobry", "Dobry", "Dobry");
+        Map<Integer, StationSyncStatus> stations = Map.of(123, StationSyncStatus.DONE, 124, StationSyncStatus.PENDING);
+
+        when(runRepository.findRunning(any(Instant.class)))
+            .thenReturn(List.of(checkpoint("job-1", "dead-node", stations)));
+        when(runRepository.takeOver("job-1", "dead-node", NODE_ID))
+            .thenReturn(Optional.of(checkpoint("job-1", NODE_ID, stations)));
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(doneStation, pendingStation, newStation));
+        when(airQualityProvider.findIndexByStationId(124)).thenReturn(Optional.of(index));
+        when(airQualityProvider.findMeasurementsByStationId(124)).thenReturn(List.of());
+
+        // When
+        syncService.resumeUnfinishedRun();
+
+        // Then
+        verify(airQualityProvider, never()).findIndexByStationId(123);
+        verify(airQualityProvider, never()).findIndexByStationId(125);
+        assertThat(singleWrittenMeasurement().getStationId()).isEqualTo(124);
+        verify(runRepository).markStations("job-1", NODE_ID, Map.of(124, StationSyncStatus.DONE));
+        verify(runRepository).finish("job-1", NODE_ID, SyncRunStatus.COMPLETED);
+        verify(runRepository, never()).start(anyString(), any(Instant.class), anyString(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should only take over partitioned runs of nodes whose heartbeat expired")
+    void shouldTakeOverOnlyRunsOfDeadNodes() {
+        // Given
+        when(syncPartitioner.isEnabled()).thenReturn(true);
+        when(syncPartitioner.liveNodeIds()).thenReturn(List.of(NODE_ID, "live-node"));
+        when(runRepository.findRunning(any(Instant.class))).thenReturn(
+            List.of(checkpoint("job-1", "live-node", Map.of()), checkpoint("job-2", "dead-node", Map.of()))
+        );
+        when(runRepository.takeOver("job-2", "dead-node", NODE_ID)).thenReturn(Optional.empty());
+        when(airQualityProvider.findAllStations()).thenReturn(List.of());
+
+        // When
+        syncService.resumeUnfinishedRun();
+
+        // Then
+        verify(runRepository).takeOver("job-2", "dead-node", NODE_ID);
+        verify(runRepository, never()).takeOver(eq("job-1"), anyString(), anyString());
+        verify(measurementGeneration, never()).publish();
+    }
+
+    @Test
+    @DisplayName("Should retry a failed station within the same run")
+    void shouldRetryFailedStationWithinRun() {
+        // Given
+        syncService = newSyncService(
+            syncProperties(
+                SyncMode.CONCURRENT,
+                Duration.ofMinutes(5),
+                new AirQualitySyncProperties.Retry(3, Duration.ofMillis(10))
+            )
+        );
+
+        Station station = new Station(123, "Flaky", "Warsaw", "Street 1", 52.2297, 21.0122);
+        AirQualityIndex index =
+                new AirQualityIndex(123, LocalDateTime.now(ZoneOffset.UTC), "Dobry", "Dobry", "Dobry", "Dobry");
+
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(station));
+        when(airQualityProvider.findIndexByStationId(123)).thenThrow(new RuntimeException("API Error"))
+            .thenReturn(Optional.of(index));
+        when(airQualityProvider.findMeasurementsByStationId(123)).thenReturn(List.of());
+
+        // When
+        syncService.syncAirQualityData();
+
+        // Then
+        verify(airQualityProvider, times(2)).findIndexByStationId(123);
+        assertThat(singleWrittenMeasurement().getStationId()).isEqualTo(123);
+        verify(runRepository).markStations(anyString(), eq(NODE_ID), eq(Map.of(123, StationSyncStatus.FAILED)));
+        verify(runRepository).finish(anyString(), eq(NODE_ID), eq(SyncRunStatus.COMPLETED));
+    }
+
+    @Test
+    @DisplayName("Should retry a station until its index is published")
+    void shouldRetryStationWithoutIndexData() {
+        // Given
+        syncService = newSyncService(
+            syncProperties(
+                SyncMode.CONCURRENT,
+                Duration.ofMinutes(5),
+                new AirQualitySyncProperties.Retry(3, Duration.ofMillis(10))
+            )
+        );
+
+        Station station = new Station(123, "Late", "Warsaw", "Street 1", 52.2297, 21.0122);
+        AirQualityIndex index =
+                new AirQualityIndex(123, LocalDateTime.now(ZoneOffset.UTC), "Dobry", "Dobry", "Dobry", "Dobry");
+
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(station));
+        when(airQualityProvider.findIndexByStationId(123)).thenReturn(Optional.empty(), Optional.of(index));
+        when(airQualityProvider.findMeasurementsByStationId(123)).thenReturn(List.of());
+
+        // When
+        syncService.syncAirQualityData();
+
+        // Then
+        verify(airQualityProvider, times(2)).findIndexByStationId(123);
+        assertThat(singleWrittenMeasurement().getStationId()).isEqualTo(123);
+        verify(runRepository).markStations(anyString(), eq(NODE_ID), eq(Map.of(123, StationSyncStatus.NO_DATA)));
+        verify(runRepository).finish(anyString(), eq(NODE_ID), eq(SyncRunStatus.COMPLETED));
+    }
+
+    @Test
+    @DisplayName("Should mark the run incomplete when stations keep failing")
+    void shouldMarkRunIncompleteWhenStationsKeepFailing() {
+        // Given
+        Station station = new Station(123, "Broken", "Warsaw", "Street 1", 52.2297, 21.0122);
+
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(station));
+        when(airQualityProvider.findIndexByStationId(123)).thenThrow(new RuntimeException("API Error"));
+
+        // When
+        syncService.syncAirQualityData();
+
+        // Then
+        verify(runRepository).finish(anyString(), eq(NODE_ID), eq(SyncRunStatus.INCOMPLETE));
+    }
+
+    @Test
+    @DisplayName("Should not sync on startup without an unfinished run")
+    void shouldNotSyncOnStartupWithoutUnfinishedRun() {
+        // Given
+        when(runRepository.findRunning(any(Instant.class))).thenReturn(List.of());
+
+        // When
+        syncService.resumeUnfinishedRun();
+
+        // Then
+        verifyNoInteractions(airQualityProvider);
+    }
 }
@@ -0,0 +1,77 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int STATION_COUNT = 3000;
+    private static final int VIRTUAL_NODES = 128;
+
+    private static Map<Integer, String> assign(ConsistentHashRing ring) {
+        return IntStream.range(0, STATION_COUNT)
+            .boxed()
+            .collect(Collectors.toMap(Function.identity(), ring::ownerOf));
+    }
+
+    @Test
+    @DisplayName("Should spread stations evenly across nodes")
+    void shouldSpreadStationsEvenly() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-a", "node-b", "node-c"), VIRTUAL_NODES);
+
+        // When
+        Map<String, Long> stationsPerNode = assign(ring).values()
+            .stream()
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+        // Then
+        assertThat(stationsPerNode).containsOnlyKeys("node-a", "node-b", "node-c");
+        assertThat(stationsPerNode.values()).allSatisfy(count -> assertThat(count).isBetween(700L, 1300L));
+    }
+
+    @Test
+    @DisplayName("Should build the same ring regardless of member order")
+    void shouldBeIndependentOfMemberOrder() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-a", "node-b", "node-c"), VIRTUAL_NODES);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("node-c", "node-a", "node-b"), VIRTUAL_NODES);
+
+        // When & Then
+        assertThat(assign(reordered)).isEqualTo(assign(ring));
+    }
+
+    @Test
+    @DisplayName("Should only move the stations of a node that left")
+    void shouldOnlyMoveStationsOfLeavingNode() {
+        // Given
+        Map<Integer, String> before =
+                assign(new ConsistentHashRing(List.of("node-a", "node-b", "node-c"), VIRTUAL_NODES));
+
+        // When
+        Map<Integer, String> after = assign(new ConsistentHashRing(List.of("node-a", "node-b"), VIRTUAL_NODES));
+
+        // Then
+        before.forEach((stationId, owner) -> {
+            if (!"node-c".equals(owner)) {
+                assertThat(after.get(stationId)).isEqualTo(owner);
+            }
+        });
+        assertThat(after.values()).doesNotContain("node-c");
+    }
+
+    @Test
+    @DisplayName("Should reject an empty membership")
+    void shouldRejectEmptyMembership() {
+        assertThatThrownBy(() -> new ConsistentHashRing(List.of(), VIRTUAL_NODES))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
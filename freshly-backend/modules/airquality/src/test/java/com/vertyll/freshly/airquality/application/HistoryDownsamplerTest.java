@@ -0,0 +1,87 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HistoryDownsamplerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private static AirQualityMeasurement measurement(int hour, Double pm10, Double pm25) {
+        AirQualityMeasurement measurement = new AirQualityMeasurement();
+        measurement.setStationId(1);
+        measurement.setMeasurementDate(FROM.plusHours(hour));
+        measurement.setPm10Value(pm10);
+        measurement.setPm25Value(pm25);
+        return measurement;
+    }
+
+    private static List<AirQualityMeasurement> randomHistory(int hours, long seed) {
+        Random random = new Random(seed);
+        List<AirQualityMeasurement> history = new ArrayList<>();
+        for (int hour = 0; hour < hours; hour++) {
+            history.add(measurement(hour, 20 + random.nextDouble() * 10, 10 + random.nextDouble() * 5));
+        }
+        return history;
+    }
+
+    @Test
+    @DisplayName("Should keep the threshold number of measurements in order, including both ends")
+    void shouldKeepThresholdMeasurements() {
+        // Given
+        List<AirQualityMeasurement> history = randomHistory(2160, 42);
+
+        // When
+        List<AirQualityMeasurement> sampled = HistoryDownsampler.largestTriangleThreeBuckets(history, 600);
+
+        // Then
+        assertThat(sampled).hasSize(600)
+            .extracting(AirQualityMeasurement::getMeasurementDate)
+            .isSorted()
+            .doesNotHaveDuplicates();
+        assertThat(sampled.getFirst()).isSameAs(history.getFirst());
+        assertThat(sampled.getLast()).isSameAs(history.getLast());
+        assertThat(history).containsAll(sampled);
+    }
+
+    @Test
+    @DisplayName("Should keep a short spike an average would flatten")
+    void shouldKeepSpike() {
+        // Given
+        List<AirQualityMeasurement> history = randomHistory(2160, 7);
+        AirQualityMeasurement spike = measurement(1000, 400.0, null);
+        history.set(1000, spike);
+
+        // When
+        List<AirQualityMeasurement> sampled = HistoryDownsampler.largestTriangleThreeBuckets(history, 100);
+
+        // Then
+        assertThat(sampled).contains(spike);
+    }
+
+    @Test
+    @DisplayName("Should return short histories whole, leaving out measurements without PM readings")
+    void shouldReturnShortHistory() {
+        // Given
+        List<AirQualityMeasurement> history = List.of(
+            measurement(0, 20.0, 10.0),
+            measurement(1, null, null),
+            measurement(2, null, 12.0)
+        );
+
+        // When
+        List<AirQualityMeasurement> sampled = HistoryDownsampler.largestTriangleThreeBuckets(history, 10);
+
+        // Then
+        assertThat(sampled).containsExactly(history.get(0), history.get(2));
+    }
+}
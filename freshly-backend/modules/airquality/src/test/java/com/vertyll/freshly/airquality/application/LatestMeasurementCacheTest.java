@@ -0,0 +1,150 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.vertyll.freshly.airquality.domain.AirQualityHistoryRepository;
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LatestMeasurementCacheTest {
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private AirQualityHistoryRepository historyRepository;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private MeasurementGeneration measurementGeneration;
+
+    private LatestMeasurementCache latestMeasurementCache;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        latestMeasurementCache = new LatestMeasurementCache(historyRepository, measurementGeneration);
+    }
+
+    private static AirQualityMeasurement measurement(int stationId) {
+        AirQualityMeasurement measurement = new AirQualityMeasurement();
+        measurement.setStationId(stationId);
+        return measurement;
+    }
+
+    private static AirQualityMeasurement measurement(int stationId, LocalDateTime measurementDate) {
+        AirQualityMeasurement measurement = measurement(stationId);
+        measurement.setMeasurementDate(measurementDate);
+        return measurement;
+    }
+
+    @Test
+    @DisplayName("Should serve the latest measurements from memory until the generation moves on")
+    void shouldServeFromMemoryUntilGenerationMoves() {
+        // Given
+        when(measurementGeneration.current()).thenReturn(4L, 4L, 5L);
+        when(historyRepository.findLatestMeasurements())
+            .thenReturn(List.of(measurement(7), measurement(3)))
+            .thenReturn(List.of(measurement(3)));
+
+        // When
+        LatestMeasurementCache.Snapshot first = latestMeasurementCache.get();
+        LatestMeasurementCache.Snapshot second = latestMeasurementCache.get();
+        LatestMeasurementCache.Snapshot third = latestMeasurementCache.get();
+
+        // Then
+        assertThat(first.generation()).isEqualTo(4);
+        assertThat(first.measurements()).containsOnlyKeys(3, 7);
+        assertThat(first.measurements().keySet()).containsExactly(3, 7);
+        assertThat(second).isSameAs(first);
+        assertThat(third.generation()).isEqualTo(5);
+        assertThat(third.measurements()).containsOnlyKeys(3);
+        verify(historyRepository, times(2)).findLatestMeasurements();
+    }
+
+    @Test
+    @DisplayName("Should try loading again on the next request after a failed load")
+    void shouldRetryAfterFailedLoad() {
+        // Given
+        when(measurementGeneration.current()).thenReturn(1L);
+        when(historyRepository.findLatestMeasurements())
+            .thenThrow(new DataAccessResourceFailureException("MongoDB unavailable"))
+            .thenReturn(List.of(measurement(1)));
+
+        // When & Then
+        assertThatThrownBy(latestMeasurementCache::get).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(latestMeasurementCache.get().measurements()).containsOnlyKeys(1);
+    }
+
+    @Test
+    @DisplayName("Should apply the stations of a written batch without a new generation")
+    void shouldApplyWrittenBatch() {
+        // Given
+        LocalDateTime hour = LocalDateTime.of(2026, 3, 1, 10, 0);
+        when(measurementGeneration.current()).thenReturn(2L);
+        when(historyRepository.findLatestMeasurements())
+            .thenReturn(List.of(measurement(3, hour), measurement(7, hour)));
+        LatestMeasurementCache.Snapshot before = latestMeasurementCache.get();
+        when(historyRepository.findLatestMeasurements(anyCollection()))
+            .thenReturn(List.of(measurement(7, hour.plusHours(1)), measurement(9, hour.plusHours(1))));
+
+        // When
+        latestMeasurementCache.record(List.of(measurement(7, hour.plusHours(1)), measurement(9, hour.plusHours(1))));
+        LatestMeasurementCache.Snapshot after = latestMeasurementCache.get();
+
+        // Then
+        verify(historyRepository).findLatestMeasurements(Set.of(7, 9));
+        assertThat(after.generation()).isEqualTo(2);
+        assertThat(after.measurements().keySet()).containsExactly(3, 7, 9);
+        assertThat(after.measurements().get(7).getMeasurementDate()).isEqualTo(hour.plusHours(1));
+        assertThat(after.measurements().get(3)).isSameAs(before.measurements().get(3));
+        assertThat(after.version()).isNotEqualTo(before.version());
+        verify(historyRepository).findLatestMeasurements();
+    }
+
+    @Test
+    @DisplayName("Should derive the same version from the same measurements on every node")
+    void shouldDeriveStableVersion() {
+        // Given
+        LocalDateTime hour = LocalDateTime.of(2026, 3, 1, 10, 0);
+        AirQualityMeasurement revised = measurement(7, hour);
+        revised.setPm10Value(42.0);
+        LatestMeasurementCache otherNode = new LatestMeasurementCache(historyRepository, measurementGeneration);
+        when(measurementGeneration.current()).thenReturn(2L, 2L, 3L);
+        when(historyRepository.findLatestMeasurements())
+            .thenReturn(List.of(measurement(3, hour), measurement(7, hour)))
+            .thenReturn(List.of(measurement(3, hour), measurement(7, hour)))
+            .thenReturn(List.of(measurement(3, hour), revised));
+
+        // When
+        LatestMeasurementCache.Snapshot loaded = latestMeasurementCache.get();
+        LatestMeasurementCache.Snapshot loadedElsewhere = otherNode.get();
+        LatestMeasurementCache.Snapshot afterRevision = otherNode.get();
+
+        // Then
+        assertThat(loadedElsewhere.version()).isEqualTo(loaded.version());
+        assertThat(afterRevision.version()).isNotEqualTo(loaded.version()).startsWith("3-");
+    }
+
+    @Test
+    @DisplayName("Should not read back a written batch before the first load")
+    void shouldIgnoreBatchBeforeFirstLoad() {
+        // When
+        latestMeasurementCache.record(List.of(measurement(1)));
+
+        // Then
+        verifyNoInteractions(historyRepository);
+    }
+}
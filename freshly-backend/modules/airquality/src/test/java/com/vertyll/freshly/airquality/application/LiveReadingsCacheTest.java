@@ -0,0 +1,173 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.vertyll.freshly.airquality.config.AirQualityLiveProperties;
+import com.vertyll.freshly.airquality.domain.AirQualityIndex;
+import com.vertyll.freshly.airquality.domain.AirQualityProvider;
+import com.vertyll.freshly.airquality.domain.SensorMeasurement;
+import com.vertyll.freshly.airquality.domain.exception.GiosApiException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LiveReadingsCacheTest {
+
+    private static final int STATION_ID = 114;
+    private static final Duration TTL = Duration.ofMinutes(1);
+    private static final Duration STALE_WHILE_REVALIDATE = Duration.ofMinutes(5);
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private AirQualityProvider airQualityProvider;
+
+    private final AtomicLong now = new AtomicLong();
+    private LiveReadingsCache liveReadingsCache;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        liveReadingsCache = new LiveReadingsCache(
+            airQualityProvider,
+            new AirQualityLiveProperties(TTL, STALE_WHILE_REVALIDATE)
+        );
+        liveReadingsCache.setNanoClock(now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liveReadingsCache.close();
+    }
+
+    private static Optional<AirQualityIndex> index(String level) {
+        return Optional.of(
+            new AirQualityIndex(STATION_ID, LocalDateTime.of(2026, 1, 1, 12, 0), level, level, level, level)
+        );
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    @DisplayName("Should share a single GIOŚ call between concurrent requests for the same station")
+    void shouldShareCallBetweenConcurrentRequests() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(airQualityProvider.findIndexByStationId(STATION_ID)).thenAnswer(_ -> {
+            release.await();
+            return index("Dobry");
+        });
+
+        // When
+        List<Future<Optional<AirQualityIndex>>> requests = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 16; i++) {
+                requests.add(executor.submit(() -> liveReadingsCache.getIndex(STATION_ID)));
+            }
+            verify(airQualityProvider, timeout(1000)).findIndexByStationId(STATION_ID);
+            release.countDown();
+        }
+
+        // Then
+        for (Future<Optional<AirQualityIndex>> request : requests) {
+            assertThat(request.get()).isEqualTo(index("Dobry"));
+        }
+        verify(airQualityProvider, times(1)).findIndexByStationId(STATION_ID);
+    }
+
+    @Test
+    @DisplayName("Should reuse a result within its TTL and fetch it again once it is past the stale window")
+    void shouldReuseWithinTtl() {
+        // Given
+        when(airQualityProvider.findMeasurementsByStationId(STATION_ID))
+            .thenReturn(List.of(new SensorMeasurement(1, "PM10", "Pył zawieszony PM10", List.of())))
+            .thenReturn(List.of());
+
+        // When
+        List<SensorMeasurement> first = liveReadingsCache.getMeasurements(STATION_ID);
+        advance(TTL);
+        List<SensorMeasurement> second = liveReadingsCache.getMeasurements(STATION_ID);
+        advance(TTL.plus(STALE_WHILE_REVALIDATE));
+        List<SensorMeasurement> third = liveReadingsCache.getMeasurements(STATION_ID);
+
+        // Then
+        assertThat(first).hasSize(1);
+        assertThat(second).isSameAs(first);
+        assertThat(third).isEmpty();
+        verify(airQualityProvider, times(2)).findMeasurementsByStationId(STATION_ID);
+        verify(airQualityProvider, never()).findIndexByStationId(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should serve a stale result while a single background fetch replaces it")
+    void shouldServeStaleWhileRevalidating() {
+        // Given
+        when(airQualityProvider.findIndexByStationId(STATION_ID))
+            .thenReturn(index("Dobry"))
+            .thenReturn(index("Zły"));
+        liveReadingsCache.getIndex(STATION_ID);
+        advance(TTL.plusSeconds(1));
+
+        // When
+        Optional<AirQualityIndex> stale = liveReadingsCache.getIndex(STATION_ID);
+        Optional<AirQualityIndex> staleAgain = liveReadingsCache.getIndex(STATION_ID);
+        liveReadingsCache.close();
+        Optional<AirQualityIndex> refreshed = liveReadingsCache.getIndex(STATION_ID);
+
+        // Then
+        assertThat(stale).isEqualTo(index("Dobry"));
+        assertThat(staleAgain).isEqualTo(index("Dobry"));
+        assertThat(refreshed).isEqualTo(index("Zły"));
+        verify(airQualityProvider, times(2)).findIndexByStationId(STATION_ID);
+    }
+
+    @Test
+    @DisplayName("Should keep the stale result when the background fetch fails")
+    void shouldKeepStaleResultWhenRefreshFails() {
+        // Given
+        when(airQualityProvider.findIndexByStationId(STATION_ID))
+            .thenReturn(index("Dobry"))
+            .thenThrow(new GiosApiException("GIOŚ unavailable"));
+        liveReadingsCache.getIndex(STATION_ID);
+        advance(TTL.plusSeconds(1));
+
+        // When
+        liveReadingsCache.getIndex(STATION_ID);
+        liveReadingsCache.close();
+
+        // Then
+        assertThat(liveReadingsCache.getIndex(STATION_ID)).isEqualTo(index("Dobry"));
+    }
+
+    @Test
+    @DisplayName("Should not keep a failed fetch, so the next request tries again")
+    void shouldRetryAfterFailedFetch() {
+        // Given
+        when(airQualityProvider.findIndexByStationId(STATION_ID))
+            .thenThrow(new GiosApiException("GIOŚ unavailable"))
+            .thenReturn(index("Dobry"));
+
+        // When & Then
+        assertThatThrownBy(() -> liveReadingsCache.getIndex(STATION_ID)).isInstanceOf(GiosApiException.class);
+        assertThat(liveReadingsCache.getIndex(STATION_ID)).isEqualTo(index("Dobry"));
+    }
+}
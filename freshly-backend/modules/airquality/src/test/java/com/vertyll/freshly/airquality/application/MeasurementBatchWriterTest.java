@@ -0,0 +1,205 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.vertyll.freshly.airquality.domain.AirQualityHistoryRepository;
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+import com.vertyll.freshly.airquality.domain.SyncLease;
+import com.vertyll.freshly.airquality.domain.SyncLockRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MeasurementBatchWriterTest {
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private AirQualityHistoryRepository historyRepository;
+
+    private final List<List<AirQualityMeasurement>> persistedBatches = new ArrayList<>();
+
+    private static AirQualityMeasurement measurement(int stationId) {
+        AirQualityMeasurement measurement = new AirQualityMeasurement();
+        measurement.setStationId(stationId);
+        measurement.setMeasurementDate(LocalDateTime.now(ZoneOffset.UTC));
+        return measurement;
+    }
+
+    private MeasurementBatchWriter newWriter(int batchSize, Duration flushInterval) {
+        return new MeasurementBatchWriter(
+            historyRepository,
+            HeldSyncLease.local(SyncLeaseManager.SYNC_LOCK_NAME, "node-a"),
+            TransactionOperations.withoutTransaction(),
+            batchSize,
+            flushInterval,
+            persistedBatches::add
+        );
+    }
+
+    @Test
+    @DisplayName("Should write a batch once it reaches the batch size")
+    void shouldWriteBatchWhenFull() {
+        // Given
+        MeasurementBatchWriter writer = newWriter(2, Duration.ofHours(1));
+        AirQualityMeasurement first = measurement(1);
+        AirQualityMeasurement second = measurement(2);
+
+        // When
+        writer.write(first);
+        verify(historyRepository, never()).upsertAll(anyList());
+        writer.write(second);
+
+        // Then
+        verify(historyRepository).upsertAll(List.of(first, second));
+    }
+
+    @Test
+    @DisplayName("Should write the remainder on flush and skip empty flushes")
+    void shouldWriteRemainderOnFlush() {
+        // Given
+        MeasurementBatchWriter writer = newWriter(10, Duration.ofHours(1));
+        AirQualityMeasurement only = measurement(1);
+
+        // When
+        writer.write(only);
+        writer.flush();
+        writer.flush();
+
+        // Then
+        verify(historyRepository, times(1)).upsertAll(List.of(only));
+    }
+
+    @Test
+    @DisplayName("Should write immediately once the flush interval has elapsed")
+    void shouldWriteWhenFlushIntervalElapsed() {
+        // Given
+        MeasurementBatchWriter writer = newWriter(10, Duration.ZERO);
+        AirQualityMeasurement only = measurement(1);
+
+        // When
+        writer.write(only);
+
+        // Then
+        verify(historyRepository).upsertAll(List.of(only));
+    }
+
+    @Test
+    @DisplayName("Should count measurements of a failed batch")
+    void shouldCountFailedMeasurements() {
+        // Given
+        MeasurementBatchWriter writer = newWriter(10, Duration.ofHours(1));
+        doThrow(new RuntimeException("Mongo down")).when(historyRepository).upsertAll(anyList());
+
+        // When
+        writer.write(measurement(1));
+        writer.write(measurement(2));
+        writer.flush();
+
+        // Then
+        assertThat(writer.failedCount()).isEqualTo(2);
+        assertThat(persistedBatches).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report persisted batches")
+    void shouldReportPersistedBatches() {
+        // Given
+        MeasurementBatchWriter writer = newWriter(2, Duration.ofHours(1));
+        AirQualityMeasurement first = measurement(1);
+        AirQualityMeasurement second = measurement(2);
+
+        // When
+        writer.write(first);
+        writer.write(second);
+
+        // Then
+        assertThat(persistedBatches).containsExactly(List.of(first, second));
+    }
+
+    @Test
+    @DisplayName("Should commit each batch in its own transaction")
+    void shouldCommitEachBatchSeparately() {
+        // Given
+        TransactionOperations transactions = mock(TransactionOperations.class);
+        MeasurementBatchWriter writer = new MeasurementBatchWriter(
+            historyRepository,
+            HeldSyncLease.local(SyncLeaseManager.SYNC_LOCK_NAME, "node-a"),
+            transactions,
+            1,
+            Duration.ofHours(1),
+            persistedBatches::add
+        );
+
+        // When
+        writer.write(measurement(1));
+        writer.write(measurement(2));
+
+        // Then
+        verify(transactions, times(2)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should drop batches instead of writing them once the sync lease is lost")
+    void shouldNotWriteAfterLeaseLost() {
+        // Given
+        SyncLease expired = new SyncLease(SyncLeaseManager.SYNC_LOCK_NAME, "node-a", 7, Instant.now().minusSeconds(1));
+        MeasurementBatchWriter writer = new MeasurementBatchWriter(
+            historyRepository,
+            HeldSyncLease.acquired(mock(SyncLockRepository.class), expired),
+            TransactionOperations.withoutTransaction(),
+            1,
+            Duration.ofHours(1),
+            persistedBatches::add
+        );
+
+        // When
+        writer.write(measurement(1));
+        writer.flush();
+
+        // Then
+        verify(historyRepository, never()).upsertAll(anyList());
+        assertThat(writer.failedCount()).isEqualTo(1);
+        assertThat(persistedBatches).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should drop a batch when the lock was taken over before the lease noticed")
+    void shouldNotWriteWhenFencingTokenIsStale() {
+        // Given
+        SyncLockRepository lockRepository = mock(SyncLockRepository.class);
+        SyncLease lease = new SyncLease(SyncLeaseManager.SYNC_LOCK_NAME, "node-a", 7, Instant.now().plusSeconds(60));
+        when(lockRepository.confirm(lease)).thenReturn(false);
+        HeldSyncLease heldLease = HeldSyncLease.acquired(lockRepository, lease);
+        MeasurementBatchWriter writer = new MeasurementBatchWriter(
+            historyRepository,
+            heldLease,
+            TransactionOperations.withoutTransaction(),
+            1,
+            Duration.ofHours(1),
+            persistedBatches::add
+        );
+
+        // When
+        writer.write(measurement(1));
+
+        // Then
+        verify(historyRepository, never()).upsertAll(anyList());
+        assertThat(writer.failedCount()).isEqualTo(1);
+        assertThat(heldLease.isValid()).isFalse();
+    }
+}
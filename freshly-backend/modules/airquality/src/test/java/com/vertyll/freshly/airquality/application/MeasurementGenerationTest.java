@@ -0,0 +1,83 @@
+package com.vertyll.freshly.airquality.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties;
+import com.vertyll.freshly.airquality.domain.AirQualityHistoryRepository;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MeasurementGenerationTest {
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private AirQualityHistoryRepository historyRepository;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private AirQualitySyncProperties syncProperties;
+
+    private MeasurementGeneration measurementGeneration;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        measurementGeneration = new MeasurementGeneration(historyRepository, taskScheduler, syncProperties);
+    }
+
+    @Test
+    @DisplayName("Should move to the generation a sync publishes")
+    void shouldAdvanceOnPublish() {
+        // Given
+        when(historyRepository.publishChanges()).thenReturn(3L);
+
+        // When
+        measurementGeneration.publish();
+
+        // Then
+        assertThat(measurementGeneration.current()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should pick up a generation published by another node and never go back")
+    void shouldAdvanceOnRefresh() {
+        // Given
+        when(historyRepository.findGeneration()).thenReturn(5L, 4L);
+
+        // When
+        measurementGeneration.refresh();
+        measurementGeneration.refresh();
+
+        // Then
+        assertThat(measurementGeneration.current()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should keep the generation when MongoDB cannot be reached")
+    void shouldKeepGenerationOnFailure() {
+        // Given
+        when(historyRepository.findGeneration())
+            .thenReturn(2L)
+            .thenThrow(new DataAccessResourceFailureException("MongoDB unavailable"));
+        measurementGeneration.refresh();
+
+        // When
+        measurementGeneration.refresh();
+
+        // Then
+        assertThat(measurementGeneration.current()).isEqualTo(2);
+    }
+}
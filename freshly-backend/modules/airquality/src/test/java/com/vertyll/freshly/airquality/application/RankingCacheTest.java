@@ -0,0 +1,167 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties;
+import com.vertyll.freshly.airquality.domain.AirQualityHistoryRepository;
+import com.vertyll.freshly.airquality.domain.AirQualityLevel;
+import com.vertyll.freshly.airquality.domain.Station;
+import com.vertyll.freshly.airquality.domain.StationRanking;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RankingCacheTest {
+
+    private static final List<StationRanking> RANKING = List.of(
+        new StationRanking(1, new Station(1, "Warszawa", "", "", 0.0, 0.0), 12.5, AirQualityLevel.GOOD, 24)
+    );
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private AirQualityHistoryRepository historyRepository;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private MeasurementGeneration measurementGeneration;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private AirQualitySyncProperties syncProperties;
+
+    private RankingCache rankingCache;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        rankingCache = new RankingCache(historyRepository, measurementGeneration, taskScheduler, syncProperties);
+    }
+
+    @Test
+    @DisplayName("Should rank the last days up to the end of the current hour")
+    void shouldRankRollingWindow() {
+        // Given
+        LocalDateTime windowEnd = AirQualityService.rankingWindowEnd();
+        when(historyRepository.getRanking(windowEnd.minusDays(7), windowEnd, RankingCache.RANKED_STATIONS))
+            .thenReturn(RANKING);
+
+        // When & Then
+        assertThat(rankingCache.get(7)).isEqualTo(RANKING);
+    }
+
+    @Test
+    @DisplayName("Should serve a ranking from memory until the generation moves on")
+    void shouldServeFromMemory() {
+        // Given
+        when(historyRepository.getRanking(any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+            .thenReturn(RANKING);
+
+        // When
+        rankingCache.get(7);
+        rankingCache.get(7);
+        rankingCache.get(30);
+
+        // Then
+        verify(historyRepository, times(2)).getRanking(any(LocalDateTime.class), any(LocalDateTime.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should recompute the rankings in use once the measurement generation moved on")
+    void shouldRecomputeOnRefresh() {
+        // Given
+        when(historyRepository.getRanking(any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+            .thenReturn(RANKING);
+        when(measurementGeneration.current()).thenReturn(0L, 2L);
+        rankingCache.get(7);
+
+        // When
+        rankingCache.refresh();
+        rankingCache.get(7);
+
+        // Then
+        verify(historyRepository, times(2)).getRanking(any(LocalDateTime.class), any(LocalDateTime.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should leave the rankings in use alone while the generation stays")
+    void shouldKeepFreshRankingsOnRefresh() {
+        // Given
+        when(historyRepository.getRanking(any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+            .thenReturn(RANKING);
+        when(measurementGeneration.current()).thenReturn(3L);
+        rankingCache.get(7);
+
+        // When
+        rankingCache.refresh();
+        rankingCache.refresh();
+
+        // Then
+        verify(historyRepository).getRanking(any(LocalDateTime.class), any(LocalDateTime.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should not cache a failed computation")
+    void shouldNotCacheFailure() {
+        // Given
+        when(historyRepository.getRanking(any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+            .thenThrow(new DataAccessResourceFailureException("MongoDB unavailable"))
+            .thenReturn(RANKING);
+
+        // When & Then
+        assertThatThrownBy(() -> rankingCache.get(7)).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(rankingCache.get(7)).isEqualTo(RANKING);
+    }
+
+    @Test
+    @DisplayName("Should run a single aggregation for concurrent requests")
+    void shouldCoalesceConcurrentRequests() throws Exception {
+        // Given
+        CountDownLatch aggregationStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(historyRepository.getRanking(any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+            .thenAnswer(_ -> {
+                aggregationStarted.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return RANKING;
+            });
+
+        // When
+        List<Future<List<StationRanking>>> requests = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            requests.add(executor.submit(() -> rankingCache.get(7)));
+            assertThat(aggregationStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 20; i++) {
+                requests.add(executor.submit(() -> rankingCache.get(7)));
+            }
+            release.countDown();
+
+            // Then
+            for (Future<List<StationRanking>> request : requests) {
+                assertThat(request.get(5, TimeUnit.SECONDS)).isEqualTo(RANKING);
+            }
+        }
+        verify(historyRepository).getRanking(any(LocalDateTime.class), any(LocalDateTime.class), anyInt());
+    }
+}
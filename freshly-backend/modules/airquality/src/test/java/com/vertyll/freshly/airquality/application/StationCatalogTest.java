@@ -0,0 +1,168 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties;
+import com.vertyll.freshly.airquality.domain.AirQualityProvider;
+import com.vertyll.freshly.airquality.domain.Station;
+import com.vertyll.freshly.airquality.domain.StationCatalogRepository;
+import com.vertyll.freshly.airquality.domain.StationCatalogSnapshot;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StationCatalogTest {
+
+    private static final Station WARSAW = new Station(1, "Warszawa", "Warszawa", "Marszałkowska", 52.23, 21.01);
+    private static final Station KRAKOW = new Station(2, "Kraków", "Kraków", "Floriańska", 50.06, 19.94);
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private StationCatalogRepository catalogRepository;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private AirQualityProvider airQualityProvider;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private AirQualitySyncProperties syncProperties;
+
+    private StationCatalog stationCatalog;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        stationCatalog = new StationCatalog(catalogRepository, airQualityProvider, taskScheduler, syncProperties);
+    }
+
+    @Test
+    @DisplayName("Should start empty until the catalog is loaded")
+    void shouldStartEmpty() {
+        // When & Then
+        assertThat(stationCatalog.snapshot()).isEqualTo(StationCatalogSnapshot.EMPTY);
+    }
+
+    @Test
+    @DisplayName("Should schedule background refreshes with the configured interval")
+    void shouldScheduleRefreshes() {
+        // Given
+        when(syncProperties.catalog()).thenReturn(new AirQualitySyncProperties.Catalog(Duration.ofSeconds(30)));
+
+        // When
+        stationCatalog.start();
+
+        // Then
+        verify(taskScheduler).scheduleWithFixedDelay(any(Runnable.class), eq(Duration.ofSeconds(30)));
+    }
+
+    @Test
+    @DisplayName("Should load the persisted catalog when its generation changed")
+    void shouldLoadChangedCatalog() {
+        // Given
+        when(catalogRepository.findGeneration()).thenReturn(3L);
+        when(catalogRepository.load()).thenReturn(new StationCatalogSnapshot(3, List.of(WARSAW, KRAKOW)));
+
+        // When
+        stationCatalog.refresh();
+
+        // Then
+        assertThat(stationCatalog.snapshot().generation()).isEqualTo(3);
+        assertThat(stationCatalog.snapshot().stations()).containsExactly(WARSAW, KRAKOW);
+        assertThat(stationCatalog.spatialIndex().size()).isEqualTo(2);
+        verifyNoInteractions(airQualityProvider);
+    }
+
+    @Test
+    @DisplayName("Should not reload an unchanged catalog")
+    void shouldNotReloadUnchangedCatalog() {
+        // Given
+        when(catalogRepository.findGeneration()).thenReturn(3L);
+        when(catalogRepository.load()).thenReturn(new StationCatalogSnapshot(3, List.of(WARSAW)));
+        stationCatalog.refresh();
+
+        // When
+        stationCatalog.refresh();
+
+        // Then
+        verify(catalogRepository).load();
+    }
+
+    @Test
+    @DisplayName("Should seed an empty catalog from the provider")
+    void shouldSeedEmptyCatalog() {
+        // Given
+        when(catalogRepository.findGeneration()).thenReturn(0L);
+        when(airQualityProvider.findAllStations()).thenReturn(List.of(WARSAW));
+        when(catalogRepository.replaceAll(List.of(WARSAW))).thenReturn(1L);
+
+        // When
+        stationCatalog.refresh();
+
+        // Then
+        assertThat(stationCatalog.snapshot()).isEqualTo(new StationCatalogSnapshot(1, List.of(WARSAW)));
+    }
+
+    @Test
+    @DisplayName("Should keep serving the current snapshot when MongoDB is unavailable")
+    void shouldKeepSnapshotWhenStoreFails() {
+        // Given
+        when(catalogRepository.replaceAll(List.of(WARSAW))).thenReturn(1L);
+        stationCatalog.update(List.of(WARSAW));
+        when(catalogRepository.findGeneration()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // When
+        stationCatalog.refresh();
+
+        // Then
+        assertThat(stationCatalog.snapshot()).isEqualTo(new StationCatalogSnapshot(1, List.of(WARSAW)));
+    }
+
+    @Test
+    @DisplayName("Should not write an empty or unchanged station list")
+    void shouldSkipEmptyOrUnchangedUpdates() {
+        // Given
+        when(catalogRepository.replaceAll(List.of(WARSAW, KRAKOW))).thenReturn(1L);
+        stationCatalog.update(List.of(WARSAW, KRAKOW));
+
+        // When
+        stationCatalog.update(List.of());
+        stationCatalog.update(List.of(KRAKOW, WARSAW));
+
+        // Then
+        verify(catalogRepository, times(1)).replaceAll(anyList());
+        assertThat(stationCatalog.snapshot().stations()).containsExactly(WARSAW, KRAKOW);
+    }
+
+    @Test
+    @DisplayName("Should never go back to an older generation")
+    void shouldNotGoBackToOlderGeneration() {
+        // Given
+        when(catalogRepository.replaceAll(List.of(KRAKOW))).thenReturn(5L);
+        stationCatalog.update(List.of(KRAKOW));
+        when(catalogRepository.findGeneration()).thenReturn(4L);
+        when(catalogRepository.load()).thenReturn(new StationCatalogSnapshot(4, List.of(WARSAW)));
+
+        // When
+        stationCatalog.refresh();
+
+        // Then
+        assertThat(stationCatalog.snapshot()).isEqualTo(new StationCatalogSnapshot(5, List.of(KRAKOW)));
+    }
+}
@@ -0,0 +1,129 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.vertyll.freshly.airquality.domain.Station;
+import com.vertyll.freshly.airquality.domain.StationDistance;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StationSpatialIndexTest {
+
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double WARSAW_LAT = 52.2297;
+    private static final double WARSAW_LON = 21.0122;
+
+    private static List<Station> randomStations(int count, long seed) {
+        Random random = new Random(seed);
+        List<Station> stations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Roughly Poland and its neighbours
+            double latitude = 48 + random.nextDouble() * 8;
+            double longitude = 13 + random.nextDouble() * 12;
+            stations.add(new Station(i, "Station " + i, "City", "Street", latitude, longitude));
+        }
+        return stations;
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(lat1))
+                * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private static List<Integer> bruteForce(List<Station> stations, double lat, double lon, double radiusKm) {
+        return stations.stream()
+            .filter(s -> haversine(lat, lon, s.latitude(), s.longitude()) <= radiusKm)
+            .sorted(Comparator.comparingDouble(s -> haversine(lat, lon, s.latitude(), s.longitude())))
+            .map(Station::id)
+            .toList();
+    }
+
+    private static List<Integer> ids(List<StationDistance> distances) {
+        return distances.stream().map(distance -> distance.station().id()).toList();
+    }
+
+    @Test
+    @DisplayName("Should return the same stations as a linear haversine scan within a radius")
+    void shouldMatchLinearScanWithinRadius() {
+        // Given
+        List<Station> stations = randomStations(2000, 42);
+        StationSpatialIndex index = StationSpatialIndex.build(stations);
+
+        // When & Then
+        for (double radius : new double[] {1, 10, 50, 100}) {
+            List<StationDistance> result = index.withinRadius(WARSAW_LAT, WARSAW_LON, radius);
+
+            assertThat(ids(result)).isEqualTo(bruteForce(stations, WARSAW_LAT, WARSAW_LON, radius));
+            assertThat(result).allSatisfy(
+                sd -> assertThat(sd.distanceInKm()).isCloseTo(
+                    haversine(WARSAW_LAT, WARSAW_LON, sd.station().latitude(), sd.station().longitude()),
+                    within(1e-6)
+                )
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Should return the true k nearest stations")
+    void shouldReturnKNearest() {
+        // Given
+        List<Station> stations = randomStations(2000, 7);
+        StationSpatialIndex index = StationSpatialIndex.build(stations);
+
+        // When
+        List<StationDistance> result = index.nearest(WARSAW_LAT, WARSAW_LON, 5, Double.POSITIVE_INFINITY);
+
+        // Then
+        assertThat(ids(result))
+            .isEqualTo(bruteForce(stations, WARSAW_LAT, WARSAW_LON, Double.MAX_VALUE).subList(0, 5));
+    }
+
+    @Test
+    @DisplayName("Should stop at the distance limit and at the catalog size")
+    void shouldRespectLimits() {
+        // Given
+        Station warsaw = new Station(1, "Warsaw", "Warsaw", "Street", WARSAW_LAT, WARSAW_LON);
+        Station krakow = new Station(2, "Krakow", "Krakow", "Street", 50.0647, 19.9450);
+        StationSpatialIndex index = StationSpatialIndex.build(List.of(krakow, warsaw));
+
+        // When & Then
+        assertThat(index.nearest(WARSAW_LAT, WARSAW_LON, 5, 100)).extracting(StationDistance::station)
+            .containsExactly(warsaw);
+        assertThat(index.nearest(WARSAW_LAT, WARSAW_LON, 5, Double.POSITIVE_INFINITY))
+            .extracting(StationDistance::station)
+            .containsExactly(warsaw, krakow);
+    }
+
+    @Test
+    @DisplayName("Should find stations across the antimeridian")
+    void shouldFindAcrossAntimeridian() {
+        // Given
+        Station east = new Station(1, "East", "Suva", "Street", -17.7, 179.9);
+        Station far = new Station(2, "Far", "Auckland", "Street", -36.8, 174.7);
+        StationSpatialIndex index = StationSpatialIndex.build(List.of(far, east));
+
+        // When
+        List<StationDistance> result = index.nearest(-17.7, -179.9, 1, Double.POSITIVE_INFINITY);
+
+        // Then
+        assertThat(result).extracting(StationDistance::station).containsExactly(east);
+        assertThat(result.getFirst().distanceInKm()).isLessThan(25);
+    }
+
+    @Test
+    @DisplayName("Should return nothing for an empty catalog")
+    void shouldHandleEmptyCatalog() {
+        // When & Then
+        assertThat(StationSpatialIndex.EMPTY.withinRadius(WARSAW_LAT, WARSAW_LON, 100)).isEmpty();
+        assertThat(StationSpatialIndex.EMPTY.nearest(WARSAW_LAT, WARSAW_LON, 5, Double.POSITIVE_INFINITY)).isEmpty();
+    }
+}
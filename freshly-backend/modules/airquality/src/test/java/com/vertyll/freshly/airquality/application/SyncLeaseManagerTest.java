@@ -0,0 +1,115 @@
+package com.vertyll.freshly.airquality.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.vertyll.freshly.airquality.config.AirQualitySyncProperties;
+import com.vertyll.freshly.airquality.domain.AirQualityHistoryRepository;
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+import com.vertyll.freshly.airquality.domain.SyncLease;
+import com.vertyll.freshly.airquality.domain.SyncLockRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncLeaseManagerTest {
+
+    private static final Duration TTL = Duration.ofMillis(300);
+    private static final Duration RENEW_INTERVAL = Duration.ofMillis(100);
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private SyncLockRepository lockRepository;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private AirQualityHistoryRepository historyRepository;
+
+    @Mock
+    @SuppressWarnings("NullAway.Init")
+    private AirQualitySyncProperties syncProperties;
+
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    private SyncLeaseManager leaseManager;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        // A single thread, like the scheduler Spring Boot configures by default
+        scheduler.setPoolSize(1);
+        scheduler.initialize();
+        leaseManager = new SyncLeaseManager(lockRepository, new SyncNode(), syncProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaseManager.stop();
+        scheduler.shutdown();
+    }
+
+    private static SyncLease leaseUntil(String holderId, Instant expiresAt) {
+        return new SyncLease(SyncLeaseManager.SYNC_LOCK_NAME, holderId, 1, expiresAt);
+    }
+
+    @Test
+    @DisplayName("Should keep the lease of a scheduled run that outlives its TTL on a single-thread scheduler")
+    void shouldRenewLeaseWhileScheduledRunHoldsSchedulerThread() throws Exception {
+        // Given
+        when(syncProperties.lease()).thenReturn(new AirQualitySyncProperties.Lease(true, TTL, RENEW_INTERVAL));
+        when(lockRepository.tryAcquire(anyString(), anyString(), any()))
+            .thenAnswer(invocation -> Optional.of(leaseUntil(invocation.getArgument(1), Instant.now().plus(TTL))));
+        when(lockRepository.renew(any(), any()))
+            .thenAnswer(invocation -> {
+                SyncLease lease = invocation.getArgument(0);
+                return Optional.of(leaseUntil(lease.holderId(), Instant.now().plus(TTL)));
+            });
+        when(lockRepository.confirm(any())).thenReturn(true);
+        List<List<AirQualityMeasurement>> persistedBatches = new ArrayList<>();
+        AirQualityMeasurement measurement = new AirQualityMeasurement();
+        measurement.setStationId(1);
+        measurement.setMeasurementDate(LocalDateTime.now(ZoneOffset.UTC));
+
+        // When
+        CompletableFuture<Integer> run = scheduler.submitCompletable(() -> {
+            try (HeldSyncLease lease = leaseManager.tryAcquire().orElseThrow()) {
+                MeasurementBatchWriter writer = new MeasurementBatchWriter(
+                    historyRepository,
+                    lease,
+                    TransactionOperations.withoutTransaction(),
+                    1,
+                    Duration.ofHours(1),
+                    persistedBatches::add
+                );
+                Thread.sleep(TTL.multipliedBy(3));
+                writer.write(measurement);
+                return writer.failedCount();
+            }
+        });
+
+        // Then
+        assertThat(run.get(5, TimeUnit.SECONDS)).isZero();
+        assertThat(persistedBatches).containsExactly(List.of(measurement));
+        verify(lockRepository, atLeast(2)).renew(any(), eq(TTL));
+    }
+}
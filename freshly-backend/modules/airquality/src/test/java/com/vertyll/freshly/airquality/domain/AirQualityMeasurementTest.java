@@ -2,6 +2,7 @@ package com.vertyll.freshly.airquality.domain;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.DisplayName;
@@ -11,12 +12,20 @@ import static org.assertj.core.api.Assertions.*;
 
 class AirQualityMeasurementTest {
 
+    private static final double LATITUDE = 52.2297;
+    private static final double LONGITUDE = 21.0122;
+
+    private static Station warsawStation(int stationId, String stationName) {
+        return new Station(stationId, stationName, "Warsaw", "Street 1", LATITUDE, LONGITUDE);
+    }
+
     @Test
     @DisplayName("Should create measurement from index and sensor data")
     void shouldCreateMeasurementFromIndexAndSensorData() {
         // Given
         int stationId = 123;
         String stationName = "Station 1";
+        Station station = warsawStation(stationId, stationName);
         LocalDateTime calculationDate = LocalDateTime.now(ZoneOffset.UTC);
         AirQualityIndex index =
                 new AirQualityIndex(stationId, calculationDate, "Dobry", "Bardzo dobry", "Umiarkowany", "Dobry");
@@ -26,8 +35,10 @@ class AirQualityMeasurementTest {
 
         // When
         AirQualityMeasurement measurement =
-                AirQualityMeasurement.create(stationId, stationName, index, sensorValues, index.calculationDate());
+                AirQualityMeasurement.create(station, index, sensorValues, index.calculationDate());
         assertThat(measurement.getStationName()).isEqualTo(stationName);
+        assertThat(measurement.getLatitude()).isEqualTo(LATITUDE);
+        assertThat(measurement.getLongitude()).isEqualTo(LONGITUDE);
         assertThat(measurement.getMeasurementDate()).isEqualTo(calculationDate);
         assertThat(measurement.getOverallIndexLevel()).isEqualTo(AirQualityLevel.GOOD);
         assertThat(measurement.getSo2IndexLevel()).isEqualTo(AirQualityLevel.VERY_GOOD);
@@ -48,6 +59,7 @@ class AirQualityMeasurementTest {
         // Given
         int stationId = 123;
         String stationName = "Station 1";
+        Station station = warsawStation(stationId, stationName);
         AirQualityIndex index =
                 new AirQualityIndex(stationId, LocalDateTime.now(ZoneOffset.UTC), "Dobry", "Dobry", "Dobry", "Dobry");
 
@@ -56,7 +68,7 @@ class AirQualityMeasurementTest {
 
         // When
         AirQualityMeasurement measurement =
-                AirQualityMeasurement.create(stationId, stationName, index, sensorValues, index.calculationDate());
+                AirQualityMeasurement.create(station, index, sensorValues, index.calculationDate());
 
         // Then
         assertThat(measurement.getPm10Value()).isEqualTo(25.5);
@@ -174,6 +186,7 @@ class AirQualityMeasurementTest {
         // Given
         int stationId = 123;
         String stationName = "Station 1";
+        Station station = warsawStation(stationId, stationName);
         AirQualityIndex index =
                 new AirQualityIndex(stationId, LocalDateTime.now(ZoneOffset.UTC), "Dobry", "Dobry", "Dobry", "Dobry");
 
@@ -181,7 +194,7 @@ class AirQualityMeasurementTest {
 
         // When
         AirQualityMeasurement measurement =
-                AirQualityMeasurement.create(stationId, stationName, index, emptySensorValues, index.calculationDate());
+                AirQualityMeasurement.create(station, index, emptySensorValues, index.calculationDate());
 
         // Then
         assertThat(measurement.getStationId()).isEqualTo(stationId);
@@ -193,4 +206,39 @@ class AirQualityMeasurementTest {
         assertThat(measurement.getCoValue()).isNull();
         assertThat(measurement.getO3Value()).isNull();
     }
+
+    @Test
+    @DisplayName("Should shape the stored index and readings like GIOŚ live data")
+    void shouldShapeStoredDataLikeLiveData() {
+        // Given
+        LocalDateTime calculationDate = LocalDateTime.of(2026, 1, 1, 12, 0);
+        AirQualityIndex index = new AirQualityIndex(123, calculationDate, "Dobry", "Bardzo dobry", "Zły", "Dobry");
+        AirQualityMeasurement measurement = AirQualityMeasurement.create(
+            warsawStation(123, "Station 1"),
+            index,
+            Map.of("PM10", 25.5, "NO2", 12.3),
+            calculationDate
+        );
+
+        // When
+        AirQualityIndex storedIndex = measurement.toIndex().orElseThrow();
+        List<SensorMeasurement> sensors = measurement.toSensorMeasurements();
+
+        // Then
+        assertThat(storedIndex).isEqualTo(index);
+        assertThat(sensors).extracting(SensorMeasurement::paramCode).containsExactly("PM10", "NO2");
+        assertThat(sensors.getFirst().readings()).containsExactly(new SensorMeasurement.Reading(calculationDate, 25.5));
+    }
+
+    @Test
+    @DisplayName("Should have no stored index or readings without a measurement date")
+    void shouldHaveNoStoredDataWithoutDate() {
+        // Given
+        AirQualityMeasurement measurement = new AirQualityMeasurement();
+        measurement.setPm10Value(25.5);
+
+        // When & Then
+        assertThat(measurement.toIndex()).isEmpty();
+        assertThat(measurement.toSensorMeasurements()).isEmpty();
+    }
 }
@@ -0,0 +1,42 @@
+package com.vertyll.freshly.airquality.domain;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.vertyll.freshly.airquality.domain.exception.InvalidPageTokenException;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MeasurementCursorTest {
+
+    @Test
+    @DisplayName("Should read back the cursor a token was created from")
+    void shouldRoundTripToken() {
+        // Given
+        MeasurementCursor cursor =
+                new MeasurementCursor(LocalDateTime.of(2026, 3, 1, 12, 0), "65e1c2a0f1d2c3b4a5968778");
+
+        // When
+        String token = cursor.toToken();
+
+        // Then
+        assertThat(token).doesNotContain(cursor.id()).matches("[A-Za-z0-9_-]+");
+        assertThat(MeasurementCursor.fromToken(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Should reject tokens it did not create")
+    void shouldRejectForeignTokens() {
+        // When & Then
+        assertThatThrownBy(() -> MeasurementCursor.fromToken("not a token"))
+            .isInstanceOf(InvalidPageTokenException.class);
+        assertThatThrownBy(() -> MeasurementCursor.fromToken("bm8tc2VwYXJhdG9y"))
+            .isInstanceOf(InvalidPageTokenException.class);
+        assertThatThrownBy(() -> MeasurementCursor.fromToken("eDox"))
+            .isInstanceOf(InvalidPageTokenException.class);
+        assertThatThrownBy(() -> MeasurementCursor.fromToken("MTo"))
+            .isInstanceOf(InvalidPageTokenException.class);
+    }
+}
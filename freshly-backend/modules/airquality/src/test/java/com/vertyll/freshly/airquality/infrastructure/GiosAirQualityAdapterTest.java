@@ -1,10 +1,14 @@
 package com.vertyll.freshly.airquality.infrastructure;
 
+import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.http.HttpRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
@@ -12,7 +16,10 @@ import org.springframework.web.client.RestClient;
 import com.vertyll.freshly.airquality.domain.SensorMeasurement;
 import com.vertyll.freshly.common.config.ExternalServiceProperties;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
@@ -27,21 +34,56 @@ class GiosAirQualityAdapterTest {
     @BeforeEach
     void setUp() {
         ExternalServiceProperties properties = new ExternalServiceProperties(
-            new ExternalServiceProperties.Gios("http://api.gios.gov.pl/pjp-api/rest")
+            new ExternalServiceProperties.Gios(
+                "http://api.gios.gov.pl/pjp-api/rest",
+                new ExternalServiceProperties.Http(
+                    Duration.ofSeconds(5),
+                    Duration.ofSeconds(30),
+                    Duration.ofSeconds(10),
+                    8,
+                    4,
+                    Duration.ofSeconds(30),
+                    Duration.ofSeconds(60),
+                    false
+                ),
+                new ExternalServiceProperties.Limiter(100, 100, 4, 1, 4, Duration.ofSeconds(2)),
+                new ExternalServiceProperties.CircuitBreaker(
+                    50,
+                    50,
+                    Duration.ofSeconds(5),
+                    20,
+                    10,
+                    Duration.ofSeconds(30),
+                    3
+                ),
+                new ExternalServiceProperties.Hedging(false, 95, 200, 20, Duration.ofMillis(50), 10)
+            )
         );
         restClient = mock(RestClient.class, RETURNS_DEEP_STUBS);
-        adapter = new GiosAirQualityAdapter(properties);
+        adapter = new GiosAirQualityAdapter(properties, new SimpleMeterRegistry());
         adapter.setRestClient(restClient);
     }
 
+    /** Runs the adapter's exchange callback against a 200 response carrying {@code json} */
+    private static Answer<Object> respondWith(String json) {
+        return invocation -> {
+            RestClient.RequestHeadersSpec.ExchangeFunction<?> exchange = invocation.getArgument(0);
+            RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse response =
+                    mock(RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse.class);
+            when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+            when(response.getBody()).thenReturn(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+            return exchange.exchange(mock(HttpRequest.class), response);
+        };
+    }
+
     @Test
     void shouldFallbackToArchivalDataWhenGiosReturns400ForManualStation() {
         // Given
         String errorJson = "{\"error_code\":\"API-ERR-100003\"}";
-        when(restClient.get().uri(anyString(), anyInt()).retrieve().body(String.class)).thenThrow(
+        when(restClient.get().uri(anyString(), anyInt()).exchange(any())).thenThrow(
             HttpClientErrorException
                 .create(HttpStatus.BAD_REQUEST, "Bad Request", null, errorJson.getBytes(StandardCharsets.UTF_8), null)
-        ).thenReturn("{\"values\": [{\"date\": \"2026-02-22 07:00:00\", \"value\": 25.5}]}");
+        ).thenAnswer(respondWith("{\"values\": [{\"date\": \"2026-02-22 07:00:00\", \"value\": 25.5}]}"));
 
         // When
         int sensorId = 654;
@@ -0,0 +1,350 @@
+package com.vertyll.freshly.airquality.infrastructure;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.vertyll.freshly.airquality.domain.SensorMeasurement;
+import com.vertyll.freshly.airquality.domain.exception.GiosUnavailableException;
+import com.vertyll.freshly.common.config.ExternalServiceProperties;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.*;
+
+/** Runs the adapter against a local stub of GIOŚ that can answer with 429s, 5xx, slow and hung responses */
+class GiosAirQualityAdapterThrottlingTest {
+
+    private static final String STATIONS_BODY = "{\"Lista stacji pomiarowych\": []}";
+    private static final String READINGS_BODY =
+            "{\"Lista danych pomiarowych\": [{\"Data\": \"2026-01-01 12:00:00\", \"Wartość\": 12.5}]}";
+    private static final Duration LATENCY_THRESHOLD = Duration.ofMillis(200);
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(1);
+    private static final int INITIAL_CONCURRENCY = 8;
+    private static final int CIRCUIT_WINDOW = 4;
+    private static final Duration CIRCUIT_OPEN_DURATION = Duration.ofMillis(300);
+    private static final int HEDGING_MINIMUM_SAMPLES = 3;
+    private static final Duration HEDGE_MIN_DELAY = Duration.ofMillis(50);
+    private static final Duration SLOW_SENSOR_DELAY = RESPONSE_TIMEOUT.minusMillis(200);
+    private static final int SENSOR_ID = 42;
+
+    @SuppressWarnings("NullAway.Init")
+    private HttpServer server;
+
+    private final ExecutorService stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @SuppressWarnings("NullAway.Init")
+    private SimpleMeterRegistry meterRegistry;
+
+    @SuppressWarnings("NullAway.Init")
+    private GiosAirQualityAdapter adapter;
+
+    private volatile HttpStatus stubStatus = HttpStatus.OK;
+    private volatile Duration stubDelay = Duration.ZERO;
+    private final AtomicInteger stubCalls = new AtomicInteger();
+    private final AtomicInteger sensorDataCalls = new AtomicInteger();
+    private volatile int slowSensorDataCall = -1;
+    private volatile boolean sensorDataSlow;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/station/findAll", this::respond);
+        server.createContext("/data/getData/", this::respondWithReadings);
+        server.setExecutor(stubExecutor);
+        server.start();
+
+        ExternalServiceProperties properties = new ExternalServiceProperties(
+            new ExternalServiceProperties.Gios(
+                "http://localhost:" + server.getAddress().getPort(),
+                new ExternalServiceProperties.Http(
+                    Duration.ofSeconds(1),
+                    RESPONSE_TIMEOUT,
+                    Duration.ofSeconds(1),
+                    8,
+                    4,
+                    Duration.ofSeconds(30),
+                    Duration.ofSeconds(60),
+                    false
+                ),
+                new ExternalServiceProperties.Limiter(1000, 1000, INITIAL_CONCURRENCY, 1, 16, LATENCY_THRESHOLD),
+                new ExternalServiceProperties.CircuitBreaker(
+                    50,
+                    50,
+                    RESPONSE_TIMEOUT,
+                    CIRCUIT_WINDOW,
+                    CIRCUIT_WINDOW,
+                    CIRCUIT_OPEN_DURATION,
+                    1
+                ),
+                new ExternalServiceProperties.Hedging(true, 50, 20, HEDGING_MINIMUM_SAMPLES, HEDGE_MIN_DELAY, 10)
+            )
+        );
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new GiosAirQualityAdapter(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        adapter.close();
+        server.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        stubCalls.incrementAndGet();
+        try {
+            Thread.sleep(stubDelay);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+
+        HttpStatus status = stubStatus;
+        byte[] body = (status == HttpStatus.OK ? STATIONS_BODY : "{}").getBytes(StandardCharsets.UTF_8);
+        if (status == HttpStatus.TOO_MANY_REQUESTS) {
+            exchange.getResponseHeaders().add(HttpHeaders.RETRY_AFTER, "0");
+        }
+        exchange.sendResponseHeaders(status.value(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Answers sensor data calls straight away, except for the one numbered {@code slowSensorDataCall} or all
+     * of them while {@code sensorDataSlow} is set
+     */
+    private void respondWithReadings(HttpExchange exchange) throws IOException {
+        if (sensorDataCalls.incrementAndGet() == slowSensorDataCall || sensorDataSlow) {
+            try {
+                Thread.sleep(SLOW_SENSOR_DELAY);
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        byte[] body = READINGS_BODY.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(HttpStatus.OK.value(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private double hedges(String outcome) {
+        return meterRegistry.get("gios.client.hedges").tag("outcome", outcome).counter().count();
+    }
+
+    private void warmUpHedging() {
+        for (int i = 0; i < HEDGING_MINIMUM_SAMPLES; i++) {
+            assertThat(adapter.fetchDataForSensor(SENSOR_ID)).hasSize(1);
+        }
+    }
+
+    private double concurrencyLimit() {
+        return meterRegistry.get("gios.client.concurrency.limit").gauge().value();
+    }
+
+    private double requests(String outcome) {
+        return meterRegistry.get("gios.client.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private double circuitState() {
+        return meterRegistry.get("gios.client.circuit.state").gauge().value();
+    }
+
+    private void openCircuit() {
+        stubStatus = HttpStatus.BAD_GATEWAY;
+        for (int i = 0; i < CIRCUIT_WINDOW; i++) {
+            assertThatThrownBy(adapter::findAllStations).isInstanceOf(HttpServerErrorException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Should halve the window and count the call when GIOŚ answers 429")
+    void shouldShrinkWindowOnTooManyRequests() {
+        // Given
+        stubStatus = HttpStatus.TOO_MANY_REQUESTS;
+
+        // When & Then
+        assertThatThrownBy(adapter::findAllStations).isInstanceOf(HttpClientErrorException.TooManyRequests.class);
+        assertThat(concurrencyLimit()).isEqualTo(INITIAL_CONCURRENCY / 2.0);
+        assertThat(requests("throttled")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("gios.client.requests.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should halve the window when GIOŚ fails with a server error")
+    void shouldShrinkWindowOnServerError() {
+        // Given
+        stubStatus = HttpStatus.BAD_GATEWAY;
+
+        // When & Then
+        assertThatThrownBy(adapter::findAllStations).isInstanceOf(HttpServerErrorException.class);
+        assertThat(concurrencyLimit()).isEqualTo(INITIAL_CONCURRENCY / 2.0);
+        assertThat(requests("error")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should halve the window when responses get slower than the latency threshold")
+    void shouldShrinkWindowOnRisingLatency() {
+        // Given
+        stubDelay = LATENCY_THRESHOLD.plusMillis(100);
+
+        // When
+        adapter.findAllStations();
+
+        // Then
+        assertThat(concurrencyLimit()).isEqualTo(INITIAL_CONCURRENCY / 2.0);
+        assertThat(requests("success")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should grow the window again while GIOŚ answers quickly")
+    void shouldGrowWindowOnFastSuccess() {
+        // When
+        for (int i = 0; i < INITIAL_CONCURRENCY; i++) {
+            adapter.findAllStations();
+        }
+
+        // Then
+        assertThat(concurrencyLimit()).isCloseTo(INITIAL_CONCURRENCY + 1.0, within(0.1));
+        assertThat(meterRegistry.get("gios.client.rate.limit").gauge().value()).isEqualTo(1000.0);
+    }
+
+    @Test
+    @DisplayName("Should give up on a hung upstream once the response timeout passes")
+    void shouldTimeOutHungResponse() {
+        // Given
+        stubDelay = RESPONSE_TIMEOUT.plusSeconds(1);
+
+        // When & Then
+        assertThatThrownBy(adapter::findAllStations).isInstanceOf(ResourceAccessException.class);
+        assertThat(requests("error")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should reuse a pooled keep-alive connection and publish pool metrics")
+    void shouldReusePooledConnection() {
+        // When
+        adapter.findAllStations();
+        adapter.findAllStations();
+
+        // Then
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value()).isEqualTo(8.0);
+        assertThat(
+            meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "available")
+                .gauge()
+                .value()
+        ).isEqualTo(1.0);
+        assertThat(meterRegistry.get(GiosHttpTransport.METRIC_CONNECTION_ACQUIRE).timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should stop calling a failing GIOŚ once the circuit opens")
+    void shouldShortCircuitWhenOpen() {
+        // Given
+        openCircuit();
+
+        // When & Then
+        assertThatThrownBy(adapter::findAllStations).isInstanceOf(GiosUnavailableException.class);
+        assertThatThrownBy(() -> adapter.findMeasurementsByStationId(1))
+            .isInstanceOf(GiosUnavailableException.class);
+        assertThat(stubCalls).hasValue(CIRCUIT_WINDOW);
+        assertThat(requests("short_circuited")).isEqualTo(2.0);
+        assertThat(circuitState()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should close the circuit once a probe call succeeds after the open duration")
+    void shouldCloseCircuitAfterSuccessfulProbe() throws InterruptedException {
+        // Given
+        openCircuit();
+        stubStatus = HttpStatus.OK;
+        Thread.sleep(CIRCUIT_OPEN_DURATION.plusMillis(50));
+
+        // When
+        adapter.findAllStations();
+
+        // Then
+        assertThat(circuitState()).isZero();
+        assertThat(stubCalls).hasValue(CIRCUIT_WINDOW + 1);
+    }
+
+    @Test
+    @DisplayName("Should not hedge before enough latencies are known")
+    void shouldNotHedgeWithoutSamples() {
+        // When
+        warmUpHedging();
+
+        // Then
+        assertThat(sensorDataCalls).hasValue(HEDGING_MINIMUM_SAMPLES);
+        assertThat(hedges("sent")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should answer a slow sensor data call with the readings of its hedge")
+    void shouldHedgeSlowSensorDataCall() {
+        // Given
+        warmUpHedging();
+        slowSensorDataCall = HEDGING_MINIMUM_SAMPLES + 1;
+
+        // When
+        long startedAt = System.nanoTime();
+        List<SensorMeasurement.Reading> readings = adapter.fetchDataForSensor(SENSOR_ID);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        // Then
+        assertThat(readings).containsExactly(
+            new SensorMeasurement.Reading(LocalDateTime.of(2026, 1, 1, 12, 0), 12.5)
+        );
+        assertThat(elapsed).isLessThan(SLOW_SENSOR_DELAY);
+        assertThat(sensorDataCalls).hasValue(HEDGING_MINIMUM_SAMPLES + 2);
+        assertThat(hedges("sent")).isEqualTo(1.0);
+        assertThat(hedges("won")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should abort a hedged sensor data call and its hedge when the caller is interrupted")
+    void shouldCancelHedgedCallsOnInterrupt() throws InterruptedException {
+        // Given
+        warmUpHedging();
+        sensorDataSlow = true;
+        Thread caller = Thread.ofVirtual().start(() -> adapter.fetchDataForSensor(SENSOR_ID));
+        Thread.sleep(HEDGE_MIN_DELAY.multipliedBy(3));
+        assertThat(hedges("sent")).isEqualTo(1.0);
+
+        // When
+        long interruptedAt = System.nanoTime();
+        caller.interrupt();
+        caller.join(SLOW_SENSOR_DELAY);
+        Thread.sleep(HEDGE_MIN_DELAY);
+
+        // Then
+        assertThat(caller.isAlive()).isFalse();
+        assertThat(meterRegistry.get("gios.client.requests.in.flight").gauge().value()).isZero();
+        assertThat(Duration.ofNanos(System.nanoTime() - interruptedAt)).isLessThan(SLOW_SENSOR_DELAY.dividedBy(2));
+        assertThat(requests("error")).isZero();
+    }
+}
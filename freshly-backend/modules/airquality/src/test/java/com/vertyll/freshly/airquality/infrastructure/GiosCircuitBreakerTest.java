@@ -0,0 +1,171 @@
+package com.vertyll.freshly.airquality.infrastructure;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.vertyll.freshly.airquality.infrastructure.GiosCircuitBreaker.State;
+import com.vertyll.freshly.common.config.ExternalServiceProperties;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GiosCircuitBreakerTest {
+
+    private static final Duration SLOW_CALL_THRESHOLD = Duration.ofSeconds(2);
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    private static final long FAST = Duration.ofMillis(100).toNanos();
+    private static final long SLOW = SLOW_CALL_THRESHOLD.plusSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @SuppressWarnings("NullAway.Init")
+    private GiosCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new GiosCircuitBreaker(
+            new ExternalServiceProperties.CircuitBreaker(50, 50, SLOW_CALL_THRESHOLD, 10, 4, OPEN_DURATION, 2),
+            clock::get
+        );
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    private void call(boolean failed, long durationNanos) {
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        if (failed) {
+            circuitBreaker.onFailure(durationNanos);
+        } else {
+            circuitBreaker.onSuccess(durationNanos);
+        }
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(true, FAST);
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay closed until the window holds the minimum number of calls")
+    void shouldWaitForMinimumCalls() {
+        // When
+        call(true, FAST);
+        call(true, FAST);
+        call(true, FAST);
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should open once the failure rate reaches the threshold and refuse calls")
+    void shouldOpenOnFailureRate() {
+        // When
+        call(false, FAST);
+        call(false, FAST);
+        call(true, FAST);
+        call(true, FAST);
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should open once the slow call rate reaches the threshold, even when the calls succeed")
+    void shouldOpenOnSlowCallRate() {
+        // When
+        call(false, FAST);
+        call(false, FAST);
+        call(false, SLOW);
+        call(false, SLOW);
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Should only count the most recent calls of the window")
+    void shouldForgetOldCalls() {
+        // Given
+        call(false, FAST);
+        call(false, FAST);
+        call(false, FAST);
+        call(true, FAST);
+        call(true, FAST);
+
+        // When - the window moves on, so at most four of its ten calls failed at any point
+        for (int i = 0; i < 6; i++) {
+            call(false, FAST);
+        }
+        for (int i = 0; i < 4; i++) {
+            call(true, FAST);
+        }
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should let a limited number of probes through after a while and close when they succeed")
+    void shouldCloseAfterSuccessfulProbes() {
+        // Given
+        open();
+        advance(OPEN_DURATION);
+
+        // When
+        boolean firstProbe = circuitBreaker.tryAcquire();
+        boolean secondProbe = circuitBreaker.tryAcquire();
+        boolean thirdCall = circuitBreaker.tryAcquire();
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onSuccess(FAST);
+
+        // Then
+        assertThat(firstProbe).isTrue();
+        assertThat(secondProbe).isTrue();
+        assertThat(thirdCall).isFalse();
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should open again when a probe is slow")
+    void shouldReopenOnSlowProbe() {
+        // Given
+        open();
+        advance(OPEN_DURATION);
+
+        // When
+        call(false, SLOW);
+
+        // Then
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        advance(OPEN_DURATION);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should give a probe slot back when the probe ends without an outcome")
+    void shouldReleaseIgnoredProbe() {
+        // Given
+        open();
+        advance(OPEN_DURATION);
+        circuitBreaker.tryAcquire();
+        circuitBreaker.tryAcquire();
+
+        // When
+        circuitBreaker.onIgnored();
+
+        // Then
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+}
@@ -0,0 +1,98 @@
+package com.vertyll.freshly.airquality.infrastructure;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.vertyll.freshly.common.config.ExternalServiceProperties;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GiosRequestHedgerTest {
+
+    private static final Duration MIN_DELAY = Duration.ofMillis(10);
+
+    private static GiosRequestHedger hedger(double percentile, int windowSize, int budgetPercent) {
+        return new GiosRequestHedger(
+            new ExternalServiceProperties.Hedging(true, percentile, windowSize, 4, MIN_DELAY, budgetPercent)
+        );
+    }
+
+    private static void record(GiosRequestHedger hedger, int times, Duration latency) {
+        for (int i = 0; i < times; i++) {
+            hedger.record(latency.toNanos());
+        }
+    }
+
+    @Test
+    @DisplayName("Should not hedge before the minimum number of latencies is known")
+    void shouldWaitForMinimumSamples() {
+        // Given
+        GiosRequestHedger hedger = hedger(95, 20, 10);
+        record(hedger, 3, Duration.ofMillis(100));
+
+        // When & Then
+        assertThat(hedger.startCall()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should hedge after the configured percentile, rounded up to its histogram bucket")
+    void shouldDelayByPercentile() {
+        // Given
+        GiosRequestHedger hedger = hedger(90, 20, 10);
+        record(hedger, 18, Duration.ofMillis(100));
+        record(hedger, 2, Duration.ofSeconds(5));
+
+        // When
+        long delay = hedger.startCall();
+
+        // Then
+        assertThat(Duration.ofNanos(delay)).isBetween(Duration.ofMillis(100), Duration.ofMillis(110));
+    }
+
+    @Test
+    @DisplayName("Should never hedge sooner than the minimum delay")
+    void shouldApplyMinimumDelay() {
+        // Given
+        GiosRequestHedger hedger = hedger(95, 20, 10);
+        record(hedger, 10, Duration.ofNanos(1));
+
+        // When & Then
+        assertThat(hedger.startCall()).isEqualTo(MIN_DELAY.toNanos());
+    }
+
+    @Test
+    @DisplayName("Should only keep the most recent latencies of the window")
+    void shouldForgetOldLatencies() {
+        // Given
+        GiosRequestHedger hedger = hedger(50, 10, 10);
+        record(hedger, 10, Duration.ofSeconds(5));
+
+        // When
+        record(hedger, 10, Duration.ofMillis(100));
+
+        // Then
+        assertThat(Duration.ofNanos(hedger.startCall())).isLessThan(Duration.ofMillis(110));
+    }
+
+    @Test
+    @DisplayName("Should stop hedging once the budget is spent and earn it back with every call")
+    void shouldLimitHedgesToBudget() {
+        // Given
+        GiosRequestHedger hedger = hedger(95, 20, 50);
+        for (int i = 0; i < GiosRequestHedger.MAX_BUDGET; i++) {
+            assertThat(hedger.tryHedge()).isTrue();
+        }
+
+        // When
+        boolean overBudget = hedger.tryHedge();
+        hedger.startCall();
+        hedger.startCall();
+
+        // Then
+        assertThat(overBudget).isFalse();
+        assertThat(hedger.tryHedge()).isTrue();
+        assertThat(hedger.tryHedge()).isFalse();
+    }
+}
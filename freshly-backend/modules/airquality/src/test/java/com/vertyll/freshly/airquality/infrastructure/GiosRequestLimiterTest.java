@@ -0,0 +1,196 @@
+package com.vertyll.freshly.airquality.infrastructure;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.vertyll.freshly.common.config.ExternalServiceProperties;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GiosRequestLimiterTest {
+
+    private static final Duration LATENCY_THRESHOLD = Duration.ofMillis(500);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @SuppressWarnings("NullAway.Init")
+    private GiosRequestLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = limiter(1000, 1000, 8);
+    }
+
+    private GiosRequestLimiter limiter(double requestsPerSecond, int burst, int initialConcurrency) {
+        return new GiosRequestLimiter(
+            new ExternalServiceProperties.Limiter(
+                requestsPerSecond,
+                burst,
+                initialConcurrency,
+                1,
+                16,
+                LATENCY_THRESHOLD
+            ),
+            clock::get
+        );
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    @DisplayName("Should grow the window by roughly one slot per window of successes")
+    void shouldGrowWindowOnSuccess() throws InterruptedException {
+        // Given
+        double initialLimit = limiter.limit();
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            limiter.acquire();
+            limiter.onSuccess(Duration.ofMillis(100).toNanos());
+        }
+
+        // Then
+        assertThat(limiter.limit()).isCloseTo(initialLimit + 1, within(0.1));
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should halve the window when GIOŚ throttles")
+    void shouldHalveWindowOnThrottle() throws InterruptedException {
+        // Given
+        limiter.acquire();
+
+        // When
+        limiter.onThrottled(null);
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("Should treat a response slower than the threshold as congestion")
+    void shouldShrinkWindowOnSlowResponse() throws InterruptedException {
+        // Given
+        limiter.acquire();
+
+        // When
+        limiter.onSuccess(LATENCY_THRESHOLD.plusMillis(1).toNanos());
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("Should count a burst of failures within the cooldown as one decrease")
+    void shouldDecreaseOncePerCooldown() throws InterruptedException {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+        }
+
+        // When
+        limiter.onDropped();
+        limiter.onDropped();
+        advance(GiosRequestLimiter.DECREASE_COOLDOWN);
+        limiter.onDropped();
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should never shrink the window below the minimum")
+    void shouldRespectMinimumWindow() throws InterruptedException {
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+            limiter.onDropped();
+            advance(GiosRequestLimiter.DECREASE_COOLDOWN);
+        }
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should leave the window untouched for client errors")
+    void shouldIgnoreClientErrors() throws InterruptedException {
+        // Given
+        limiter.acquire();
+
+        // When
+        limiter.onIgnored();
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(8.0);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should block once the window is full until a slot is released")
+    @SuppressWarnings("PMD.DoNotUseThreads") // A second caller has to wait on the full window
+    void shouldBlockWhenWindowIsFull() throws InterruptedException {
+        // Given
+        limiter = limiter(1000, 1000, 1);
+        limiter.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                limiter.acquire();
+                acquired.countDown();
+            } catch (InterruptedException _) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // When
+        boolean acquiredWhileFull = acquired.await(100, TimeUnit.MILLISECONDS);
+        limiter.onSuccess(0);
+
+        // Then
+        assertThat(acquiredWhileFull).isFalse();
+        assertThat(acquired.await(1, TimeUnit.SECONDS)).isTrue();
+        waiter.join();
+    }
+
+    @Test
+    @DisplayName("Should pace requests once the burst is spent")
+    void shouldPaceRequestsAfterBurst() throws InterruptedException {
+        // Given
+        limiter = limiter(20, 1, 8);
+        limiter.acquire();
+        limiter.onSuccess(0);
+
+        // When
+        long startedAt = System.nanoTime();
+        limiter.acquire();
+        long waitedNanos = System.nanoTime() - startedAt;
+
+        // Then
+        assertThat(waitedNanos).isGreaterThanOrEqualTo(Duration.ofMillis(40).toNanos());
+    }
+
+    @Test
+    @DisplayName("Should hold off new requests for the Retry-After period")
+    void shouldHonourRetryAfter() throws InterruptedException {
+        // Given
+        limiter.acquire();
+        limiter.onThrottled(Duration.ofSeconds(1));
+
+        // When
+        long startedAt = System.nanoTime();
+        limiter.acquire();
+        long waitedNanos = System.nanoTime() - startedAt;
+
+        // Then
+        assertThat(waitedNanos).isGreaterThanOrEqualTo(Duration.ofMillis(900).toNanos());
+    }
+}
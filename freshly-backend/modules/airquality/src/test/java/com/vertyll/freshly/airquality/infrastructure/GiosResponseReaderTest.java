@@ -0,0 +1,106 @@
+package com.vertyll.freshly.airquality.infrastructure;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.vertyll.freshly.airquality.infrastructure.GiosApiDtos.GiosDataValueDto;
+import com.vertyll.freshly.airquality.infrastructure.GiosApiDtos.GiosStationDto;
+
+import tools.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GiosResponseReaderTest {
+
+    private static final Set<String> STATION_KEYS = Set.of("Lista stacji pomiarowych", "data");
+    private static final Set<String> VALUE_KEYS = Set.of("Lista danych pomiarowych", "data");
+
+    private final GiosResponseReader reader = new GiosResponseReader(new ObjectMapper());
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should bind the list found under a nested key")
+    void shouldReadNestedList() {
+        // Given
+        InputStream body = json("""
+            {"links": {"self": "x"}, "page": {"Lista stacji pomiarowych": [
+              {"Identyfikator stacji": 1, "Nazwa stacji": "A"},
+              {"Identyfikator stacji": 2, "Nazwa stacji": "B"}
+            ]}, "totalPages": 1}
+            """);
+
+        // When
+        List<Integer> ids = reader.readList(body, GiosStationDto.class, STATION_KEYS, false, GiosStationDto::id);
+
+        // Then
+        assertThat(ids).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("Should use a top-level array when allowed")
+    void shouldReadRootArray() {
+        // Given
+        InputStream body = json("[{\"Identyfikator stacji\": 7}]");
+
+        // When
+        List<Integer> ids = reader.readList(body, GiosStationDto.class, STATION_KEYS, true, GiosStationDto::id);
+
+        // Then
+        assertThat(ids).containsExactly(7);
+    }
+
+    @Test
+    @DisplayName("Should skip properties that share a key name but are not arrays")
+    void shouldSkipNonArrayMatches() {
+        // Given
+        InputStream body = json("""
+            {"data": "2026-02-22", "Lista danych pomiarowych": [
+              {"Data": "2026-02-22 07:00:00", "Wartość": 25.5}
+            ]}
+            """);
+
+        // When
+        List<Double> values =
+                reader.readList(body, GiosDataValueDto.class, VALUE_KEYS, false, GiosDataValueDto::value);
+
+        // Then
+        assertThat(values).containsExactly(25.5);
+    }
+
+    @Test
+    @DisplayName("Should drop elements the mapper rejects")
+    void shouldDropUnmappedElements() {
+        // Given
+        InputStream body = json("""
+            {"Lista danych pomiarowych": [
+              {"Data": "2026-02-22 07:00:00", "Wartość": null},
+              {"Data": "2026-02-22 08:00:00", "Wartość": 12.0}
+            ]}
+            """);
+
+        // When
+        List<Double> values =
+                reader.readList(body, GiosDataValueDto.class, VALUE_KEYS, false, GiosDataValueDto::value);
+
+        // Then
+        assertThat(values).containsExactly(12.0);
+    }
+
+    @Test
+    @DisplayName("Should return an empty list when no known key is present or the body is empty")
+    void shouldReturnEmptyListWhenNothingMatches() {
+        // When & Then
+        assertThat(reader.readList(json("{\"other\": []}"), GiosStationDto.class, STATION_KEYS, true, d -> d))
+            .isEmpty();
+        assertThat(reader.readList(json(""), GiosStationDto.class, STATION_KEYS, true, d -> d)).isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MeasurementLocationBackfillTest extends MongoContainerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private MongoTemplate mongoTemplate;
+    private MeasurementLocationBackfill backfill;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        mongoTemplate = newMongoTemplate();
+        mongoTemplate.dropCollection(AirQualityMeasurementDocument.class);
+        mongoTemplate.dropCollection(StationDocument.class);
+        mongoTemplate.dropCollection(MeasurementLocationBackfill.COLLECTION_MIGRATIONS);
+        backfill = new MeasurementLocationBackfill(mongoTemplate, new ThreadPoolTaskScheduler());
+    }
+
+    private AirQualityMeasurementDocument insertMeasurement(int stationId, LocalDateTime at) {
+        AirQualityMeasurementDocument document = new AirQualityMeasurementDocument();
+        document.setStationId(stationId);
+        document.setMeasurementDate(at);
+        return mongoTemplate.insert(document);
+    }
+
+    @Test
+    @DisplayName("Should wait for the station catalog")
+    void shouldWaitForCatalog() {
+        // Given
+        insertMeasurement(1, NOW);
+
+        // When & Then
+        assertThat(backfill.backfill()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should set the station location on measurements lacking one and run only once")
+    void shouldBackfillOnce() {
+        // Given
+        mongoTemplate.insert(new StationDocument(1, "Warszawa", "Warszawa", "Marszałkowska", 52.23, 21.01));
+        AirQualityMeasurementDocument older = insertMeasurement(1, NOW.minusHours(1));
+        AirQualityMeasurementDocument orphan = insertMeasurement(2, NOW);
+
+        // When
+        boolean completed = backfill.backfill();
+
+        // Then
+        assertThat(completed).isTrue();
+        assertThat(mongoTemplate.findById(older.getId(), AirQualityMeasurementDocument.class))
+            .extracting(AirQualityMeasurementDocument::getLocation)
+            .isEqualTo(new GeoJsonPoint(21.01, 52.23));
+        assertThat(mongoTemplate.findById(orphan.getId(), AirQualityMeasurementDocument.class))
+            .extracting(AirQualityMeasurementDocument::getLocation)
+            .isNull();
+
+        // When - a measurement without location appearing later is left to the regular writes
+        AirQualityMeasurementDocument later = insertMeasurement(1, NOW);
+
+        // Then
+        assertThat(backfill.backfill()).isTrue();
+        assertThat(mongoTemplate.findById(later.getId(), AirQualityMeasurementDocument.class))
+            .extracting(AirQualityMeasurementDocument::getLocation)
+            .isNull();
+    }
+}
@@ -0,0 +1,306 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties;
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties.StorageMode;
+import com.vertyll.freshly.airquality.domain.AirQualityLevel;
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+import com.vertyll.freshly.airquality.domain.AirQualityStatistics;
+import com.vertyll.freshly.airquality.domain.StationRanking;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MeasurementRollupsTest extends MongoContainerTest {
+
+    private static final int STATION_ID = 1;
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final LocalDateTime FROM = TO.minusDays(30);
+    // Rollups sum in a different order than the raw aggregation
+    private static final Comparator<Double> CLOSE_ENOUGH = (a, b) -> Math.abs(a - b) < 1e-9 ? 0 : Double.compare(a, b);
+
+    private MongoTemplate mongoTemplate;
+    private MeasurementRollups rollups;
+    private MeasurementRollupBackfill backfill;
+    private MongoAirQualityHistoryRepository historyRepository;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        mongoTemplate = newMongoTemplate();
+        mongoTemplate.dropCollection(AirQualityMeasurementDocument.class);
+        mongoTemplate.dropCollection(AirQualityDailyRollupDocument.class);
+        mongoTemplate.dropCollection(MeasurementLocationBackfill.COLLECTION_MIGRATIONS);
+        new AirQualityMongoIndexInitializer(mongoTemplate).createIndexes();
+
+        MeasurementStorage storage = new MeasurementStorage(
+            mongoTemplate,
+            new AirQualityStorageProperties(StorageMode.STANDARD),
+            new MongoSyncLockRepository(mongoTemplate)
+        );
+        rollups = new MeasurementRollups(mongoTemplate, storage);
+        backfill = new MeasurementRollupBackfill(mongoTemplate, rollups, new ThreadPoolTaskScheduler());
+        historyRepository = new MongoAirQualityHistoryRepository(
+            new AirQualityMeasurementMapper(),
+            mongoTemplate,
+            rollups,
+            storage
+        );
+    }
+
+    /** Measurements at half past every hour, so windows bounded at full hours never cut through one */
+    private static List<AirQualityMeasurement> randomMeasurements(long seed) {
+        Random random = new Random(seed);
+        AirQualityLevel[] levels = AirQualityLevel.values();
+        List<AirQualityMeasurement> measurements = new ArrayList<>();
+        for (int stationId = STATION_ID; stationId < STATION_ID + 3; stationId++) {
+            LocalDateTime at = FROM.minusDays(2).plusMinutes(30);
+            for (; at.isBefore(TO.plusDays(2)); at = at.plusHours(1)) {
+                AirQualityMeasurement measurement = new AirQualityMeasurement();
+                measurement.setStationId(stationId);
+                measurement.setStationName("Station " + stationId);
+                measurement.setMeasurementDate(at);
+                measurement.setCreatedAt(at);
+                measurement.setOverallIndexLevel(random.nextInt(10) == 0 ? null : levels[random.nextInt(6)]);
+                measurement.setPm10IndexLevel(random.nextBoolean() ? null : levels[random.nextInt(6)]);
+                measurement.setPm10Value(randomValue(random, 0.1));
+                measurement.setPm25Value(randomValue(random, 0.1));
+                measurement.setSo2Value(randomValue(random, 0.3));
+                measurement.setNo2Value(randomValue(random, 0.3));
+                measurement.setCoValue(randomValue(random, 0.5));
+                measurement.setO3Value(random.nextBoolean() ? null : 0.0);
+                measurements.add(measurement);
+            }
+        }
+        return measurements;
+    }
+
+    private static Double randomValue(Random random, double nullRatio) {
+        return random.nextDouble() < nullRatio ? null : Math.round(random.nextDouble() * 1500) / 10.0;
+    }
+
+    private void upsertInBatches(List<AirQualityMeasurement> measurements, long seed) {
+        List<AirQualityMeasurement> shuffled = new ArrayList<>(measurements);
+        Collections.shuffle(shuffled, new Random(seed));
+        for (int start = 0; start < shuffled.size(); start += 100) {
+            historyRepository.upsertAll(shuffled.subList(start, Math.min(start + 100, shuffled.size())));
+        }
+    }
+
+    private List<AirQualityDailyRollupDocument> storedRollups() {
+        return mongoTemplate.find(new Query().with(Sort.by("id")), AirQualityDailyRollupDocument.class);
+    }
+
+    @Test
+    @DisplayName("Should maintain the same rollups on ingest as a rebuild from raw measurements")
+    void shouldMatchRebuildOnIngest() {
+        // Given
+        List<AirQualityMeasurement> measurements = randomMeasurements(42);
+        upsertInBatches(measurements, 1);
+        // Rewrites are not counted again
+        historyRepository.upsertAll(measurements.subList(0, 50));
+        List<AirQualityDailyRollupDocument> incremental = storedRollups();
+
+        // When
+        long written = rollups.rebuild(new Query());
+
+        // Then
+        assertThat(written).isEqualTo(incremental.size());
+        assertThat(incremental).usingRecursiveFieldByFieldElementComparator(
+            RecursiveComparisonConfiguration.builder()
+                .withComparatorForType(CLOSE_ENOUGH, Double.class)
+                .build()
+        ).isEqualTo(storedRollups());
+    }
+
+    @Test
+    @DisplayName("Should follow revised measurement values on ingest")
+    void shouldFollowRevisedValues() {
+        // Given
+        List<AirQualityMeasurement> measurements = randomMeasurements(7);
+        upsertInBatches(measurements, 1);
+        AirQualityMeasurement revised = measurements.get(100);
+        revised.setPm10Value(revised.getPm10Value() != null ? revised.getPm10Value() + 10 : 10.0);
+
+        // When
+        historyRepository.upsertAll(List.of(revised));
+
+        // Then
+        List<AirQualityDailyRollupDocument> ingested = storedRollups();
+        rollups.rebuild(new Query());
+        assertThat(ingested).usingRecursiveFieldByFieldElementComparator(
+            RecursiveComparisonConfiguration.builder()
+                .withComparatorForType(CLOSE_ENOUGH, Double.class)
+                .build()
+        ).isEqualTo(storedRollups());
+    }
+
+    @Test
+    @DisplayName("Should rebuild only the days of measurements created since a point in time")
+    void shouldRebuildDaysCreatedSince() {
+        // Given
+        upsertInBatches(randomMeasurements(3), 1);
+        mongoTemplate.dropCollection(AirQualityDailyRollupDocument.class);
+
+        // When
+        rollups.rebuildDaysCreatedSince(TO);
+
+        // Then
+        assertThat(storedRollups()).hasSize(6)
+            .allSatisfy(rollup -> assertThat(rollup.getDay()).isAfterOrEqualTo(TO));
+    }
+
+    @Test
+    @DisplayName("Should answer whole-day statistics from rollups like the raw aggregation")
+    void shouldMatchRawStatistics() {
+        // Given
+        upsertInBatches(randomMeasurements(7), 2);
+        AirQualityStatistics raw = historyRepository.calculateStatistics(STATION_ID, FROM, TO).orElseThrow();
+        AirQualityStatistics rawDay =
+                historyRepository.calculateStatistics(STATION_ID, FROM, FROM.plusDays(1)).orElseThrow();
+
+        // When
+        assertThat(backfill.backfill()).isTrue();
+
+        // Then
+        assertThat(rollups.covers(FROM, TO)).isTrue();
+        assertThat(rollups.covers(FROM.plusHours(1), TO)).isTrue();
+        assertThat(rollups.covers(FROM.plusHours(1), FROM.plusDays(1).plusHours(1))).isFalse();
+        assertThat(historyRepository.calculateStatistics(STATION_ID, FROM, TO).orElseThrow())
+            .usingRecursiveComparison()
+            .withComparatorForType(CLOSE_ENOUGH, Double.class)
+            .isEqualTo(raw);
+        assertThat(historyRepository.calculateStatistics(STATION_ID, FROM, FROM.plusDays(1)).orElseThrow())
+            .usingRecursiveComparison()
+            .withComparatorForType(CLOSE_ENOUGH, Double.class)
+            .isEqualTo(rawDay);
+        assertThat(historyRepository.calculateStatistics(99, FROM, TO)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rank stations from rollups in the order of the raw aggregation")
+    void shouldMatchRawRanking() {
+        // Given
+        upsertInBatches(randomMeasurements(11), 3);
+        List<StationRanking> raw = historyRepository.getRanking(FROM, TO, 10);
+
+        // When
+        backfill.backfill();
+        List<StationRanking> fromRollups = historyRepository.getRanking(FROM, TO, 10);
+
+        // Then
+        assertThat(fromRollups).hasSize(3);
+        assertThat(fromRollups).extracting(ranking -> ranking.station().id())
+            .containsExactlyElementsOf(raw.stream().map(ranking -> ranking.station().id()).toList());
+        assertThat(fromRollups).extracting(StationRanking::measurementCount)
+            .containsExactlyElementsOf(raw.stream().map(StationRanking::measurementCount).toList());
+        assertThat(fromRollups).extracting(StationRanking::averageScore)
+            .usingElementComparator(CLOSE_ENOUGH)
+            .containsExactlyElementsOf(raw.stream().map(StationRanking::averageScore).toList());
+        assertThat(fromRollups).extracting(StationRanking::dominantQualityLevel)
+            .doesNotContainNull()
+            .containsExactlyElementsOf(raw.stream().map(StationRanking::dominantQualityLevel).toList());
+    }
+
+    @Test
+    @DisplayName("Should read measurements on the window bounds and pick the dominant quality like the raw path")
+    void shouldMatchRawOnWindowBounds() {
+        // Given
+        List<AirQualityMeasurement> onTheHour = randomMeasurements(13);
+        onTheHour.forEach(measurement -> {
+            measurement.setMeasurementDate(measurement.getMeasurementDate().minusMinutes(30));
+            measurement.setCreatedAt(measurement.getMeasurementDate());
+        });
+        upsertInBatches(onTheHour, 5);
+        LocalDateTime from = FROM.plusHours(6);
+        List<AirQualityStatistics> rawStatistics = new ArrayList<>();
+        for (LocalDateTime to : List.of(TO, TO.plusHours(3))) {
+            rawStatistics.add(historyRepository.calculateStatistics(STATION_ID, from, to).orElseThrow());
+        }
+        List<StationRanking> rawRanking = historyRepository.getRanking(from, TO, 10);
+
+        // When
+        backfill.backfill();
+        List<AirQualityStatistics> statistics = new ArrayList<>();
+        for (LocalDateTime to : List.of(TO, TO.plusHours(3))) {
+            statistics.add(historyRepository.calculateStatistics(STATION_ID, from, to).orElseThrow());
+        }
+        List<StationRanking> ranking = historyRepository.getRanking(from, TO, 10);
+
+        // Then
+        assertThat(rollups.covers(from, TO)).isTrue();
+        assertThat(rawStatistics.getFirst().measurementCount()).isEqualTo(30 * 24 - 6);
+        assertThat(statistics).usingRecursiveFieldByFieldElementComparator(
+            RecursiveComparisonConfiguration.builder()
+                .withComparatorForType(CLOSE_ENOUGH, Double.class)
+                .build()
+        ).containsExactlyElementsOf(rawStatistics);
+        assertThat(ranking).extracting(entry -> entry.station().id())
+            .containsExactlyElementsOf(rawRanking.stream().map(entry -> entry.station().id()).toList());
+        assertThat(ranking).extracting(StationRanking::measurementCount)
+            .containsExactlyElementsOf(rawRanking.stream().map(StationRanking::measurementCount).toList());
+        assertThat(ranking).extracting(StationRanking::dominantQualityLevel)
+            .containsExactlyElementsOf(rawRanking.stream().map(StationRanking::dominantQualityLevel).toList());
+    }
+
+    @Test
+    @DisplayName("Should answer rolling windows from rollups and raw partial days like the raw aggregation")
+    void shouldMatchRawOverRollingWindow() {
+        // Given
+        upsertInBatches(randomMeasurements(5), 2);
+        LocalDateTime from = FROM.plusHours(7).plusMinutes(15);
+        LocalDateTime to = TO.minusHours(5).minusMinutes(45);
+        AirQualityStatistics rawStatistics = historyRepository.calculateStatistics(STATION_ID, from, to).orElseThrow();
+        List<StationRanking> rawRanking = historyRepository.getRanking(from, to, 10);
+
+        // When
+        backfill.backfill();
+        AirQualityStatistics statistics = historyRepository.calculateStatistics(STATION_ID, from, to).orElseThrow();
+        List<StationRanking> ranking = historyRepository.getRanking(from, to, 10);
+
+        // Then
+        assertThat(rollups.covers(from, to)).isTrue();
+        assertThat(statistics).usingRecursiveComparison()
+            .withComparatorForType(CLOSE_ENOUGH, Double.class)
+            .isEqualTo(rawStatistics);
+        assertThat(ranking).extracting(entry -> entry.station().id())
+            .containsExactlyElementsOf(rawRanking.stream().map(entry -> entry.station().id()).toList());
+        assertThat(ranking).extracting(StationRanking::measurementCount)
+            .containsExactlyElementsOf(rawRanking.stream().map(StationRanking::measurementCount).toList());
+        assertThat(ranking).extracting(StationRanking::averageScore)
+            .usingElementComparator(CLOSE_ENOUGH)
+            .containsExactlyElementsOf(rawRanking.stream().map(StationRanking::averageScore).toList());
+    }
+
+    @Test
+    @DisplayName("Should drop expired days and rebuild the day cut by the retention threshold")
+    void shouldFollowRetention() {
+        // Given
+        upsertInBatches(randomMeasurements(3), 4);
+
+        // When
+        historyRepository.deleteOlderThan(FROM.plusHours(12));
+
+        // Then
+        List<AirQualityDailyRollupDocument> stored = storedRollups();
+        assertThat(stored).extracting(AirQualityDailyRollupDocument::getDay).allMatch(day -> !day.isBefore(FROM));
+        assertThat(stored).filteredOn(rollup -> rollup.getDay().equals(FROM))
+            .hasSize(3)
+            .extracting(AirQualityDailyRollupDocument::getMeasurementCount)
+            .containsOnly(12);
+    }
+}
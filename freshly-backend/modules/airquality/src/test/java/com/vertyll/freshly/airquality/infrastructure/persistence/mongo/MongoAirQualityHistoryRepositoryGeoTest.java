@@ -0,0 +1,111 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties;
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties.StorageMode;
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MongoAirQualityHistoryRepositoryGeoTest extends MongoContainerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private MongoTemplate mongoTemplate;
+    private MongoAirQualityHistoryRepository historyRepository;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        mongoTemplate = newMongoTemplate();
+        mongoTemplate.dropCollection(AirQualityMeasurementDocument.class);
+        new AirQualityMongoIndexInitializer(mongoTemplate).createIndexes();
+
+        MeasurementStorage storage = new MeasurementStorage(
+            mongoTemplate,
+            new AirQualityStorageProperties(StorageMode.STANDARD),
+            new MongoSyncLockRepository(mongoTemplate)
+        );
+        historyRepository = new MongoAirQualityHistoryRepository(
+            new AirQualityMeasurementMapper(),
+            mongoTemplate,
+            new MeasurementRollups(mongoTemplate, storage),
+            storage
+        );
+    }
+
+    private static AirQualityMeasurement measurement(
+            int stationId,
+            Double latitude,
+            Double longitude,
+            LocalDateTime at
+    ) {
+        AirQualityMeasurement measurement = new AirQualityMeasurement();
+        measurement.setStationId(stationId);
+        measurement.setStationName("Station " + stationId);
+        measurement.setLatitude(latitude);
+        measurement.setLongitude(longitude);
+        measurement.setMeasurementDate(at);
+        measurement.setCreatedAt(at);
+        return measurement;
+    }
+
+    @Test
+    @DisplayName("Should create the compound 2dsphere index")
+    void shouldCreateGeoIndex() {
+        // When
+        List<IndexInfo> indexes = mongoTemplate.indexOps(AirQualityMeasurementDocument.class).getIndexInfo();
+
+        // Then
+        assertThat(indexes).extracting(IndexInfo::getName).contains("location_date_idx");
+    }
+
+    @Test
+    @DisplayName("Should find measurements inside the box and time window, newest first")
+    void shouldFindMeasurementsInBounds() {
+        // Given
+        historyRepository.upsertAll(
+            List.of(
+                measurement(1, 52.23, 21.01, NOW.minusHours(2)),
+                measurement(1, 52.23, 21.01, NOW.minusHours(1)),
+                measurement(1, 52.23, 21.01, NOW.minusDays(3)),
+                measurement(2, 50.06, 19.94, NOW.minusHours(1)),
+                measurement(3, null, null, NOW.minusHours(1))
+            )
+        );
+
+        // When
+        List<AirQualityMeasurement> result =
+                historyRepository.findByGeoBounds(51.5, 53.0, 20.0, 22.0, NOW.minusDays(1), NOW);
+
+        // Then
+        assertThat(result).extracting(AirQualityMeasurement::getMeasurementDate)
+            .containsExactly(NOW.minusHours(1), NOW.minusHours(2));
+        assertThat(result).allSatisfy(m -> {
+            assertThat(m.getStationId()).isEqualTo(1);
+            assertThat(m.getLatitude()).isEqualTo(52.23);
+            assertThat(m.getLongitude()).isEqualTo(21.01);
+        });
+    }
+
+    @Test
+    @DisplayName("Should follow the parallels on wide boxes")
+    void shouldFollowParallelsOnWideBoxes() {
+        // Given - just inside the southern edge, halfway across; an undivided edge would bulge north past it
+        historyRepository.upsertAll(List.of(measurement(1, 49.05, 19.0, NOW)));
+
+        // When
+        List<AirQualityMeasurement> result = historyRepository.findByGeoBounds(49.0, 55.0, 14.0, 24.0, NOW, NOW);
+
+        // Then
+        assertThat(result).hasSize(1);
+    }
+}
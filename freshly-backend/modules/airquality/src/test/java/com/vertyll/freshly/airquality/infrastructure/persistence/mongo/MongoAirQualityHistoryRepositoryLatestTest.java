@@ -0,0 +1,96 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties;
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties.StorageMode;
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MongoAirQualityHistoryRepositoryLatestTest extends MongoContainerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    private MongoAirQualityHistoryRepository historyRepository;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        MongoTemplate mongoTemplate = newMongoTemplate();
+        mongoTemplate.dropCollection(AirQualityMeasurementDocument.class);
+        new AirQualityMongoIndexInitializer(mongoTemplate).createIndexes();
+
+        MeasurementStorage storage = new MeasurementStorage(
+            mongoTemplate,
+            new AirQualityStorageProperties(StorageMode.STANDARD),
+            new MongoSyncLockRepository(mongoTemplate)
+        );
+        historyRepository = new MongoAirQualityHistoryRepository(
+            new AirQualityMeasurementMapper(),
+            mongoTemplate,
+            new MeasurementRollups(mongoTemplate, storage),
+            storage
+        );
+    }
+
+    /** Station N last reported N hours after FROM */
+    private void storeMeasurements() {
+        List<AirQualityMeasurement> measurements = new ArrayList<>();
+        for (int stationId = 1; stationId <= 5; stationId++) {
+            for (int hour = 0; hour <= stationId; hour++) {
+                AirQualityMeasurement measurement = new AirQualityMeasurement();
+                measurement.setStationId(stationId);
+                measurement.setStationName("Station " + stationId);
+                measurement.setMeasurementDate(FROM.plusHours(hour));
+                measurement.setCreatedAt(FROM.plusHours(hour));
+                measurement.setPm10Value((double) hour);
+                measurements.add(measurement);
+            }
+        }
+        historyRepository.upsertAll(measurements);
+    }
+
+    @Test
+    @DisplayName("Should find the latest measurement of every station in one query")
+    void shouldFindLatestMeasurementOfEveryStation() {
+        // Given
+        storeMeasurements();
+
+        // When
+        List<AirQualityMeasurement> latest = historyRepository.findLatestMeasurements();
+
+        // Then
+        assertThat(latest).hasSize(5).allSatisfy(measurement -> {
+            assertThat(measurement.getMeasurementDate()).isEqualTo(FROM.plusHours(measurement.getStationId()));
+            assertThat(measurement.getPm10Value()).isEqualTo((double) measurement.getStationId());
+            assertThat(measurement.getStationName()).isEqualTo("Station " + measurement.getStationId());
+            assertThat(measurement.getId()).isNotNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Should find the latest measurement of only the given stations")
+    void shouldFindLatestMeasurementOfGivenStations() {
+        // Given
+        storeMeasurements();
+
+        // When
+        List<AirQualityMeasurement> latest = historyRepository.findLatestMeasurements(List.of(2, 4, 9));
+
+        // Then
+        assertThat(latest).extracting(AirQualityMeasurement::getStationId).containsExactlyInAnyOrder(2, 4);
+        assertThat(latest).allSatisfy(
+            measurement -> assertThat(measurement.getMeasurementDate())
+                .isEqualTo(FROM.plusHours(measurement.getStationId()))
+        );
+        assertThat(historyRepository.findLatestMeasurements(List.of())).isEmpty();
+    }
+}
@@ -0,0 +1,148 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties;
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties.StorageMode;
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+import com.vertyll.freshly.airquality.domain.MeasurementCursor;
+import com.vertyll.freshly.airquality.domain.MeasurementPage;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MongoAirQualityHistoryRepositoryPagingTest extends MongoContainerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusHours(48);
+    private static final int STATIONS = 7;
+    private static final int HOURS = 50;
+
+    private MongoAirQualityHistoryRepository historyRepository;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        MongoTemplate mongoTemplate = newMongoTemplate();
+        mongoTemplate.dropCollection(AirQualityMeasurementDocument.class);
+        new AirQualityMongoIndexInitializer(mongoTemplate).createIndexes();
+
+        MeasurementStorage storage = new MeasurementStorage(
+            mongoTemplate,
+            new AirQualityStorageProperties(StorageMode.STANDARD),
+            new MongoSyncLockRepository(mongoTemplate)
+        );
+        historyRepository = new MongoAirQualityHistoryRepository(
+            new AirQualityMeasurementMapper(),
+            mongoTemplate,
+            new MeasurementRollups(mongoTemplate, storage),
+            storage
+        );
+
+        // Every station reports every hour, so a date is shared by many measurements
+        List<AirQualityMeasurement> measurements = new ArrayList<>();
+        for (int hour = 0; hour < HOURS; hour++) {
+            for (int stationId = 1; stationId <= STATIONS; stationId++) {
+                AirQualityMeasurement measurement = new AirQualityMeasurement();
+                measurement.setStationId(stationId);
+                measurement.setStationName("Station " + stationId);
+                measurement.setMeasurementDate(FROM.plusHours(hour));
+                measurement.setCreatedAt(FROM.plusHours(hour));
+                measurement.setPm10Value(10.0 + stationId);
+                measurements.add(measurement);
+            }
+        }
+        historyRepository.upsertAll(measurements);
+    }
+
+    private List<MeasurementPage> allPages(@Nullable Integer stationId, int size) {
+        List<MeasurementPage> pages = new ArrayList<>();
+        MeasurementCursor after = null;
+        do {
+            MeasurementPage page = stationId != null
+                    ? historyRepository.findPageByStationIdAndDateRange(stationId, FROM, TO, after, size)
+                    : historyRepository.findPageByDateRange(FROM, TO, after, size);
+            pages.add(page);
+            after = page.next();
+        } while (after != null);
+        return pages;
+    }
+
+    private static List<AirQualityMeasurement> contents(List<MeasurementPage> pages) {
+        return pages.stream().flatMap(page -> page.measurements().stream()).toList();
+    }
+
+    @Test
+    @DisplayName("Should page through the range newest first, by date and then id, without gaps or repeats")
+    void shouldPageThroughRange() {
+        // Given - pages of 9 end in the middle of the 7 measurements of a date
+        List<AirQualityMeasurement> expected = historyRepository.findByDateRange(FROM.minusSeconds(1), TO)
+            .stream()
+            .sorted(
+                Comparator.comparing(AirQualityMeasurement::getMeasurementDate)
+                    .thenComparing(AirQualityMeasurement::getId)
+                    .reversed()
+            )
+            .toList();
+
+        // When
+        List<MeasurementPage> pages = allPages(null, 9);
+
+        // Then
+        assertThat(expected).hasSize(48 * STATIONS);
+        assertThat(contents(pages)).extracting(AirQualityMeasurement::getId)
+            .containsExactlyElementsOf(expected.stream().map(AirQualityMeasurement::getId).toList());
+        assertThat(pages).hasSize(Math.ceilDiv(48 * STATIONS, 9));
+        assertThat(pages.getLast().isLast()).isTrue();
+        assertThat(pages.subList(0, pages.size() - 1)).allSatisfy(page -> {
+            assertThat(page.measurements()).hasSize(9);
+            assertThat(page.isLast()).isFalse();
+        });
+    }
+
+    @Test
+    @DisplayName("Should page through a station's measurements within the range")
+    void shouldPageThroughStation() {
+        // When
+        List<MeasurementPage> pages = allPages(3, 10);
+
+        // Then
+        assertThat(pages).hasSize(5);
+        assertThat(contents(pages)).hasSize(48)
+            .allSatisfy(measurement -> assertThat(measurement.getStationId()).isEqualTo(3))
+            .extracting(AirQualityMeasurement::getMeasurementDate)
+            .isSortedAccordingTo(Comparator.reverseOrder())
+            .first()
+            .isEqualTo(TO.minusHours(1));
+    }
+
+    @Test
+    @DisplayName("Should return a single last page when everything fits")
+    void shouldReturnSingleLastPage() {
+        // When
+        MeasurementPage page = historyRepository.findPageByDateRange(FROM, FROM.plusHours(2), null, 100);
+
+        // Then
+        assertThat(page.measurements()).hasSize(2 * STATIONS);
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should mark a page ending exactly with the range as the last one")
+    void shouldMarkExactPageLast() {
+        // When
+        MeasurementPage first = historyRepository.findPageByDateRange(FROM, FROM.plusHours(1), null, STATIONS);
+
+        // Then
+        assertThat(first.measurements()).hasSize(STATIONS);
+        assertThat(first.isLast()).isTrue();
+    }
+}
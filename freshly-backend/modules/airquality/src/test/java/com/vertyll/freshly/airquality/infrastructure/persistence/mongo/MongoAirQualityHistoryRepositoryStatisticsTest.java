@@ -0,0 +1,248 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties;
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties.StorageMode;
+import com.vertyll.freshly.airquality.domain.AirQualityLevel;
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+import com.vertyll.freshly.airquality.domain.AirQualityStatistics;
+import com.vertyll.freshly.airquality.domain.DownsamplingMethod;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MongoAirQualityHistoryRepositoryStatisticsTest extends MongoContainerTest {
+
+    private static final int STATION_ID = 1;
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final LocalDateTime FROM = TO.minusDays(30);
+    // MongoDB and DoubleSummaryStatistics sum in a different order
+    private static final Comparator<Double> CLOSE_ENOUGH = (a, b) -> Math.abs(a - b) < 1e-9 ? 0 : Double.compare(a, b);
+
+    private MongoTemplate mongoTemplate;
+    private MongoAirQualityHistoryRepository historyRepository;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        mongoTemplate = newMongoTemplate();
+        mongoTemplate.dropCollection(AirQualityMeasurementDocument.class);
+        MeasurementStorage storage = new MeasurementStorage(
+            mongoTemplate,
+            new AirQualityStorageProperties(StorageMode.STANDARD),
+            new MongoSyncLockRepository(mongoTemplate)
+        );
+        historyRepository = new MongoAirQualityHistoryRepository(
+            new AirQualityMeasurementMapper(),
+            mongoTemplate,
+            new MeasurementRollups(mongoTemplate, storage),
+            storage
+        );
+    }
+
+    /** Hourly documents with gaps in every field, around and inside the range, for two stations */
+    private void insertRandomMeasurements(long seed) {
+        Random random = new Random(seed);
+        AirQualityLevel[] levels = AirQualityLevel.values();
+        List<AirQualityMeasurementDocument> documents = new ArrayList<>();
+        for (int stationId : new int[] {STATION_ID, STATION_ID + 1}) {
+            for (LocalDateTime at = FROM.minusDays(2); at.isBefore(TO.plusDays(2)); at = at.plusHours(1)) {
+                AirQualityMeasurementDocument document = new AirQualityMeasurementDocument();
+                document.setStationId(stationId);
+                document.setStationName("Station " + stationId + " @ " + at);
+                document.setMeasurementDate(at);
+                document.setOverallIndexLevel(random.nextInt(10) == 0 ? null : levels[random.nextInt(levels.length)]);
+                document.setPm10Value(randomValue(random, 0.1));
+                document.setPm25Value(randomValue(random, 0.1));
+                document.setSo2Value(randomValue(random, 0.3));
+                document.setNo2Value(randomValue(random, 0.3));
+                document.setCoValue(randomValue(random, 0.5));
+                document.setO3Value(random.nextBoolean() ? null : 0.0);
+                documents.add(document);
+            }
+        }
+        mongoTemplate.insertAll(documents);
+    }
+
+    private static Double randomValue(Random random, double nullRatio) {
+        return random.nextDouble() < nullRatio ? null : Math.round(random.nextDouble() * 1500) / 10.0;
+    }
+
+    /** The statistics as they were computed in the JVM before the aggregation */
+    private Optional<AirQualityStatistics> computeInMemory(int stationId, LocalDateTime from, LocalDateTime to) {
+        List<AirQualityMeasurementDocument> measurements = mongoTemplate.find(
+            Query.query(Criteria.where("stationId").is(stationId).and("measurementDate").gte(from).lt(to))
+                .with(Sort.by("measurementDate")),
+            AirQualityMeasurementDocument.class
+        );
+        if (measurements.isEmpty()) {
+            return Optional.empty();
+        }
+
+        DoubleSummaryStatistics pm10 = summary(measurements, AirQualityMeasurementDocument::getPm10Value);
+        DoubleSummaryStatistics pm25 = summary(measurements, AirQualityMeasurementDocument::getPm25Value);
+        double so2Avg = summary(measurements, AirQualityMeasurementDocument::getSo2Value).getAverage();
+        double no2Avg = summary(measurements, AirQualityMeasurementDocument::getNo2Value).getAverage();
+        double coAvg = summary(measurements, AirQualityMeasurementDocument::getCoValue).getAverage();
+        double o3Avg = summary(measurements, AirQualityMeasurementDocument::getO3Value).getAverage();
+        Map<AirQualityLevel, Long> levels = measurements.stream()
+            .map(AirQualityMeasurementDocument::getOverallIndexLevel)
+            .filter(Objects::nonNull)
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+        return Optional.of(
+            new AirQualityStatistics(
+                stationId,
+                measurements.getFirst().getStationName(),
+                from,
+                to,
+                measurements.size(),
+                pm10.getCount() > 0 ? pm10.getAverage() : null,
+                pm10.getCount() > 0 ? pm10.getMin() : null,
+                pm10.getCount() > 0 ? pm10.getMax() : null,
+                pm25.getCount() > 0 ? pm25.getAverage() : null,
+                pm25.getCount() > 0 ? pm25.getMin() : null,
+                pm25.getCount() > 0 ? pm25.getMax() : null,
+                so2Avg > 0 ? so2Avg : null,
+                no2Avg > 0 ? no2Avg : null,
+                coAvg > 0 ? coAvg : null,
+                o3Avg > 0 ? o3Avg : null,
+                levels.getOrDefault(AirQualityLevel.VERY_GOOD, 0L).intValue(),
+                levels.getOrDefault(AirQualityLevel.GOOD, 0L).intValue(),
+                levels.getOrDefault(AirQualityLevel.MODERATE, 0L).intValue(),
+                levels.getOrDefault(AirQualityLevel.SUFFICIENT, 0L).intValue(),
+                levels.getOrDefault(AirQualityLevel.BAD, 0L).intValue(),
+                levels.getOrDefault(AirQualityLevel.VERY_BAD, 0L).intValue()
+            )
+        );
+    }
+
+    private static DoubleSummaryStatistics summary(
+            List<AirQualityMeasurementDocument> measurements,
+            Function<AirQualityMeasurementDocument, Double> field
+    ) {
+        return measurements.stream()
+            .map(field)
+            .filter(Objects::nonNull)
+            .mapToDouble(Double::doubleValue)
+            .summaryStatistics();
+    }
+
+    private static void assertEquivalent(
+            Optional<AirQualityStatistics> actual,
+            Optional<AirQualityStatistics> expected
+    ) {
+        assertThat(actual).isPresent();
+        assertThat(actual.get()).usingRecursiveComparison()
+            .withComparatorForType(CLOSE_ENOUGH, Double.class)
+            .isEqualTo(expected.orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should compute the same statistics as the in-memory computation")
+    void shouldMatchInMemoryComputation() {
+        // Given
+        insertRandomMeasurements(42);
+
+        // When & Then
+        assertEquivalent(
+            historyRepository.calculateStatistics(STATION_ID, FROM, TO),
+            computeInMemory(STATION_ID, FROM, TO)
+        );
+        assertEquivalent(
+            historyRepository.calculateStatistics(STATION_ID, FROM, FROM.plusDays(1)),
+            computeInMemory(STATION_ID, FROM, FROM.plusDays(1))
+        );
+    }
+
+    @Test
+    @DisplayName("Should report missing pollutants as null")
+    void shouldReportMissingPollutantsAsNull() {
+        // Given
+        AirQualityMeasurementDocument document = new AirQualityMeasurementDocument();
+        document.setStationId(STATION_ID);
+        document.setStationName("Station");
+        document.setMeasurementDate(FROM.plusHours(1));
+        document.setPm10Value(20.0);
+        mongoTemplate.insert(document);
+
+        // When
+        AirQualityStatistics statistics = historyRepository.calculateStatistics(STATION_ID, FROM, TO).orElseThrow();
+
+        // Then
+        assertThat(statistics.measurementCount()).isEqualTo(1);
+        assertThat(statistics.pm10Avg()).isEqualTo(20.0);
+        assertThat(statistics.pm25Avg()).isNull();
+        assertThat(statistics.so2Avg()).isNull();
+        assertThat(statistics.goodCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should return empty without measurements in the range")
+    void shouldReturnEmptyWithoutMeasurements() {
+        // Given
+        insertRandomMeasurements(7);
+
+        // When & Then
+        assertThat(historyRepository.calculateStatistics(STATION_ID, TO.plusDays(5), TO.plusDays(6))).isEmpty();
+        assertThat(historyRepository.calculateStatistics(99, FROM, TO)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should aggregate the history per time bucket like the in-memory computation")
+    void shouldMatchInMemoryBuckets() {
+        // Given
+        insertRandomMeasurements(11);
+        int bucketHours = 6;
+
+        // When
+        List<AirQualityMeasurement> averages = historyRepository
+            .findBucketedByStationIdAndDateRange(STATION_ID, FROM, TO, bucketHours, DownsamplingMethod.AVERAGE);
+        List<AirQualityMeasurement> maxima = historyRepository
+            .findBucketedByStationIdAndDateRange(STATION_ID, FROM, TO, bucketHours, DownsamplingMethod.MAX);
+
+        // Then
+        assertThat(averages).hasSizeBetween(30 * 24 / bucketHours, 30 * 24 / bucketHours + 1)
+            .extracting(AirQualityMeasurement::getMeasurementDate)
+            .isSorted();
+        for (int i = 0; i < averages.size(); i++) {
+            LocalDateTime bucketStart = averages.get(i).getMeasurementDate();
+            LocalDateTime bucketEnd = bucketStart.plusHours(bucketHours);
+            // The query bounds are exclusive, buckets include their start
+            LocalDateTime from = bucketStart.isAfter(FROM) ? bucketStart.minusNanos(1) : FROM;
+            LocalDateTime to = bucketEnd.isBefore(TO) ? bucketEnd : TO;
+            DoubleSummaryStatistics pm10 = summary(
+                mongoTemplate.find(
+                    Query.query(
+                        Criteria.where("stationId").is(STATION_ID).and("measurementDate").gt(from).lt(to)
+                    ),
+                    AirQualityMeasurementDocument.class
+                ),
+                AirQualityMeasurementDocument::getPm10Value
+            );
+
+            assertThat(averages.get(i).getStationId()).isEqualTo(STATION_ID);
+            assertThat(averages.get(i).getPm10Value()).usingComparator(CLOSE_ENOUGH).isEqualTo(pm10.getAverage());
+            assertThat(maxima.get(i).getMeasurementDate()).isEqualTo(bucketStart);
+            assertThat(maxima.get(i).getPm10Value()).isEqualTo(pm10.getMax());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Base of the tests that run against a real MongoDB. The container is started once, by the first of
+ * these tests to run, and shared by all of them until the JVM exits; every test drops the collections
+ * it uses before it starts. Tests are skipped when there is no Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+abstract class MongoContainerTest {
+
+    private static final String DATABASE = "freshly_test";
+
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:8");
+    private static final MongoClient MONGO_CLIENT;
+
+    static {
+        MONGO.start();
+        MONGO_CLIENT = MongoClients.create(MONGO.getConnectionString());
+    }
+
+    protected static MongoTemplate newMongoTemplate() {
+        return new MongoTemplate(MONGO_CLIENT, DATABASE);
+    }
+}
@@ -0,0 +1,68 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.vertyll.freshly.airquality.domain.Station;
+import com.vertyll.freshly.airquality.domain.StationCatalogSnapshot;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MongoStationCatalogRepositoryTest extends MongoContainerTest {
+
+    private static final Station WARSAW = new Station(1, "Warszawa", "Warszawa", "Marszałkowska", 52.23, 21.01);
+    private static final Station KRAKOW = new Station(2, "Kraków", "Kraków", "Floriańska", 50.06, 19.94);
+
+    private MongoStationCatalogRepository catalogRepository;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        MongoTemplate mongoTemplate = newMongoTemplate();
+        mongoTemplate.dropCollection(StationDocument.class);
+        mongoTemplate.dropCollection(StationCatalogDocument.class);
+        catalogRepository = new MongoStationCatalogRepository(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should report generation 0 and no stations for a catalog never written")
+    void shouldLoadEmptyCatalog() {
+        // When
+        StationCatalogSnapshot snapshot = catalogRepository.load();
+
+        // Then
+        assertThat(snapshot.generation()).isZero();
+        assertThat(snapshot.stations()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should bump the generation on every write")
+    void shouldBumpGeneration() {
+        // When
+        long first = catalogRepository.replaceAll(List.of(WARSAW));
+        long second = catalogRepository.replaceAll(List.of(WARSAW, KRAKOW));
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(2);
+        assertThat(catalogRepository.findGeneration()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should replace the stored stations, removing those missing from the new list")
+    void shouldReplaceStations() {
+        // Given
+        Station renamed = new Station(2, "Kraków - Aleje", "Kraków", "Aleje", 50.06, 19.92);
+        catalogRepository.replaceAll(List.of(WARSAW, KRAKOW));
+
+        // When
+        catalogRepository.replaceAll(List.of(renamed));
+
+        // Then
+        assertThat(catalogRepository.load().stations()).containsExactly(renamed);
+    }
+}
@@ -0,0 +1,168 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import com.vertyll.freshly.airquality.domain.SyncLease;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MongoSyncLockRepositoryTest extends MongoContainerTest {
+
+    private static final String LOCK_NAME = "airquality-sync";
+    private static final Duration TTL = Duration.ofMinutes(2);
+
+    private MongoTemplate mongoTemplate;
+    private MongoSyncLockRepository lockRepository;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        mongoTemplate = newMongoTemplate();
+        mongoTemplate.dropCollection(SyncLockDocument.class);
+        lockRepository = new MongoSyncLockRepository(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should acquire a free lock")
+    void shouldAcquireFreeLock() {
+        // When
+        Optional<SyncLease> lease = lockRepository.tryAcquire(LOCK_NAME, "node-a", TTL);
+
+        // Then
+        assertThat(lease).hasValueSatisfying(acquired -> {
+            assertThat(acquired.holderId()).isEqualTo("node-a");
+            assertThat(acquired.fencingToken()).isEqualTo(1);
+            assertThat(acquired.expiresAt()).isAfter(Instant.now());
+        });
+    }
+
+    @Test
+    @DisplayName("Should refuse a lock held by another node")
+    void shouldRefuseLockHeldByAnotherNode() {
+        // Given
+        lockRepository.tryAcquire(LOCK_NAME, "node-a", TTL);
+
+        // When
+        Optional<SyncLease> lease = lockRepository.tryAcquire(LOCK_NAME, "node-b", TTL);
+
+        // Then
+        assertThat(lease).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should take over an expired lock with a higher fencing token")
+    void shouldTakeOverExpiredLock() {
+        // Given
+        SyncLease expired = lockRepository.tryAcquire(LOCK_NAME, "node-a", Duration.ZERO).orElseThrow();
+
+        // When
+        Optional<SyncLease> lease = lockRepository.tryAcquire(LOCK_NAME, "node-b", TTL);
+
+        // Then
+        assertThat(lease).hasValueSatisfying(acquired -> {
+            assertThat(acquired.holderId()).isEqualTo("node-b");
+            assertThat(acquired.fencingToken()).isGreaterThan(expired.fencingToken());
+        });
+    }
+
+    @Test
+    @DisplayName("Should renew a held lease and refuse renewal after takeover")
+    void shouldRenewOnlyWhileHeld() {
+        // Given
+        SyncLease lease = lockRepository.tryAcquire(LOCK_NAME, "node-a", Duration.ZERO).orElseThrow();
+        lockRepository.tryAcquire(LOCK_NAME, "node-b", TTL);
+
+        // When
+        Optional<SyncLease> renewed = lockRepository.renew(lease, TTL);
+
+        // Then
+        assertThat(renewed).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should extend the expiry of a renewed lease")
+    void shouldExtendRenewedLease() {
+        // Given
+        SyncLease lease = lockRepository.tryAcquire(LOCK_NAME, "node-a", Duration.ofSeconds(10)).orElseThrow();
+
+        // When
+        Optional<SyncLease> renewed = lockRepository.renew(lease, TTL);
+
+        // Then
+        assertThat(renewed).hasValueSatisfying(extended -> {
+            assertThat(extended.fencingToken()).isEqualTo(lease.fencingToken());
+            assertThat(extended.expiresAt()).isAfter(lease.expiresAt());
+        });
+    }
+
+    @Test
+    @DisplayName("Should confirm only the lease currently holding the lock")
+    void shouldConfirmOnlyCurrentLease() {
+        // Given
+        SyncLease stale = lockRepository.tryAcquire(LOCK_NAME, "node-a", Duration.ZERO).orElseThrow();
+        SyncLease current = lockRepository.tryAcquire(LOCK_NAME, "node-b", TTL).orElseThrow();
+
+        // When
+        boolean staleConfirmed = lockRepository.confirm(stale);
+        boolean currentConfirmed = lockRepository.confirm(current);
+
+        // Then
+        assertThat(staleConfirmed).isFalse();
+        assertThat(currentConfirmed).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not confirm an expired lease nobody has taken over yet")
+    void shouldNotConfirmExpiredLease() {
+        // Given
+        SyncLease expired = lockRepository.tryAcquire(LOCK_NAME, "node-a", Duration.ZERO).orElseThrow();
+
+        // When
+        boolean confirmed = lockRepository.confirm(expired);
+
+        // Then
+        assertThat(confirmed).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should let another node acquire a released lock and keep the fencing token growing")
+    void shouldAcquireReleasedLock() {
+        // Given
+        SyncLease lease = lockRepository.tryAcquire(LOCK_NAME, "node-a", TTL).orElseThrow();
+        lockRepository.release(lease);
+
+        // When
+        Optional<SyncLease> next = lockRepository.tryAcquire(LOCK_NAME, "node-b", TTL);
+
+        // Then
+        assertThat(next).hasValueSatisfying(acquired -> assertThat(acquired.fencingToken()).isEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("Should drop the TTL index that deleted released locks and reset their fencing token")
+    void shouldDropLockTtlIndex() {
+        // Given
+        mongoTemplate.indexOps(SyncLockDocument.class)
+            .createIndex(
+                new Index("expiresAt", Sort.Direction.ASC).named("expires_at_ttl_idx").expire(Duration.ofDays(1))
+            );
+
+        // When
+        new AirQualityMongoIndexInitializer(mongoTemplate).createIndexes();
+
+        // Then
+        assertThat(mongoTemplate.indexOps(SyncLockDocument.class).getIndexInfo())
+            .extracting(IndexInfo::getName)
+            .doesNotContain("expires_at_ttl_idx");
+    }
+}
@@ -0,0 +1,114 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.vertyll.freshly.airquality.domain.StationSyncStatus;
+import com.vertyll.freshly.airquality.domain.SyncRunCheckpoint;
+import com.vertyll.freshly.airquality.domain.SyncRunStatus;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MongoSyncRunRepositoryTest extends MongoContainerTest {
+
+    private static final Instant WINDOW_START = Instant.now().truncatedTo(ChronoUnit.HOURS);
+
+    private MongoSyncRunRepository runRepository;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        MongoTemplate mongoTemplate = newMongoTemplate();
+        mongoTemplate.dropCollection(SyncRunDocument.class);
+        runRepository = new MongoSyncRunRepository(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should register all stations as pending when starting a run")
+    void shouldRegisterStationsAsPending() {
+        // When
+        SyncRunCheckpoint checkpoint = runRepository.start("job-1", WINDOW_START, "node-a", List.of(1, 2));
+
+        // Then
+        assertThat(checkpoint.status()).isEqualTo(SyncRunStatus.RUNNING);
+        assertThat(checkpoint.nodeId()).isEqualTo("node-a");
+        assertThat(checkpoint.stations())
+            .containsExactlyInAnyOrderEntriesOf(Map.of(1, StationSyncStatus.PENDING, 2, StationSyncStatus.PENDING));
+    }
+
+    @Test
+    @DisplayName("Should keep the runs of several jobs in the same window apart")
+    void shouldKeepRunsOfJobsApart() {
+        // Given
+        runRepository.start("job-1", WINDOW_START, "node-a", List.of(1));
+        runRepository.start("job-2", WINDOW_START, "node-a", List.of(1));
+
+        // When
+        runRepository.markStations("job-1", "node-a", Map.of(1, StationSyncStatus.DONE));
+        runRepository.finish("job-1", "node-a", SyncRunStatus.COMPLETED);
+
+        // Then
+        assertThat(runRepository.findRunning(WINDOW_START)).singleElement().satisfies(run -> {
+            assertThat(run.runId()).isEqualTo("job-2");
+            assertThat(run.isSettled(1)).isFalse();
+        });
+    }
+
+    @Test
+    @DisplayName("Should keep station progress when taking over a run")
+    void shouldKeepStationProgressOnTakeOver() {
+        // Given
+        runRepository.start("job-1", WINDOW_START, "node-a", List.of(1, 2));
+        runRepository.markStations("job-1", "node-a", Map.of(1, StationSyncStatus.DONE, 2, StationSyncStatus.FAILED));
+
+        // When
+        Optional<SyncRunCheckpoint> takenOver = runRepository.takeOver("job-1", "node-a", "node-b");
+
+        // Then
+        assertThat(takenOver).hasValueSatisfying(run -> {
+            assertThat(run.nodeId()).isEqualTo("node-b");
+            assertThat(run.isSettled(1)).isTrue();
+            assertThat(run.isSettled(2)).isFalse();
+        });
+    }
+
+    @Test
+    @DisplayName("Should let only one node take over a run")
+    void shouldLetOnlyOneNodeTakeOverRun() {
+        // Given
+        runRepository.start("job-1", WINDOW_START, "node-a", List.of(1));
+        runRepository.takeOver("job-1", "node-a", "node-b");
+
+        // When
+        Optional<SyncRunCheckpoint> secondTakeOver = runRepository.takeOver("job-1", "node-a", "node-c");
+
+        // Then
+        assertThat(secondTakeOver).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore updates from a node that no longer keeps the run")
+    void shouldIgnoreUpdatesFromPreviousNode() {
+        // Given
+        runRepository.start("job-1", WINDOW_START, "node-a", List.of(1));
+        runRepository.takeOver("job-1", "node-a", "node-b");
+
+        // When
+        runRepository.markStations("job-1", "node-a", Map.of(1, StationSyncStatus.DONE));
+        runRepository.finish("job-1", "node-a", SyncRunStatus.COMPLETED);
+
+        // Then
+        assertThat(runRepository.findRunning(WINDOW_START)).singleElement().satisfies(run -> {
+            assertThat(run.nodeId()).isEqualTo("node-b");
+            assertThat(run.isSettled(1)).isFalse();
+        });
+    }
+}
@@ -0,0 +1,298 @@
+package com.vertyll.freshly.airquality.infrastructure.persistence.mongo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties;
+import com.vertyll.freshly.airquality.config.AirQualityStorageProperties.StorageMode;
+import com.vertyll.freshly.airquality.domain.AirQualityMeasurement;
+import com.vertyll.freshly.airquality.domain.AirQualityStatistics;
+import com.vertyll.freshly.airquality.domain.SyncLease;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TimeSeriesMeasurementMigrationTest extends MongoContainerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final int STATIONS = 3;
+    private static final int HOURS = 1000;
+
+    private MongoTemplate mongoTemplate;
+    private MongoSyncLockRepository lockRepository;
+    private MeasurementStorage storage;
+    private TimeSeriesMeasurementMigration migration;
+    private MongoAirQualityHistoryRepository historyRepository;
+
+    @BeforeEach
+    @SuppressWarnings("NullAway.Init")
+    void setUp() {
+        mongoTemplate = newMongoTemplate();
+        mongoTemplate.dropCollection(MeasurementStorage.COLLECTION_STANDARD);
+        mongoTemplate.dropCollection(MeasurementStorage.COLLECTION_TIME_SERIES);
+        mongoTemplate.dropCollection(AirQualityDailyRollupDocument.class);
+        mongoTemplate.dropCollection(MeasurementLocationBackfill.COLLECTION_MIGRATIONS);
+        mongoTemplate.dropCollection(SyncLockDocument.class);
+        new AirQualityMongoIndexInitializer(mongoTemplate).createIndexes();
+
+        lockRepository = new MongoSyncLockRepository(mongoTemplate);
+        storage = new MeasurementStorage(
+            mongoTemplate,
+            new AirQualityStorageProperties(StorageMode.TIME_SERIES),
+            lockRepository
+        );
+        migration = new TimeSeriesMeasurementMigration(
+            mongoTemplate,
+            storage,
+            lockRepository,
+            new ThreadPoolTaskScheduler()
+        );
+        historyRepository = new MongoAirQualityHistoryRepository(
+            new AirQualityMeasurementMapper(),
+            mongoTemplate,
+            new MeasurementRollups(mongoTemplate, storage),
+            storage
+        );
+    }
+
+    private static List<AirQualityMeasurement> hourlyMeasurements(int stationId, LocalDateTime from, int hours) {
+        List<AirQualityMeasurement> measurements = new ArrayList<>();
+        for (int hour = 0; hour < hours; hour++) {
+            AirQualityMeasurement measurement = new AirQualityMeasurement();
+            measurement.setStationId(stationId);
+            measurement.setStationName("Station " + stationId);
+            measurement.setMeasurementDate(from.plusHours(hour));
+            measurement.setCreatedAt(from.plusHours(hour));
+            measurement.setPm10Value(10.0 + hour % 24);
+            measurements.add(measurement);
+        }
+        return measurements;
+    }
+
+    private void storeStandardMeasurements() {
+        for (int stationId = 1; stationId <= STATIONS; stationId++) {
+            historyRepository.upsertAll(hourlyMeasurements(stationId, FROM, HOURS));
+        }
+    }
+
+    private void completeLocationBackfill() {
+        mongoTemplate.save(
+            new org.bson.Document("_id", MeasurementLocationBackfill.MIGRATION_ID),
+            MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+        );
+    }
+
+    private long timeSeriesCount() {
+        return mongoTemplate.count(new Query(), MeasurementStorage.COLLECTION_TIME_SERIES);
+    }
+
+    private void passCatchUpDelay() {
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(TimeSeriesMeasurementMigration.MIGRATION_ID)),
+            Update.update("completedAt", Instant.now().minus(10, ChronoUnit.MINUTES)),
+            MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+        );
+    }
+
+    @Test
+    @DisplayName("Should wait for the location backfill and keep using the standard collection")
+    void shouldWaitForLocationBackfill() {
+        // Given
+        storeStandardMeasurements();
+
+        // When & Then
+        assertThat(migration.migrate()).isFalse();
+        assertThat(storage.isTimeSeries()).isFalse();
+        assertThat(mongoTemplate.collectionExists(MeasurementStorage.COLLECTION_TIME_SERIES)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should copy every measurement in batches and switch reads and writes over")
+    void shouldCopyAndSwitch() {
+        // Given
+        storeStandardMeasurements();
+        completeLocationBackfill();
+        AirQualityStatistics before = historyRepository.calculateStatistics(1, FROM, FROM.plusDays(10)).orElseThrow();
+
+        // When
+        migration.migrate();
+
+        // Then
+        assertThat(storage.isTimeSeries()).isTrue();
+        assertThat(timeSeriesCount()).isEqualTo((long) STATIONS * HOURS);
+        assertThat(historyRepository.calculateStatistics(1, FROM, FROM.plusDays(10)).orElseThrow())
+            .isEqualTo(before);
+        assertThat(historyRepository.findLatestByStationId(1))
+            .get()
+            .extracting(AirQualityMeasurement::getMeasurementDate)
+            .isEqualTo(FROM.plusHours(HOURS - 1));
+
+        // When - a sync rewrites the last measurements and adds a new one
+        historyRepository.upsertAll(hourlyMeasurements(1, FROM.plusHours(HOURS - 10), 11));
+
+        // Then
+        assertThat(timeSeriesCount()).isEqualTo((long) STATIONS * HOURS + 1);
+        LocalDateTime end = FROM.plusHours(HOURS);
+        assertThat(historyRepository.findByStationIdAndDateRange(1, end.minusHours(2), end.plusHours(1)))
+            .extracting(AirQualityMeasurement::getMeasurementDate)
+            .containsExactly(end.minusHours(1), end);
+        assertThat(historyRepository.supportsTransactions()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep concurrent syncs from duplicating time-series measurements and apply revisions")
+    void shouldSerializeTimeSeriesWrites() throws Exception {
+        // Given
+        storeStandardMeasurements();
+        completeLocationBackfill();
+        migration.migrate();
+        List<AirQualityMeasurement> revised = hourlyMeasurements(1, FROM.plusHours(HOURS - 5), 10);
+        revised.forEach(measurement -> measurement.setPm10Value(99.0));
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                writes.add(executor.submit(() -> historyRepository.upsertAll(revised)));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        }
+
+        // Then
+        LocalDateTime end = FROM.plusHours(HOURS);
+        assertThat(timeSeriesCount()).isEqualTo((long) STATIONS * HOURS + 5);
+        assertThat(historyRepository.findByStationIdAndDateRange(1, end.minusHours(6), end.plusHours(5)))
+            .hasSize(10)
+            .extracting(AirQualityMeasurement::getPm10Value)
+            .containsOnly(99.0);
+    }
+
+    @Test
+    @DisplayName("Should resume an interrupted copy without duplicating measurements")
+    void shouldResumeWithoutDuplicates() {
+        // Given
+        storeStandardMeasurements();
+        completeLocationBackfill();
+        migration.migrate();
+        Query progress = Query.query(Criteria.where("_id").is(TimeSeriesMeasurementMigration.MIGRATION_ID));
+        mongoTemplate.updateFirst(
+            progress,
+            new Update().unset("completedAt").unset("lastCopiedId"),
+            MeasurementLocationBackfill.COLLECTION_MIGRATIONS
+        );
+
+        // When
+        migration.migrate();
+
+        // Then
+        assertThat(timeSeriesCount()).isEqualTo((long) STATIONS * HOURS);
+    }
+
+    @Test
+    @DisplayName("Should copy measurements written or revised in the standard collection during the switch")
+    void shouldCatchUpAfterSwitch() {
+        // Given
+        storeStandardMeasurements();
+        completeLocationBackfill();
+        assertThat(migration.migrate()).isFalse();
+        // A node that has not noticed the switch yet revises a copied measurement in place
+        MeasurementStorage standard = new MeasurementStorage(
+            mongoTemplate,
+            new AirQualityStorageProperties(StorageMode.STANDARD),
+            lockRepository
+        );
+        List<AirQualityMeasurement> revised = hourlyMeasurements(1, FROM, 1);
+        revised.getFirst().setPm10Value(99.0);
+        new MongoAirQualityHistoryRepository(
+            new AirQualityMeasurementMapper(),
+            mongoTemplate,
+            new MeasurementRollups(mongoTemplate, standard),
+            standard
+        ).upsertAll(revised);
+        AirQualityMeasurementDocument late = new AirQualityMeasurementDocument();
+        // Below every copied _id, as one from a client with a clock behind gets
+        late.setId(new ObjectId(Date.from(Instant.now().minus(1, ChronoUnit.DAYS))).toHexString());
+        late.setStationId(STATIONS + 1);
+        late.setMeasurementDate(FROM);
+        late.setUpdatedAt(Instant.now());
+        mongoTemplate.insert(late, MeasurementStorage.COLLECTION_STANDARD);
+
+        // When - before and after the catch-up delay
+        boolean early = migration.migrate();
+        passCatchUpDelay();
+        boolean caughtUp = migration.migrate();
+
+        // Then
+        assertThat(early).isFalse();
+        assertThat(caughtUp).isTrue();
+        assertThat(timeSeriesCount()).isEqualTo((long) STATIONS * HOURS + 1);
+        assertThat(historyRepository.findByStationIdAndDateRange(1, FROM.minusHours(1), FROM.plusHours(1)))
+            .singleElement()
+            .extracting(AirQualityMeasurement::getPm10Value)
+            .isEqualTo(99.0);
+        assertThat(migration.migrate()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should leave the copy to the node holding the migration lock")
+    void shouldSkipCopyWhileLocked() {
+        // Given
+        storeStandardMeasurements();
+        completeLocationBackfill();
+        SyncLease other = lockRepository.tryAcquire(
+            TimeSeriesMeasurementMigration.MIGRATION_LOCK_NAME,
+            "other-node",
+            Duration.ofMinutes(5)
+        ).orElseThrow();
+
+        // When
+        boolean skipped = migration.migrate();
+        lockRepository.release(other);
+        migration.migrate();
+
+        // Then
+        assertThat(skipped).isFalse();
+        assertThat(timeSeriesCount()).isEqualTo((long) STATIONS * HOURS);
+        assertThat(storage.isTimeSeries()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should hold off the final pass while a sync holds the sync lease")
+    void shouldCatchUpOutsideSync() {
+        // Given
+        storeStandardMeasurements();
+        completeLocationBackfill();
+        migration.migrate();
+        passCatchUpDelay();
+        SyncLease sync = lockRepository.tryAcquire(SyncLease.SYNC_LOCK_NAME, "sync-node", Duration.ofMinutes(5))
+            .orElseThrow();
+
+        // When
+        boolean duringSync = migration.migrate();
+        lockRepository.release(sync);
+        boolean afterSync = migration.migrate();
+
+        // Then
+        assertThat(duringSync).isFalse();
+        assertThat(afterSync).isTrue();
+    }
+}
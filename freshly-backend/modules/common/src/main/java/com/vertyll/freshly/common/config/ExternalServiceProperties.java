@@ -1,11 +1,135 @@
 package com.vertyll.freshly.common.config;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
 
 @ConfigurationProperties(prefix = "external-service")
 @Validated
 public record ExternalServiceProperties(Gios gios) {
-    public record Gios(String apiUrl) {
+    /**
+     * @param http
+     *     Connection pool and timeouts of the HTTP client used for GIOŚ
+     * @param limiter
+     *     Client-side throttling of GIOŚ calls, shared by the sync and the live endpoints
+     * @param circuitBreaker
+     *     Stops calling GIOŚ for a while once too many calls fail or are slow
+     * @param hedging
+     *     Duplicates sensor data calls that take longer than most, to cut tail latency
+     */
+    public record Gios(
+            String apiUrl,
+            @DefaultValue Http http,
+            @DefaultValue Limiter limiter,
+            @DefaultValue CircuitBreaker circuitBreaker,
+            @DefaultValue Hedging hedging
+    ) {
+    }
+
+    /**
+     * @param connectTimeout
+     *     Time allowed to open a TCP connection and finish the TLS handshake
+     * @param responseTimeout
+     *     Maximum time to wait for response data once the request is sent; a hung upstream fails after this
+     * @param connectionRequestTimeout
+     *     Maximum time to wait for a free pooled connection
+     * @param maxConnections
+     *     Total size of the connection pool
+     * @param maxConnectionsPerRoute
+     *     Connections kept per host; GIOŚ is a single route, so this is the effective pool size
+     * @param keepAlive
+     *     Upper bound on how long an idle connection is reused, even if the server allows longer
+     * @param idleEviction
+     *     Idle connections older than this are closed by a background evictor
+     * @param http2
+     *     Use the JDK HTTP/2 client instead of the pooled HTTP/1.1 client; pool settings then do not apply
+     */
+    public record Http(
+            @DefaultValue("5s") Duration connectTimeout,
+            @DefaultValue("30s") Duration responseTimeout,
+            @DefaultValue("10s") Duration connectionRequestTimeout,
+            @DefaultValue("32") int maxConnections,
+            @DefaultValue("16") int maxConnectionsPerRoute,
+            @DefaultValue("30s") Duration keepAlive,
+            @DefaultValue("60s") Duration idleEviction,
+            @DefaultValue("false") boolean http2
+    ) {
+    }
+
+    /**
+     * @param requestsPerSecond
+     *     Sustained request rate allowed by the token bucket
+     * @param burst
+     *     Bucket capacity, i.e. how many requests may start back to back after an idle period
+     * @param initialConcurrency
+     *     Starting size of the adaptive in-flight window
+     * @param minConcurrency
+     *     Floor the window never shrinks below
+     * @param maxConcurrency
+     *     Ceiling the window never grows above
+     * @param latencyThreshold
+     *     Responses slower than this count as congestion and shrink the window
+     */
+    public record Limiter(
+            @DefaultValue("10") double requestsPerSecond,
+            @DefaultValue("10") int burst,
+            @DefaultValue("8") int initialConcurrency,
+            @DefaultValue("1") int minConcurrency,
+            @DefaultValue("16") int maxConcurrency,
+            @DefaultValue("2s") Duration latencyThreshold
+    ) {
+    }
+
+    /**
+     * @param failureRateThreshold
+     *     Percentage of failed calls in the window that opens the circuit
+     * @param slowCallRateThreshold
+     *     Percentage of slow calls in the window that opens the circuit
+     * @param slowCallThreshold
+     *     Calls taking longer than this count as slow, even when they succeed
+     * @param windowSize
+     *     Number of most recent calls the rates are computed over
+     * @param minimumCalls
+     *     Calls the window must hold before the rates are checked
+     * @param openDuration
+     *     How long the circuit stays open before probe calls are let through
+     * @param halfOpenProbes
+     *     Probe calls that must all succeed in time to close the circuit again
+     */
+    public record CircuitBreaker(
+            @DefaultValue("50") int failureRateThreshold,
+            @DefaultValue("50") int slowCallRateThreshold,
+            @DefaultValue("5s") Duration slowCallThreshold,
+            @DefaultValue("20") int windowSize,
+            @DefaultValue("10") int minimumCalls,
+            @DefaultValue("30s") Duration openDuration,
+            @DefaultValue("3") int halfOpenProbes
+    ) {
+    }
+
+    /**
+     * @param enabled
+     *     Send a duplicate of a sensor data call that is still running after the percentile delay
+     * @param percentile
+     *     Percentile of recent latencies after which a call is hedged
+     * @param windowSize
+     *     Number of most recent latencies the percentile is computed over
+     * @param minimumSamples
+     *     Latencies the window must hold before any call is hedged
+     * @param minDelay
+     *     Calls are never hedged sooner than this, however fast GIOŚ usually is
+     * @param budgetPercent
+     *     Hedges allowed as a percentage of calls, which bounds the extra load on GIOŚ
+     */
+    public record Hedging(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("95") double percentile,
+            @DefaultValue("200") int windowSize,
+            @DefaultValue("20") int minimumSamples,
+            @DefaultValue("50ms") Duration minDelay,
+            @DefaultValue("10") int budgetPercent
+    ) {
     }
 }
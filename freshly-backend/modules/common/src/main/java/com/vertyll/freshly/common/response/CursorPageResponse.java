@@ -0,0 +1,24 @@
+package com.vertyll.freshly.common.response;
+
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Page of a listing paged by cursor instead of page number. There are no page numbers or totals,
+ * only an opaque token to ask for the next page with.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    @Nullable private String nextPageToken;
+    private Boolean last;
+}